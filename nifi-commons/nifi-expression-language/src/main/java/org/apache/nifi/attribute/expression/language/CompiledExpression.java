@@ -22,6 +22,8 @@ import java.util.Set;
 
 import org.antlr.runtime.tree.Tree;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.reduce.ReduceEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.IteratingEvaluator;
 import org.apache.nifi.expression.AttributeValueDecorator;
 
 public class CompiledExpression implements Expression {
@@ -29,12 +31,29 @@ public class CompiledExpression implements Expression {
     private final Tree tree;
     private final String expression;
     private final Set<Evaluator<?>> allEvaluators;
+    private final boolean stateless;
 
     public CompiledExpression(final String expression, final Evaluator<?> rootEvaluator, final Tree tree, final Set<Evaluator<?>> allEvaluators) {
         this.rootEvaluator = rootEvaluator;
         this.tree = tree;
         this.expression = expression;
         this.allEvaluators = allEvaluators;
+        this.stateless = isStateless(allEvaluators);
+    }
+
+    /**
+     * Evaluators that iterate over multiple attributes or reduce multiple values keep track of their progress as they are evaluated,
+     * so an Expression that uses them must build a new tree of Evaluators for each evaluation. All other Evaluators hold only
+     * immutable state and may be evaluated any number of times, concurrently.
+     */
+    private static boolean isStateless(final Set<Evaluator<?>> evaluators) {
+        for (final Evaluator<?> evaluator : evaluators) {
+            if (evaluator instanceof IteratingEvaluator || evaluator instanceof ReduceEvaluator) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     public Evaluator<?> getRootEvaluator() {
@@ -55,6 +74,11 @@ public class CompiledExpression implements Expression {
 
     @Override
     public String evaluate(final Map<String, String> variables, final AttributeValueDecorator decorator, final Map<String, String> stateVariables) {
-        return Query.evaluateExpression(getTree(), expression, variables, decorator, stateVariables);
+        if (!stateless) {
+            return Query.evaluateExpression(getTree(), expression, variables, decorator, stateVariables);
+        }
+
+        final Map<String, String> lookup = stateVariables == null ? variables : new AttributesAndState(variables, stateVariables);
+        return Query.formatResult(rootEvaluator.evaluate(lookup).getValue(), decorator);
     }
 }
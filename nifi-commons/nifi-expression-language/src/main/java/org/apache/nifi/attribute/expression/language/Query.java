@@ -201,6 +201,10 @@ public class Query {
     static String evaluateExpression(final Tree tree, final String queryText, final Map<String, String> valueMap, final AttributeValueDecorator decorator,
                                      final Map<String, String> stateVariables) throws ProcessException {
         final Object evaluated = Query.fromTree(tree, queryText).evaluate(valueMap, stateVariables).getValue();
+        return formatResult(evaluated, decorator);
+    }
+
+    static String formatResult(final Object evaluated, final AttributeValueDecorator decorator) {
         if (evaluated == null) {
             return null;
         }
@@ -111,6 +111,7 @@ import static org.apache.nifi.attribute.expression.language.antlr.AttributeExpre
 
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -416,7 +417,76 @@ public class ExpressionCompiler {
         for (int i = 1; i < functionTree.getChildCount(); i++) {
             argEvaluators.add(buildEvaluator(functionTree.getChild(i)));
         }
-        return buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators);
+        final Evaluator<?> functionEvaluator = buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators);
+
+        switch (functionNameTree.getType()) {
+            case RANDOM:
+            case MATH:
+            case JOIN:
+            case COUNT:
+                // these do not always produce the same result for the same arguments, or they reduce multiple values
+                return functionEvaluator;
+        }
+
+        final List<Evaluator<?>> operands = new ArrayList<>(argEvaluators.size() + 1);
+        operands.add(subjectEvaluator);
+        operands.addAll(argEvaluators);
+        return foldConstant(functionEvaluator, operands);
+    }
+
+    private boolean isLiteral(final Evaluator<?> evaluator) {
+        return evaluator instanceof StringLiteralEvaluator || evaluator instanceof WholeNumberLiteralEvaluator
+            || evaluator instanceof DecimalLiteralEvaluator || evaluator instanceof BooleanLiteralEvaluator;
+    }
+
+    /**
+     * If all of the operands of the given evaluator are literals, evaluates it once and returns a literal evaluator for the result,
+     * so that expressions such as <code>${literal('abc'):toUpper()}</code> or <code>${literal(60):multiply(1000)}</code> are not
+     * recomputed every time that they are evaluated. The evaluator is returned unchanged if any operand is not a literal, if evaluating
+     * it fails (so that the failure is reported when the expression is evaluated), or if its result is null or is not of a type that
+     * has a literal form.
+     *
+     * @param evaluator the evaluator to fold
+     * @param operands the evaluators whose results the evaluator operates on
+     * @return a literal evaluator for the result of the given evaluator, or the given evaluator if it cannot be folded
+     */
+    private Evaluator<?> foldConstant(final Evaluator<?> evaluator, final List<Evaluator<?>> operands) {
+        for (final Evaluator<?> operand : operands) {
+            if (!isLiteral(operand)) {
+                return evaluator;
+            }
+        }
+
+        final Object value;
+        try {
+            value = evaluator.evaluate(Collections.emptyMap()).getValue();
+        } catch (final Exception e) {
+            return evaluator;
+        }
+
+        if (value == null) {
+            return evaluator;
+        }
+
+        switch (evaluator.getResultType()) {
+            case STRING:
+                return addToken(StringLiteralEvaluator.forUnescapedValue((String) value), evaluator.getToken());
+            case BOOLEAN:
+                return addToken(new BooleanLiteralEvaluator((Boolean) value), evaluator.getToken());
+            case WHOLE_NUMBER:
+                return addToken(new WholeNumberLiteralEvaluator((Long) value), evaluator.getToken());
+            case DECIMAL:
+                return addToken(new DecimalLiteralEvaluator((Double) value), evaluator.getToken());
+            case NUMBER:
+                if (value instanceof Long) {
+                    return addToken(new WholeNumberLiteralEvaluator((Long) value), evaluator.getToken());
+                } else if (value instanceof Double) {
+                    return addToken(new DecimalLiteralEvaluator((Double) value), evaluator.getToken());
+                }
+                return evaluator;
+            default:
+                return evaluator;
+        }
     }
 
     private List<Evaluator<?>> verifyArgCount(final List<Evaluator<?>> args, final int count, final String functionName) {
@@ -1000,7 +1070,7 @@ public class ExpressionCompiler {
             }
             case TO_LITERAL: {
                 final Evaluator<?> argEvaluator = buildEvaluator(tree.getChild(0));
-                return addToken(new ToLiteralEvaluator(argEvaluator), "toLiteral");
+                return foldConstant(addToken(new ToLiteralEvaluator(argEvaluator), "toLiteral"), Collections.singletonList(argEvaluator));
             }
             case IP: {
                 try {
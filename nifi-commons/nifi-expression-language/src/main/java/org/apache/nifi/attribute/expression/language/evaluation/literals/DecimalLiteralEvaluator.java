@@ -32,6 +32,10 @@ public class DecimalLiteralEvaluator extends DecimalEvaluator {
         this.literal = Double.parseDouble(value);
     }
 
+    public DecimalLiteralEvaluator(final double value) {
+        this.literal = value;
+    }
+
     @Override
     public QueryResult<Double> evaluate(final Map<String, String> attributes) {
         return new DecimalQueryResult(literal);
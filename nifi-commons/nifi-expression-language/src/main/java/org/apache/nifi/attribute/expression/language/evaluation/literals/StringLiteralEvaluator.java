@@ -28,6 +28,24 @@ public class StringLiteralEvaluator extends StringEvaluator {
     private final String value;
 
     public StringLiteralEvaluator(final String value) {
+        this(value, true);
+    }
+
+    private StringLiteralEvaluator(final String value, final boolean escaped) {
+        this.value = escaped ? unescape(value) : value;
+    }
+
+    /**
+     * Creates an evaluator for the given value, which has already had any escape sequences that it contained replaced
+     *
+     * @param value the value
+     * @return an evaluator that always returns the given value
+     */
+    public static StringLiteralEvaluator forUnescapedValue(final String value) {
+        return new StringLiteralEvaluator(value, false);
+    }
+
+    private static String unescape(final String value) {
         // need to escape characters after backslashes
         final StringBuilder sb = new StringBuilder();
         boolean lastCharIsBackslash = false;
@@ -61,7 +79,7 @@ public class StringLiteralEvaluator extends StringEvaluator {
             }
         }
 
-        this.value = sb.toString();
+        return sb.toString();
     }
 
     @Override
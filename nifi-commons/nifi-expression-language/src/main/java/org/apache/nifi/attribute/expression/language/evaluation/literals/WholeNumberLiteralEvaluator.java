@@ -31,6 +31,10 @@ public class WholeNumberLiteralEvaluator extends WholeNumberEvaluator {
         this.literal = Long.parseLong(value);
     }
 
+    public WholeNumberLiteralEvaluator(final long value) {
+        this.literal = value;
+    }
+
     @Override
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         return new WholeNumberQueryResult(literal);
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.attribute.expression.language;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of evaluating a prepared query against a set of attributes, for expressions of the sort that are typically
+ * used in RouteOnAttribute, UpdateAttribute and Expression Language-enabled properties. This is not run as part of the build;
+ * run the main method from an IDE, or with the test classpath, to execute it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionLanguageBenchmark {
+
+    @Param({
+        "${filename}",
+        "${path}/${filename}",
+        "${filename:endsWith('.csv')}",
+        "${fileSize:gt(1024):and(${mime.type:equals('text/csv')})}",
+        "${filename:substringBeforeLast('.'):toUpper():append('.processed')}",
+        "${literal(60):multiply(1000):plus(${fileSize})}",
+        "${allAttributes('filename', 'path'):join('/')}"
+    })
+    private String expression;
+
+    private Map<String, String> attributes;
+    private PreparedQuery preparedQuery;
+
+    @Setup
+    public void setup() {
+        attributes = new HashMap<>();
+        attributes.put("filename", "data-2018-05-01.csv");
+        attributes.put("path", "./incoming/sales");
+        attributes.put("fileSize", "48213");
+        attributes.put("mime.type", "text/csv");
+        attributes.put("uuid", "f5d1e8b0-53bc-4a4e-bf89-1d9b8b4bbf35");
+
+        preparedQuery = Query.prepare(expression);
+    }
+
+    @Benchmark
+    public String evaluatePreparedQuery() {
+        return preparedQuery.evaluateExpressions(attributes, null);
+    }
+
+    @Benchmark
+    public String prepareAndEvaluate() {
+        return Query.prepare(expression).evaluateExpressions(attributes, null);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(ExpressionLanguageBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
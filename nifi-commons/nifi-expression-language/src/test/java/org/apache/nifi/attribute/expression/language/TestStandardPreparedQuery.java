@@ -18,14 +18,22 @@ package org.apache.nifi.attribute.expression.language;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.nifi.attribute.expression.language.compile.ExpressionCompiler;
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.BooleanLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.DecimalLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.WholeNumberLiteralEvaluator;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -125,6 +133,44 @@ public class TestStandardPreparedQuery {
         assertTrue(Query.prepare("${anyMatchingAttribute('a.*'):equals('hello')}").getVariableImpact().isImpacted("attr"));
     }
 
+    @Test
+    public void testPreparedQueryEvaluatedRepeatedly() {
+        final StandardPreparedQuery prepared = (StandardPreparedQuery) Query.prepare("${xx:toUpper()}-${allAttributes('xx', 'yy'):join(',')}-${anyAttribute('xx', 'yy'):equals('b')}");
+
+        for (int i = 0; i < 3; i++) {
+            final Map<String, String> attrs = new HashMap<>();
+            attrs.put("xx", "a" + i);
+            attrs.put("yy", "b");
+            assertEquals("A" + i + "-a" + i + ",b-true", prepared.evaluateExpressions(attrs, null));
+        }
+    }
+
+    @Test
+    public void testConstantFolding() {
+        assertFolded("${literal('abc'):toUpper():append('\\n')}", StringLiteralEvaluator.class, "ABC\n");
+        assertFolded("${literal(60):multiply(1000)}", WholeNumberLiteralEvaluator.class, 60000L);
+        assertFolded("${literal('hello'):startsWith('he'):and(true)}", BooleanLiteralEvaluator.class, true);
+        assertFolded("${xx:equals(${literal('abc'):toUpper()})}", null, null);
+
+        assertEquals("true", evaluate("${xx:equals(${literal('abc'):toUpper()})}", Collections.singletonMap("xx", "ABC")));
+        assertEquals("ABC", evaluate("${literal('abc'):toUpper()}", Collections.emptyMap()));
+
+        // math() may call a method that returns a different value each time, so it is never folded
+        assertFolded("${literal(4):math('sqrt')}", null, null);
+    }
+
+    private void assertFolded(final String expression, final Class<?> expectedClass, final Object expectedValue) {
+        final Evaluator<?> evaluator = new ExpressionCompiler().compile(expression).getRootEvaluator();
+        if (expectedClass == null) {
+            assertFalse(evaluator instanceof StringLiteralEvaluator || evaluator instanceof WholeNumberLiteralEvaluator || evaluator instanceof DecimalLiteralEvaluator
+                || evaluator instanceof BooleanLiteralEvaluator);
+            return;
+        }
+
+        assertSame(expectedClass, evaluator.getClass());
+        assertEquals(expectedValue, evaluator.evaluate(Collections.emptyMap()).getValue());
+    }
+
     private String evaluate(final String query, final Map<String, String> attrs) {
         final String evaluated = ((StandardPreparedQuery) Query.prepare(query)).evaluateExpressions(attrs, null);
         return evaluated;
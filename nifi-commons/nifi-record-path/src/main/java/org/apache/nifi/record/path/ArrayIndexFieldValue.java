@@ -51,6 +51,7 @@ public class ArrayIndexFieldValue extends StandardFieldValue {
     @Override
     public void updateValue(final Object newValue) {
         getParentRecord().get().setArrayValue(getField().getFieldName(), getArrayIndex(), newValue);
+        invalidateSerializedForms();
     }
 
     @Override
@@ -51,4 +51,21 @@ public interface FieldValue {
      * @param newValue the new value to set on the record field
      */
     void updateValue(Object newValue);
+
+    /**
+     * Removes the SerializedForm of each Record that this field is nested within, as a Record cannot detect a change to a value
+     * that is nested within one of its own values. This is done by {@link #updateValue(Object)}, so it needs to be called only
+     * if the value is changed in some other way, such as by setting the fields of a Record value directly.
+     */
+    default void invalidateSerializedForms() {
+        Optional<FieldValue> ancestor = getParent();
+        while (ancestor.isPresent()) {
+            final Object ancestorValue = ancestor.get().getValue();
+            if (ancestorValue instanceof Record) {
+                ((Record) ancestorValue).invalidateSerializedForm();
+            }
+
+            ancestor = ancestor.get().getParent();
+        }
+    }
 }
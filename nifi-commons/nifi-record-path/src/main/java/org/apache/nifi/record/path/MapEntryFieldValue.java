@@ -36,6 +36,7 @@ public class MapEntryFieldValue extends StandardFieldValue {
     @Override
     public void updateValue(final Object newValue) {
         getParentRecord().get().setMapValue(getField().getFieldName(), getMapKey(), newValue);
+        invalidateSerializedForms();
     }
 
     @Override
@@ -75,6 +75,21 @@ public interface RecordPath {
      * @throws RecordPathException if the given text is not a valid RecordPath
      */
     public static RecordPath compile(final String path) throws RecordPathException {
+        return compile(path, false);
+    }
+
+    /**
+     * Compiles a RecordPath from the given text. If <code>optimize</code> is <code>true</code>, any part of the RecordPath that consists
+     * only of child field references, single array indices, single map keys and predicates is evaluated directly against each field,
+     * rather than by creating a Stream for each segment of the path. This is considerably cheaper for simple paths such as
+     * <code>/address/city</code> and produces the same results.
+     *
+     * @param path the textual representation of the RecordPath
+     * @param optimize whether or not to optimize the RecordPath for evaluation
+     * @return the compiled RecordPath
+     * @throws RecordPathException if the given text is not a valid RecordPath
+     */
+    public static RecordPath compile(final String path, final boolean optimize) throws RecordPathException {
         try {
             final CharStream input = new ANTLRStringStream(path);
             final RecordPathLexer lexer = new RecordPathLexer(input);
@@ -98,7 +113,7 @@ public interface RecordPath {
                 absolute = false;
             }
 
-            return RecordPathCompiler.compile(firstChild, rootPath, absolute);
+            return RecordPathCompiler.compile(firstChild, rootPath, absolute, optimize);
         } catch (final RecordPathException e) {
             throw e;
         } catch (final Exception e) {
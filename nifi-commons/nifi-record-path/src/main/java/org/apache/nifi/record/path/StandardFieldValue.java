@@ -121,6 +121,7 @@ public class StandardFieldValue implements FieldValue {
         if (!parentRecord.isPresent()) {
             if (value instanceof Record) {
                 ((Record) value).setValue(getField().getFieldName(), newValue);
+                invalidateSerializedForms();
                 return;
             } else if (value == null) {
                 return; // value is null, nothing to update
@@ -130,5 +131,6 @@ public class StandardFieldValue implements FieldValue {
         }
 
         parentRecord.get().setValue(getField().getFieldName(), newValue);
+        invalidateSerializedForms();
     }
 }
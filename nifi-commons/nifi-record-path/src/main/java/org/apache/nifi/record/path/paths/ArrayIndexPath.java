@@ -17,6 +17,8 @@
 
 package org.apache.nifi.record.path.paths;
 
+import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.apache.nifi.record.path.ArrayIndexFieldValue;
@@ -29,6 +31,8 @@ import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.type.ArrayDataType;
 
 public class ArrayIndexPath extends RecordPathSegment {
+    private static final Predicate<FieldValue> IS_ARRAY = Filters.fieldTypeFilter(RecordFieldType.ARRAY);
+
     private final int index;
 
     ArrayIndexPath(final int index, final RecordPathSegment parent, final boolean absolute) {
@@ -41,18 +45,31 @@ public class ArrayIndexPath extends RecordPathSegment {
         final Stream<FieldValue> parentResult = getParentPath().evaluate(context);
 
         return parentResult
-            .filter(Filters.fieldTypeFilter(RecordFieldType.ARRAY))
-            .filter(fieldValue -> fieldValue.getValue() != null && ((Object[]) fieldValue.getValue()).length > getArrayIndex(((Object[]) fieldValue.getValue()).length))
-            .map(fieldValue -> {
-                final ArrayDataType arrayDataType = (ArrayDataType) fieldValue.getField().getDataType();
-                final DataType elementDataType = arrayDataType.getElementType();
-                final RecordField arrayField = new RecordField(fieldValue.getField().getFieldName(), elementDataType);
-                final Object[] values = (Object[]) fieldValue.getValue();
-                final int arrayIndex = getArrayIndex(values.length);
-                final RecordField elementField = new RecordField(arrayField.getFieldName(), elementDataType);
-                final FieldValue result = new ArrayIndexFieldValue(values[arrayIndex], elementField, fieldValue, arrayIndex);
-                return result;
-            });
+            .map(this::getElement)
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Returns the element of the given array that this path selects
+     *
+     * @param fieldValue the array
+     * @return the selected element, or <code>null</code> if the given field value is not an array or does not have an element at this path's index
+     */
+    FieldValue getElement(final FieldValue fieldValue) {
+        if (!IS_ARRAY.test(fieldValue)) {
+            return null;
+        }
+
+        final Object[] values = (Object[]) fieldValue.getValue();
+        if (values == null || values.length <= getArrayIndex(values.length)) {
+            return null;
+        }
+
+        final ArrayDataType arrayDataType = (ArrayDataType) fieldValue.getField().getDataType();
+        final DataType elementDataType = arrayDataType.getElementType();
+        final int arrayIndex = getArrayIndex(values.length);
+        final RecordField elementField = new RecordField(fieldValue.getField().getFieldName(), elementDataType);
+        return new ArrayIndexFieldValue(values[arrayIndex], elementField, fieldValue, arrayIndex);
     }
 
     private int getArrayIndex(final int arrayLength) {
@@ -41,7 +41,7 @@ public class ChildFieldPath extends RecordPathSegment {
         return new StandardFieldValue(null, field, parent);
     }
 
-    private FieldValue getChild(final FieldValue fieldValue) {
+    FieldValue getChild(final FieldValue fieldValue) {
         if (!Filters.isRecord(fieldValue)) {
             return missingChild(fieldValue);
         }
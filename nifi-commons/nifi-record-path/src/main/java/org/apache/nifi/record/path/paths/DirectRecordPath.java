@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.record.path.paths;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.nifi.record.path.FieldValue;
+import org.apache.nifi.record.path.RecordPathEvaluationContext;
+import org.apache.nifi.record.path.StandardFieldValue;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+
+/**
+ * <p>
+ * A RecordPath that is made up only of child field references, single array indices, single map keys and predicates, such as
+ * <code>/name</code>, <code>/address/city</code>, <code>/accounts[0]/balance</code>, <code>/attributes['key']</code> or
+ * <code>/accounts[./balance &gt; 100]/id</code>. Each of these segments selects at most one field from each field that it
+ * is given, so rather than building a Stream pipeline for each segment, this path walks the segments in a simple loop and
+ * creates a Stream only for the final result.
+ * </p>
+ *
+ * <p>
+ * The FieldValues that are returned are the same as those returned by the segments that this path replaces, so that updating
+ * them has the same effect. If the path is relative and there is no context node, evaluation is delegated to those segments.
+ * </p>
+ */
+public class DirectRecordPath extends RecordPathSegment {
+    private final RecordPathSegment delegate;
+    private final boolean startAtRoot;
+    private final Step[] steps;
+
+    private DirectRecordPath(final RecordPathSegment delegate, final boolean startAtRoot, final List<Step> steps) {
+        super(delegate.getPath(), delegate.getParentPath(), delegate.isAbsolute());
+        this.delegate = delegate;
+        this.startAtRoot = startAtRoot;
+        this.steps = steps.toArray(new Step[steps.size()]);
+    }
+
+    /**
+     * Returns a RecordPathSegment that produces the same results as the given segment, evaluating it directly if it is made up only
+     * of segments that this class supports
+     *
+     * @param segment the last segment of the path
+     * @return a DirectRecordPath for the given segment, or the segment itself if it cannot be evaluated directly
+     */
+    public static RecordPathSegment of(final RecordPathSegment segment) {
+        if (segment == null || segment instanceof DirectRecordPath) {
+            return segment;
+        }
+
+        final List<Step> steps = new ArrayList<>();
+        RecordPathSegment current = segment;
+        while (true) {
+            if (current instanceof ChildFieldPath) {
+                final ChildFieldPath childPath = (ChildFieldPath) current;
+                steps.add((fieldValue, context) -> childPath.getChild(fieldValue));
+            } else if (current instanceof ArrayIndexPath) {
+                final ArrayIndexPath indexPath = (ArrayIndexPath) current;
+                steps.add((fieldValue, context) -> indexPath.getElement(fieldValue));
+            } else if (current instanceof SingularMapKeyPath) {
+                final SingularMapKeyPath mapKeyPath = (SingularMapKeyPath) current;
+                steps.add((fieldValue, context) -> mapKeyPath.getEntry(fieldValue));
+            } else if (current instanceof PredicatePath) {
+                final PredicatePath predicatePath = (PredicatePath) current;
+                steps.add((fieldValue, context) -> predicatePath.test(fieldValue, context) ? fieldValue : null);
+            } else {
+                break;
+            }
+
+            current = current.getParentPath();
+        }
+
+        // A RootPath starts at the Record; a CurrentFieldPath starts at the context node
+        final boolean startAtRoot;
+        if (current instanceof RootPath) {
+            startAtRoot = true;
+        } else if (current instanceof CurrentFieldPath) {
+            startAtRoot = false;
+        } else {
+            return segment;
+        }
+
+        if (steps.isEmpty()) {
+            return segment;
+        }
+
+        Collections.reverse(steps);
+        return new DirectRecordPath(segment, startAtRoot, steps);
+    }
+
+    @Override
+    public Stream<FieldValue> evaluate(final RecordPathEvaluationContext context) {
+        FieldValue fieldValue;
+        if (startAtRoot) {
+            final RecordField field = new RecordField("root", RecordFieldType.RECORD.getRecordDataType(context.getRecord().getSchema()));
+            fieldValue = new StandardFieldValue(context.getRecord(), field, null);
+        } else {
+            fieldValue = context.getContextNode();
+            if (fieldValue == null) {
+                return delegate.evaluate(context);
+            }
+        }
+
+        for (final Step step : steps) {
+            fieldValue = step.apply(fieldValue, context);
+            if (fieldValue == null) {
+                return Stream.empty();
+            }
+        }
+
+        return Stream.of(fieldValue);
+    }
+
+    private interface Step {
+        FieldValue apply(FieldValue fieldValue, RecordPathEvaluationContext context);
+    }
+}
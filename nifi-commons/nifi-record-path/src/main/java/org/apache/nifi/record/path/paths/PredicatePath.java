@@ -56,4 +56,21 @@ public class PredicatePath extends RecordPathSegment {
             }
         });
     }
+
+    /**
+     * Indicates whether or not the given field value satisfies this predicate
+     *
+     * @param fieldValue the field value to test
+     * @param context the evaluation context
+     * @return <code>true</code> if the field value satisfies the predicate, <code>false</code> otherwise
+     */
+    boolean test(final FieldValue fieldValue, final RecordPathEvaluationContext context) {
+        final FieldValue previousContextNode = context.getContextNode();
+        context.setContextNode(fieldValue);
+        try {
+            return filter.filter(context, false).findAny().isPresent();
+        } finally {
+            context.setContextNode(previousContextNode);
+        }
+    }
 }
@@ -82,20 +82,38 @@ import org.apache.nifi.record.path.functions.ToString;
 public class RecordPathCompiler {
 
     public static RecordPathSegment compile(final Tree pathTree, final RecordPathSegment root, final boolean absolute) {
+        return compile(pathTree, root, absolute, false);
+    }
+
+    /**
+     * Compiles the given path tree
+     *
+     * @param pathTree the tree to compile
+     * @param root the segment that the path is relative to, or <code>null</code> if the path is relative to the context node
+     * @param absolute whether or not the path is an absolute path
+     * @param optimize whether or not paths that consist only of child fields, array indices, map keys and predicates should be
+     *            evaluated directly, via a {@link DirectRecordPath}, instead of creating a Stream for each segment
+     * @return the last segment of the compiled path
+     */
+    public static RecordPathSegment compile(final Tree pathTree, final RecordPathSegment root, final boolean absolute, final boolean optimize) {
         if (pathTree.getType() == FUNCTION) {
-            return buildPath(pathTree, null, absolute);
+            return buildPath(pathTree, null, absolute, optimize);
         }
 
         RecordPathSegment parent = root;
         for (int i = 0; i < pathTree.getChildCount(); i++) {
             final Tree child = pathTree.getChild(i);
-            parent = RecordPathCompiler.buildPath(child, parent, absolute);
+            parent = RecordPathCompiler.buildPath(child, parent, absolute, optimize);
         }
 
-        return parent;
+        return optimize ? DirectRecordPath.of(parent) : parent;
     }
 
     public static RecordPathSegment buildPath(final Tree tree, final RecordPathSegment parent, final boolean absolute) {
+        return buildPath(tree, parent, absolute, false);
+    }
+
+    public static RecordPathSegment buildPath(final Tree tree, final RecordPathSegment parent, final boolean absolute, final boolean optimize) {
         switch (tree.getType()) {
             case ROOT_REFERENCE: {
                 return new RootPath();
@@ -188,14 +206,14 @@ public class RecordPathCompiler {
             }
             case PREDICATE: {
                 final Tree operatorTree = tree.getChild(0);
-                final RecordPathFilter filter = createFilter(operatorTree, parent, absolute);
+                final RecordPathFilter filter = createFilter(operatorTree, parent, absolute, optimize);
                 return new PredicatePath(parent, filter, absolute);
             }
             case RELATIVE_PATH: {
-                return compile(tree, parent, absolute);
+                return compile(tree, parent, absolute, optimize);
             }
             case PATH: {
-                return compile(tree, new RootPath(), absolute);
+                return compile(tree, new RootPath(), absolute, optimize);
             }
             case FUNCTION: {
                 final String functionName = tree.getChild(0).getText();
@@ -203,35 +221,35 @@ public class RecordPathCompiler {
 
                 switch (functionName) {
                     case "substring": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 3, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 3, functionName, absolute, optimize);
                         return new Substring(args[0], args[1], args[2], absolute);
                     }
                     case "substringAfter": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new SubstringAfter(args[0], args[1], absolute);
                     }
                     case "substringAfterLast": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new SubstringAfterLast(args[0], args[1], absolute);
                     }
                     case "substringBefore": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new SubstringBefore(args[0], args[1], absolute);
                     }
                     case "substringBeforeLast": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new SubstringBeforeLast(args[0], args[1], absolute);
                     }
                     case "replace": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 3, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 3, functionName, absolute, optimize);
                         return new Replace(args[0], args[1], args[2], absolute);
                     }
                     case "replaceRegex": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 3, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 3, functionName, absolute, optimize);
                         return new ReplaceRegex(args[0], args[1], args[2], absolute);
                     }
                     case "replaceNull": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new ReplaceNull(args[0], args[1], absolute);
                     }
                     case "concat": {
@@ -239,29 +257,29 @@ public class RecordPathCompiler {
 
                         final RecordPathSegment[] argPaths = new RecordPathSegment[numArgs];
                         for (int i = 0; i < numArgs; i++) {
-                            argPaths[i] = buildPath(argumentListTree.getChild(i), null, absolute);
+                            argPaths[i] = buildPath(argumentListTree.getChild(i), null, absolute, optimize);
                         }
 
                         return new Concat(argPaths, absolute);
                     }
                     case "fieldName": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 1, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 1, functionName, absolute, optimize);
                         return new FieldName(args[0], absolute);
                     }
                     case "toDate": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new ToDate(args[0], args[1], absolute);
                     }
                     case "toString": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new ToString(args[0], args[1], absolute);
                     }
                     case "toBytes": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new ToBytes(args[0], args[1], absolute);
                     }
                     case "format": {
-                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                        final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                         return new Format(args[0], args[1], absolute);
                     }
                     default: {
@@ -275,67 +293,67 @@ public class RecordPathCompiler {
         throw new RecordPathException("Encountered unexpected token " + tree);
     }
 
-    private static RecordPathFilter createFilter(final Tree operatorTree, final RecordPathSegment parent, final boolean absolute) {
+    private static RecordPathFilter createFilter(final Tree operatorTree, final RecordPathSegment parent, final boolean absolute, final boolean optimize) {
         switch (operatorTree.getType()) {
             case EQUAL:
-                return createBinaryOperationFilter(operatorTree, parent, EqualsFilter::new, absolute);
+                return createBinaryOperationFilter(operatorTree, parent, EqualsFilter::new, absolute, optimize);
             case NOT_EQUAL:
-                return createBinaryOperationFilter(operatorTree, parent, NotEqualsFilter::new, absolute);
+                return createBinaryOperationFilter(operatorTree, parent, NotEqualsFilter::new, absolute, optimize);
             case LESS_THAN:
-                return createBinaryOperationFilter(operatorTree, parent, LessThanFilter::new, absolute);
+                return createBinaryOperationFilter(operatorTree, parent, LessThanFilter::new, absolute, optimize);
             case LESS_THAN_EQUAL:
-                return createBinaryOperationFilter(operatorTree, parent, LessThanOrEqualFilter::new, absolute);
+                return createBinaryOperationFilter(operatorTree, parent, LessThanOrEqualFilter::new, absolute, optimize);
             case GREATER_THAN:
-                return createBinaryOperationFilter(operatorTree, parent, GreaterThanFilter::new, absolute);
+                return createBinaryOperationFilter(operatorTree, parent, GreaterThanFilter::new, absolute, optimize);
             case GREATER_THAN_EQUAL:
-                return createBinaryOperationFilter(operatorTree, parent, GreaterThanOrEqualFilter::new, absolute);
+                return createBinaryOperationFilter(operatorTree, parent, GreaterThanOrEqualFilter::new, absolute, optimize);
             case FUNCTION:
-                return createFunctionFilter(operatorTree, absolute);
+                return createFunctionFilter(operatorTree, absolute, optimize);
             default:
                 throw new RecordPathException("Expected an Expression of form <value> <operator> <value> to follow '[' Token but found " + operatorTree);
         }
     }
 
     private static RecordPathFilter createBinaryOperationFilter(final Tree operatorTree, final RecordPathSegment parent,
-        final BiFunction<RecordPathSegment, RecordPathSegment, RecordPathFilter> function, final boolean absolute) {
+        final BiFunction<RecordPathSegment, RecordPathSegment, RecordPathFilter> function, final boolean absolute, final boolean optimize) {
         final Tree lhsTree = operatorTree.getChild(0);
         final Tree rhsTree = operatorTree.getChild(1);
-        final RecordPathSegment lhsPath = buildPath(lhsTree, parent, absolute);
-        final RecordPathSegment rhsPath = buildPath(rhsTree, parent, absolute);
+        final RecordPathSegment lhsPath = buildPath(lhsTree, parent, absolute, optimize);
+        final RecordPathSegment rhsPath = buildPath(rhsTree, parent, absolute, optimize);
         return function.apply(lhsPath, rhsPath);
     }
 
-    private static RecordPathFilter createFunctionFilter(final Tree functionTree, final boolean absolute) {
+    private static RecordPathFilter createFunctionFilter(final Tree functionTree, final boolean absolute, final boolean optimize) {
         final String functionName = functionTree.getChild(0).getText();
         final Tree argumentListTree = functionTree.getChild(1);
 
         switch (functionName) {
             case "contains": {
-                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                 return new Contains(args[0], args[1]);
             }
             case "matchesRegex": {
-                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                 return new MatchesRegex(args[0], args[1]);
             }
             case "containsRegex": {
-                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                 return new ContainsRegex(args[0], args[1]);
             }
             case "startsWith": {
-                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                 return new StartsWith(args[0], args[1]);
             }
             case "endsWith": {
-                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute);
+                final RecordPathSegment[] args = getArgPaths(argumentListTree, 2, functionName, absolute, optimize);
                 return new EndsWith(args[0], args[1]);
             }
             case "isEmpty": {
-                final RecordPathSegment[] args = getArgPaths(argumentListTree, 1, functionName, absolute);
+                final RecordPathSegment[] args = getArgPaths(argumentListTree, 1, functionName, absolute, optimize);
                 return new IsEmpty(args[0]);
             }
             case "isBlank": {
-                final RecordPathSegment[] args = getArgPaths(argumentListTree, 1, functionName, absolute);
+                final RecordPathSegment[] args = getArgPaths(argumentListTree, 1, functionName, absolute, optimize);
                 return new IsBlank(args[0]);
             }
             case "not": {
@@ -345,7 +363,7 @@ public class RecordPathCompiler {
                 }
 
                 final Tree childTree = argumentListTree.getChild(0);
-                final RecordPathFilter childFilter = createFilter(childTree, null, absolute);
+                final RecordPathFilter childFilter = createFilter(childTree, null, absolute, optimize);
                 return new NotFilter(childFilter);
             }
         }
@@ -353,7 +371,7 @@ public class RecordPathCompiler {
         throw new RecordPathException("Invalid function name: " + functionName);
     }
 
-    private static RecordPathSegment[] getArgPaths(final Tree argumentListTree, final int expectedCount, final String functionName, final boolean absolute) {
+    private static RecordPathSegment[] getArgPaths(final Tree argumentListTree, final int expectedCount, final String functionName, final boolean absolute, final boolean optimize) {
         final int numArgs = argumentListTree.getChildCount();
         if (numArgs != expectedCount) {
             throw new RecordPathException("Invalid number of arguments: " + functionName + " function takes " + expectedCount + " arguments but got " + numArgs);
@@ -361,13 +379,13 @@ public class RecordPathCompiler {
 
         final RecordPathSegment[] argPaths = new RecordPathSegment[expectedCount];
         for (int i = 0; i < expectedCount; i++) {
-            argPaths[i] = buildPath(argumentListTree.getChild(i), null, absolute);
+            argPaths[i] = buildPath(argumentListTree.getChild(i), null, absolute, optimize);
         }
 
         return argPaths;
     }
 
-    private static RecordPathSegment[] getArgPaths(final Tree argumentListTree, final int minCount, final int maxCount, final String functionName, final boolean absolute) {
+    private static RecordPathSegment[] getArgPaths(final Tree argumentListTree, final int minCount, final int maxCount, final String functionName, final boolean absolute, final boolean optimize) {
         final int numArgs = argumentListTree.getChildCount();
         if (numArgs < minCount || numArgs > maxCount) {
             throw new RecordPathException("Invalid number of arguments: " + functionName + " function takes at least" + minCount
@@ -376,7 +394,7 @@ public class RecordPathCompiler {
 
         final List<RecordPathSegment> argPaths = new ArrayList<>();
         for (int i=0; i < argumentListTree.getChildCount(); i++) {
-            argPaths.add(buildPath(argumentListTree.getChild(i), null, absolute));
+            argPaths.add(buildPath(argumentListTree.getChild(i), null, absolute, optimize));
         }
 
         return argPaths.toArray(new RecordPathSegment[argPaths.size()]);
@@ -18,6 +18,8 @@
 package org.apache.nifi.record.path.paths;
 
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.apache.nifi.record.path.FieldValue;
@@ -30,6 +32,8 @@ import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.type.MapDataType;
 
 public class SingularMapKeyPath extends RecordPathSegment {
+    private static final Predicate<FieldValue> IS_MAP = Filters.fieldTypeFilter(RecordFieldType.MAP);
+
     private final String mapKey;
 
     SingularMapKeyPath(final String mapKey, final RecordPathSegment parent, final boolean absolute) {
@@ -42,12 +46,24 @@ public class SingularMapKeyPath extends RecordPathSegment {
         final Stream<FieldValue> parentResult = getParentPath().evaluate(context);
 
         return parentResult
-            .filter(Filters.fieldTypeFilter(RecordFieldType.MAP))
-            .map(fieldValue -> {
-                final DataType valueType = ((MapDataType) fieldValue.getField().getDataType()).getValueType();
-                final RecordField elementField = new RecordField(fieldValue.getField().getFieldName(), valueType);
-                return new MapEntryFieldValue(getMapValue(fieldValue), elementField, fieldValue, mapKey);
-            });
+            .map(this::getEntry)
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Returns the entry of the given map that this path selects
+     *
+     * @param fieldValue the map
+     * @return the entry for this path's key, or <code>null</code> if the given field value is not a map
+     */
+    FieldValue getEntry(final FieldValue fieldValue) {
+        if (!IS_MAP.test(fieldValue)) {
+            return null;
+        }
+
+        final DataType valueType = ((MapDataType) fieldValue.getField().getDataType()).getValueType();
+        final RecordField elementField = new RecordField(fieldValue.getField().getFieldName(), valueType);
+        return new MapEntryFieldValue(getMapValue(fieldValue), elementField, fieldValue, mapKey);
     }
 
     private Object getMapValue(final FieldValue fieldValue) {
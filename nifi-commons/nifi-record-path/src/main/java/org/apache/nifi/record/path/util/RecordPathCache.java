@@ -24,8 +24,18 @@ import org.apache.nifi.record.path.RecordPath;
 
 public class RecordPathCache {
     private final Map<String, RecordPath> compiledRecordPaths;
+    private final boolean optimize;
 
     public RecordPathCache(final int cacheSize) {
+        this(cacheSize, true);
+    }
+
+    /**
+     * @param cacheSize the maximum number of compiled RecordPaths to hold
+     * @param optimize whether or not RecordPaths should be compiled via {@link RecordPath#compile(String, boolean)} with optimization enabled
+     */
+    public RecordPathCache(final int cacheSize, final boolean optimize) {
+        this.optimize = optimize;
         compiledRecordPaths = new LinkedHashMap<String, RecordPath>() {
             @Override
             protected boolean removeEldestEntry(final Map.Entry<String, RecordPath> eldest) {
@@ -44,7 +54,7 @@ public class RecordPathCache {
             return compiled;
         }
 
-        compiled = RecordPath.compile(path);
+        compiled = RecordPath.compile(path, optimize);
 
         synchronized (this) {
             final RecordPath existing = compiledRecordPaths.putIfAbsent(path, compiled);
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.record.path;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the cost of evaluating common RecordPaths when compiled with and without optimization. This is not run as part of
+ * the build; run the main method from an IDE, or with the test classpath, to execute it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordPathBenchmark {
+
+    @Param({"/name", "/address/city", "/accounts[1]/balance", "/attributes['state']", "/accounts[0][./balance > 100]/id"})
+    private String path;
+
+    private Record record;
+    private RecordPath standardPath;
+    private RecordPath optimizedPath;
+
+    @Setup
+    public void setup() {
+        final List<RecordField> addressFields = new ArrayList<>();
+        addressFields.add(new RecordField("street", RecordFieldType.STRING.getDataType()));
+        addressFields.add(new RecordField("city", RecordFieldType.STRING.getDataType()));
+        final RecordSchema addressSchema = new SimpleRecordSchema(addressFields);
+
+        final List<RecordField> accountFields = new ArrayList<>();
+        accountFields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        accountFields.add(new RecordField("balance", RecordFieldType.DOUBLE.getDataType()));
+        final RecordSchema accountSchema = new SimpleRecordSchema(accountFields);
+        final DataType accountsType = RecordFieldType.ARRAY.getArrayDataType(RecordFieldType.RECORD.getRecordDataType(accountSchema));
+
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("address", RecordFieldType.RECORD.getRecordDataType(addressSchema)));
+        fields.add(new RecordField("accounts", accountsType));
+        fields.add(new RecordField("attributes", RecordFieldType.MAP.getMapDataType(RecordFieldType.STRING.getDataType())));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final Map<String, Object> addressValues = new HashMap<>();
+        addressValues.put("street", "123 My Street");
+        addressValues.put("city", "New York");
+
+        final Object[] accounts = new Object[2];
+        for (int i = 0; i < accounts.length; i++) {
+            final Map<String, Object> accountValues = new HashMap<>();
+            accountValues.put("id", i);
+            accountValues.put("balance", 1000D * i + 50D);
+            accounts[i] = new MapRecord(accountSchema, accountValues);
+        }
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("state", "NY");
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("name", "John Doe");
+        values.put("address", new MapRecord(addressSchema, addressValues));
+        values.put("accounts", accounts);
+        values.put("attributes", attributes);
+        record = new MapRecord(schema, values);
+
+        standardPath = RecordPath.compile(path);
+        optimizedPath = RecordPath.compile(path, true);
+    }
+
+    @Benchmark
+    public Object evaluateStandardPath() {
+        return standardPath.evaluate(record).getSelectedFields().findFirst().orElse(null);
+    }
+
+    @Benchmark
+    public Object evaluateOptimizedPath() {
+        return optimizedPath.evaluate(record).getSelectedFields().findFirst().orElse(null);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(RecordPathBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.nifi.record.path;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.charset.IllegalCharsetNameException;
@@ -41,6 +42,7 @@ import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.SerializedForm;
 import org.apache.nifi.serialization.record.util.DataTypeUtils;
 import org.junit.Test;
 
@@ -1277,6 +1279,95 @@ public class TestRecordPath {
         RecordPath.compile("toBytes(/s, \"NOT A REAL CHARSET\")").evaluate(record).getSelectedFields().findFirst().get().getValue();
     }
 
+    @Test
+    public void testOptimizedPathsMatchStandardPaths() {
+        final Map<String, Object> accountValues1 = new HashMap<>();
+        accountValues1.put("id", 1);
+        accountValues1.put("balance", 123.45D);
+        final Record accountRecord1 = new MapRecord(getAccountSchema(), accountValues1);
+
+        final Map<String, Object> accountValues2 = new HashMap<>();
+        accountValues2.put("id", 2);
+        accountValues2.put("balance", 12.3D);
+        final Record accountRecord2 = new MapRecord(getAccountSchema(), accountValues2);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("city", "New York");
+        attributes.put("state", "NY");
+
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 48);
+        values.put("name", "John Doe");
+        values.put("attributes", attributes);
+        values.put("mainAccount", accountRecord1);
+        values.put("numbers", new Object[] {1, 2, 3});
+        values.put("accounts", new Object[] {accountRecord1, accountRecord2});
+        final Record record = new MapRecord(schema, values);
+
+        final String[] paths = new String[] {"/name", "/missing", "/missing/child", "/name/child", "/mainAccount/balance", "/numbers[1]", "/numbers[-1]",
+            "/numbers[5]", "/name[0]", "/accounts[1]/id", "/attributes['city']", "/attributes['zip']", "/name['city']", "/accounts[0][./balance > 100]/id",
+            "/accounts[1][./balance > 100]/id", "/mainAccount[./id = 1]/balance", "/name[. = 'John Doe']", "/accounts[*]/id", "//id",
+            "/mainAccount/*", "substring(/name, 0, 4)", "/accounts[*][./balance > 100]/id", "/attributes[*]", "concat(/name, /mainAccount/id)"};
+
+        for (final String path : paths) {
+            final List<FieldValue> expected = RecordPath.compile(path).evaluate(record).getSelectedFields().collect(Collectors.toList());
+            final List<FieldValue> actual = RecordPath.compile(path, true).evaluate(record).getSelectedFields().collect(Collectors.toList());
+            assertEquals("Wrong number of results for " + path, expected.size(), actual.size());
+
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals("Wrong result for " + path, expected.get(i), actual.get(i));
+                assertEquals("Wrong parent for " + path, expected.get(i).getParent(), actual.get(i).getParent());
+            }
+        }
+
+        // Relative paths are evaluated against the context node
+        final FieldValue mainAccount = RecordPath.compile("/mainAccount", true).evaluate(record).getSelectedFields().findFirst().get();
+        assertEquals(1, RecordPath.compile("./id", true).evaluate(record, mainAccount).getSelectedFields().findFirst().get().getValue());
+
+        // Updating the results of an optimized path updates the record
+        RecordPath.compile("/accounts[0]/balance", true).evaluate(record).getSelectedFields().forEach(field -> field.updateValue(42D));
+        RecordPath.compile("/attributes['state']", true).evaluate(record).getSelectedFields().forEach(field -> field.updateValue("CA"));
+        assertEquals(42D, accountRecord1.getValue("balance"));
+        assertEquals("CA", attributes.get("state"));
+    }
+
+    @Test
+    public void testUpdatingNestedValueInvalidatesSerializedForms() {
+        final Map<String, Object> accountValues = new HashMap<>();
+        accountValues.put("id", 1);
+        accountValues.put("balance", 123.45D);
+        final Record accountRecord = new MapRecord(getAccountSchema(), accountValues, SerializedForm.of("{}", "application/json"));
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("state", "NY");
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 48);
+        values.put("mainAccount", accountRecord);
+        values.put("accounts", new Object[] {accountRecord});
+        values.put("attributes", attributes);
+
+        for (final String path : new String[] {"/mainAccount/balance", "/accounts[0]/balance", "/accounts[0]", "/attributes['state']", "/id"}) {
+            for (final boolean optimize : new boolean[] {true, false}) {
+                final Record record = new MapRecord(new SimpleRecordSchema(getDefaultFields()), new HashMap<>(values), SerializedForm.of("{}", "application/json"));
+                assertTrue(record.getSerializedForm().isPresent());
+
+                final FieldValue fieldValue = RecordPath.compile(path, optimize).evaluate(record).getSelectedFields().findFirst().get();
+                fieldValue.updateValue(fieldValue.getValue() instanceof Record ? accountRecord : (Object) "1");
+                assertFalse("Serialized form retained after updating " + path, record.getSerializedForm().isPresent());
+            }
+        }
+
+        // Setting a field of a nested Record directly invalidates only that Record, unless the enclosing Records are invalidated explicitly
+        final Record record = new MapRecord(new SimpleRecordSchema(getDefaultFields()), values, SerializedForm.of("{}", "application/json"));
+        final FieldValue mainAccount = RecordPath.compile("/mainAccount").evaluate(record).getSelectedFields().findFirst().get();
+        ((Record) mainAccount.getValue()).setValue("balance", 1D);
+        assertTrue(record.getSerializedForm().isPresent());
+        mainAccount.invalidateSerializedForms();
+        assertFalse(record.getSerializedForm().isPresent());
+    }
+
     private List<RecordField> getDefaultFields() {
         final List<RecordField> fields = new ArrayList<>();
         fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
@@ -19,8 +19,11 @@ package org.apache.nifi.serialization;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.RecordSet;
 
@@ -70,6 +73,40 @@ public interface RecordReader extends Closeable {
      */
     Record nextRecord(boolean coerceTypes, boolean dropUnknownFields) throws IOException, MalformedRecordException;
 
+    /**
+     * Returns up to <code>maxRecords</code> of the next records in the stream as a single batch, or <code>null</code> if no more
+     * records are available. As with {@link #nextRecord()}, types will be coerced and any unknown fields will be dropped. The default
+     * implementation reads the records one at a time via {@link #nextRecord()}; readers that are able to populate the columns of a
+     * batch directly should override this method.
+     *
+     * @param maxRecords the maximum number of records to include in the batch
+     * @return a batch containing between 1 and <code>maxRecords</code> records, or <code>null</code> if no more records are available
+     *
+     * @throws IOException if unable to read from the underlying data
+     * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse a record
+     * @throws SchemaValidationException if a Record contains a field that violates the schema and cannot be coerced into the appropriate field type.
+     */
+    default RecordBatch nextBatch(final int maxRecords) throws IOException, MalformedRecordException {
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("Cannot read a batch of " + maxRecords + " records. Batch size must be a positive integer");
+        }
+
+        Record record = nextRecord();
+        if (record == null) {
+            return null;
+        }
+
+        final RecordSchema schema = record.getSchema();
+        final List<Record> records = new ArrayList<>(Math.min(maxRecords, 1024));
+        records.add(record);
+
+        while (records.size() < maxRecords && (record = nextRecord()) != null) {
+            records.add(record);
+        }
+
+        return RecordBatch.of(schema, records);
+    }
+
     /**
      * @return a RecordSchema that is appropriate for the records in the stream
      * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse the underlying data
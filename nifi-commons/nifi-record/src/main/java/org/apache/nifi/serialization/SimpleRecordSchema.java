@@ -33,6 +33,7 @@ import org.apache.nifi.serialization.record.SchemaIdentifier;
 public class SimpleRecordSchema implements RecordSchema {
     private List<RecordField> fields = null;
     private Map<String, RecordField> fieldMap = null;
+    private Map<String, Integer> fieldIndexes = null;
     private final boolean textAvailable;
     private final String text;
     private final String schemaFormat;
@@ -93,18 +94,24 @@ public class SimpleRecordSchema implements RecordSchema {
 
         this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
         this.fieldMap = new HashMap<>(fields.size() * 2);
+        this.fieldIndexes = new HashMap<>(fields.size() * 2);
+
+        for (int i = 0; i < fields.size(); i++) {
+            final RecordField field = fields.get(i);
+            final Integer index = Integer.valueOf(i);
 
-        for (final RecordField field : fields) {
             RecordField previousValue = fieldMap.put(field.getFieldName(), field);
             if (previousValue != null) {
                 throw new IllegalArgumentException("Two fields are given with the same name (or alias) of '" + field.getFieldName() + "'");
             }
+            fieldIndexes.put(field.getFieldName(), index);
 
             for (final String alias : field.getAliases()) {
                 previousValue = fieldMap.put(alias, field);
                 if (previousValue != null) {
                     throw new IllegalArgumentException("Two fields are given with the same name (or alias) of '" + field.getFieldName() + "'");
                 }
+                fieldIndexes.put(alias, index);
             }
         }
     }
@@ -145,6 +152,12 @@ public class SimpleRecordSchema implements RecordSchema {
         return Optional.ofNullable(fieldMap.get(fieldName));
     }
 
+    @Override
+    public int getFieldIndex(final String fieldName) {
+        final Integer index = fieldIndexes.get(fieldName);
+        return index == null ? -1 : index.intValue();
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
@@ -0,0 +1,522 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+import org.apache.nifi.serialization.record.type.MapDataType;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+import org.apache.nifi.serialization.record.util.IllegalTypeConversionException;
+
+/**
+ * <p>
+ * A Record whose values are held in an array that is parallel to the fields of its schema. Fields are located by means of
+ * {@link RecordSchema#getFieldIndex(String)}, which is a single lookup for schemas whose index table is built once when the
+ * schema is created, such as {@link org.apache.nifi.serialization.SimpleRecordSchema}. This avoids the per-record Map that
+ * {@link MapRecord} requires and makes {@link #getValues()} a simple array access, which matters for records with many fields.
+ * </p>
+ *
+ * <p>
+ * Every field of the schema is considered to be present in the record, even if its value is <code>null</code>. Readers that
+ * need to distinguish between a missing field and a field whose value is <code>null</code> should use {@link MapRecord} instead.
+ * Values for fields that are not in the schema are retained in a separate Map, unless unknown fields are to be dropped.
+ * </p>
+ */
+public class ArrayRecord implements Record {
+    private RecordSchema schema;
+    private Object[] values;
+    private Map<String, Object> unknownFieldValues;
+    private Optional<SerializedForm> serializedForm;
+    private final boolean checkTypes;
+    private final boolean dropUnknownFields;
+
+    public ArrayRecord(final RecordSchema schema, final Object[] values) {
+        this(schema, values, null, false, false);
+    }
+
+    public ArrayRecord(final RecordSchema schema, final Object[] values, final boolean checkTypes, final boolean dropUnknownFields) {
+        this(schema, values, null, checkTypes, dropUnknownFields);
+    }
+
+    /**
+     * @param schema the schema of the record
+     * @param values the values of the record, in the same order as the fields of the schema. The array is used directly, not copied.
+     * @param serializedForm the serialized form of the record, or <code>null</code> if not known
+     * @param checkTypes whether or not to verify that the values are compatible with the schema
+     * @param dropUnknownFields whether or not values for fields that are not in the schema should be dropped
+     *
+     * @throws IllegalArgumentException if the number of values does not match the number of fields in the schema
+     * @throws SchemaValidationException if <code>checkTypes</code> is <code>true</code> and a value is not compatible with its field
+     */
+    public ArrayRecord(final RecordSchema schema, final Object[] values, final SerializedForm serializedForm, final boolean checkTypes, final boolean dropUnknownFields) {
+        Objects.requireNonNull(values);
+
+        this.schema = Objects.requireNonNull(schema);
+        if (values.length != schema.getFieldCount()) {
+            throw new IllegalArgumentException("Record schema has " + schema.getFieldCount() + " fields but " + values.length + " values were given");
+        }
+
+        this.values = checkTypes ? checkTypes(values, schema) : values;
+        this.serializedForm = Optional.ofNullable(serializedForm);
+        this.checkTypes = checkTypes;
+        this.dropUnknownFields = dropUnknownFields;
+    }
+
+    private Object[] checkTypes(final Object[] values, final RecordSchema schema) {
+        for (int i = 0; i < values.length; i++) {
+            final RecordField field = schema.getField(i);
+            final Object value = values[i];
+
+            if (value == null) {
+                if (field.isNullable() || field.getDefaultValue() != null) {
+                    continue;
+                }
+
+                throw new SchemaValidationException("Field " + field.getFieldName() + " cannot be null");
+            }
+
+            if (!DataTypeUtils.isCompatibleDataType(value, field.getDataType())) {
+                throw new SchemaValidationException("Field " + field.getFieldName() + " has a value of " + value
+                    + ", which cannot be coerced into the appropriate data type of " + field.getDataType());
+            }
+        }
+
+        return values;
+    }
+
+    @Override
+    public boolean isDropUnknownFields() {
+        return dropUnknownFields;
+    }
+
+    @Override
+    public boolean isTypeChecked() {
+        return checkTypes;
+    }
+
+    @Override
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return a copy of the values of this Record, so that the Record can only be changed by means of {@link #setValue(String, Object)}
+     *         and the other setters, which keep track of whether its serialized form is still valid
+     */
+    @Override
+    public Object[] getValues() {
+        final Object[] result = Arrays.copyOf(values, values.length);
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] == null) {
+                result[i] = schema.getField(i).getDefaultValue();
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object getValue(final String fieldName) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index > -1) {
+            return getValue(schema.getField(index), index);
+        }
+
+        if (dropUnknownFields || unknownFieldValues == null) {
+            return null;
+        }
+
+        return unknownFieldValues.get(fieldName);
+    }
+
+    @Override
+    public Object getValue(final RecordField field) {
+        final int index = getFieldIndex(field);
+        if (index < 0) {
+            final Object explicitValue = getUnknownFieldValue(field);
+            return explicitValue == null ? field.getDefaultValue() : explicitValue;
+        }
+
+        final Object explicitValue = values[index];
+        if (explicitValue != null) {
+            return explicitValue;
+        }
+
+        final Object defaultValue = field.getDefaultValue();
+        if (defaultValue != null) {
+            return defaultValue;
+        }
+
+        return schema.getField(index).getDefaultValue();
+    }
+
+    private Object getValue(final RecordField schemaField, final int index) {
+        final Object value = values[index];
+        return value == null ? schemaField.getDefaultValue() : value;
+    }
+
+    private int getFieldIndex(final RecordField field) {
+        int index = schema.getFieldIndex(field.getFieldName());
+        if (index > -1) {
+            return index;
+        }
+
+        for (final String alias : field.getAliases()) {
+            index = schema.getFieldIndex(alias);
+            if (index > -1) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private Object getUnknownFieldValue(final RecordField field) {
+        if (unknownFieldValues == null) {
+            return null;
+        }
+
+        final Object value = unknownFieldValues.get(field.getFieldName());
+        if (value != null) {
+            return value;
+        }
+
+        for (final String alias : field.getAliases()) {
+            final Object aliasValue = unknownFieldValues.get(alias);
+            if (aliasValue != null) {
+                return aliasValue;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String getAsString(final String fieldName) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index > -1) {
+            final RecordField field = schema.getField(index);
+            return convertToString(getValue(field, index), field.getDataType().getFormat());
+        }
+
+        return DataTypeUtils.toString(getValue(fieldName), (Supplier<DateFormat>) null);
+    }
+
+    @Override
+    public String getAsString(final String fieldName, final String format) {
+        return convertToString(getValue(fieldName), format);
+    }
+
+    @Override
+    public String getAsString(final RecordField field, final String format) {
+        return convertToString(getValue(field), format);
+    }
+
+    private String convertToString(final Object value, final String format) {
+        if (value == null) {
+            return null;
+        }
+
+        return DataTypeUtils.toString(value, format);
+    }
+
+    @Override
+    public Long getAsLong(final String fieldName) {
+        return DataTypeUtils.toLong(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Integer getAsInt(final String fieldName) {
+        return DataTypeUtils.toInteger(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Double getAsDouble(final String fieldName) {
+        return DataTypeUtils.toDouble(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Float getAsFloat(final String fieldName) {
+        return DataTypeUtils.toFloat(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Record getAsRecord(final String fieldName, final RecordSchema schema) {
+        return DataTypeUtils.toRecord(getValue(fieldName), schema, fieldName);
+    }
+
+    @Override
+    public Boolean getAsBoolean(final String fieldName) {
+        return DataTypeUtils.toBoolean(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Date getAsDate(final String fieldName, final String format) {
+        return DataTypeUtils.toDate(getValue(fieldName), () -> DataTypeUtils.getDateFormat(format), fieldName);
+    }
+
+    @Override
+    public Object[] getAsArray(final String fieldName) {
+        return DataTypeUtils.toArray(getValue(fieldName), fieldName, null, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the values that have been given to the fields of this Record, other than <code>null</code>, by field name. Two Records are
+     *         equal, whether they are {@link MapRecord}s or ArrayRecords, if they have the same schema and the same such values.
+     */
+    Map<String, Object> getExplicitValues() {
+        final Map<String, Object> explicitValues = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                explicitValues.put(schema.getField(i).getFieldName(), values[i]);
+            }
+        }
+        if (unknownFieldValues != null) {
+            for (final Map.Entry<String, Object> entry : unknownFieldValues.entrySet()) {
+                if (entry.getValue() != null) {
+                    explicitValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return explicitValues;
+    }
+
+    @Override
+    public int hashCode() {
+        // the hash code of the Map of explicit values, computed without creating it
+        int valuesHashCode = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                valuesHashCode += schema.getField(i).getFieldName().hashCode() ^ values[i].hashCode();
+            }
+        }
+        if (unknownFieldValues != null) {
+            for (final Map.Entry<String, Object> entry : unknownFieldValues.entrySet()) {
+                if (entry.getValue() != null) {
+                    valuesHashCode += entry.getKey().hashCode() ^ entry.getValue().hashCode();
+                }
+            }
+        }
+
+        return 31 + 41 * valuesHashCode + 7 * schema.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (obj instanceof MapRecord) {
+            final MapRecord other = (MapRecord) obj;
+            return schema.equals(other.getSchema()) && getExplicitValues().equals(other.getExplicitValues());
+        }
+        if (!(obj instanceof ArrayRecord)) {
+            return false;
+        }
+        final ArrayRecord other = (ArrayRecord) obj;
+        if (!schema.equals(other.schema)) {
+            return false;
+        }
+        if (unknownFieldValues == null && other.unknownFieldValues == null) {
+            return Arrays.equals(values, other.values);
+        }
+        return getExplicitValues().equals(other.getExplicitValues());
+    }
+
+    @Override
+    public String toString() {
+        final Map<String, Object> fieldValues = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            fieldValues.put(schema.getField(i).getFieldName(), values[i]);
+        }
+        if (unknownFieldValues != null) {
+            fieldValues.putAll(unknownFieldValues);
+        }
+
+        return "ArrayRecord[" + fieldValues + "]";
+    }
+
+    @Override
+    public Optional<SerializedForm> getSerializedForm() {
+        return serializedForm;
+    }
+
+    @Override
+    public void invalidateSerializedForm() {
+        serializedForm = Optional.empty();
+    }
+
+    @Override
+    public void setValue(final String fieldName, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            if (dropUnknownFields) {
+                return;
+            }
+
+            if (unknownFieldValues == null) {
+                unknownFieldValues = new LinkedHashMap<>();
+            }
+
+            final Object previousValue = unknownFieldValues.put(fieldName, value);
+            if (!Objects.equals(value, previousValue)) {
+                serializedForm = Optional.empty();
+            }
+
+            return;
+        }
+
+        final RecordField recordField = schema.getField(index);
+        final Object coerced = isTypeChecked() ? DataTypeUtils.convertType(value, recordField.getDataType(), fieldName) : value;
+        final Object previousValue = values[index];
+        values[index] = coerced;
+        if (!Objects.equals(coerced, previousValue)) {
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    public void setArrayValue(final String fieldName, final int arrayIndex, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            return;
+        }
+
+        final RecordField recordField = schema.getField(index);
+        final DataType dataType = recordField.getDataType();
+        if (dataType.getFieldType() != RecordFieldType.ARRAY) {
+            throw new IllegalTypeConversionException("Cannot set the value of an array index on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an ARRAY type");
+        }
+
+        final Object arrayObject = values[index];
+        if (arrayObject == null) {
+            return;
+        }
+        if (!(arrayObject instanceof Object[])) {
+            return;
+        }
+
+        final Object[] array = (Object[]) arrayObject;
+        if (arrayIndex >= array.length) {
+            return;
+        }
+
+        final ArrayDataType arrayDataType = (ArrayDataType) dataType;
+        final DataType elementType = arrayDataType.getElementType();
+        final Object coerced = DataTypeUtils.convertType(value, elementType, fieldName);
+
+        final boolean update = !Objects.equals(coerced, array[arrayIndex]);
+        if (update) {
+            array[arrayIndex] = coerced;
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setMapValue(final String fieldName, final String mapKey, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            return;
+        }
+
+        final RecordField recordField = schema.getField(index);
+        final DataType dataType = recordField.getDataType();
+        if (dataType.getFieldType() != RecordFieldType.MAP) {
+            throw new IllegalTypeConversionException("Cannot set the value of map entry on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an MAP type");
+        }
+
+        Object mapObject = values[index];
+        if (mapObject == null) {
+            mapObject = new HashMap<String, Object>();
+        }
+        if (!(mapObject instanceof Map)) {
+            return;
+        }
+
+        final Map<String, Object> map = (Map<String, Object>) mapObject;
+
+        final MapDataType mapDataType = (MapDataType) dataType;
+        final DataType valueDataType = mapDataType.getValueType();
+        final Object coerced = DataTypeUtils.convertType(value, valueDataType, fieldName);
+
+        final Object replaced = map.put(mapKey, coerced);
+        if (replaced == null || !replaced.equals(coerced)) {
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    public void incorporateSchema(final RecordSchema other) {
+        final RecordSchema merged = DataTypeUtils.merge(this.schema, other);
+        if (merged == this.schema) {
+            return;
+        }
+
+        // The merged schema may contain fields that are not in the current schema, so the values must be re-bound to
+        // the fields of the merged schema. Values of unknown fields that are now part of the schema move into the array.
+        final Object[] mergedValues = new Object[merged.getFieldCount()];
+        for (int i = 0; i < values.length; i++) {
+            final int mergedIndex = merged.getFieldIndex(schema.getField(i).getFieldName());
+            if (mergedIndex > -1) {
+                mergedValues[mergedIndex] = values[i];
+            }
+        }
+
+        if (unknownFieldValues != null) {
+            for (final String fieldName : new LinkedHashSet<>(unknownFieldValues.keySet())) {
+                final int mergedIndex = merged.getFieldIndex(fieldName);
+                if (mergedIndex > -1) {
+                    mergedValues[mergedIndex] = unknownFieldValues.remove(fieldName);
+                }
+            }
+        }
+
+        this.schema = merged;
+        this.values = mergedValues;
+    }
+
+    @Override
+    public Set<String> getRawFieldNames() {
+        final Set<String> fieldNames = new LinkedHashSet<>(schema.getFieldNames());
+        if (unknownFieldValues != null) {
+            fieldNames.addAll(unknownFieldValues.keySet());
+        }
+
+        return Collections.unmodifiableSet(fieldNames);
+    }
+}
@@ -21,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -275,7 +276,15 @@ public class MapRecord implements Record {
 
     @Override
     public int hashCode() {
-        return 31 + 41 * values.hashCode() + 7 * schema.hashCode();
+        // the hash code of the Map of explicit values, computed without creating it
+        int valuesHashCode = 0;
+        for (final Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() != null) {
+                valuesHashCode += Objects.hashCode(entry.getKey()) ^ entry.getValue().hashCode();
+            }
+        }
+
+        return 31 + 41 * valuesHashCode + 7 * schema.hashCode();
     }
 
     @Override
@@ -286,11 +295,40 @@ public class MapRecord implements Record {
         if (obj == null) {
             return false;
         }
+        if (obj instanceof ArrayRecord) {
+            return obj.equals(this);
+        }
         if (!(obj instanceof MapRecord)) {
             return false;
         }
         final MapRecord other = (MapRecord) obj;
-        return schema.equals(other.schema) && values.equals(other.values);
+        return schema.equals(other.schema) && getExplicitValues().equals(other.getExplicitValues());
+    }
+
+    /**
+     * @return the values that have been given to the fields of this Record, other than <code>null</code>, by field name. Two Records are
+     *         equal, whether they are MapRecords or {@link ArrayRecord}s, if they have the same schema and the same such values.
+     */
+    Map<String, Object> getExplicitValues() {
+        boolean hasNullValues = false;
+        for (final Object value : values.values()) {
+            if (value == null) {
+                hasNullValues = true;
+                break;
+            }
+        }
+        if (!hasNullValues) {
+            return values;
+        }
+
+        final Map<String, Object> explicitValues = new LinkedHashMap<>();
+        for (final Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() != null) {
+                explicitValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return explicitValues;
     }
 
     @Override
@@ -303,6 +341,11 @@ public class MapRecord implements Record {
         return serializedForm;
     }
 
+    @Override
+    public void invalidateSerializedForm() {
+        serializedForm = Optional.empty();
+    }
+
     @Override
     public void setValue(final String fieldName, final Object value) {
         final Optional<RecordField> field = getSchema().getField(fieldName);
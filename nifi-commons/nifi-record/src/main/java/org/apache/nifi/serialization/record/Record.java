@@ -105,6 +105,16 @@ public interface Record {
 
     Optional<SerializedForm> getSerializedForm();
 
+    /**
+     * Removes any {@link SerializedForm} that was provided for this Record, so that any subsequent call to
+     * {@link #getSerializedForm()} will return an empty Optional. This Record does this itself whenever one of its
+     * own values is changed, but it cannot detect a change to a value that is nested within one of its values, such as
+     * a field of a child Record, so whoever makes such a change must call this method on each enclosing Record.
+     * The default implementation does nothing, which is correct only for a Record that never provides a SerializedForm.
+     */
+    default void invalidateSerializedForm() {
+    }
+
     /**
      * Updates the value of the field with the given name to the given value. If the field specified
      * is not present in this Record's schema, this method will do nothing. If this method does change
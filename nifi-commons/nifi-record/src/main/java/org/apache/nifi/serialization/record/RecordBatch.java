@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A group of Records that share a single schema. The values of a batch are held either as one column per field of the
+ * schema, where each column is an array whose elements are of the type described by the field's {@link DataType}, or as a
+ * List of Records. Whichever of the two forms was not provided is created lazily, the first time that it is needed.
+ * </p>
+ *
+ * <p>
+ * Readers that are able to do so should create column-backed batches directly, without creating a Record for each row.
+ * Writers can then iterate over the columns without creating a Record for each row either. Batches that are created from
+ * Records, via {@link #of(RecordSchema, List)}, retain those Records so that nothing is lost when a Record contains fields
+ * that are not part of the batch's schema.
+ * </p>
+ *
+ * <p>
+ * NOT THREAD-SAFE.
+ * </p>
+ */
+public class RecordBatch {
+    private final RecordSchema schema;
+    private final int size;
+    private Object[][] columns;
+    private List<Record> records;
+
+    /**
+     * Creates a column-backed batch
+     *
+     * @param schema the schema of the records in the batch
+     * @param columns the values of the batch, one column per field of the schema, in the same order as the fields. Each column must
+     *            have at least <code>size</code> elements. The arrays are used directly, not copied.
+     * @param size the number of records in the batch
+     *
+     * @throws IllegalArgumentException if the number of columns does not match the number of fields in the schema or a column has
+     *             fewer than <code>size</code> elements
+     */
+    public RecordBatch(final RecordSchema schema, final Object[][] columns, final int size) {
+        this.schema = Objects.requireNonNull(schema);
+        Objects.requireNonNull(columns);
+
+        if (columns.length != schema.getFieldCount()) {
+            throw new IllegalArgumentException("Record schema has " + schema.getFieldCount() + " fields but " + columns.length + " columns were given");
+        }
+        if (size < 0) {
+            throw new IllegalArgumentException("Batch size cannot be negative");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].length < size) {
+                throw new IllegalArgumentException("Column for field " + schema.getField(i).getFieldName() + " has only " + columns[i].length
+                    + " values but the batch contains " + size + " records");
+            }
+        }
+
+        this.columns = columns;
+        this.size = size;
+    }
+
+    private RecordBatch(final RecordSchema schema, final List<Record> records) {
+        this.schema = Objects.requireNonNull(schema);
+        this.records = Objects.requireNonNull(records);
+        this.size = records.size();
+    }
+
+    /**
+     * Creates a batch that is backed by the given Records. This allows Record Readers that only support reading a Record at a time to
+     * provide batches, and allows components that produce Records to make use of batch-oriented Record Writers.
+     *
+     * @param schema the schema of the batch
+     * @param records the records in the batch. The List is used directly, not copied.
+     * @return a batch containing the given records
+     */
+    public static RecordBatch of(final RecordSchema schema, final List<Record> records) {
+        return new RecordBatch(schema, records);
+    }
+
+    /**
+     * @return the schema of the records in this batch
+     */
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return the number of records in this batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return <code>true</code> if the batch holds its values in columns, <code>false</code> if it holds them as Records
+     */
+    public boolean isColumnar() {
+        return records == null;
+    }
+
+    /**
+     * Returns the values of the field with the given index. The returned array may be longer than the batch; only the first
+     * {@link #size()} elements are part of the batch. The array must not be modified.
+     *
+     * @param fieldIndex the index of the field in the schema
+     * @return the values of the given field
+     */
+    public Object[] getColumn(final int fieldIndex) {
+        if (columns == null) {
+            columns = createColumns();
+        }
+
+        return columns[fieldIndex];
+    }
+
+    /**
+     * Returns the values of the field with the given name or alias
+     *
+     * @param fieldName the name or alias of the field
+     * @return the values of the given field, or <code>null</code> if the schema has no such field
+     */
+    public Object[] getColumn(final String fieldName) {
+        final int fieldIndex = schema.getFieldIndex(fieldName);
+        return fieldIndex < 0 ? null : getColumn(fieldIndex);
+    }
+
+    /**
+     * @param row the index of the record in the batch
+     * @param fieldIndex the index of the field in the schema
+     * @return the value of the given field for the given record
+     */
+    public Object getValue(final int row, final int fieldIndex) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Cannot get record " + row + " of a batch of " + size + " records");
+        }
+
+        if (records != null && columns == null) {
+            return records.get(row).getValue(schema.getField(fieldIndex));
+        }
+
+        return columns[fieldIndex][row];
+    }
+
+    /**
+     * Returns the record at the given index. For a column-backed batch, a new Record is created each time that this
+     * method is called. That Record is type checked, as the Records of Record Readers are, so values that are later set
+     * on it are coerced into the types of their fields.
+     *
+     * @param row the index of the record in the batch
+     * @return the record at the given index
+     */
+    public Record getRecord(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Cannot get record " + row + " of a batch of " + size + " records");
+        }
+
+        if (records != null) {
+            return records.get(row);
+        }
+
+        final Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i][row];
+        }
+
+        return new ArrayRecord(schema, values, true, true);
+    }
+
+    /**
+     * @return the records in this batch
+     */
+    public List<Record> getRecords() {
+        if (records == null) {
+            final List<Record> created = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                created.add(getRecord(i));
+            }
+
+            records = created;
+        }
+
+        return Collections.unmodifiableList(records);
+    }
+
+    private Object[][] createColumns() {
+        final int fieldCount = schema.getFieldCount();
+        final Object[][] created = new Object[fieldCount][size];
+
+        for (int row = 0; row < size; row++) {
+            final Record record = records.get(row);
+            for (int i = 0; i < fieldCount; i++) {
+                created[i][row] = record.getValue(schema.getField(i));
+            }
+        }
+
+        return created;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordBatch[size=" + size + ", schema=" + schema + "]";
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the cost of creating and reading {@link MapRecord}s and {@link ArrayRecord}s of various widths, the way that a
+ * Record Reader creates them and a Record Writer reads them. This is not run as part of the build; run the main method
+ * from an IDE, or with the test classpath, to execute it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordAccessBenchmark {
+
+    @Param({"10", "50", "100", "500"})
+    private int fieldCount;
+
+    private RecordSchema schema;
+    private String[] fieldNames;
+    private Object[] rawValues;
+    private Record mapRecord;
+    private Record arrayRecord;
+
+    @Setup
+    public void setup() {
+        final List<RecordField> fields = new ArrayList<>(fieldCount);
+        fieldNames = new String[fieldCount];
+        rawValues = new Object[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fieldNames[i] = "field_" + i;
+            rawValues[i] = i % 2 == 0 ? "value " + i : Integer.valueOf(i);
+            fields.add(new RecordField(fieldNames[i], i % 2 == 0 ? RecordFieldType.STRING.getDataType() : RecordFieldType.INT.getDataType()));
+        }
+
+        schema = new SimpleRecordSchema(fields);
+        mapRecord = createMapRecord();
+        arrayRecord = createArrayRecord();
+    }
+
+    @Benchmark
+    public Record createMapRecord() {
+        final Map<String, Object> values = new HashMap<>(fieldCount * 2);
+        for (int i = 0; i < fieldCount; i++) {
+            values.put(fieldNames[i], rawValues[i]);
+        }
+        return new MapRecord(schema, values);
+    }
+
+    @Benchmark
+    public Record createArrayRecord() {
+        final Object[] values = new Object[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            values[i] = rawValues[i];
+        }
+        return new ArrayRecord(schema, values);
+    }
+
+    @Benchmark
+    public void getValuesByNameFromMapRecord(final Blackhole blackhole) {
+        for (final String fieldName : fieldNames) {
+            blackhole.consume(mapRecord.getValue(fieldName));
+        }
+    }
+
+    @Benchmark
+    public void getValuesByNameFromArrayRecord(final Blackhole blackhole) {
+        for (final String fieldName : fieldNames) {
+            blackhole.consume(arrayRecord.getValue(fieldName));
+        }
+    }
+
+    @Benchmark
+    public void getValuesByFieldFromMapRecord(final Blackhole blackhole) {
+        for (final RecordField field : schema.getFields()) {
+            blackhole.consume(mapRecord.getValue(field));
+        }
+    }
+
+    @Benchmark
+    public void getValuesByFieldFromArrayRecord(final Blackhole blackhole) {
+        for (final RecordField field : schema.getFields()) {
+            blackhole.consume(arrayRecord.getValue(field));
+        }
+    }
+
+    @Benchmark
+    public Object[] getValuesArrayFromMapRecord() {
+        return mapRecord.getValues();
+    }
+
+    @Benchmark
+    public Object[] getValuesArrayFromArrayRecord() {
+        return arrayRecord.getValues();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(RecordAccessBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.Test;
+
+public class TestArrayRecord {
+
+    @Test
+    public void testDefaultValue() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("noDefault", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("defaultOfHello", RecordFieldType.STRING.getDataType(), "hello"));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Record record = new ArrayRecord(schema, new Object[2]);
+
+        assertNull(record.getValue("noDefault"));
+        assertEquals("hello", record.getValue("defaultOfHello"));
+        assertArrayEquals(new Object[] {null, "hello"}, record.getValues());
+
+        final RecordField newField = new RecordField("noDefault", RecordFieldType.STRING.getDataType(), "new");
+        assertEquals("new", record.getValue(newField));
+    }
+
+    @Test
+    public void testAlias() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("foo", RecordFieldType.STRING.getDataType(), null, set("bar", "baz")));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Record record = new ArrayRecord(schema, new Object[] {33});
+        assertEquals(33, record.getValue("foo"));
+        assertEquals(33, record.getValue("bar"));
+        assertEquals(33, record.getValue("baz"));
+
+        final RecordField noAlias = new RecordField("hello", RecordFieldType.STRING.getDataType());
+        assertNull(record.getValue(noAlias));
+
+        final RecordField withAlias = new RecordField("hello", RecordFieldType.STRING.getDataType(), null, set("baz"));
+        assertEquals(33, record.getValue(withAlias));
+        assertEquals("33", record.getAsString(withAlias, withAlias.getDataType().getFormat()));
+    }
+
+    @Test
+    public void testSetValue() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("age", RecordFieldType.INT.getDataType()));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Record record = new ArrayRecord(schema, new Object[] {"John", 30}, true, false);
+
+        record.setValue("age", "31");
+        assertEquals(31, record.getValue("age"));
+        assertEquals(Integer.valueOf(31), record.getAsInt("age"));
+
+        record.setValue("unknown", "value");
+        assertEquals("value", record.getValue("unknown"));
+        assertEquals(set("name", "age", "unknown"), record.getRawFieldNames());
+    }
+
+    @Test
+    public void testDropUnknownFields() {
+        final RecordSchema schema = new SimpleRecordSchema(Collections.singletonList(new RecordField("name", RecordFieldType.STRING.getDataType())));
+        final Record record = new ArrayRecord(schema, new Object[] {"John"}, false, true);
+
+        record.setValue("unknown", "value");
+        assertNull(record.getValue("unknown"));
+        assertEquals(set("name"), record.getRawFieldNames());
+    }
+
+    @Test(expected = SchemaValidationException.class)
+    public void testCheckTypes() {
+        final RecordSchema schema = new SimpleRecordSchema(Collections.singletonList(new RecordField("age", RecordFieldType.INT.getDataType())));
+        new ArrayRecord(schema, new Object[] {"not a number"}, true, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongNumberOfValues() {
+        final RecordSchema schema = new SimpleRecordSchema(Collections.singletonList(new RecordField("name", RecordFieldType.STRING.getDataType())));
+        new ArrayRecord(schema, new Object[] {"John", "Doe"});
+    }
+
+    @Test
+    public void testSetValueClearsSerializedForm() {
+        final RecordSchema schema = new SimpleRecordSchema(Collections.singletonList(new RecordField("name", RecordFieldType.STRING.getDataType())));
+        final Record record = new ArrayRecord(schema, new Object[] {"John"}, SerializedForm.of("{\"name\":\"John\"}", "application/json"), false, false);
+        assertTrue(record.getSerializedForm().isPresent());
+
+        record.setValue("name", "John");
+        assertTrue(record.getSerializedForm().isPresent());
+
+        record.setValue("name", "Jane");
+        assertFalse(record.getSerializedForm().isPresent());
+    }
+
+    @Test
+    public void testIncorporateSchema() {
+        final RecordSchema schema = new SimpleRecordSchema(Collections.singletonList(new RecordField("name", RecordFieldType.STRING.getDataType())));
+        final Record record = new ArrayRecord(schema, new Object[] {"John"});
+        record.setValue("age", 30);
+
+        final List<RecordField> otherFields = new ArrayList<>();
+        otherFields.add(new RecordField("age", RecordFieldType.INT.getDataType()));
+        otherFields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        record.incorporateSchema(new SimpleRecordSchema(otherFields));
+
+        assertEquals(2, record.getSchema().getFieldCount());
+        assertEquals("John", record.getValue("name"));
+        assertEquals(30, record.getValue("age"));
+        assertArrayEquals(new Object[] {"John", 30}, record.getValues());
+    }
+
+    @Test
+    public void testEquivalentToMapRecord() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType(), "unnamed"));
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Record arrayRecord = new ArrayRecord(schema, new Object[] {1, null});
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 1);
+        values.put("name", null);
+        final Record mapRecord = new MapRecord(schema, values);
+
+        assertArrayEquals(mapRecord.getValues(), arrayRecord.getValues());
+        assertEquals(mapRecord.getAsString("id"), arrayRecord.getAsString("id"));
+        assertEquals(mapRecord.getValue("name"), arrayRecord.getValue("name"));
+        assertEquals(mapRecord.getRawFieldNames(), arrayRecord.getRawFieldNames());
+
+        // a field whose value is null is equal to a field without a value
+        assertEquals(mapRecord, arrayRecord);
+        assertEquals(arrayRecord, mapRecord);
+        assertEquals(mapRecord.hashCode(), arrayRecord.hashCode());
+        assertEquals(new MapRecord(schema, Collections.singletonMap("id", 1)), arrayRecord);
+
+        arrayRecord.setValue("name", "John");
+        assertNotEquals(mapRecord, arrayRecord);
+        assertNotEquals(arrayRecord, mapRecord);
+        mapRecord.setValue("name", "John");
+        assertEquals(arrayRecord, mapRecord);
+        assertEquals(mapRecord.hashCode(), arrayRecord.hashCode());
+    }
+
+    @Test
+    public void testGetValuesReturnsCopy() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final Record record = new ArrayRecord(schema, new Object[] {"John"}, SerializedForm.of(() -> "John", "text/plain"), false, false);
+
+        record.getValues()[0] = "Jane";
+        assertEquals("John", record.getValue("name"));
+        assertTrue(record.getSerializedForm().isPresent());
+    }
+
+    private Set<String> set(final String... values) {
+        final Set<String> set = new HashSet<>();
+        for (final String value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.Test;
+
+public class TestRecordBatch {
+
+    private RecordSchema createSchema() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        return new SimpleRecordSchema(fields);
+    }
+
+    private Record createRecord(final RecordSchema schema, final int id, final String name) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("name", name);
+        return new MapRecord(schema, values);
+    }
+
+    @Test
+    public void testColumnBackedBatch() {
+        final RecordSchema schema = createSchema();
+        final Object[][] columns = new Object[][] {
+            {1, 2, 3, null},
+            {"a", "b", "c", null}
+        };
+
+        final RecordBatch batch = new RecordBatch(schema, columns, 3);
+        assertTrue(batch.isColumnar());
+        assertEquals(3, batch.size());
+        assertSame(columns[1], batch.getColumn("name"));
+        assertNull(batch.getColumn("other"));
+        assertEquals("b", batch.getValue(1, 1));
+
+        final Record record = batch.getRecord(2);
+        assertEquals(3, record.getValue("id"));
+        assertEquals("c", record.getValue("name"));
+
+        // values set on the records of a batch are coerced, as they are for the records of a reader
+        assertTrue(record.isTypeChecked());
+        record.setValue("id", "4");
+        assertEquals(4, record.getValue("id"));
+
+        final List<Record> records = batch.getRecords();
+        assertEquals(3, records.size());
+        assertEquals(1, records.get(0).getValue("id"));
+    }
+
+    @Test
+    public void testRecordBackedBatch() {
+        final RecordSchema schema = createSchema();
+        final List<Record> records = new ArrayList<>();
+        records.add(createRecord(schema, 1, "a"));
+        records.add(createRecord(schema, 2, "b"));
+
+        final RecordBatch batch = RecordBatch.of(schema, records);
+        assertFalse(batch.isColumnar());
+        assertSame(records.get(1), batch.getRecord(1));
+        assertEquals("b", batch.getValue(1, 1));
+        assertArrayEquals(new Object[] {1, 2}, batch.getColumn(0));
+        assertArrayEquals(new Object[] {"a", "b"}, batch.getColumn("name"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testColumnCountMustMatchSchema() {
+        new RecordBatch(createSchema(), new Object[][] {{1}}, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testColumnsMustHoldEntireBatch() {
+        new RecordBatch(createSchema(), new Object[][] {{1}, {"a"}}, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRowOutOfRange() {
+        new RecordBatch(createSchema(), new Object[][] {{1, 2}, {"a", "b"}}, 1).getRecord(1);
+    }
+
+    @Test
+    public void testDefaultNextBatchReadsRecordsIndividually() throws IOException, MalformedRecordException {
+        final RecordSchema schema = createSchema();
+        final List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(createRecord(schema, i, "name-" + i));
+        }
+
+        final RecordSet recordSet = new ListRecordSet(schema, records);
+        final RecordReader reader = new RecordReader() {
+            @Override
+            public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException {
+                return recordSet.next();
+            }
+
+            @Override
+            public RecordSchema getSchema() {
+                return schema;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        final RecordBatch first = reader.nextBatch(3);
+        assertEquals(3, first.size());
+        assertSame(records.get(0), first.getRecord(0));
+
+        final RecordBatch second = reader.nextBatch(3);
+        assertEquals(2, second.size());
+        assertEquals("name-4", second.getValue(1, 1));
+
+        assertNull(reader.nextBatch(3));
+    }
+}
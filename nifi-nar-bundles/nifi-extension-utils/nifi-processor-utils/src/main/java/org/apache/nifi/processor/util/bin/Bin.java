@@ -22,6 +22,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 import org.apache.nifi.flowfile.FlowFile;
@@ -32,7 +35,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Note: {@code Bin} objects are NOT thread safe. If multiple threads access a {@code Bin}, the caller must synchronize
- * access.
+ * access. The exception is the writing of content by a {@link BinContentWriter}, which is guarded by a lock of the bin's own
+ * so that the caller need not hold its lock while the content is written.
  */
 public class Bin {
     private static final Logger logger = LoggerFactory.getLogger(Bin.class);
@@ -52,6 +56,13 @@ public class Bin {
     private final Set<String> binIndexSet = new HashSet<>();
     private long size;
     private int successiveFailedOfferings = 0;
+    private BinContentWriter contentWriter;
+    private volatile boolean contentWriterFailed = false;
+
+    private final ReentrantLock contentWriterLock = new ReentrantLock();
+    private final Condition contentWritten = contentWriterLock.newCondition();
+    private final AtomicInteger pendingWrites = new AtomicInteger(0);
+    private final List<FlowFile> unwrittenContents = new ArrayList<>(); // guarded by contentWriterLock
 
     /**
      * Constructs a new bin
@@ -82,6 +93,18 @@ public class Bin {
         return session;
     }
 
+    /**
+     * @return the writer to which the content of FlowFiles is written as they are added to this bin, or <code>null</code> if the
+     *         bin's output is written once the bin is complete
+     */
+    public BinContentWriter getContentWriter() {
+        return contentWriter;
+    }
+
+    public void setContentWriter(final BinContentWriter contentWriter) {
+        this.contentWriter = contentWriter;
+    }
+
     /**
      * Indicates whether the bin has enough items to be considered full. This is based on whether the current size of the bin is greater than the minimum size in bytes and based on having a number of
      * successive unsuccessful attempts to add a new item (because it is so close to the max or the size of the objects being attempted do not favor tight packing)
@@ -89,7 +112,7 @@ public class Bin {
      * @return true if considered full; false otherwise
      */
     public boolean isFull() {
-        return (((size >= minimumSizeBytes) && binContents.size() >= minimumEntries) && (successiveFailedOfferings > 5))
+        return contentWriterFailed || (((size >= minimumSizeBytes) && binContents.size() >= minimumEntries) && (successiveFailedOfferings > 5))
                 || (size >= maximumSizeBytes) || (binContents.size() >= maximumEntries);
     }
 
@@ -125,14 +148,15 @@ public class Bin {
     }
 
     /**
-     * If this bin has enough room for the size of the given flow file then it is added otherwise it is not
+     * If this bin has enough room for the size of the given flow file then it is added otherwise it is not. If the bin has a content writer,
+     * the FlowFile is only reserved a place in the bin, and remains in the given session, until it is passed to {@link #writeContent(List, ProcessSession)}.
      *
      * @param flowFile flowfile to offer
      * @param session the ProcessSession to which the FlowFile belongs
      * @return true if added; false otherwise
      */
     public boolean offer(final FlowFile flowFile, final ProcessSession session) {
-        if (((size + flowFile.getSize()) > maximumSizeBytes) || (binContents.size() >= maximumEntries)) {
+        if (contentWriterFailed || ((size + flowFile.getSize()) > maximumSizeBytes) || (binContents.size() >= maximumEntries)) {
             successiveFailedOfferings++;
             return false;
         }
@@ -156,9 +180,13 @@ public class Bin {
             }
         }
 
-        size += flowFile.getSize();
+        if (contentWriter == null) {
+            session.migrate(getSession(), Collections.singleton(flowFile));
+        } else {
+            pendingWrites.incrementAndGet();
+        }
 
-        session.migrate(getSession(), Collections.singleton(flowFile));
+        size += flowFile.getSize();
         binContents.add(flowFile);
         successiveFailedOfferings = 0;
         return true;
@@ -181,6 +209,85 @@ public class Bin {
         }
     }
 
+    /**
+     * Moves FlowFiles that have been offered to this bin into the bin's session, writes their content with the content writer and lets the
+     * writer commit them. This must be called, once for each batch of FlowFiles accepted by {@link #offer(FlowFile, ProcessSession)}, by the
+     * thread that offered them; it need not, and should not, hold the lock that guards the offering, as the bin's own lock is held instead.
+     * If the writer fails to write a FlowFile, it routes that FlowFile elsewhere, and the FlowFiles of the batch that follow it are neither
+     * written nor moved into the bin's session.
+     *
+     * @param flowFiles the FlowFiles that were accepted by this bin
+     * @param session the ProcessSession to which the FlowFiles belong
+     * @return the FlowFiles that were not written and that remain in the given session
+     */
+    public List<FlowFile> writeContent(final List<FlowFile> flowFiles, final ProcessSession session) {
+        final List<FlowFile> unbinned = new ArrayList<>();
+
+        contentWriterLock.lock();
+        try {
+            for (final FlowFile flowFile : flowFiles) {
+                if (contentWriterFailed) {
+                    unbinned.add(flowFile);
+                    unwrittenContents.add(flowFile);
+                    continue;
+                }
+
+                session.migrate(getSession(), Collections.singleton(flowFile));
+                if (!contentWriter.append(flowFile)) {
+                    // the writer has routed the FlowFile elsewhere, so it is not part of this bin, which accepts nothing more
+                    contentWriterFailed = true;
+                    unwrittenContents.add(flowFile);
+                }
+            }
+
+            contentWriter.flush();
+        } finally {
+            pendingWrites.addAndGet(-flowFiles.size());
+            contentWritten.signalAll();
+            contentWriterLock.unlock();
+        }
+
+        return unbinned;
+    }
+
+    /**
+     * Waits until the content of every FlowFile that has been offered to this bin has been written by the content writer, if any, and
+     * removes from the bin's contents the FlowFiles that could not be written. This must be called once the bin can no longer be offered
+     * FlowFiles, before its contents or session are used.
+     */
+    public void awaitContentWritten() {
+        if (contentWriter == null) {
+            return;
+        }
+
+        contentWriterLock.lock();
+        try {
+            while (pendingWrites.get() > 0) {
+                contentWritten.awaitUninterruptibly();
+            }
+
+            for (final FlowFile flowFile : unwrittenContents) {
+                if (binContents.remove(flowFile)) {
+                    size -= flowFile.getSize();
+                }
+            }
+            unwrittenContents.clear();
+        } finally {
+            contentWriterLock.unlock();
+        }
+    }
+
+    /**
+     * Rolls back the bin's session and discards any output that the content writer has written
+     */
+    public void rollback() {
+        awaitContentWritten();
+        session.rollback();
+        if (contentWriter != null) {
+            contentWriter.abort();
+        }
+    }
+
     /**
      * @return the underlying list of flow files within this bin
      */
@@ -188,6 +295,13 @@ public class Bin {
         return binContents;
     }
 
+    /**
+     * @return the total number of bytes of content in the flow files within this bin
+     */
+    public long getSize() {
+        return size;
+    }
+
     public long getBinAge() {
         final long ageInNanos = System.nanoTime() - creationMomentEpochNs;
         return TimeUnit.MILLISECONDS.convert(ageInNanos, TimeUnit.NANOSECONDS);
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.bin;
+
+import java.io.IOException;
+
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.ProcessSessionFactory;
+
+/**
+ * Writes the output of a {@link Bin} incrementally, as FlowFiles are added to the bin, rather than all at once when the bin is complete.
+ * A writer is used by a single bin and is guarded by a lock of the bin's own, rather than by the lock of the {@link BinManager} stripe that
+ * holds the bin, so implementations need not be thread safe.
+ */
+public interface BinContentWriter {
+
+    /**
+     * Writes the content of a FlowFile that has just been added to the bin, and now belongs to the bin's session, to the bin's output.
+     * The writer is responsible for transferring the FlowFile within the bin's session.
+     *
+     * @param flowFile the FlowFile that was added to the bin
+     * @return <code>true</code> if the FlowFile was written; <code>false</code> if it could not be, in which case the writer has routed it
+     *         elsewhere and the bin accepts no more FlowFiles
+     */
+    boolean append(FlowFile flowFile);
+
+    /**
+     * Called once all of the FlowFiles that were offered to the bin together have been appended, so that the writer can commit them as a batch
+     */
+    void flush();
+
+    /**
+     * Completes the output, for example by writing a footer, once the bin is complete
+     *
+     * @return the FlowFile that holds the output
+     * @throws IOException if unable to complete the output
+     */
+    FlowFile finish() throws IOException;
+
+    /**
+     * Discards the output that has been written so far
+     */
+    void abort();
+
+    /**
+     * Creates the writer for a new bin
+     */
+    interface Factory {
+
+        /**
+         * @param bin the bin whose output will be written
+         * @param sessionFactory a factory that may be used to create the session to which the output belongs
+         * @return the writer for the bin
+         */
+        BinContentWriter createWriter(Bin bin, ProcessSessionFactory sessionFactory);
+    }
+}
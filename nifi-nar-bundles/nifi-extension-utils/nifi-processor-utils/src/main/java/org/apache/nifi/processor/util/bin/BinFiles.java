@@ -108,12 +108,34 @@ public abstract class BinFiles extends AbstractSessionFactoryProcessor {
 
     @OnStopped
     public final void resetState() {
-        binManager.purge();
+        readyBins.addAll(binManager.removeAllBins());
 
+        // Bins that write their output incrementally have already committed the FlowFiles that they hold, so rolling them
+        // back would lose the content of those FlowFiles; they are kept to be completed by completeIncrementalBins instead.
+        final List<Bin> incrementalBins = new ArrayList<>();
         Bin bin;
         while ((bin = readyBins.poll()) != null) {
-            bin.getSession().rollback();
+            if (bin.getContentWriter() == null) {
+                bin.rollback();
+            } else {
+                incrementalBins.add(bin);
+            }
         }
+
+        readyBins.addAll(incrementalBins);
+    }
+
+    /**
+     * Completes the bins that write their output incrementally, with whatever they hold, when the processor is stopped. The framework
+     * does not order the methods annotated with {@link OnStopped}, so this resets the state itself in case {@link #resetState()} has
+     * not been called yet.
+     *
+     * @param context context
+     */
+    @OnStopped
+    public final void completeIncrementalBins(final ProcessContext context) {
+        resetState();
+        processBins(context);
     }
 
     /**
@@ -177,7 +199,7 @@ public abstract class BinFiles extends AbstractSessionFactoryProcessor {
 
         if (totalBinCount < maxBinCount) {
             flowFilesBinned = binFlowFiles(context, sessionFactory);
-            getLogger().debug("Binned {} FlowFiles", new Object[] {flowFilesBinned});
+            getLogger().debug("Binned {} FlowFiles; {} bins now hold {} bytes", new Object[] {flowFilesBinned, binManager.getBinCount(), binManager.getBinnedBytes()});
         } else {
             flowFilesBinned = 0;
             getLogger().debug("Will not bin any FlowFiles because {} bins already exist;"
@@ -221,6 +243,8 @@ public abstract class BinFiles extends AbstractSessionFactoryProcessor {
         int processedBins = 0;
         Bin bin;
         while ((bin = readyBins.poll()) != null) {
+            bin.awaitContentWritten();
+
             boolean binAlreadyCommitted;
             try {
                 binAlreadyCommitted = this.processBin(bin, context);
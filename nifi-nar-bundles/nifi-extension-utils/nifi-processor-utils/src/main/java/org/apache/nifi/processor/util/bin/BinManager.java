@@ -18,8 +18,11 @@ package org.apache.nifi.processor.util.bin;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,11 +38,16 @@ import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.ProcessSessionFactory;
 
 /**
- * This class is thread safe
+ * This class is thread safe. Bins are partitioned by group identifier across a number of stripes, each guarded by its own lock,
+ * so that FlowFiles belonging to different groups can be binned, and bins of different groups completed, concurrently. Bins that have
+ * a content writer write the content of the FlowFiles offered to them after the stripe's lock has been released, so bins returned by
+ * this class must be passed to {@link Bin#awaitContentWritten()} before their contents are used.
  *
  */
 public class BinManager {
 
+    public static final int DEFAULT_STRIPE_COUNT = 16;
+
     private final AtomicLong minSizeBytes = new AtomicLong(0L);
     private final AtomicLong maxSizeBytes = new AtomicLong(Long.MAX_VALUE);
     private final AtomicInteger minEntries = new AtomicInteger(0);
@@ -47,28 +55,45 @@ public class BinManager {
     private final AtomicReference<String> fileCountAttribute = new AtomicReference<>(null);
 
     private final AtomicInteger maxBinAgeSeconds = new AtomicInteger(Integer.MAX_VALUE);
-    private final Map<String, List<Bin>> groupBinMap = new HashMap<>();
-    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
-    private final Lock rLock = rwLock.readLock();
-    private final Lock wLock = rwLock.writeLock();
+    private final AtomicReference<BinContentWriter.Factory> contentWriterFactory = new AtomicReference<>(null);
+    private final Stripe[] stripes;
 
-    private int binCount = 0;   // guarded by read/write lock
+    private final AtomicInteger binCount = new AtomicInteger(0);
+    private final AtomicLong binnedBytes = new AtomicLong(0L);
 
     public BinManager() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * @param stripeCount the number of independently locked partitions across which the groups are spread; a value of 1 results in
+     *            all groups sharing a single lock
+     * @throws IllegalArgumentException if the stripe count is less than 1
+     */
+    public BinManager(final int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be at least 1 but was " + stripeCount);
+        }
+
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private Stripe getStripe(final String groupIdentifier) {
+        if (groupIdentifier == null) {
+            return stripes[0];
+        }
+
+        // spread the hash so that groups whose hash codes differ only in the high bits do not all share a stripe
+        final int hash = groupIdentifier.hashCode();
+        return stripes[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.length];
     }
 
     public void purge() {
-        wLock.lock();
-        try {
-            for (final List<Bin> binList : groupBinMap.values()) {
-                for (final Bin bin : binList) {
-                    bin.getSession().rollback();
-                }
-            }
-            groupBinMap.clear();
-            binCount = 0;
-        } finally {
-            wLock.unlock();
+        for (final Bin bin : removeAllBins()) {
+            bin.rollback();
         }
     }
 
@@ -89,12 +114,15 @@ public class BinManager {
     }
 
     public int getBinCount() {
-        rLock.lock();
-        try {
-            return binCount;
-        } finally {
-            rLock.unlock();
-        }
+        return binCount.get();
+    }
+
+    /**
+     * @return the total number of bytes of FlowFile content held by the bins that are currently managed, which
+     *         is an approximation of the amount of content that is held in bins awaiting completion
+     */
+    public long getBinnedBytes() {
+        return binnedBytes.get();
     }
 
     public void setMinimumSize(final long numBytes) {
@@ -109,6 +137,39 @@ public class BinManager {
         maxBinAgeSeconds.set(seconds);
     }
 
+    /**
+     * @param contentWriterFactory creates the writer to which each new bin writes the content of its FlowFiles as they are added,
+     *            or <code>null</code> if bins do not write their output until they are complete
+     */
+    public void setContentWriterFactory(final BinContentWriter.Factory contentWriterFactory) {
+        this.contentWriterFactory.set(contentWriterFactory);
+    }
+
+    private Bin createBin(final ProcessSessionFactory sessionFactory, final long currentMaxSizeBytes) {
+        final Bin bin = new Bin(sessionFactory.createSession(), minSizeBytes.get(), currentMaxSizeBytes, minEntries.get(),
+            maxEntries.get(), fileCountAttribute.get());
+
+        final BinContentWriter.Factory writerFactory = contentWriterFactory.get();
+        if (writerFactory != null) {
+            bin.setContentWriter(writerFactory.createWriter(bin, sessionFactory));
+        }
+
+        binCount.incrementAndGet();
+        return bin;
+    }
+
+    private boolean offer(final Bin bin, final FlowFile flowFile, final ProcessSession session) {
+        final long previousSize = bin.getSize();
+        final boolean accepted = bin.offer(flowFile, session);
+        binnedBytes.addAndGet(bin.getSize() - previousSize);
+        return accepted;
+    }
+
+    private void removed(final Bin bin) {
+        binCount.decrementAndGet();
+        binnedBytes.addAndGet(-bin.getSize());
+    }
+
     /**
      * Adds the given flowFile to the first available bin in which it fits for the given group or creates a new bin in the specified group if necessary.
      * <p/>
@@ -125,35 +186,43 @@ public class BinManager {
         if (flowFile.getSize() > currentMaxSizeBytes) { //won't fit into any new bins (and probably none existing)
             return false;
         }
-        wLock.lock();
+
+        final Stripe stripe = getStripe(groupIdentifier);
+        Bin acceptingBin = null;
+        stripe.wLock.lock();
         try {
-            final List<Bin> currentBins = groupBinMap.get(groupIdentifier);
-            if (currentBins == null) { // this is a new group we need to register
-                final List<Bin> bins = new ArrayList<>();
-                final Bin bin = new Bin(sessionFactory.createSession(), minSizeBytes.get(), currentMaxSizeBytes, minEntries.get(),
-                    maxEntries.get(), fileCountAttribute.get());
-                bins.add(bin);
-                groupBinMap.put(groupIdentifier, bins);
-                binCount++;
-                return bin.offer(flowFile, session);
-            } else {
-                for (final Bin bin : currentBins) {
-                    final boolean accepted = bin.offer(flowFile, session);
-                    if (accepted) {
-                        return true;
-                    }
+            final List<Bin> currentBins = stripe.groupBinMap.computeIfAbsent(groupIdentifier, k -> new ArrayList<>());
+            for (final Bin bin : currentBins) {
+                final boolean accepted = offer(bin, flowFile, session);
+                if (accepted) {
+                    acceptingBin = bin;
+                    break;
                 }
+            }
 
-                //if we've reached this point then we couldn't fit it into any existing bins - gotta make a new one
-                final Bin bin = new Bin(sessionFactory.createSession(), minSizeBytes.get(), currentMaxSizeBytes, minEntries.get(),
-                    maxEntries.get(), fileCountAttribute.get());
+            // if we've reached this point without a bin then the groupIdentifier was a brand new one,
+            // or we couldn't fit it into any existing bins - gotta make a new one
+            if (acceptingBin == null) {
+                final Bin bin = createBin(sessionFactory, currentMaxSizeBytes);
                 currentBins.add(bin);
-                binCount++;
-                return bin.offer(flowFile, session);
+                if (!offer(bin, flowFile, session)) {
+                    return false;
+                }
+                acceptingBin = bin;
             }
         } finally {
-            wLock.unlock();
+            stripe.wLock.unlock();
+        }
+
+        if (acceptingBin.getContentWriter() == null) {
+            return true;
+        }
+        if (acceptingBin.writeContent(Collections.singletonList(flowFile), session).isEmpty()) {
+            return true;
         }
+
+        // the bin's writer failed before the FlowFile could be written, so the bin accepts nothing more
+        return offer(groupIdentifier, flowFile, session, sessionFactory);
     }
 
     /**
@@ -170,8 +239,10 @@ public class BinManager {
     public Set<FlowFile> offer(final String groupIdentifier, final Collection<FlowFile> flowFiles, final ProcessSession session, final ProcessSessionFactory sessionFactory) {
         final long currentMaxSizeBytes = maxSizeBytes.get();
         final Set<FlowFile> unbinned = new HashSet<>();
+        final Map<Bin, List<FlowFile>> contentToWrite = new LinkedHashMap<>();
 
-        wLock.lock();
+        final Stripe stripe = getStripe(groupIdentifier);
+        stripe.wLock.lock();
         try {
             flowFileLoop: for (final FlowFile flowFile : flowFiles) {
                 if (flowFile.getSize() > currentMaxSizeBytes) { //won't fit into any new bins (and probably none existing)
@@ -179,82 +250,143 @@ public class BinManager {
                     continue;
                 }
 
-                final List<Bin> currentBins = groupBinMap.computeIfAbsent(groupIdentifier, k -> new ArrayList<>());
+                final List<Bin> currentBins = stripe.groupBinMap.computeIfAbsent(groupIdentifier, k -> new ArrayList<>());
                 for (final Bin bin : currentBins) {
-                    final boolean accepted = bin.offer(flowFile, session);
+                    final boolean accepted = offer(bin, flowFile, session);
                     if (accepted) {
+                        accepted(bin, flowFile, contentToWrite);
                         continue flowFileLoop;
                     }
                 }
 
                 // if we've reached this point then the groupIdentifier was a brand new one,
                 // or we couldn't fit it into any existing bins - gotta make a new one
-                final Bin bin = new Bin(sessionFactory.createSession(), minSizeBytes.get(), currentMaxSizeBytes, minEntries.get(),
-                    maxEntries.get(), fileCountAttribute.get());
+                final Bin bin = createBin(sessionFactory, currentMaxSizeBytes);
                 currentBins.add(bin);
-                binCount++;
-                final boolean added = bin.offer(flowFile, session);
-                if (!added) {
+                final boolean added = offer(bin, flowFile, session);
+                if (added) {
+                    accepted(bin, flowFile, contentToWrite);
+                } else {
                     unbinned.add(flowFile);
                 }
 
             }
         } finally {
-            wLock.unlock();
+            stripe.wLock.unlock();
+        }
+
+        // the content is written, and the FlowFiles committed, outside of the stripe's lock so that other groups in the stripe are not held up
+        for (final Map.Entry<Bin, List<FlowFile>> entry : contentToWrite.entrySet()) {
+            final List<FlowFile> unwritten = entry.getKey().writeContent(entry.getValue(), session);
+            if (!unwritten.isEmpty()) {
+                // the bin's writer failed before these FlowFiles could be written, so the bin accepts nothing more
+                unbinned.addAll(offer(groupIdentifier, unwritten, session, sessionFactory));
+            }
         }
 
         return unbinned;
     }
 
+    private void accepted(final Bin bin, final FlowFile flowFile, final Map<Bin, List<FlowFile>> contentToWrite) {
+        if (bin.getContentWriter() != null) {
+            contentToWrite.computeIfAbsent(bin, k -> new ArrayList<>()).add(flowFile);
+        }
+    }
+
     /**
-     * Finds all bins that are considered full and removes them from the manager.
+     * Finds all bins that are considered full and removes them from the manager. Stripes that are locked by another thread,
+     * because FlowFiles are being binned or bins removed, are skipped rather than waited for; any bins in them that are
+     * ready will be returned by a subsequent call.
      * <p/>
      * @param relaxFullnessConstraint if false will require bins to be full before considered ready; if true bins only have to meet their minimum size criteria or be 'old' and then they'll be
      * considered ready
      * @return bins that are considered full
      */
     public Collection<Bin> removeReadyBins(boolean relaxFullnessConstraint) {
-        final Map<String, List<Bin>> newGroupMap = new HashMap<>();
         final List<Bin> readyBins = new ArrayList<>();
 
-        wLock.lock();
-        try {
-            for (final Map.Entry<String, List<Bin>> group : groupBinMap.entrySet()) {
-                final List<Bin> remainingBins = new ArrayList<>();
-                for (final Bin bin : group.getValue()) {
-                    if (relaxFullnessConstraint && (bin.isFullEnough() || bin.isOlderThan(maxBinAgeSeconds.get(), TimeUnit.SECONDS))) { //relaxed check
-                        readyBins.add(bin);
-                    } else if (!relaxFullnessConstraint && bin.isFull()) { //strict check
-                        readyBins.add(bin);
-                    } else { //it isn't time yet...
-                        remainingBins.add(bin);
+        for (final Stripe stripe : stripes) {
+            if (!stripe.wLock.tryLock()) {
+                continue;
+            }
+
+            try {
+                final Iterator<List<Bin>> groupItr = stripe.groupBinMap.values().iterator();
+                while (groupItr.hasNext()) {
+                    final List<Bin> bins = groupItr.next();
+                    final Iterator<Bin> binItr = bins.iterator();
+                    while (binItr.hasNext()) {
+                        final Bin bin = binItr.next();
+                        if (relaxFullnessConstraint && (bin.isFullEnough() || bin.isOlderThan(maxBinAgeSeconds.get(), TimeUnit.SECONDS))) { //relaxed check
+                            readyBins.add(bin);
+                        } else if (!relaxFullnessConstraint && bin.isFull()) { //strict check
+                            readyBins.add(bin);
+                        } else { //it isn't time yet...
+                            continue;
+                        }
+
+                        binItr.remove();
+                        removed(bin);
+                    }
+
+                    if (bins.isEmpty()) {
+                        groupItr.remove();
                     }
                 }
-                if (!remainingBins.isEmpty()) {
-                    newGroupMap.put(group.getKey(), remainingBins);
-                }
+            } finally {
+                stripe.wLock.unlock();
             }
-            groupBinMap.clear();
-            groupBinMap.putAll(newGroupMap);
-            binCount -= readyBins.size();
-        } finally {
-            wLock.unlock();
         }
+
         return readyBins;
     }
 
+    /**
+     * Removes all bins from the manager, regardless of whether they are ready
+     *
+     * @return the bins that were removed
+     */
+    public Collection<Bin> removeAllBins() {
+        final List<Bin> bins = new ArrayList<>();
+
+        for (final Stripe stripe : stripes) {
+            stripe.wLock.lock();
+            try {
+                for (final List<Bin> binList : stripe.groupBinMap.values()) {
+                    for (final Bin bin : binList) {
+                        bins.add(bin);
+                        removed(bin);
+                    }
+                }
+                stripe.groupBinMap.clear();
+            } finally {
+                stripe.wLock.unlock();
+            }
+        }
+
+        return bins;
+    }
+
     public Bin removeOldestBin() {
-        wLock.lock();
-        try {
+        while (true) {
             Bin oldestBin = null;
             String oldestBinGroup = null;
+            Stripe oldestBinStripe = null;
 
-            for (final Map.Entry<String, List<Bin>> group : groupBinMap.entrySet()) {
-                for (final Bin bin : group.getValue()) {
-                    if (oldestBin == null || bin.isOlderThan(oldestBin)) {
-                        oldestBin = bin;
-                        oldestBinGroup = group.getKey();
+            for (final Stripe stripe : stripes) {
+                stripe.rLock.lock();
+                try {
+                    for (final Map.Entry<String, List<Bin>> group : stripe.groupBinMap.entrySet()) {
+                        for (final Bin bin : group.getValue()) {
+                            if (oldestBin == null || bin.isOlderThan(oldestBin)) {
+                                oldestBin = bin;
+                                oldestBinGroup = group.getKey();
+                                oldestBinStripe = stripe;
+                            }
+                        }
                     }
+                } finally {
+                    stripe.rLock.unlock();
                 }
             }
 
@@ -262,15 +394,21 @@ public class BinManager {
                 return null;
             }
 
-            binCount--;
-            final List<Bin> bins = groupBinMap.get(oldestBinGroup);
-            bins.remove(oldestBin);
-            if (bins.isEmpty()) {
-                groupBinMap.remove(oldestBinGroup);
+            // The stripe was unlocked while the others were searched, so another thread may have removed the bin in the
+            // meantime. If so, search again rather than returning a bin that is already being completed elsewhere.
+            oldestBinStripe.wLock.lock();
+            try {
+                final List<Bin> bins = oldestBinStripe.groupBinMap.get(oldestBinGroup);
+                if (bins != null && bins.remove(oldestBin)) {
+                    if (bins.isEmpty()) {
+                        oldestBinStripe.groupBinMap.remove(oldestBinGroup);
+                    }
+                    removed(oldestBin);
+                    return oldestBin;
+                }
+            } finally {
+                oldestBinStripe.wLock.unlock();
             }
-            return oldestBin;
-        } finally {
-            wLock.unlock();
         }
     }
 
@@ -278,18 +416,27 @@ public class BinManager {
      * @return true if any current bins are older than the allowable max
      */
     public boolean containsOldBins() {
-        rLock.lock();
-        try {
-            for (final List<Bin> bins : groupBinMap.values()) {
-                for (final Bin bin : bins) {
-                    if (bin.isOlderThan(maxBinAgeSeconds.get(), TimeUnit.SECONDS)) {
-                        return true;
+        for (final Stripe stripe : stripes) {
+            stripe.rLock.lock();
+            try {
+                for (final List<Bin> bins : stripe.groupBinMap.values()) {
+                    for (final Bin bin : bins) {
+                        if (bin.isOlderThan(maxBinAgeSeconds.get(), TimeUnit.SECONDS)) {
+                            return true;
+                        }
                     }
                 }
+            } finally {
+                stripe.rLock.unlock();
             }
-        } finally {
-            rLock.unlock();
         }
         return false;
     }
+
+    private static class Stripe {
+        private final Map<String, List<Bin>> groupBinMap = new HashMap<>(); // guarded by read/write lock
+        private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+        private final Lock rLock = rwLock.readLock();
+        private final Lock wLock = rwLock.writeLock();
+    }
 }
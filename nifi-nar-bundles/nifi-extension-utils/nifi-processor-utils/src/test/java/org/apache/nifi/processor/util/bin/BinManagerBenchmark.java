@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.bin;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.ProcessSessionFactory;
+import org.apache.nifi.util.MockFlowFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of binning FlowFiles, and completing the bins that fill up, when several threads share a single
+ * {@link BinManager}, as the concurrent tasks of a merge processor do. A stripe count of 1 corresponds to all groups sharing
+ * a single lock. This is not run as part of the build; run the main method from an IDE, or with the test classpath, to
+ * execute it for 1 to 32 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinManagerBenchmark {
+    private static final int FLOWFILES_PER_OFFER = 10;
+
+    // merge processors look for ready bins once per trigger, after binning up to 1,000 FlowFiles
+    private static final int OFFERS_PER_REMOVAL = 100;
+
+    @Param({"10", "1000", "100000"})
+    public int groupCount;
+
+    @Param({"1", "16"})
+    public int stripeCount;
+
+    private BinManager binManager;
+    private ProcessSessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        binManager = new BinManager(stripeCount);
+        binManager.setMaximumEntries(100);
+        sessionFactory = BinManagerBenchmark::createSession;
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() {
+        binManager.purge();
+    }
+
+    private static ProcessSession createSession() {
+        return (ProcessSession) Proxy.newProxyInstance(BinManagerBenchmark.class.getClassLoader(), new Class<?>[] {ProcessSession.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private static final AtomicLong flowFileIds = new AtomicLong(0L);
+
+        private final Random random = new Random();
+        private final ProcessSession session = createSession();
+        private final List<FlowFile> flowFiles = new ArrayList<>();
+        private int offers = 0;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            for (int i = 0; i < FLOWFILES_PER_OFFER; i++) {
+                flowFiles.add(new MockFlowFile(flowFileIds.incrementAndGet()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void offerAndRemoveReadyBins(final ThreadState state, final Blackhole blackhole) {
+        final String group = "group-" + state.random.nextInt(groupCount);
+        blackhole.consume(binManager.offer(group, state.flowFiles, state.session, sessionFactory));
+        if (++state.offers % OFFERS_PER_REMOVAL == 0) {
+            blackhole.consume(binManager.removeReadyBins(true));
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        for (final int threads : new int[] {1, 2, 4, 8, 16, 32}) {
+            final Options options = new OptionsBuilder()
+                .include(BinManagerBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.ProcessSessionFactory;
+import org.apache.nifi.util.MockFlowFile;
+import org.junit.Test;
+
+public class TestBinManager {
+
+    private final AtomicLong flowFileIds = new AtomicLong(0L);
+    private final ProcessSession session = createSession();
+    private final ProcessSessionFactory sessionFactory = TestBinManager::createSession;
+
+    /**
+     * Creates a session that ignores everything that is done with it, as the bin manager only migrates FlowFiles between sessions
+     */
+    private static ProcessSession createSession() {
+        return (ProcessSession) Proxy.newProxyInstance(TestBinManager.class.getClassLoader(), new Class<?>[] {ProcessSession.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ProcessSession";
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private FlowFile createFlowFile(final long size) {
+        return new MockFlowFile(flowFileIds.incrementAndGet()) {
+            @Override
+            public long getSize() {
+                return size;
+            }
+        };
+    }
+
+    @Test
+    public void testBinsCountedAcrossGroups() {
+        final BinManager binManager = new BinManager();
+        binManager.setMaximumEntries(3);
+
+        for (int group = 0; group < 100; group++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(binManager.offer("group-" + group, createFlowFile(10L), session, sessionFactory));
+            }
+        }
+        assertTrue(binManager.offer(null, createFlowFile(5L), session, sessionFactory));
+
+        assertEquals(101, binManager.getBinCount());
+        assertEquals(3005L, binManager.getBinnedBytes());
+
+        final Collection<Bin> readyBins = binManager.removeReadyBins(false);
+        assertEquals(100, readyBins.size());
+        for (final Bin bin : readyBins) {
+            assertEquals(3, bin.getContents().size());
+            assertEquals(30L, bin.getSize());
+        }
+
+        assertEquals(1, binManager.getBinCount());
+        assertEquals(5L, binManager.getBinnedBytes());
+
+        binManager.purge();
+        assertEquals(0, binManager.getBinCount());
+        assertEquals(0L, binManager.getBinnedBytes());
+    }
+
+    @Test
+    public void testOfferCollection() {
+        final BinManager binManager = new BinManager(1);
+        binManager.setMaximumSize(100L);
+        binManager.setMaximumEntries(2);
+
+        final FlowFile tooLarge = createFlowFile(101L);
+        final Set<FlowFile> unbinned = binManager.offer("group", Arrays.asList(createFlowFile(10L), createFlowFile(10L), createFlowFile(10L), tooLarge),
+            session, sessionFactory);
+
+        assertEquals(new HashSet<>(Arrays.asList(tooLarge)), unbinned);
+        assertEquals(2, binManager.getBinCount());
+        assertEquals(30L, binManager.getBinnedBytes());
+    }
+
+    @Test
+    public void testRemoveOldestBin() throws InterruptedException {
+        final BinManager binManager = new BinManager(4);
+        binManager.offer("first", createFlowFile(1L), session, sessionFactory);
+        Thread.sleep(5L);
+        binManager.offer("second", createFlowFile(2L), session, sessionFactory);
+        Thread.sleep(5L);
+        binManager.offer("third", createFlowFile(3L), session, sessionFactory);
+
+        assertEquals(1L, binManager.removeOldestBin().getSize());
+        assertEquals(2L, binManager.removeOldestBin().getSize());
+        assertEquals(1, binManager.getBinCount());
+        assertEquals(3L, binManager.getBinnedBytes());
+
+        assertEquals(3L, binManager.removeOldestBin().getSize());
+        assertNull(binManager.removeOldestBin());
+        assertEquals(0, binManager.getBinCount());
+    }
+
+    @Test
+    public void testConcurrentOffersAndRemovals() throws Exception {
+        final int threadCount = 8;
+        final int flowFilesPerThread = 5000;
+
+        final BinManager binManager = new BinManager();
+        binManager.setMaximumEntries(10);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount + 1);
+        try {
+            final List<Future<?>> offerFutures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                offerFutures.add(executor.submit(() -> {
+                    final ProcessSession threadSession = createSession();
+                    for (int i = 0; i < flowFilesPerThread; i++) {
+                        assertTrue(binManager.offer("group-" + (i % 50), createFlowFile(1L), threadSession, sessionFactory));
+                    }
+                }));
+            }
+
+            final AtomicBoolean offering = new AtomicBoolean(true);
+            final Future<List<Bin>> removeFuture = executor.submit(() -> {
+                final List<Bin> removed = new ArrayList<>();
+                while (offering.get()) {
+                    removed.addAll(binManager.removeReadyBins(false));
+                }
+                return removed;
+            });
+
+            for (final Future<?> future : offerFutures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            offering.set(false);
+
+            final List<Bin> bins = new ArrayList<>(removeFuture.get(30, TimeUnit.SECONDS));
+            bins.addAll(binManager.removeReadyBins(true));
+            assertEquals(0, binManager.getBinCount());
+            assertEquals(0L, binManager.getBinnedBytes());
+
+            final Set<FlowFile> binned = new HashSet<>();
+            for (final Bin bin : bins) {
+                assertTrue(bin.getContents().size() <= 10);
+                binned.addAll(bin.getContents());
+            }
+            assertEquals(threadCount * flowFilesPerThread, binned.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testContentWrittenOutsideStripeLock() throws Exception {
+        final CountDownLatch appending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final BinManager binManager = new BinManager(1);
+        binManager.setContentWriterFactory((bin, factory) -> new TestContentWriter(flowFile -> {
+            if (flowFile.getSize() == 2L) {
+                appending.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return true;
+        }));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Boolean> slowOffer = executor.submit(() -> binManager.offer("slow", createFlowFile(2L), createSession(), sessionFactory));
+            assertTrue(appending.await(30, TimeUnit.SECONDS));
+
+            // the only stripe is not locked while the slow group's content is written
+            assertTrue(binManager.offer("fast", createFlowFile(1L), session, sessionFactory));
+            final Collection<Bin> readyBins = binManager.removeReadyBins(true);
+            assertEquals(2, readyBins.size());
+
+            final Bin slowBin = readyBins.stream().filter(bin -> bin.getSize() == 2L).findFirst().get();
+            final Future<?> awaitFuture = executor.submit(slowBin::awaitContentWritten);
+            try {
+                awaitFuture.get(100, TimeUnit.MILLISECONDS);
+                throw new AssertionError("Bin was completed while its content was being written");
+            } catch (final TimeoutException expected) {
+            }
+
+            release.countDown();
+            assertTrue(slowOffer.get(30, TimeUnit.SECONDS));
+            awaitFuture.get(30, TimeUnit.SECONDS);
+            assertEquals(1, slowBin.getContents().size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testContentWriterFailure() {
+        final BinManager binManager = new BinManager(1);
+        binManager.setContentWriterFactory((bin, factory) -> new TestContentWriter(flowFile -> flowFile.getSize() != 2L));
+
+        final FlowFile written = createFlowFile(1L);
+        final FlowFile failed = createFlowFile(2L);
+        final FlowFile following = createFlowFile(3L);
+        assertTrue(binManager.offer("group", Arrays.asList(written, failed, following), session, sessionFactory).isEmpty());
+
+        // the failed bin accepts nothing more, so the FlowFile that followed the failure is placed in a new bin
+        assertEquals(2, binManager.getBinCount());
+
+        final Collection<Bin> readyBins = binManager.removeReadyBins(false);
+        assertEquals(1, readyBins.size());
+        final Bin bin = readyBins.iterator().next();
+        bin.awaitContentWritten();
+        assertEquals(Arrays.asList(written), bin.getContents());
+        assertEquals(1L, bin.getSize());
+    }
+
+    private static class TestContentWriter implements BinContentWriter {
+        private final Predicate<FlowFile> append;
+
+        TestContentWriter(final Predicate<FlowFile> append) {
+            this.append = append;
+        }
+
+        @Override
+        public boolean append(final FlowFile flowFile) {
+            return append.test(flowFile);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public FlowFile finish() {
+            return null;
+        }
+
+        @Override
+        public void abort() {
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.avro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.io.Decoder;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+
+/**
+ * <p>
+ * Decodes Avro binary-encoded records directly into the values of a {@link MapRecord}, without first reading each record into a
+ * GenericRecord. The Avro schema is compiled once into a tree of readers, one for each field and nested type, so an instance
+ * should be created once per schema and reused for every record written with that schema. Instances are immutable and thread-safe.
+ * </p>
+ *
+ * <p>
+ * The values produced are the same as those of {@link AvroTypeUtil#convertAvroRecordToMap(org.apache.avro.generic.GenericRecord, RecordSchema)}:
+ * logical types are converted to Dates, Times, Timestamps and BigDecimals, strings and enum symbols to Strings, bytes and fixed values to
+ * Object arrays of Bytes, nested records to MapRecords, and each top-level value is coerced to the type of the corresponding field in the
+ * RecordSchema. The one difference is that the value of a union is read using the branch that it was written with, rather than with the
+ * first branch that the value is compatible with.
+ * </p>
+ */
+public class AvroRecordDecoder {
+    private static final String LOGICAL_TYPE_DATE = "date";
+    private static final String LOGICAL_TYPE_TIME_MILLIS = "time-millis";
+    private static final String LOGICAL_TYPE_TIME_MICROS = "time-micros";
+    private static final String LOGICAL_TYPE_TIMESTAMP_MILLIS = "timestamp-millis";
+    private static final String LOGICAL_TYPE_TIMESTAMP_MICROS = "timestamp-micros";
+    private static final String LOGICAL_TYPE_DECIMAL = "decimal";
+
+    private final Schema avroSchema;
+    private final ValueReader[] fieldReaders;
+    private final RecordSchema recordSchema;
+    private final FieldDecoder[] fieldDecoders;
+    private final boolean projected;
+
+    /**
+     * @param avroSchema the schema that the records were written with, which must be a record schema
+     * @param recordSchema the schema of the Records to create
+     * @param requiredFieldNames the names of the fields whose values are to be decoded, or <code>null</code> to decode all fields.
+     *            The values of all other fields are skipped over, and are <code>null</code> in the Records that are created.
+     */
+    public AvroRecordDecoder(final Schema avroSchema, final RecordSchema recordSchema, final Set<String> requiredFieldNames) {
+        this(avroSchema, compileFields(avroSchema, requiredFieldNames), recordSchema);
+    }
+
+    private AvroRecordDecoder(final Schema avroSchema, final ValueReader[] fieldReaders, final RecordSchema recordSchema) {
+        this.avroSchema = avroSchema;
+        this.fieldReaders = fieldReaders;
+        this.recordSchema = recordSchema;
+
+        final List<Field> avroFields = avroSchema.getFields();
+        fieldDecoders = new FieldDecoder[avroFields.size()];
+
+        boolean skipsFields = false;
+        for (int i = 0; i < avroFields.size(); i++) {
+            final Field avroField = avroFields.get(i);
+            final Optional<RecordField> recordField = recordSchema.getField(avroField.name());
+
+            // As with a GenericRecord, a field of the RecordSchema is only populated by the Avro field of the same name, not by one of its aliases
+            if (fieldReaders[i] != null && recordField.isPresent() && recordField.get().getFieldName().equals(avroField.name())) {
+                fieldDecoders[i] = new FieldDecoder(avroField.name(), recordField.get().getDataType(), fieldReaders[i]);
+            } else {
+                fieldDecoders[i] = new FieldDecoder(avroField.schema());
+                skipsFields = true;
+            }
+        }
+
+        this.projected = skipsFields;
+    }
+
+    /**
+     * Returns a decoder that reads the same fields as this one into Records of the given schema. Only the top-level fields are matched
+     * against the given schema, so this is much cheaper than compiling the Avro schema again.
+     *
+     * @param recordSchema the schema of the Records to create
+     * @return a decoder for the given schema
+     */
+    public AvroRecordDecoder withRecordSchema(final RecordSchema recordSchema) {
+        if (recordSchema == this.recordSchema) {
+            return this;
+        }
+
+        return new AvroRecordDecoder(avroSchema, fieldReaders, recordSchema);
+    }
+
+    /**
+     * @return the schema of the Records that are created
+     */
+    public RecordSchema getRecordSchema() {
+        return recordSchema;
+    }
+
+    /**
+     * @return <code>true</code> if the values of some of the fields in the Avro data are skipped over rather than decoded,
+     *         in which case the Records created do not hold all of the data that was read
+     */
+    public boolean isProjected() {
+        return projected;
+    }
+
+    /**
+     * Reads the next record from the given decoder
+     *
+     * @param decoder the decoder to read from
+     * @return the values of the record, keyed by the names of the fields in the RecordSchema
+     * @throws IOException if unable to read from the decoder
+     */
+    public Map<String, Object> decode(final Decoder decoder) throws IOException {
+        final Map<String, Object> values = new HashMap<>(recordSchema.getFieldCount());
+        for (final FieldDecoder fieldDecoder : fieldDecoders) {
+            if (fieldDecoder.reader == null) {
+                skip(fieldDecoder.avroSchema, decoder);
+                continue;
+            }
+
+            final Object rawValue = fieldDecoder.reader.read(decoder);
+            values.put(fieldDecoder.fieldName, DataTypeUtils.convertType(rawValue, fieldDecoder.dataType, fieldDecoder.fieldName, StandardCharsets.UTF_8));
+        }
+
+        // Fields that are not in the Avro data, or that were skipped over, have null values
+        for (final String fieldName : recordSchema.getFieldNames()) {
+            values.putIfAbsent(fieldName, null);
+        }
+
+        return values;
+    }
+
+    private static ValueReader[] compileFields(final Schema avroSchema, final Set<String> requiredFieldNames) {
+        if (avroSchema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Cannot decode Records from Avro data whose schema is of type " + avroSchema.getType());
+        }
+
+        final Map<Schema, ValueReader> compiled = new IdentityHashMap<>();
+        final List<Field> avroFields = avroSchema.getFields();
+        final ValueReader[] fieldReaders = new ValueReader[avroFields.size()];
+        for (int i = 0; i < avroFields.size(); i++) {
+            final Field avroField = avroFields.get(i);
+            if (requiredFieldNames == null || requiredFieldNames.contains(avroField.name())) {
+                fieldReaders[i] = compile(avroField.schema(), compiled);
+            }
+        }
+
+        return fieldReaders;
+    }
+
+    private static ValueReader compile(final Schema schema, final Map<Schema, ValueReader> compiled) {
+        final ValueReader existing = compiled.get(schema);
+        if (existing != null) {
+            return existing;
+        }
+
+        final LogicalType logicalType = schema.getLogicalType();
+        final String logicalName = logicalType == null ? null : logicalType.getName();
+
+        switch (schema.getType()) {
+            case NULL:
+                return decoder -> {
+                    decoder.readNull();
+                    return null;
+                };
+            case BOOLEAN:
+                return Decoder::readBoolean;
+            case INT:
+                if (LOGICAL_TYPE_DATE.equals(logicalName)) {
+                    return decoder -> new java.sql.Date(TimeUnit.DAYS.toMillis(decoder.readInt()));
+                } else if (LOGICAL_TYPE_TIME_MILLIS.equals(logicalName)) {
+                    return decoder -> new java.sql.Time(decoder.readInt());
+                }
+                return Decoder::readInt;
+            case LONG:
+                if (LOGICAL_TYPE_TIME_MICROS.equals(logicalName)) {
+                    return decoder -> new java.sql.Time(TimeUnit.MICROSECONDS.toMillis(decoder.readLong()));
+                } else if (LOGICAL_TYPE_TIMESTAMP_MILLIS.equals(logicalName)) {
+                    return decoder -> new java.sql.Timestamp(decoder.readLong());
+                } else if (LOGICAL_TYPE_TIMESTAMP_MICROS.equals(logicalName)) {
+                    return decoder -> new java.sql.Timestamp(TimeUnit.MICROSECONDS.toMillis(decoder.readLong()));
+                }
+                return Decoder::readLong;
+            case FLOAT:
+                return Decoder::readFloat;
+            case DOUBLE:
+                return Decoder::readDouble;
+            case STRING:
+                return Decoder::readString;
+            case BYTES:
+                if (LOGICAL_TYPE_DECIMAL.equals(logicalName)) {
+                    final Conversions.DecimalConversion conversion = new Conversions.DecimalConversion();
+                    return decoder -> conversion.fromBytes(decoder.readBytes(null), schema, logicalType);
+                }
+                return decoder -> {
+                    final ByteBuffer buffer = decoder.readBytes(null);
+                    final byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    return AvroTypeUtil.convertByteArray(bytes);
+                };
+            case FIXED: {
+                final int size = schema.getFixedSize();
+                return decoder -> {
+                    final byte[] bytes = new byte[size];
+                    decoder.readFixed(bytes, 0, size);
+                    return AvroTypeUtil.convertByteArray(bytes);
+                };
+            }
+            case ENUM: {
+                final List<String> symbols = schema.getEnumSymbols();
+                return decoder -> symbols.get(decoder.readEnum());
+            }
+            case ARRAY: {
+                final ArrayReader arrayReader = new ArrayReader();
+                compiled.put(schema, arrayReader);
+                arrayReader.elementReader = compile(schema.getElementType(), compiled);
+                return arrayReader;
+            }
+            case MAP: {
+                final MapReader mapReader = new MapReader();
+                compiled.put(schema, mapReader);
+                mapReader.valueReader = compile(schema.getValueType(), compiled);
+                return mapReader;
+            }
+            case UNION: {
+                final List<Schema> branches = schema.getTypes();
+                final ValueReader[] branchReaders = new ValueReader[branches.size()];
+                for (int i = 0; i < branchReaders.length; i++) {
+                    branchReaders[i] = compile(branches.get(i), compiled);
+                }
+                return decoder -> branchReaders[decoder.readIndex()].read(decoder);
+            }
+            case RECORD: {
+                // Register the reader before compiling its fields, so that a recursive schema refers back to it
+                final NestedRecordReader recordReader = new NestedRecordReader(AvroTypeUtil.createSchema(schema));
+                compiled.put(schema, recordReader);
+
+                final List<Field> fields = schema.getFields();
+                recordReader.fieldNames = new String[fields.size()];
+                recordReader.fieldReaders = new ValueReader[fields.size()];
+                for (int i = 0; i < fields.size(); i++) {
+                    recordReader.fieldNames[i] = fields.get(i).name();
+                    recordReader.fieldReaders[i] = compile(fields.get(i).schema(), compiled);
+                }
+                return recordReader;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown Avro type " + schema.getType());
+        }
+    }
+
+    private static void skip(final Schema schema, final Decoder decoder) throws IOException {
+        switch (schema.getType()) {
+            case NULL:
+                decoder.readNull();
+                break;
+            case BOOLEAN:
+                decoder.readBoolean();
+                break;
+            case INT:
+                decoder.readInt();
+                break;
+            case LONG:
+                decoder.readLong();
+                break;
+            case FLOAT:
+                decoder.readFloat();
+                break;
+            case DOUBLE:
+                decoder.readDouble();
+                break;
+            case STRING:
+                decoder.skipString();
+                break;
+            case BYTES:
+                decoder.skipBytes();
+                break;
+            case FIXED:
+                decoder.skipFixed(schema.getFixedSize());
+                break;
+            case ENUM:
+                decoder.readEnum();
+                break;
+            case ARRAY:
+                // Blocks that were written with their size are skipped over in one go, in which case skipArray() does not return their item count
+                for (long count = decoder.skipArray(); count != 0; count = decoder.skipArray()) {
+                    for (long i = 0; i < count; i++) {
+                        skip(schema.getElementType(), decoder);
+                    }
+                }
+                break;
+            case MAP:
+                for (long count = decoder.skipMap(); count != 0; count = decoder.skipMap()) {
+                    for (long i = 0; i < count; i++) {
+                        decoder.skipString();
+                        skip(schema.getValueType(), decoder);
+                    }
+                }
+                break;
+            case UNION:
+                skip(schema.getTypes().get(decoder.readIndex()), decoder);
+                break;
+            case RECORD:
+                for (final Field field : schema.getFields()) {
+                    skip(field.schema(), decoder);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown Avro type " + schema.getType());
+        }
+    }
+
+    private interface ValueReader {
+        Object read(Decoder decoder) throws IOException;
+    }
+
+    private static class FieldDecoder {
+        private final String fieldName;
+        private final DataType dataType;
+        private final ValueReader reader;
+        private final Schema avroSchema;
+
+        FieldDecoder(final String fieldName, final DataType dataType, final ValueReader reader) {
+            this.fieldName = fieldName;
+            this.dataType = dataType;
+            this.reader = reader;
+            this.avroSchema = null;
+        }
+
+        FieldDecoder(final Schema skippedSchema) {
+            this.fieldName = null;
+            this.dataType = null;
+            this.reader = null;
+            this.avroSchema = skippedSchema;
+        }
+    }
+
+    private static class ArrayReader implements ValueReader {
+        private ValueReader elementReader;
+
+        @Override
+        public Object read(final Decoder decoder) throws IOException {
+            long count = decoder.readArrayStart();
+            if (count == 0) {
+                return new Object[0];
+            }
+
+            Object[] values = new Object[(int) count];
+            int index = 0;
+            while (count > 0) {
+                if (index + count > values.length) {
+                    final Object[] grown = new Object[(int) (index + count)];
+                    System.arraycopy(values, 0, grown, 0, index);
+                    values = grown;
+                }
+
+                for (long i = 0; i < count; i++) {
+                    values[index++] = elementReader.read(decoder);
+                }
+                count = decoder.arrayNext();
+            }
+
+            return values;
+        }
+    }
+
+    private static class MapReader implements ValueReader {
+        private ValueReader valueReader;
+
+        @Override
+        public Object read(final Decoder decoder) throws IOException {
+            long count = decoder.readMapStart();
+            final Map<String, Object> map = new HashMap<>((int) count);
+            while (count > 0) {
+                for (long i = 0; i < count; i++) {
+                    final String key = decoder.readString();
+                    map.put(key, valueReader.read(decoder));
+                }
+                count = decoder.mapNext();
+            }
+
+            return map;
+        }
+    }
+
+    private static class NestedRecordReader implements ValueReader {
+        private final RecordSchema childSchema;
+        private String[] fieldNames;
+        private ValueReader[] fieldReaders;
+
+        NestedRecordReader(final RecordSchema childSchema) {
+            this.childSchema = childSchema;
+        }
+
+        @Override
+        public Object read(final Decoder decoder) throws IOException {
+            final Map<String, Object> values = new HashMap<>(fieldNames.length);
+            for (int i = 0; i < fieldNames.length; i++) {
+                values.put(fieldNames[i], fieldReaders[i].read(decoder));
+            }
+
+            return new MapRecord(childSchema, values);
+        }
+    }
+}
@@ -46,6 +46,7 @@ import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.Schema.Type;
+import org.apache.avro.SchemaNormalization;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericData.Array;
 import org.apache.avro.generic.GenericFixed;
@@ -62,6 +63,7 @@ import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.SchemaIdentifier;
+import org.apache.nifi.serialization.record.SerializedForm;
 import org.apache.nifi.serialization.record.type.ArrayDataType;
 import org.apache.nifi.serialization.record.type.ChoiceDataType;
 import org.apache.nifi.serialization.record.type.MapDataType;
@@ -75,6 +77,12 @@ public class AvroTypeUtil {
     private static final Logger logger = LoggerFactory.getLogger(AvroTypeUtil.class);
     public static final String AVRO_SCHEMA_FORMAT = "avro";
 
+    /**
+     * The MIME type of a {@link SerializedForm} whose serialized object is a ByteBuffer that holds the Avro binary encoding of a single record.
+     * The MIME type of such a form also identifies the schema that the record was encoded with, see {@link #getEncodedRecordMimeType(Schema)}.
+     */
+    public static final String AVRO_RECORD_MIME_TYPE = "application/avro-binary";
+
     private static final String LOGICAL_TYPE_DATE = "date";
     private static final String LOGICAL_TYPE_TIME_MILLIS = "time-millis";
     private static final String LOGICAL_TYPE_TIME_MICROS = "time-micros";
@@ -465,6 +473,35 @@ public class AvroTypeUtil {
         return createAvroRecord(record, avroSchema, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Returns the MIME type of a {@link SerializedForm} that holds a record encoded with the given schema. Records encoded with two schemas
+     * that have the same Parsing Canonical Form have the same binary encoding, so they also have the same MIME type.
+     *
+     * @param avroSchema the schema that the record is encoded with
+     * @return the MIME type of the serialized form
+     */
+    public static String getEncodedRecordMimeType(final Schema avroSchema) {
+        return AVRO_RECORD_MIME_TYPE + "; fingerprint=" + Long.toHexString(SchemaNormalization.parsingFingerprint64(avroSchema));
+    }
+
+    /**
+     * Returns the Avro binary encoding of the given Record, if the Record was read from Avro data that was encoded with the schema
+     * identified by the given MIME type, and has not been modified since.
+     *
+     * @param record the Record
+     * @param encodedRecordMimeType the MIME type returned by {@link #getEncodedRecordMimeType(Schema)} for the schema to be written
+     * @return the encoded record, or <code>null</code> if the Record must be converted in order to be written with the schema
+     */
+    public static ByteBuffer getEncodedRecord(final Record record, final String encodedRecordMimeType) {
+        final Optional<SerializedForm> serializedForm = record.getSerializedForm();
+        if (!serializedForm.isPresent() || !encodedRecordMimeType.equals(serializedForm.get().getMimeType())) {
+            return null;
+        }
+
+        final Object serialized = serializedForm.get().getSerialized();
+        return serialized instanceof ByteBuffer ? ((ByteBuffer) serialized).duplicate() : null;
+    }
+
     public static GenericRecord createAvroRecord(final Record record, final Schema avroSchema, final Charset charset) throws IOException {
         final GenericRecord rec = new GenericData.Record(avroSchema);
         final RecordSchema recordSchema = record.getSchema();
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the cost of reading a block of Avro binary-encoded records into Records through a GenericRecord, as the Avro readers
+ * used to, with decoding them directly with an {@link AvroRecordDecoder}. This is not run as part of the build; run the main method
+ * from an IDE, or with the test classpath, to execute it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvroRecordDecoderBenchmark {
+    private static final int RECORD_COUNT = 100;
+
+    private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"person\", \"fields\": ["
+        + "{\"name\": \"id\", \"type\": \"int\"},"
+        + "{\"name\": \"name\", \"type\": [\"null\", \"string\"]},"
+        + "{\"name\": \"balance\", \"type\": \"double\"},"
+        + "{\"name\": \"updated\", \"type\": {\"type\": \"long\", \"logicalType\": \"timestamp-millis\"}},"
+        + "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+        + "{\"name\": \"attributes\", \"type\": {\"type\": \"map\", \"values\": \"string\"}},"
+        + "{\"name\": \"address\", \"type\": {\"type\": \"record\", \"name\": \"address\", \"fields\": ["
+        + "    {\"name\": \"street\", \"type\": \"string\"}, {\"name\": \"city\", \"type\": \"string\"}]}}"
+        + "]}";
+
+    private Schema avroSchema;
+    private RecordSchema recordSchema;
+    private byte[] encoded;
+
+    private GenericDatumReader<GenericRecord> datumReader;
+    private AvroRecordDecoder recordDecoder;
+    private BinaryDecoder decoder;
+
+    @Setup
+    public void setup() throws IOException {
+        avroSchema = new Schema.Parser().parse(SCHEMA);
+        recordSchema = AvroTypeUtil.createSchema(avroSchema);
+
+        final Schema addressSchema = avroSchema.getField("address").schema();
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("state", "NY");
+        attributes.put("country", "US");
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+        final GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(avroSchema);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            final GenericRecord address = new GenericData.Record(addressSchema);
+            address.put("street", i + " My Street");
+            address.put("city", "New York");
+
+            final GenericRecord record = new GenericData.Record(avroSchema);
+            record.put("id", i);
+            record.put("name", "John Doe " + i);
+            record.put("balance", 1000D * i);
+            record.put("updated", 1500000000000L + i);
+            record.put("tags", Arrays.asList("a", "b", "c"));
+            record.put("attributes", attributes);
+            record.put("address", address);
+            datumWriter.write(record, encoder);
+        }
+        encoder.flush();
+        encoded = baos.toByteArray();
+
+        datumReader = new GenericDatumReader<>(avroSchema);
+        recordDecoder = new AvroRecordDecoder(avroSchema, recordSchema, null);
+    }
+
+    @Benchmark
+    public void readThroughGenericRecord(final Blackhole blackhole) throws IOException {
+        decoder = DecoderFactory.get().binaryDecoder(encoded, decoder);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            final GenericRecord genericRecord = datumReader.read(null, decoder);
+            final Record record = new MapRecord(recordSchema, AvroTypeUtil.convertAvroRecordToMap(genericRecord, recordSchema));
+            blackhole.consume(record);
+        }
+    }
+
+    @Benchmark
+    public void readDirectly(final Blackhole blackhole) throws IOException {
+        decoder = DecoderFactory.get().binaryDecoder(encoded, decoder);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            final Record record = new MapRecord(recordSchema, recordDecoder.decode(decoder));
+            blackhole.consume(record);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(AvroRecordDecoderBenchmark.class.getSimpleName())
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.avro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.junit.Test;
+
+public class TestAvroRecordDecoder {
+
+    private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"person\", \"fields\": ["
+        + "{\"name\": \"id\", \"type\": \"int\"},"
+        + "{\"name\": \"name\", \"type\": [\"null\", \"string\"]},"
+        + "{\"name\": \"balance\", \"type\": \"double\"},"
+        + "{\"name\": \"active\", \"type\": \"boolean\"},"
+        + "{\"name\": \"joined\", \"type\": {\"type\": \"int\", \"logicalType\": \"date\"}},"
+        + "{\"name\": \"updated\", \"type\": {\"type\": \"long\", \"logicalType\": \"timestamp-millis\"}},"
+        + "{\"name\": \"amount\", \"type\": {\"type\": \"bytes\", \"logicalType\": \"decimal\", \"precision\": 10, \"scale\": 2}},"
+        + "{\"name\": \"photo\", \"type\": \"bytes\"},"
+        + "{\"name\": \"hash\", \"type\": {\"type\": \"fixed\", \"name\": \"hash\", \"size\": 2}},"
+        + "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"status\", \"symbols\": [\"NEW\", \"OLD\"]}},"
+        + "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+        + "{\"name\": \"scores\", \"type\": {\"type\": \"map\", \"values\": \"long\"}},"
+        + "{\"name\": \"address\", \"type\": [\"null\", {\"type\": \"record\", \"name\": \"address\", \"fields\": ["
+        + "    {\"name\": \"city\", \"type\": \"string\"}, {\"name\": \"previous\", \"type\": [\"null\", \"address\"]}]}]}"
+        + "]}";
+
+    private final Schema avroSchema = new Schema.Parser().parse(SCHEMA);
+
+    private GenericRecord createGenericRecord(final int id) {
+        final Schema addressSchema = avroSchema.getField("address").schema().getTypes().get(1);
+        final GenericRecord previous = new GenericData.Record(addressSchema);
+        previous.put("city", "Boston");
+        final GenericRecord address = new GenericData.Record(addressSchema);
+        address.put("city", "New York");
+        address.put("previous", previous);
+
+        final Map<String, Long> scores = new HashMap<>();
+        scores.put("math", 90L);
+        scores.put("art", 75L);
+
+        final Schema amountSchema = avroSchema.getField("amount").schema();
+        final GenericRecord record = new GenericData.Record(avroSchema);
+        record.put("id", id);
+        record.put("name", id % 2 == 0 ? null : "John");
+        record.put("balance", 40.8D);
+        record.put("active", true);
+        record.put("joined", 17000);
+        record.put("updated", 1500000000000L);
+        record.put("amount", new Conversions.DecimalConversion().toBytes(new BigDecimal("123.45"), amountSchema, LogicalTypes.decimal(10, 2)));
+        record.put("photo", ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        record.put("hash", new GenericData.Fixed(avroSchema.getField("hash").schema(), new byte[] {4, 5}));
+        record.put("status", new GenericData.EnumSymbol(avroSchema.getField("status").schema(), "OLD"));
+        record.put("tags", Arrays.asList("a", "b"));
+        record.put("scores", scores);
+        record.put("address", address);
+        return record;
+    }
+
+    private byte[] encode(final List<GenericRecord> records) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+        final GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(avroSchema);
+        for (final GenericRecord record : records) {
+            writer.write(record, encoder);
+        }
+        encoder.flush();
+        return baos.toByteArray();
+    }
+
+    private void assertValuesEqual(final Object expected, final Object actual) {
+        if (expected instanceof Object[]) {
+            assertTrue(actual instanceof Object[]);
+            final Object[] expectedArray = (Object[]) expected;
+            final Object[] actualArray = (Object[]) actual;
+            assertEquals(expectedArray.length, actualArray.length);
+            for (int i = 0; i < expectedArray.length; i++) {
+                assertValuesEqual(expectedArray[i], actualArray[i]);
+            }
+        } else if (expected instanceof Record) {
+            assertTrue(actual instanceof Record);
+            final Record expectedRecord = (Record) expected;
+            final Record actualRecord = (Record) actual;
+            assertEquals(expectedRecord.getSchema().getFieldNames(), actualRecord.getSchema().getFieldNames());
+            for (final String fieldName : expectedRecord.getSchema().getFieldNames()) {
+                assertValuesEqual(expectedRecord.getValue(fieldName), actualRecord.getValue(fieldName));
+            }
+        } else if (expected instanceof Map) {
+            final Map<?, ?> expectedMap = (Map<?, ?>) expected;
+            final Map<?, ?> actualMap = (Map<?, ?>) actual;
+            assertEquals(expectedMap.keySet(), actualMap.keySet());
+            for (final Object key : expectedMap.keySet()) {
+                assertValuesEqual(expectedMap.get(key), actualMap.get(key));
+            }
+        } else {
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testSameValuesAsGenericRecord() throws IOException {
+        final List<GenericRecord> records = Arrays.asList(createGenericRecord(1), createGenericRecord(2));
+        final byte[] encoded = encode(records);
+
+        final RecordSchema recordSchema = AvroTypeUtil.createSchema(avroSchema);
+        final AvroRecordDecoder recordDecoder = new AvroRecordDecoder(avroSchema, recordSchema, null);
+        assertFalse(recordDecoder.isProjected());
+
+        final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(encoded, null);
+        final GenericDatumReader<GenericRecord> datumReader = new GenericDatumReader<>(avroSchema);
+        final BinaryDecoder genericDecoder = DecoderFactory.get().binaryDecoder(encoded, null);
+
+        for (int i = 0; i < records.size(); i++) {
+            final Map<String, Object> expected = AvroTypeUtil.convertAvroRecordToMap(datumReader.read(null, genericDecoder), recordSchema);
+            assertValuesEqual(expected, recordDecoder.decode(decoder));
+        }
+        assertTrue(decoder.isEnd());
+    }
+
+    @Test
+    public void testRequiredFieldsOnly() throws IOException {
+        final byte[] encoded = encode(Arrays.asList(createGenericRecord(1), createGenericRecord(3)));
+
+        final RecordSchema recordSchema = AvroTypeUtil.createSchema(avroSchema);
+        final AvroRecordDecoder recordDecoder = new AvroRecordDecoder(avroSchema, recordSchema, new HashSet<>(Arrays.asList("id", "status")));
+        assertTrue(recordDecoder.isProjected());
+
+        final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(encoded, null);
+        Map<String, Object> values = recordDecoder.decode(decoder);
+        assertEquals(1, values.get("id"));
+        assertEquals("OLD", values.get("status"));
+        assertTrue(values.containsKey("name"));
+        assertNull(values.get("name"));
+        assertNull(values.get("address"));
+
+        // The fields that were skipped over must leave the decoder at the start of the next record
+        values = recordDecoder.decode(decoder);
+        assertEquals(3, values.get("id"));
+        assertTrue(decoder.isEnd());
+    }
+
+    @Test
+    public void testFieldsMissingFromRecordSchema() throws IOException {
+        final byte[] encoded = encode(Collections.singletonList(createGenericRecord(5)));
+        final Schema readSchema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"person\", \"fields\": ["
+            + "{\"name\": \"id\", \"type\": \"long\"}, {\"name\": \"nickname\", \"type\": [\"null\", \"string\"]}]}");
+
+        final AvroRecordDecoder fullDecoder = new AvroRecordDecoder(avroSchema, AvroTypeUtil.createSchema(avroSchema), null);
+        final AvroRecordDecoder recordDecoder = fullDecoder.withRecordSchema(AvroTypeUtil.createSchema(readSchema));
+        assertFalse(fullDecoder.isProjected());
+        assertTrue(recordDecoder.isProjected());
+
+        final Map<String, Object> values = recordDecoder.decode(DecoderFactory.get().binaryDecoder(encoded, null));
+        assertEquals(2, values.size());
+        assertEquals(5L, values.get("id"));
+        assertNull(values.get("nickname"));
+    }
+}
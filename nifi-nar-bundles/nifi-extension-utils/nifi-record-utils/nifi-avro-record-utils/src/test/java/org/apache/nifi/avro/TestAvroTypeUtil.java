@@ -19,6 +19,7 @@ package org.apache.nifi.avro;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -39,6 +40,7 @@ import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.Schema.Type;
+import org.apache.avro.SchemaBuilder;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
@@ -48,9 +50,11 @@ import org.apache.avro.generic.GenericData.Record;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.SerializedForm;
 import org.apache.nifi.serialization.record.type.RecordDataType;
 import org.junit.Assert;
 import org.junit.Test;
@@ -396,6 +400,31 @@ public class TestAvroTypeUtil {
 
     }
 
+    @Test
+    public void testGetEncodedRecord() {
+        final Schema avroSchema = SchemaBuilder.record("person").fields().requiredString("name").requiredInt("age").endRecord();
+        final String mimeType = AvroTypeUtil.getEncodedRecordMimeType(avroSchema);
+        final ByteBuffer encoded = ByteBuffer.wrap(new byte[] {8, 'J', 'o', 'h', 'n', 84});
+
+        final RecordSchema recordSchema = AvroTypeUtil.createSchema(avroSchema);
+        final Map<String, Object> values = new HashMap<>();
+        values.put("name", "John");
+        values.put("age", 42);
+        final org.apache.nifi.serialization.record.Record record = new MapRecord(recordSchema, values, SerializedForm.of(encoded, mimeType));
+
+        // An unmodified Record can be written as the bytes that it was read from
+        assertEquals(encoded, AvroTypeUtil.getEncodedRecord(record, mimeType));
+
+        // ... regardless of documentation, but only if the schemas encode the same way
+        final Schema documentedSchema = SchemaBuilder.record("person").doc("A person").fields().requiredString("name").requiredInt("age").endRecord();
+        assertEquals(mimeType, AvroTypeUtil.getEncodedRecordMimeType(documentedSchema));
+        final Schema otherSchema = SchemaBuilder.record("person").fields().requiredString("name").optionalInt("age").endRecord();
+        assertNull(AvroTypeUtil.getEncodedRecord(record, AvroTypeUtil.getEncodedRecordMimeType(otherSchema)));
+
+        record.setValue("age", 43);
+        assertNull(AvroTypeUtil.getEncodedRecord(record, mimeType));
+    }
+
     @Test
     public void testStringToBytesConversion() {
         Object o = AvroTypeUtil.convertToAvroObject("Hello", Schema.create(Type.BYTES), StandardCharsets.UTF_16);
@@ -30,6 +30,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -62,6 +63,8 @@ public abstract class AbstractConfiguredComponent implements ConfigurableCompone
     private final AtomicReference<String> name;
     private final AtomicReference<String> annotationData = new AtomicReference<>();
     private final AtomicReference<ValidationContext> validationContext = new AtomicReference<>();
+    private final AtomicLong validationGeneration = new AtomicLong(0L);
+    private final AtomicReference<CachedValidationErrors> cachedValidationErrors = new AtomicReference<>();
     private final String componentType;
     private final String componentCanonicalClass;
     private final ComponentVariableRegistry variableRegistry;
@@ -359,6 +362,10 @@ public abstract class AbstractConfiguredComponent implements ConfigurableCompone
 
     @Override
     public Collection<ValidationResult> validate(final ValidationContext context) {
+        return validateComponent(context);
+    }
+
+    private Collection<ValidationResult> validateComponent(final ValidationContext context) {
         try (final NarCloseable narCloseable = NarCloseable.withComponentNarLoader(getComponent().getClass(), getComponent().getIdentifier())) {
             final Collection<ValidationResult> validationResults = getComponent().validate(context);
 
@@ -486,15 +493,7 @@ public abstract class AbstractConfiguredComponent implements ConfigurableCompone
 
     @Override
     public boolean isValid() {
-        final Collection<ValidationResult> validationResults = validate(getValidationContext());
-
-        for (final ValidationResult result : validationResults) {
-            if (!result.isValid()) {
-                return false;
-            }
-        }
-
-        return true;
+        return getCachedValidationErrors().isEmpty();
     }
 
     @Override
@@ -503,22 +502,58 @@ public abstract class AbstractConfiguredComponent implements ConfigurableCompone
     }
 
     public Collection<ValidationResult> getValidationErrors(final Set<String> serviceIdentifiersNotToValidate) {
+        if (serviceIdentifiersNotToValidate == null || serviceIdentifiersNotToValidate.isEmpty()) {
+            return new ArrayList<>(getCachedValidationErrors());
+        }
+
+        final ValidationContext validationContext = getValidationContextFactory().newValidationContext(serviceIdentifiersNotToValidate,
+            getProperties(), getAnnotationData(), getProcessGroupIdentifier(), getIdentifier());
+        return computeValidationErrors(validationContext);
+    }
+
+    /**
+     * Returns the validation errors of the component itself, as of its current configuration. The errors are cached until
+     * {@link #resetValidationState()} is called, which happens whenever the configuration of the component changes and
+     * whenever a component that it depends on, such as a referenced Controller Service, changes state.
+     *
+     * @return the validation errors for the component's current configuration
+     */
+    protected Collection<ValidationResult> getCachedValidationErrors() {
+        final CachedValidationErrors cached = cachedValidationErrors.get();
+        if (cached != null && cached.getGeneration() == validationGeneration.get()) {
+            return cached.getErrors();
+        }
+
+        return performValidation();
+    }
+
+    @Override
+    public Collection<ValidationResult> performValidation() {
+        // Capture the generation before validating. If the component is changed while validation is in progress,
+        // the generation will no longer match and the results will not be used.
+        final long generation = validationGeneration.get();
+        final Collection<ValidationResult> errors = Collections.unmodifiableList(computeValidationErrors(getValidationContext()));
+        final CachedValidationErrors validated = new CachedValidationErrors(generation, errors);
+        cachedValidationErrors.updateAndGet(current -> current != null && current.getGeneration() > generation ? current : validated);
+        return errors;
+    }
+
+    @Override
+    public void resetValidationState() {
+        validationGeneration.incrementAndGet();
+    }
+
+    @Override
+    public boolean isValidationNecessary() {
+        final CachedValidationErrors cached = cachedValidationErrors.get();
+        return cached == null || cached.getGeneration() != validationGeneration.get();
+    }
+
+    private List<ValidationResult> computeValidationErrors(final ValidationContext validationContext) {
         final List<ValidationResult> results = new ArrayList<>();
         lock.lock();
         try {
-            final ValidationContext validationContext;
-            if (serviceIdentifiersNotToValidate == null || serviceIdentifiersNotToValidate.isEmpty()) {
-                validationContext = getValidationContext();
-            } else {
-                validationContext = getValidationContextFactory().newValidationContext(serviceIdentifiersNotToValidate,
-                    getProperties(), getAnnotationData(), getProcessGroupIdentifier(), getIdentifier());
-            }
-
-            final Collection<ValidationResult> validationResults;
-            try (final NarCloseable narCloseable = NarCloseable.withComponentNarLoader(getComponent().getClass(), getComponent().getIdentifier())) {
-                validationResults = getComponent().validate(validationContext);
-            }
-
+            final Collection<ValidationResult> validationResults = validateComponent(validationContext);
             for (final ValidationResult result : validationResults) {
                 if (!result.isValid()) {
                     results.add(result);
@@ -558,6 +593,7 @@ public abstract class AbstractConfiguredComponent implements ConfigurableCompone
 
     protected void invalidateValidationContext() {
         this.validationContext.set(null);
+        resetValidationState();
     }
 
     protected ValidationContext getValidationContext() {
@@ -604,4 +640,22 @@ public abstract class AbstractConfiguredComponent implements ConfigurableCompone
         this.additionalResourcesFingerprint = additionalResourcesFingerprint;
     }
 
+
+    private static class CachedValidationErrors {
+        private final long generation;
+        private final Collection<ValidationResult> errors;
+
+        CachedValidationErrors(final long generation, final Collection<ValidationResult> errors) {
+            this.generation = generation;
+            this.errors = errors;
+        }
+
+        long getGeneration() {
+            return generation;
+        }
+
+        Collection<ValidationResult> getErrors() {
+            return errors;
+        }
+    }
 }
@@ -87,6 +87,25 @@ public interface ConfiguredComponent extends ComponentAuthorizable {
      */
     Collection<ValidationResult> getValidationErrors();
 
+    /**
+     * Validates the component against its current configuration and caches the validation errors, so that subsequent
+     * calls to {@link #isValid()} and {@link #getValidationErrors()} do not need to perform validation again
+     *
+     * @return the validation errors for the component's current configuration
+     */
+    Collection<ValidationResult> performValidation();
+
+    /**
+     * Discards any cached validation errors so that the component is validated again the next time that it is needed.
+     * This is to be called whenever something that the validity of the component depends on changes.
+     */
+    void resetValidationState();
+
+    /**
+     * @return <code>true</code> if the component has changed since it was last validated, or has never been validated
+     */
+    boolean isValidationNecessary();
+
     /**
      * @return the type of the component. I.e., the class name of the implementation
      */
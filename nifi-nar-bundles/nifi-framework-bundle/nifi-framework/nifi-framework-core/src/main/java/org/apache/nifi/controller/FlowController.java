@@ -128,6 +128,7 @@ import org.apache.nifi.controller.status.history.GarbageCollectionStatus;
 import org.apache.nifi.controller.status.history.StandardGarbageCollectionStatus;
 import org.apache.nifi.controller.status.history.StatusHistoryUtil;
 import org.apache.nifi.controller.tasks.ExpireFlowFiles;
+import org.apache.nifi.controller.tasks.ValidateComponents;
 import org.apache.nifi.diagnostics.SystemDiagnostics;
 import org.apache.nifi.diagnostics.SystemDiagnosticsFactory;
 import org.apache.nifi.encrypt.StringEncryptor;
@@ -360,6 +361,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
     private final StringEncryptor encryptor;
 
     private final ScheduledExecutorService clusterTaskExecutor = new FlowEngine(3, "Clustering Tasks", true);
+    private final ScheduledExecutorService validationEngine = new FlowEngine(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), "Validate Components", true);
     private final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
 
     // guarded by rwLock
@@ -750,6 +752,9 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                 flowFileEventRepository, counterRepositoryRef.get(), provenanceRepository);
             processScheduler.scheduleFrameworkTask(new ExpireFlowFiles(this, contextFactory), "Expire FlowFiles", 30L, 30L, TimeUnit.SECONDS);
 
+            // Validate components in the background so that validation results are already cached when they are needed
+            validationEngine.scheduleWithFixedDelay(new ValidateComponents(this, validationEngine), 0L, 1L, TimeUnit.SECONDS);
+
             // now that we've loaded the FlowFiles, this has restored our ContentClaims' states, so we can tell the
             // ContentRepository to purge superfluous files
             contentRepository.cleanup();
@@ -1493,6 +1498,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
             }
 
             clusterTaskExecutor.shutdownNow();
+            validationEngine.shutdownNow();
 
             if (zooKeeperStateServer != null) {
                 zooKeeperStateServer.shutdown();
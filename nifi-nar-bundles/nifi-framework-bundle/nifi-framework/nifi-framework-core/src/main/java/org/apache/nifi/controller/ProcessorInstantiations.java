@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.nifi.controller.exception.ProcessorInstantiationException;
+import org.apache.nifi.controller.serialization.FlowSynchronizationException;
+import org.apache.nifi.web.api.dto.ProcessorDTO;
+
+/**
+ * Instantiates the Processors of a flow concurrently, across all of its Process Groups, on a single pool of threads that lives for
+ * one synchronization. Creating a Processor requires loading its class, building its InstanceClassLoader and calling its initialize
+ * method, none of which depends on any other Processor or Process Group. The Processors are submitted up front and then retrieved,
+ * one at a time, in the order in which the flow adds them to their groups, so any failure is reported for the first Processor in
+ * that order that could not be created.
+ */
+class ProcessorInstantiations implements AutoCloseable {
+
+    private static final ThreadFactory INSTANTIATION_THREAD_FACTORY = new ThreadFactory() {
+        private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = defaultFactory.newThread(r);
+            thread.setName("Instantiate Processors-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private final ProcessorFactory processorFactory;
+    private final ExecutorService executor;
+    private final Map<String, Instantiation> instantiations = new HashMap<>();
+
+    /**
+     * @param threadCount the number of threads on which to create Processors; if less than 2, each Processor is created by the
+     *            thread that submits it
+     * @param processorFactory creates a Processor from its DTO
+     */
+    ProcessorInstantiations(final int threadCount, final ProcessorFactory processorFactory) {
+        this.processorFactory = processorFactory;
+        this.executor = threadCount < 2 ? null : Executors.newFixedThreadPool(threadCount, INSTANTIATION_THREAD_FACTORY);
+    }
+
+    /**
+     * Starts creating the Processor described by the given DTO
+     *
+     * @param processorDTO the Processor to create
+     */
+    void submit(final ProcessorDTO processorDTO) {
+        final FutureTask<ProcessorNode> task = new FutureTask<>(() -> processorFactory.createProcessor(processorDTO));
+        instantiations.put(processorDTO.getId(), new Instantiation(processorDTO, task));
+
+        if (executor == null) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * @param processorId the identifier of a submitted Processor
+     * @return the DTO from which the Processor is created, or <code>null</code> if no Processor with that identifier was submitted
+     */
+    ProcessorDTO getProcessorDTO(final String processorId) {
+        final Instantiation instantiation = instantiations.get(processorId);
+        return instantiation == null ? null : instantiation.processorDTO;
+    }
+
+    /**
+     * Waits for the given Processor to be created
+     *
+     * @param processorId the identifier of a submitted Processor
+     * @return the Processor
+     * @throws ProcessorInstantiationException if the Processor could not be created
+     * @throws IllegalArgumentException if no Processor with that identifier was submitted
+     */
+    ProcessorNode getProcessor(final String processorId) throws ProcessorInstantiationException {
+        final Instantiation instantiation = instantiations.get(processorId);
+        if (instantiation == null) {
+            throw new IllegalArgumentException("No Processor with ID " + processorId + " was submitted for instantiation");
+        }
+
+        try {
+            return instantiation.task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlowSynchronizationException("Interrupted while waiting for Processors to be instantiated", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ProcessorInstantiationException) {
+                throw (ProcessorInstantiationException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FlowSynchronizationException(cause);
+        }
+    }
+
+    /**
+     * Stops the threads that create Processors, abandoning any that have not yet been created
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a Processor from its DTO
+     */
+    interface ProcessorFactory {
+        ProcessorNode createProcessor(ProcessorDTO processorDTO) throws ProcessorInstantiationException;
+    }
+
+    private static class Instantiation {
+        private final ProcessorDTO processorDTO;
+        private final FutureTask<ProcessorNode> task;
+
+        private Instantiation(final ProcessorDTO processorDTO, final FutureTask<ProcessorNode> task) {
+            this.processorDTO = processorDTO;
+            this.task = task;
+        }
+    }
+}
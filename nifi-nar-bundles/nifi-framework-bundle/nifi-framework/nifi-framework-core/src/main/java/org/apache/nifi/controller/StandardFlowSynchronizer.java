@@ -356,7 +356,9 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
                     final ProcessGroup rootGroup;
                     if (!flowAlreadySynchronized || existingFlowEmpty) {
                         logger.trace("Adding root process group");
-                        rootGroup = addProcessGroup(controller, /* parent group */ null, rootGroupElement, encryptor, encodingVersion);
+                        try (final ProcessorInstantiations processorInstantiations = instantiateProcessors(controller, rootGroupElement)) {
+                            rootGroup = addProcessGroup(controller, /* parent group */ null, rootGroupElement, encryptor, encodingVersion, processorInstantiations);
+                        }
                     } else {
                         logger.trace("Updating root process group");
                         rootGroup = updateProcessGroup(controller, /* parent group */ null, rootGroupElement, encryptor, encodingVersion);
@@ -1115,6 +1117,45 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
         }
     }
 
+    /**
+     * Starts instantiating every Processor in the given group and its descendants, so that the Processors of all groups are created
+     * concurrently while the groups are added one at a time.
+     */
+    private ProcessorInstantiations instantiateProcessors(final FlowController controller, final Element rootGroupElement) {
+        final List<Element> processorElements = new ArrayList<>();
+        collectProcessorElements(rootGroupElement, processorElements);
+
+        final int threadCount = Math.min(processorElements.size(), Runtime.getRuntime().availableProcessors());
+        final ProcessorInstantiations processorInstantiations = new ProcessorInstantiations(threadCount, processorDTO -> createProcessor(processorDTO, controller));
+        for (final Element processorElement : processorElements) {
+            processorInstantiations.submit(FlowFromDOMFactory.getProcessor(processorElement, encryptor));
+        }
+        return processorInstantiations;
+    }
+
+    private static void collectProcessorElements(final Element processGroupElement, final List<Element> processorElements) {
+        processorElements.addAll(getChildrenByTagName(processGroupElement, "processor"));
+        for (final Element nestedProcessGroupElement : getChildrenByTagName(processGroupElement, "processGroup")) {
+            collectProcessorElements(nestedProcessGroupElement, processorElements);
+        }
+    }
+
+    private ProcessorNode createProcessor(final ProcessorDTO processorDTO, final FlowController controller) throws ProcessorInstantiationException {
+        BundleCoordinate coordinate;
+        try {
+            coordinate = BundleUtils.getCompatibleBundle(processorDTO.getType(), processorDTO.getBundle());
+        } catch (final IllegalStateException e) {
+            final BundleDTO bundleDTO = processorDTO.getBundle();
+            if (bundleDTO == null) {
+                coordinate = BundleCoordinate.UNKNOWN_COORDINATE;
+            } else {
+                coordinate = new BundleCoordinate(bundleDTO.getGroup(), bundleDTO.getArtifact(), bundleDTO.getVersion());
+            }
+        }
+
+        return controller.createProcessor(processorDTO.getType(), processorDTO.getId(), coordinate, false);
+    }
+
     private void updateNonFingerprintedProcessorSettings(final ProcessorNode procNode, final ProcessorDTO processorDTO) {
         procNode.setName(processorDTO.getName());
         procNode.setPosition(toPosition(processorDTO.getPosition()));
@@ -1123,7 +1164,8 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
     }
 
     private ProcessGroup addProcessGroup(final FlowController controller, final ProcessGroup parentGroup, final Element processGroupElement,
-            final StringEncryptor encryptor, final FlowEncodingVersion encodingVersion) throws ProcessorInstantiationException {
+            final StringEncryptor encryptor, final FlowEncodingVersion encodingVersion, final ProcessorInstantiations processorInstantiations)
+            throws ProcessorInstantiationException {
         // get the parent group ID
         final String parentId = (parentGroup == null) ? null : parentGroup.getIdentifier();
 
@@ -1181,21 +1223,9 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
         // add processors
         final List<Element> processorNodeList = getChildrenByTagName(processGroupElement, "processor");
         for (final Element processorElement : processorNodeList) {
-            final ProcessorDTO processorDTO = FlowFromDOMFactory.getProcessor(processorElement, encryptor);
-
-            BundleCoordinate coordinate;
-            try {
-                coordinate = BundleUtils.getCompatibleBundle(processorDTO.getType(), processorDTO.getBundle());
-            } catch (final IllegalStateException e) {
-                final BundleDTO bundleDTO = processorDTO.getBundle();
-                if (bundleDTO == null) {
-                    coordinate = BundleCoordinate.UNKNOWN_COORDINATE;
-                } else {
-                    coordinate = new BundleCoordinate(bundleDTO.getGroup(), bundleDTO.getArtifact(), bundleDTO.getVersion());
-                }
-            }
-
-            final ProcessorNode procNode = controller.createProcessor(processorDTO.getType(), processorDTO.getId(), coordinate, false);
+            final String processorId = getString(processorElement, "id");
+            final ProcessorDTO processorDTO = processorInstantiations.getProcessorDTO(processorId);
+            final ProcessorNode procNode = processorInstantiations.getProcessor(processorId);
             procNode.setVersionedComponentId(processorDTO.getVersionedComponentId());
             processGroup.addProcessor(procNode);
             updateProcessor(procNode, processorDTO, processGroup, controller);
@@ -1322,7 +1352,7 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
         // add nested process groups (recursively)
         final List<Element> nestedProcessGroupNodeList = getChildrenByTagName(processGroupElement, "processGroup");
         for (final Element nestedProcessGroupElement : nestedProcessGroupNodeList) {
-            addProcessGroup(controller, processGroup, nestedProcessGroupElement, encryptor, encodingVersion);
+            addProcessGroup(controller, processGroup, nestedProcessGroupElement, encryptor, encodingVersion, processorInstantiations);
         }
 
         // add remote process group
@@ -1628,7 +1658,38 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
 
         final boolean inheritable = existingFlowFingerprintBeforeHash.equals(proposedFlowFingerprintBeforeHash);
         if (!inheritable) {
-            return findFirstDiscrepancy(existingFlowFingerprintBeforeHash, proposedFlowFingerprintBeforeHash, "Flows");
+            final String discrepancy = findFirstDiscrepancy(existingFlowFingerprintBeforeHash, proposedFlowFingerprintBeforeHash, "Flows");
+            final String differingGroupId = findFirstDifferingProcessGroup(fingerprintFactory, existingFlow, proposedFlow, controller);
+            if (differingGroupId == null) {
+                return discrepancy;
+            }
+
+            return discrepancy + "\nFirst Process Group whose configuration differs: " + differingGroupId;
+        }
+
+        return null;
+    }
+
+    /**
+     * Compares the Process Group hashes of the given flows and returns the identifier of the first Process Group whose subtree differs
+     * but that has no descendant that differs. Because the hashes are ordered with children before their parents, the first differing
+     * entry is always the deepest Process Group that accounts for the difference. This is for the error message only: both flows are
+     * parsed again, which is done only once their fingerprints are known to differ.
+     */
+    private String findFirstDifferingProcessGroup(final FingerprintFactory fingerprintFactory, final byte[] existingFlow, final byte[] proposedFlow, final FlowController controller) {
+        final Map<String, String> existingGroupHashes = fingerprintFactory.createProcessGroupHashes(existingFlow, controller);
+        final Map<String, String> proposedGroupHashes = fingerprintFactory.createProcessGroupHashes(proposedFlow, controller);
+
+        for (final Map.Entry<String, String> entry : proposedGroupHashes.entrySet()) {
+            if (!entry.getValue().equals(existingGroupHashes.get(entry.getKey()))) {
+                return entry.getKey();
+            }
+        }
+
+        for (final String existingGroupId : existingGroupHashes.keySet()) {
+            if (!proposedGroupHashes.containsKey(existingGroupId)) {
+                return existingGroupId;
+            }
         }
 
         return null;
@@ -898,6 +898,7 @@ public class StandardProcessorNode extends ProcessorNode implements Connectable
 
         final ProcessorDetails processorDetails = new ProcessorDetails(processor);
         processorRef.set(processorDetails);
+        resetValidationState();
     }
 
     @Override
@@ -991,13 +992,8 @@ public class StandardProcessorNode extends ProcessorNode implements Connectable
     @Override
     public boolean isValid() {
         try {
-            final ValidationContext validationContext = getValidationContext();
-            final Collection<ValidationResult> validationResults = super.validate(validationContext);
-
-            for (final ValidationResult result : validationResults) {
-                if (!result.isValid()) {
-                    return false;
-                }
+            if (!getCachedValidationErrors().isEmpty()) {
+                return false;
             }
 
             for (final Relationship undef : getUndefinedRelationships()) {
@@ -1036,15 +1032,7 @@ public class StandardProcessorNode extends ProcessorNode implements Connectable
             // Processors may go invalid while RUNNING, but only validating while STOPPED is a trade-off
             // we are willing to make in order to save on validation costs that would be unnecessary most of the time.
             if (getScheduledState() == ScheduledState.STOPPED) {
-                final ValidationContext validationContext = getValidationContext();
-
-                final Collection<ValidationResult> validationResults = super.validate(validationContext);
-
-                for (final ValidationResult result : validationResults) {
-                    if (!result.isValid()) {
-                        results.add(result);
-                    }
-                }
+                results.addAll(getCachedValidationErrors());
 
                 for (final Relationship relationship : getUndefinedRelationships()) {
                     if (!isAutoTerminated(relationship)) {
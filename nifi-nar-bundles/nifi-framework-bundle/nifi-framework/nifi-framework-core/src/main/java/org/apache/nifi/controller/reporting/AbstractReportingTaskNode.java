@@ -155,6 +155,7 @@ public abstract class AbstractReportingTaskNode extends AbstractConfiguredCompon
             throw new IllegalStateException("Cannot modify Reporting Task configuration while Reporting Task is running");
         }
         this.reportingTaskRef.set(new ReportingTaskDetails(reportingTask));
+        resetValidationState();
     }
 
     @Override
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.serialization;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * An XMLStreamWriter that delegates to another writer, adding a new line and indentation before each element so that
+ * the output matches that of an indenting Transformer. Elements that contain only text are kept on a single line.
+ *
+ * NOT THREAD-SAFE.
+ */
+public class IndentingXMLStreamWriter implements XMLStreamWriter {
+
+    private static final String INDENT = "  ";
+
+    private enum State {
+        SEEN_NOTHING,
+        SEEN_ELEMENT,
+        SEEN_DATA
+    }
+
+    private final XMLStreamWriter writer;
+    private final Deque<State> stateStack = new ArrayDeque<>();
+    private State state = State.SEEN_NOTHING;
+    private int depth = 0;
+
+    public IndentingXMLStreamWriter(final XMLStreamWriter writer) {
+        this.writer = writer;
+    }
+
+    private void onStartElement() throws XMLStreamException {
+        stateStack.push(State.SEEN_ELEMENT);
+        state = State.SEEN_NOTHING;
+        writeIndent();
+        depth++;
+    }
+
+    private void onEndElement() throws XMLStreamException {
+        depth--;
+        if (state == State.SEEN_ELEMENT) {
+            writeIndent();
+        }
+        state = stateStack.isEmpty() ? State.SEEN_ELEMENT : stateStack.pop();
+    }
+
+    private void onEmptyElement() throws XMLStreamException {
+        state = State.SEEN_ELEMENT;
+        writeIndent();
+    }
+
+    private void writeIndent() throws XMLStreamException {
+        writer.writeCharacters("\n");
+        for (int i = 0; i < depth; i++) {
+            writer.writeCharacters(INDENT);
+        }
+    }
+
+    @Override
+    public void writeStartElement(final String localName) throws XMLStreamException {
+        onStartElement();
+        writer.writeStartElement(localName);
+    }
+
+    @Override
+    public void writeStartElement(final String namespaceURI, final String localName) throws XMLStreamException {
+        onStartElement();
+        writer.writeStartElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeStartElement(final String prefix, final String localName, final String namespaceURI) throws XMLStreamException {
+        onStartElement();
+        writer.writeStartElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(final String namespaceURI, final String localName) throws XMLStreamException {
+        onEmptyElement();
+        writer.writeEmptyElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(final String prefix, final String localName, final String namespaceURI) throws XMLStreamException {
+        onEmptyElement();
+        writer.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(final String localName) throws XMLStreamException {
+        onEmptyElement();
+        writer.writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        onEndElement();
+        writer.writeEndElement();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        writer.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        writer.flush();
+    }
+
+    @Override
+    public void writeAttribute(final String localName, final String value) throws XMLStreamException {
+        writer.writeAttribute(localName, value);
+    }
+
+    @Override
+    public void writeAttribute(final String prefix, final String namespaceURI, final String localName, final String value) throws XMLStreamException {
+        writer.writeAttribute(prefix, namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeAttribute(final String namespaceURI, final String localName, final String value) throws XMLStreamException {
+        writer.writeAttribute(namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(final String prefix, final String namespaceURI) throws XMLStreamException {
+        writer.writeNamespace(prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(final String namespaceURI) throws XMLStreamException {
+        writer.writeDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public void writeComment(final String data) throws XMLStreamException {
+        writer.writeComment(data);
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target) throws XMLStreamException {
+        writer.writeProcessingInstruction(target);
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target, final String data) throws XMLStreamException {
+        writer.writeProcessingInstruction(target, data);
+    }
+
+    @Override
+    public void writeCData(final String data) throws XMLStreamException {
+        state = State.SEEN_DATA;
+        writer.writeCData(data);
+    }
+
+    @Override
+    public void writeDTD(final String dtd) throws XMLStreamException {
+        writer.writeDTD(dtd);
+    }
+
+    @Override
+    public void writeEntityRef(final String name) throws XMLStreamException {
+        state = State.SEEN_DATA;
+        writer.writeEntityRef(name);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        writer.writeStartDocument();
+    }
+
+    @Override
+    public void writeStartDocument(final String version) throws XMLStreamException {
+        writer.writeStartDocument(version);
+    }
+
+    @Override
+    public void writeStartDocument(final String encoding, final String version) throws XMLStreamException {
+        writer.writeStartDocument(encoding, version);
+    }
+
+    @Override
+    public void writeCharacters(final String text) throws XMLStreamException {
+        state = State.SEEN_DATA;
+        writer.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(final char[] text, final int start, final int len) throws XMLStreamException {
+        state = State.SEEN_DATA;
+        writer.writeCharacters(text, start, len);
+    }
+
+    @Override
+    public String getPrefix(final String uri) throws XMLStreamException {
+        return writer.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(final String prefix, final String uri) throws XMLStreamException {
+        writer.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(final String uri) throws XMLStreamException {
+        writer.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void setNamespaceContext(final NamespaceContext context) throws XMLStreamException {
+        writer.setNamespaceContext(context);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return writer.getNamespaceContext();
+    }
+
+    @Override
+    public Object getProperty(final String name) throws IllegalArgumentException {
+        return writer.getProperty(name);
+    }
+}
@@ -44,39 +44,39 @@ import org.apache.nifi.registry.flow.FlowRegistryClient;
 import org.apache.nifi.registry.flow.VersionControlInformation;
 import org.apache.nifi.remote.RemoteGroupPort;
 import org.apache.nifi.remote.RootGroupPort;
+import org.apache.nifi.security.xml.XmlUtils;
 import org.apache.nifi.util.CharacterFilterUtils;
 import org.apache.nifi.util.StringUtils;
-import org.w3c.dom.DOMException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Serializes a Flow Controller as XML to an output stream.
+ * Serializes a Flow Controller as XML to an output stream. The XML is written as the flow is traversed, rather than being
+ * built up as a DOM first, so that serializing a large flow does not require the entire document to be held in memory.
  *
  * NOT THREAD-SAFE.
  */
 public class StandardFlowSerializer implements FlowSerializer {
 
     private static final String MAX_ENCODING_VERSION = "1.3";
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
 
     private final StringEncryptor encryptor;
 
@@ -87,382 +87,341 @@ public class StandardFlowSerializer implements FlowSerializer {
     @Override
     public void serialize(final FlowController controller, final OutputStream os, final ScheduledStateLookup scheduledStateLookup) throws FlowSerializationException {
         try {
-            // create a new, empty document
-            final DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-            docFactory.setNamespaceAware(true);
-
-            final DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-            final Document doc = docBuilder.newDocument();
+            final BufferedOutputStream bufferedOut = new BufferedOutputStream(os);
+            final Writer out = new ControlCharacterEscapingWriter(new OutputStreamWriter(bufferedOut, StandardCharsets.UTF_8));
+            final XMLStreamWriter writer = new IndentingXMLStreamWriter(XML_OUTPUT_FACTORY.createXMLStreamWriter(out));
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
 
             // populate document with controller state
-            final Element rootNode = doc.createElement("flowController");
-            rootNode.setAttribute("encoding-version", MAX_ENCODING_VERSION);
-            doc.appendChild(rootNode);
-            addTextElement(rootNode, "maxTimerDrivenThreadCount", controller.getMaxTimerDrivenThreadCount());
-            addTextElement(rootNode, "maxEventDrivenThreadCount", controller.getMaxEventDrivenThreadCount());
+            writer.writeStartElement("flowController");
+            writer.writeAttribute("encoding-version", MAX_ENCODING_VERSION);
+            addTextElement(writer, "maxTimerDrivenThreadCount", controller.getMaxTimerDrivenThreadCount());
+            addTextElement(writer, "maxEventDrivenThreadCount", controller.getMaxEventDrivenThreadCount());
 
-            final Element registriesElement = doc.createElement("registries");
-            rootNode.appendChild(registriesElement);
+            writer.writeStartElement("registries");
+            addFlowRegistries(writer, controller.getFlowRegistryClient());
+            writer.writeEndElement();
 
-            addFlowRegistries(registriesElement, controller.getFlowRegistryClient());
-            addProcessGroup(rootNode, controller.getGroup(controller.getRootGroupId()), "rootGroup", scheduledStateLookup);
+            addProcessGroup(writer, controller.getGroup(controller.getRootGroupId()), "rootGroup", scheduledStateLookup);
 
             // Add root-level controller services
-            final Element controllerServicesNode = doc.createElement("controllerServices");
-            rootNode.appendChild(controllerServicesNode);
+            writer.writeStartElement("controllerServices");
             for (final ControllerServiceNode serviceNode : controller.getRootControllerServices()) {
-                addControllerService(controllerServicesNode, serviceNode);
+                addControllerService(writer, serviceNode);
             }
+            writer.writeEndElement();
 
-            final Element reportingTasksNode = doc.createElement("reportingTasks");
-            rootNode.appendChild(reportingTasksNode);
+            writer.writeStartElement("reportingTasks");
             for (final ReportingTaskNode taskNode : controller.getAllReportingTasks()) {
-                addReportingTask(reportingTasksNode, taskNode, encryptor);
+                addReportingTask(writer, taskNode, encryptor);
             }
+            writer.writeEndElement();
 
-            final DOMSource domSource = new DOMSource(doc);
-            final StreamResult streamResult = new StreamResult(new BufferedOutputStream(os));
-
-            // configure the transformer and convert the DOM
-            final TransformerFactory transformFactory = TransformerFactory.newInstance();
-            final Transformer transformer = transformFactory.newTransformer();
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-            // transform the document to byte stream
-            transformer.transform(domSource, streamResult);
-
-        } catch (final ParserConfigurationException | DOMException | TransformerFactoryConfigurationError | IllegalArgumentException | TransformerException e) {
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+            bufferedOut.flush();
+        } catch (final XMLStreamException | IOException | IllegalArgumentException e) {
             throw new FlowSerializationException(e);
         }
     }
 
-    private void addFlowRegistries(final Element parentElement, final FlowRegistryClient registryClient) {
+    private void addFlowRegistries(final XMLStreamWriter writer, final FlowRegistryClient registryClient) throws XMLStreamException {
         for (final String registryId : registryClient.getRegistryIdentifiers()) {
             final FlowRegistry flowRegistry = registryClient.getFlowRegistry(registryId);
 
-            final Element registryElement = parentElement.getOwnerDocument().createElement("flowRegistry");
-            parentElement.appendChild(registryElement);
-
-            addStringElement(registryElement, "id", flowRegistry.getIdentifier());
-            addStringElement(registryElement, "name", flowRegistry.getName());
-            addStringElement(registryElement, "url", flowRegistry.getURL());
-            addStringElement(registryElement, "description", flowRegistry.getDescription());
+            writer.writeStartElement("flowRegistry");
+            addTextElement(writer, "id", flowRegistry.getIdentifier());
+            addTextElement(writer, "name", flowRegistry.getName());
+            addTextElement(writer, "url", flowRegistry.getURL());
+            addTextElement(writer, "description", flowRegistry.getDescription());
+            writer.writeEndElement();
         }
     }
 
-    private void addStringElement(final Element parentElement, final String elementName, final String value) {
-        final Element childElement = parentElement.getOwnerDocument().createElement(elementName);
-        childElement.setTextContent(value);
-        parentElement.appendChild(childElement);
-    }
-
-    private void addSize(final Element parentElement, final Size size) {
-        final Element element = parentElement.getOwnerDocument().createElement("size");
-        element.setAttribute("width", String.valueOf(size.getWidth()));
-        element.setAttribute("height", String.valueOf(size.getHeight()));
-        parentElement.appendChild(element);
+    private void addSize(final XMLStreamWriter writer, final Size size) throws XMLStreamException {
+        writer.writeEmptyElement("size");
+        writer.writeAttribute("width", String.valueOf(size.getWidth()));
+        writer.writeAttribute("height", String.valueOf(size.getHeight()));
     }
 
-    private void addPosition(final Element parentElement, final Position position) {
-        addPosition(parentElement, position, "position");
+    private void addPosition(final XMLStreamWriter writer, final Position position) throws XMLStreamException {
+        addPosition(writer, position, "position");
     }
 
-    private void addPosition(final Element parentElement, final Position position, final String elementName) {
-        final Element element = parentElement.getOwnerDocument().createElement(elementName);
-        element.setAttribute("x", String.valueOf(position.getX()));
-        element.setAttribute("y", String.valueOf(position.getY()));
-        parentElement.appendChild(element);
+    private void addPosition(final XMLStreamWriter writer, final Position position, final String elementName) throws XMLStreamException {
+        writer.writeEmptyElement(elementName);
+        writer.writeAttribute("x", String.valueOf(position.getX()));
+        writer.writeAttribute("y", String.valueOf(position.getY()));
     }
 
-    private void addProcessGroup(final Element parentElement, final ProcessGroup group, final String elementName, final ScheduledStateLookup scheduledStateLookup) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement(elementName);
-        parentElement.appendChild(element);
-        addTextElement(element, "id", group.getIdentifier());
-        addTextElement(element, "versionedComponentId", group.getVersionedComponentId());
-        addTextElement(element, "name", group.getName());
-        addPosition(element, group.getPosition());
-        addTextElement(element, "comment", group.getComments());
+    private void addProcessGroup(final XMLStreamWriter writer, final ProcessGroup group, final String elementName, final ScheduledStateLookup scheduledStateLookup)
+            throws XMLStreamException {
+        writer.writeStartElement(elementName);
+        addTextElement(writer, "id", group.getIdentifier());
+        addTextElement(writer, "versionedComponentId", group.getVersionedComponentId());
+        addTextElement(writer, "name", group.getName());
+        addPosition(writer, group.getPosition());
+        addTextElement(writer, "comment", group.getComments());
 
         final VersionControlInformation versionControlInfo = group.getVersionControlInformation();
         if (versionControlInfo != null) {
-            final Element versionControlInfoElement = doc.createElement("versionControlInformation");
-            addTextElement(versionControlInfoElement, "registryId", versionControlInfo.getRegistryIdentifier());
-            addTextElement(versionControlInfoElement, "bucketId", versionControlInfo.getBucketIdentifier());
-            addTextElement(versionControlInfoElement, "bucketName", versionControlInfo.getBucketName());
-            addTextElement(versionControlInfoElement, "flowId", versionControlInfo.getFlowIdentifier());
-            addTextElement(versionControlInfoElement, "flowName", versionControlInfo.getFlowName());
-            addTextElement(versionControlInfoElement, "flowDescription", versionControlInfo.getFlowDescription());
-            addTextElement(versionControlInfoElement, "version", versionControlInfo.getVersion());
-            element.appendChild(versionControlInfoElement);
+            writer.writeStartElement("versionControlInformation");
+            addTextElement(writer, "registryId", versionControlInfo.getRegistryIdentifier());
+            addTextElement(writer, "bucketId", versionControlInfo.getBucketIdentifier());
+            addTextElement(writer, "bucketName", versionControlInfo.getBucketName());
+            addTextElement(writer, "flowId", versionControlInfo.getFlowIdentifier());
+            addTextElement(writer, "flowName", versionControlInfo.getFlowName());
+            addTextElement(writer, "flowDescription", versionControlInfo.getFlowDescription());
+            addTextElement(writer, "version", versionControlInfo.getVersion());
+            writer.writeEndElement();
         }
 
         for (final ProcessorNode processor : group.getProcessors()) {
-            addProcessor(element, processor, scheduledStateLookup);
+            addProcessor(writer, processor, scheduledStateLookup);
         }
 
         if (group.isRootGroup()) {
             for (final Port port : group.getInputPorts()) {
-                addRootGroupPort(element, (RootGroupPort) port, "inputPort", scheduledStateLookup);
+                addRootGroupPort(writer, (RootGroupPort) port, "inputPort", scheduledStateLookup);
             }
 
             for (final Port port : group.getOutputPorts()) {
-                addRootGroupPort(element, (RootGroupPort) port, "outputPort", scheduledStateLookup);
+                addRootGroupPort(writer, (RootGroupPort) port, "outputPort", scheduledStateLookup);
             }
         } else {
             for (final Port port : group.getInputPorts()) {
-                addPort(element, port, "inputPort", scheduledStateLookup);
+                addPort(writer, port, "inputPort", scheduledStateLookup);
             }
 
             for (final Port port : group.getOutputPorts()) {
-                addPort(element, port, "outputPort", scheduledStateLookup);
+                addPort(writer, port, "outputPort", scheduledStateLookup);
             }
         }
 
         for (final Label label : group.getLabels()) {
-            addLabel(element, label);
+            addLabel(writer, label);
         }
 
         for (final Funnel funnel : group.getFunnels()) {
-            addFunnel(element, funnel);
+            addFunnel(writer, funnel);
         }
 
         for (final ProcessGroup childGroup : group.getProcessGroups()) {
-            addProcessGroup(element, childGroup, "processGroup", scheduledStateLookup);
+            addProcessGroup(writer, childGroup, "processGroup", scheduledStateLookup);
         }
 
         for (final RemoteProcessGroup remoteRef : group.getRemoteProcessGroups()) {
-            addRemoteProcessGroup(element, remoteRef, scheduledStateLookup);
+            addRemoteProcessGroup(writer, remoteRef, scheduledStateLookup);
         }
 
         for (final Connection connection : group.getConnections()) {
-            addConnection(element, connection);
+            addConnection(writer, connection);
         }
 
         for (final ControllerServiceNode service : group.getControllerServices(false)) {
-            addControllerService(element, service);
+            addControllerService(writer, service);
         }
 
         for (final Template template : group.getTemplates()) {
-            addTemplate(element, template);
+            addTemplate(writer, template);
         }
 
         final VariableRegistry variableRegistry = group.getVariableRegistry();
         for (final Map.Entry<VariableDescriptor, String> entry : variableRegistry.getVariableMap().entrySet()) {
-            addVariable(element, entry.getKey().getName(), entry.getValue());
+            addVariable(writer, entry.getKey().getName(), entry.getValue());
         }
-    }
 
-    private static void addVariable(final Element parentElement, final String variableName, final String variableValue) {
-        final Element variableElement = parentElement.getOwnerDocument().createElement("variable");
-        variableElement.setAttribute("name", variableName);
-        variableElement.setAttribute("value", variableValue);
-        parentElement.appendChild(variableElement);
+        writer.writeEndElement();
     }
 
-    private static void addBundle(final Element parentElement, final BundleCoordinate coordinate) {
-        // group
-        final Element groupElement = parentElement.getOwnerDocument().createElement("group");
-        groupElement.setTextContent(coordinate.getGroup());
-
-        // artifact
-        final Element artifactElement = parentElement.getOwnerDocument().createElement("artifact");
-        artifactElement.setTextContent(coordinate.getId());
-
-        // version
-        final Element versionElement = parentElement.getOwnerDocument().createElement("version");
-        versionElement.setTextContent(coordinate.getVersion());
-
-        // bundle
-        final Element bundleElement = parentElement.getOwnerDocument().createElement("bundle");
-        bundleElement.appendChild(groupElement);
-        bundleElement.appendChild(artifactElement);
-        bundleElement.appendChild(versionElement);
+    private static void addVariable(final XMLStreamWriter writer, final String variableName, final String variableValue) throws XMLStreamException {
+        writer.writeEmptyElement("variable");
+        writer.writeAttribute("name", variableName);
+        writer.writeAttribute("value", variableValue == null ? "" : variableValue);
+    }
 
-        parentElement.appendChild(bundleElement);
+    private static void addBundle(final XMLStreamWriter writer, final BundleCoordinate coordinate) throws XMLStreamException {
+        writer.writeStartElement("bundle");
+        addTextElement(writer, "group", coordinate.getGroup());
+        addTextElement(writer, "artifact", coordinate.getId());
+        addTextElement(writer, "version", coordinate.getVersion());
+        writer.writeEndElement();
     }
 
-    private void addStyle(final Element parentElement, final Map<String, String> style) {
-        final Element element = parentElement.getOwnerDocument().createElement("styles");
+    private void addStyle(final XMLStreamWriter writer, final Map<String, String> style) throws XMLStreamException {
+        writer.writeStartElement("styles");
 
         for (final Map.Entry<String, String> entry : style.entrySet()) {
-            final Element styleElement = parentElement.getOwnerDocument().createElement("style");
-            styleElement.setAttribute("name", entry.getKey());
-            styleElement.setTextContent(entry.getValue());
-            element.appendChild(styleElement);
+            writer.writeStartElement("style");
+            writer.writeAttribute("name", entry.getKey());
+            if (entry.getValue() != null) {
+                writer.writeCharacters(entry.getValue());
+            }
+            writer.writeEndElement();
         }
 
-        parentElement.appendChild(element);
+        writer.writeEndElement();
     }
 
-    private void addLabel(final Element parentElement, final Label label) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement("label");
-        parentElement.appendChild(element);
-        addTextElement(element, "id", label.getIdentifier());
-        addTextElement(element, "versionedComponentId", label.getVersionedComponentId());
+    private void addLabel(final XMLStreamWriter writer, final Label label) throws XMLStreamException {
+        writer.writeStartElement("label");
+        addTextElement(writer, "id", label.getIdentifier());
+        addTextElement(writer, "versionedComponentId", label.getVersionedComponentId());
 
-        addPosition(element, label.getPosition());
-        addSize(element, label.getSize());
-        addStyle(element, label.getStyle());
+        addPosition(writer, label.getPosition());
+        addSize(writer, label.getSize());
+        addStyle(writer, label.getStyle());
 
-        addTextElement(element, "value", label.getValue());
-        parentElement.appendChild(element);
+        addTextElement(writer, "value", label.getValue());
+        writer.writeEndElement();
     }
 
-    private void addFunnel(final Element parentElement, final Funnel funnel) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement("funnel");
-        parentElement.appendChild(element);
-        addTextElement(element, "id", funnel.getIdentifier());
-        addTextElement(element, "versionedComponentId", funnel.getVersionedComponentId());
-        addPosition(element, funnel.getPosition());
+    private void addFunnel(final XMLStreamWriter writer, final Funnel funnel) throws XMLStreamException {
+        writer.writeStartElement("funnel");
+        addTextElement(writer, "id", funnel.getIdentifier());
+        addTextElement(writer, "versionedComponentId", funnel.getVersionedComponentId());
+        addPosition(writer, funnel.getPosition());
+        writer.writeEndElement();
     }
 
-    private void addRemoteProcessGroup(final Element parentElement, final RemoteProcessGroup remoteRef, final ScheduledStateLookup scheduledStateLookup) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement("remoteProcessGroup");
-        parentElement.appendChild(element);
-        addTextElement(element, "id", remoteRef.getIdentifier());
-        addTextElement(element, "versionedComponentId", remoteRef.getVersionedComponentId());
-        addTextElement(element, "name", remoteRef.getName());
-        addPosition(element, remoteRef.getPosition());
-        addTextElement(element, "comment", remoteRef.getComments());
-        addTextElement(element, "url", remoteRef.getTargetUri());
-        addTextElement(element, "urls", remoteRef.getTargetUris());
-        addTextElement(element, "timeout", remoteRef.getCommunicationsTimeout());
-        addTextElement(element, "yieldPeriod", remoteRef.getYieldDuration());
-        addTextElement(element, "transmitting", String.valueOf(remoteRef.isTransmitting()));
-        addTextElement(element, "transportProtocol", remoteRef.getTransportProtocol().name());
-        addTextElement(element, "proxyHost", remoteRef.getProxyHost());
+    private void addRemoteProcessGroup(final XMLStreamWriter writer, final RemoteProcessGroup remoteRef, final ScheduledStateLookup scheduledStateLookup) throws XMLStreamException {
+        writer.writeStartElement("remoteProcessGroup");
+        addTextElement(writer, "id", remoteRef.getIdentifier());
+        addTextElement(writer, "versionedComponentId", remoteRef.getVersionedComponentId());
+        addTextElement(writer, "name", remoteRef.getName());
+        addPosition(writer, remoteRef.getPosition());
+        addTextElement(writer, "comment", remoteRef.getComments());
+        addTextElement(writer, "url", remoteRef.getTargetUri());
+        addTextElement(writer, "urls", remoteRef.getTargetUris());
+        addTextElement(writer, "timeout", remoteRef.getCommunicationsTimeout());
+        addTextElement(writer, "yieldPeriod", remoteRef.getYieldDuration());
+        addTextElement(writer, "transmitting", String.valueOf(remoteRef.isTransmitting()));
+        addTextElement(writer, "transportProtocol", remoteRef.getTransportProtocol().name());
+        addTextElement(writer, "proxyHost", remoteRef.getProxyHost());
         if (remoteRef.getProxyPort() != null) {
-            addTextElement(element, "proxyPort", remoteRef.getProxyPort());
+            addTextElement(writer, "proxyPort", remoteRef.getProxyPort());
         }
-        addTextElement(element, "proxyUser", remoteRef.getProxyUser());
+        addTextElement(writer, "proxyUser", remoteRef.getProxyUser());
         if (!StringUtils.isEmpty(remoteRef.getProxyPassword())) {
             final String value = ENC_PREFIX + encryptor.encrypt(remoteRef.getProxyPassword()) + ENC_SUFFIX;
-            addTextElement(element, "proxyPassword", value);
+            addTextElement(writer, "proxyPassword", value);
         }
         if (remoteRef.getNetworkInterface() != null) {
-            addTextElement(element, "networkInterface", remoteRef.getNetworkInterface());
+            addTextElement(writer, "networkInterface", remoteRef.getNetworkInterface());
         }
 
         for (final RemoteGroupPort port : remoteRef.getInputPorts()) {
             if (port.hasIncomingConnection()) {
-                addRemoteGroupPort(element, port, "inputPort", scheduledStateLookup);
+                addRemoteGroupPort(writer, port, "inputPort", scheduledStateLookup);
             }
         }
 
         for (final RemoteGroupPort port : remoteRef.getOutputPorts()) {
             if (!port.getConnections().isEmpty()) {
-                addRemoteGroupPort(element, port, "outputPort", scheduledStateLookup);
+                addRemoteGroupPort(writer, port, "outputPort", scheduledStateLookup);
             }
         }
 
-        parentElement.appendChild(element);
+        writer.writeEndElement();
     }
 
-    private void addRemoteGroupPort(final Element parentElement, final RemoteGroupPort port, final String elementName, final ScheduledStateLookup scheduledStateLookup) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement(elementName);
-        parentElement.appendChild(element);
-        addTextElement(element, "id", port.getIdentifier());
-        addTextElement(element, "versionedComponentId", port.getVersionedComponentId());
-        addTextElement(element, "name", port.getName());
-        addPosition(element, port.getPosition());
-        addTextElement(element, "comments", port.getComments());
-        addTextElement(element, "scheduledState", scheduledStateLookup.getScheduledState(port).name());
-        addTextElement(element, "targetId", port.getTargetIdentifier());
-        addTextElement(element, "maxConcurrentTasks", port.getMaxConcurrentTasks());
-        addTextElement(element, "useCompression", String.valueOf(port.isUseCompression()));
+    private void addRemoteGroupPort(final XMLStreamWriter writer, final RemoteGroupPort port, final String elementName, final ScheduledStateLookup scheduledStateLookup)
+            throws XMLStreamException {
+        writer.writeStartElement(elementName);
+        addTextElement(writer, "id", port.getIdentifier());
+        addTextElement(writer, "versionedComponentId", port.getVersionedComponentId());
+        addTextElement(writer, "name", port.getName());
+        addPosition(writer, port.getPosition());
+        addTextElement(writer, "comments", port.getComments());
+        addTextElement(writer, "scheduledState", scheduledStateLookup.getScheduledState(port).name());
+        addTextElement(writer, "targetId", port.getTargetIdentifier());
+        addTextElement(writer, "maxConcurrentTasks", port.getMaxConcurrentTasks());
+        addTextElement(writer, "useCompression", String.valueOf(port.isUseCompression()));
         final Integer batchCount = port.getBatchCount();
         if (batchCount != null && batchCount > 0) {
-            addTextElement(element, "batchCount", batchCount);
+            addTextElement(writer, "batchCount", batchCount);
         }
         final String batchSize = port.getBatchSize();
         if (batchSize != null && batchSize.length() > 0) {
-            addTextElement(element, "batchSize", batchSize);
+            addTextElement(writer, "batchSize", batchSize);
         }
         final String batchDuration = port.getBatchDuration();
         if (batchDuration != null && batchDuration.length() > 0) {
-            addTextElement(element, "batchDuration", batchDuration);
+            addTextElement(writer, "batchDuration", batchDuration);
         }
 
-        parentElement.appendChild(element);
+        writer.writeEndElement();
     }
 
-    private void addPort(final Element parentElement, final Port port, final String elementName, final ScheduledStateLookup scheduledStateLookup) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement(elementName);
-        parentElement.appendChild(element);
-        addTextElement(element, "id", port.getIdentifier());
-        addTextElement(element, "versionedComponentId", port.getVersionedComponentId());
-        addTextElement(element, "name", port.getName());
-        addPosition(element, port.getPosition());
-        addTextElement(element, "comments", port.getComments());
-        addTextElement(element, "scheduledState", scheduledStateLookup.getScheduledState(port).name());
-
-        parentElement.appendChild(element);
+    private void addPort(final XMLStreamWriter writer, final Port port, final String elementName, final ScheduledStateLookup scheduledStateLookup) throws XMLStreamException {
+        writer.writeStartElement(elementName);
+        addTextElement(writer, "id", port.getIdentifier());
+        addTextElement(writer, "versionedComponentId", port.getVersionedComponentId());
+        addTextElement(writer, "name", port.getName());
+        addPosition(writer, port.getPosition());
+        addTextElement(writer, "comments", port.getComments());
+        addTextElement(writer, "scheduledState", scheduledStateLookup.getScheduledState(port).name());
+
+        writer.writeEndElement();
     }
 
-    private void addRootGroupPort(final Element parentElement, final RootGroupPort port, final String elementName, final ScheduledStateLookup scheduledStateLookup) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement(elementName);
-        parentElement.appendChild(element);
-        addTextElement(element, "id", port.getIdentifier());
-        addTextElement(element, "versionedComponentId", port.getVersionedComponentId());
-        addTextElement(element, "name", port.getName());
-        addPosition(element, port.getPosition());
-        addTextElement(element, "comments", port.getComments());
-        addTextElement(element, "scheduledState", scheduledStateLookup.getScheduledState(port).name());
-        addTextElement(element, "maxConcurrentTasks", String.valueOf(port.getMaxConcurrentTasks()));
+    private void addRootGroupPort(final XMLStreamWriter writer, final RootGroupPort port, final String elementName, final ScheduledStateLookup scheduledStateLookup)
+            throws XMLStreamException {
+        writer.writeStartElement(elementName);
+        addTextElement(writer, "id", port.getIdentifier());
+        addTextElement(writer, "versionedComponentId", port.getVersionedComponentId());
+        addTextElement(writer, "name", port.getName());
+        addPosition(writer, port.getPosition());
+        addTextElement(writer, "comments", port.getComments());
+        addTextElement(writer, "scheduledState", scheduledStateLookup.getScheduledState(port).name());
+        addTextElement(writer, "maxConcurrentTasks", String.valueOf(port.getMaxConcurrentTasks()));
         for (final String user : port.getUserAccessControl()) {
-            addTextElement(element, "userAccessControl", user);
+            addTextElement(writer, "userAccessControl", user);
         }
         for (final String group : port.getGroupAccessControl()) {
-            addTextElement(element, "groupAccessControl", group);
+            addTextElement(writer, "groupAccessControl", group);
         }
 
-        parentElement.appendChild(element);
+        writer.writeEndElement();
     }
 
-    private void addProcessor(final Element parentElement, final ProcessorNode processor, final ScheduledStateLookup scheduledStateLookup) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement("processor");
-        parentElement.appendChild(element);
-        addTextElement(element, "id", processor.getIdentifier());
-        addTextElement(element, "versionedComponentId", processor.getVersionedComponentId());
-        addTextElement(element, "name", processor.getName());
+    private void addProcessor(final XMLStreamWriter writer, final ProcessorNode processor, final ScheduledStateLookup scheduledStateLookup) throws XMLStreamException {
+        writer.writeStartElement("processor");
+        addTextElement(writer, "id", processor.getIdentifier());
+        addTextElement(writer, "versionedComponentId", processor.getVersionedComponentId());
+        addTextElement(writer, "name", processor.getName());
 
-        addPosition(element, processor.getPosition());
-        addStyle(element, processor.getStyle());
+        addPosition(writer, processor.getPosition());
+        addStyle(writer, processor.getStyle());
 
-        addTextElement(element, "comment", processor.getComments());
-        addTextElement(element, "class", processor.getCanonicalClassName());
+        addTextElement(writer, "comment", processor.getComments());
+        addTextElement(writer, "class", processor.getCanonicalClassName());
 
-        addBundle(element, processor.getBundleCoordinate());
+        addBundle(writer, processor.getBundleCoordinate());
 
-        addTextElement(element, "maxConcurrentTasks", processor.getMaxConcurrentTasks());
-        addTextElement(element, "schedulingPeriod", processor.getSchedulingPeriod());
-        addTextElement(element, "penalizationPeriod", processor.getPenalizationPeriod());
-        addTextElement(element, "yieldPeriod", processor.getYieldPeriod());
-        addTextElement(element, "bulletinLevel", processor.getBulletinLevel().toString());
-        addTextElement(element, "lossTolerant", String.valueOf(processor.isLossTolerant()));
-        addTextElement(element, "scheduledState", scheduledStateLookup.getScheduledState(processor).name());
-        addTextElement(element, "schedulingStrategy", processor.getSchedulingStrategy().name());
-        addTextElement(element, "executionNode", processor.getExecutionNode().name());
-        addTextElement(element, "runDurationNanos", processor.getRunDuration(TimeUnit.NANOSECONDS));
+        addTextElement(writer, "maxConcurrentTasks", processor.getMaxConcurrentTasks());
+        addTextElement(writer, "schedulingPeriod", processor.getSchedulingPeriod());
+        addTextElement(writer, "penalizationPeriod", processor.getPenalizationPeriod());
+        addTextElement(writer, "yieldPeriod", processor.getYieldPeriod());
+        addTextElement(writer, "bulletinLevel", processor.getBulletinLevel().toString());
+        addTextElement(writer, "lossTolerant", String.valueOf(processor.isLossTolerant()));
+        addTextElement(writer, "scheduledState", scheduledStateLookup.getScheduledState(processor).name());
+        addTextElement(writer, "schedulingStrategy", processor.getSchedulingStrategy().name());
+        addTextElement(writer, "executionNode", processor.getExecutionNode().name());
+        addTextElement(writer, "runDurationNanos", processor.getRunDuration(TimeUnit.NANOSECONDS));
 
-        addConfiguration(element, processor.getProperties(), processor.getAnnotationData(), encryptor);
+        addConfiguration(writer, processor.getProperties(), processor.getAnnotationData(), encryptor);
 
         for (final Relationship rel : processor.getAutoTerminatedRelationships()) {
-            addTextElement(element, "autoTerminatedRelationship", rel.getName());
+            addTextElement(writer, "autoTerminatedRelationship", rel.getName());
         }
+
+        writer.writeEndElement();
     }
 
-    private static void addConfiguration(final Element element, final Map<PropertyDescriptor, String> properties, final String annotationData, final StringEncryptor encryptor) {
-        final Document doc = element.getOwnerDocument();
+    private static void addConfiguration(final XMLStreamWriter writer, final Map<PropertyDescriptor, String> properties, final String annotationData, final StringEncryptor encryptor)
+            throws XMLStreamException {
         for (final Map.Entry<PropertyDescriptor, String> entry : properties.entrySet()) {
             final PropertyDescriptor descriptor = entry.getKey();
             String value = entry.getValue();
@@ -475,36 +434,33 @@ public class StandardFlowSerializer implements FlowSerializer {
                 value = descriptor.getDefaultValue();
             }
 
-            final Element propElement = doc.createElement("property");
-            addTextElement(propElement, "name", descriptor.getName());
+            writer.writeStartElement("property");
+            addTextElement(writer, "name", descriptor.getName());
             if (value != null) {
-                addTextElement(propElement, "value", value);
+                addTextElement(writer, "value", value);
             }
-
-            element.appendChild(propElement);
+            writer.writeEndElement();
         }
 
         if (annotationData != null) {
-            addTextElement(element, "annotationData", annotationData);
+            addTextElement(writer, "annotationData", annotationData);
         }
     }
 
-    private void addConnection(final Element parentElement, final Connection connection) {
-        final Document doc = parentElement.getOwnerDocument();
-        final Element element = doc.createElement("connection");
-        parentElement.appendChild(element);
-        addTextElement(element, "id", connection.getIdentifier());
-        addTextElement(element, "versionedComponentId", connection.getVersionedComponentId());
-        addTextElement(element, "name", connection.getName());
+    private void addConnection(final XMLStreamWriter writer, final Connection connection) throws XMLStreamException {
+        writer.writeStartElement("connection");
+        addTextElement(writer, "id", connection.getIdentifier());
+        addTextElement(writer, "versionedComponentId", connection.getVersionedComponentId());
+        addTextElement(writer, "name", connection.getName());
 
-        final Element bendPointsElement = doc.createElement("bendPoints");
-        element.appendChild(bendPointsElement);
+        writer.writeStartElement("bendPoints");
         for (final Position bendPoint : connection.getBendPoints()) {
-            addPosition(bendPointsElement, bendPoint, "bendPoint");
+            addPosition(writer, bendPoint, "bendPoint");
         }
+        writer.writeEndElement();
 
-        addTextElement(element, "labelIndex", connection.getLabelIndex());
-        addTextElement(element, "zIndex", connection.getZIndex());
+        addTextElement(writer, "labelIndex", connection.getLabelIndex());
+        addTextElement(writer, "zIndex", connection.getZIndex());
 
         final String sourceId = connection.getSource().getIdentifier();
         final ConnectableType sourceType = connection.getSource().getConnectableType();
@@ -524,104 +480,198 @@ public class StandardFlowSerializer implements FlowSerializer {
             destinationGroupId = connection.getDestination().getProcessGroup().getIdentifier();
         }
 
-        addTextElement(element, "sourceId", sourceId);
-        addTextElement(element, "sourceGroupId", sourceGroupId);
-        addTextElement(element, "sourceType", sourceType.toString());
+        addTextElement(writer, "sourceId", sourceId);
+        addTextElement(writer, "sourceGroupId", sourceGroupId);
+        addTextElement(writer, "sourceType", sourceType.toString());
 
-        addTextElement(element, "destinationId", destinationId);
-        addTextElement(element, "destinationGroupId", destinationGroupId);
-        addTextElement(element, "destinationType", destinationType.toString());
+        addTextElement(writer, "destinationId", destinationId);
+        addTextElement(writer, "destinationGroupId", destinationGroupId);
+        addTextElement(writer, "destinationType", destinationType.toString());
 
         for (final Relationship relationship : connection.getRelationships()) {
-            addTextElement(element, "relationship", relationship.getName());
+            addTextElement(writer, "relationship", relationship.getName());
         }
 
-        addTextElement(element, "maxWorkQueueSize", connection.getFlowFileQueue().getBackPressureObjectThreshold());
-        addTextElement(element, "maxWorkQueueDataSize", connection.getFlowFileQueue().getBackPressureDataSizeThreshold());
+        addTextElement(writer, "maxWorkQueueSize", connection.getFlowFileQueue().getBackPressureObjectThreshold());
+        addTextElement(writer, "maxWorkQueueDataSize", connection.getFlowFileQueue().getBackPressureDataSizeThreshold());
 
-        addTextElement(element, "flowFileExpiration", connection.getFlowFileQueue().getFlowFileExpiration());
+        addTextElement(writer, "flowFileExpiration", connection.getFlowFileQueue().getFlowFileExpiration());
         for (final FlowFilePrioritizer comparator : connection.getFlowFileQueue().getPriorities()) {
             final String className = comparator.getClass().getCanonicalName();
-            addTextElement(element, "queuePrioritizerClass", className);
+            addTextElement(writer, "queuePrioritizerClass", className);
         }
 
-        parentElement.appendChild(element);
+        writer.writeEndElement();
     }
 
-    public void addControllerService(final Element element, final ControllerServiceNode serviceNode) {
-        final Element serviceElement = element.getOwnerDocument().createElement("controllerService");
-        addTextElement(serviceElement, "id", serviceNode.getIdentifier());
-        addTextElement(serviceElement, "versionedComponentId", serviceNode.getVersionedComponentId());
-        addTextElement(serviceElement, "name", serviceNode.getName());
-        addTextElement(serviceElement, "comment", serviceNode.getComments());
-        addTextElement(serviceElement, "class", serviceNode.getCanonicalClassName());
+    private void addControllerService(final XMLStreamWriter writer, final ControllerServiceNode serviceNode) throws XMLStreamException {
+        writer.writeStartElement("controllerService");
+        addTextElement(writer, "id", serviceNode.getIdentifier());
+        addTextElement(writer, "versionedComponentId", serviceNode.getVersionedComponentId());
+        addTextElement(writer, "name", serviceNode.getName());
+        addTextElement(writer, "comment", serviceNode.getComments());
+        addTextElement(writer, "class", serviceNode.getCanonicalClassName());
 
-        addBundle(serviceElement, serviceNode.getBundleCoordinate());
+        addBundle(writer, serviceNode.getBundleCoordinate());
 
         final ControllerServiceState state = serviceNode.getState();
         final boolean enabled = (state == ControllerServiceState.ENABLED || state == ControllerServiceState.ENABLING);
-        addTextElement(serviceElement, "enabled", String.valueOf(enabled));
+        addTextElement(writer, "enabled", String.valueOf(enabled));
 
-        addConfiguration(serviceElement, serviceNode.getProperties(), serviceNode.getAnnotationData(), encryptor);
+        addConfiguration(writer, serviceNode.getProperties(), serviceNode.getAnnotationData(), encryptor);
 
-        element.appendChild(serviceElement);
+        writer.writeEndElement();
     }
 
-    public static void addReportingTask(final Element element, final ReportingTaskNode taskNode, final StringEncryptor encryptor) {
-        final Element taskElement = element.getOwnerDocument().createElement("reportingTask");
-        addTextElement(taskElement, "id", taskNode.getIdentifier());
-        addTextElement(taskElement, "name", taskNode.getName());
-        addTextElement(taskElement, "comment", taskNode.getComments());
-        addTextElement(taskElement, "class", taskNode.getCanonicalClassName());
+    private static void addReportingTask(final XMLStreamWriter writer, final ReportingTaskNode taskNode, final StringEncryptor encryptor) throws XMLStreamException {
+        writer.writeStartElement("reportingTask");
+        addTextElement(writer, "id", taskNode.getIdentifier());
+        addTextElement(writer, "name", taskNode.getName());
+        addTextElement(writer, "comment", taskNode.getComments());
+        addTextElement(writer, "class", taskNode.getCanonicalClassName());
 
-        addBundle(taskElement, taskNode.getBundleCoordinate());
+        addBundle(writer, taskNode.getBundleCoordinate());
 
-        addTextElement(taskElement, "schedulingPeriod", taskNode.getSchedulingPeriod());
-        addTextElement(taskElement, "scheduledState", taskNode.getScheduledState().name());
-        addTextElement(taskElement, "schedulingStrategy", taskNode.getSchedulingStrategy().name());
+        addTextElement(writer, "schedulingPeriod", taskNode.getSchedulingPeriod());
+        addTextElement(writer, "scheduledState", taskNode.getScheduledState().name());
+        addTextElement(writer, "schedulingStrategy", taskNode.getSchedulingStrategy().name());
 
-        addConfiguration(taskElement, taskNode.getProperties(), taskNode.getAnnotationData(), encryptor);
+        addConfiguration(writer, taskNode.getProperties(), taskNode.getAnnotationData(), encryptor);
 
-        element.appendChild(taskElement);
+        writer.writeEndElement();
     }
 
-    private static void addTextElement(final Element element, final String name, final long value) {
-        addTextElement(element, name, String.valueOf(value));
+    private static void addTextElement(final XMLStreamWriter writer, final String name, final long value) throws XMLStreamException {
+        addTextElement(writer, name, String.valueOf(value));
     }
 
-    private static void addTextElement(final Element element, final String name, final String value) {
-        final Document doc = element.getOwnerDocument();
-        final Element toAdd = doc.createElement(name);
-        toAdd.setTextContent(CharacterFilterUtils.filterInvalidXmlCharacters(value)); // value should already be filtered, but just in case ensure there are no invalid xml characters
-        element.appendChild(toAdd);
+    private static void addTextElement(final XMLStreamWriter writer, final String name, final String value) throws XMLStreamException {
+        writer.writeStartElement(name);
+        if (value != null) {
+            writer.writeCharacters(CharacterFilterUtils.filterInvalidXmlCharacters(value)); // value should already be filtered, but just in case ensure there are no invalid xml characters
+        }
+        writer.writeEndElement();
     }
 
-    private static void addTextElement(final Element element, final String name, final Optional<String> value) {
+    private static void addTextElement(final XMLStreamWriter writer, final String name, final Optional<String> value) throws XMLStreamException {
         if (!value.isPresent()) {
             return;
         }
 
-        final Document doc = element.getOwnerDocument();
-        final Element toAdd = doc.createElement(name);
-        toAdd.setTextContent(CharacterFilterUtils.filterInvalidXmlCharacters(value.get())); // value should already be filtered, but just in case ensure there are no invalid xml characters
-        element.appendChild(toAdd);
+        addTextElement(writer, name, value.get());
     }
 
-    public static void addTemplate(final Element element, final Template template) {
+    private static void addTemplate(final XMLStreamWriter writer, final Template template) throws XMLStreamException {
+        final byte[] serialized = TemplateSerializer.serialize(template.getDetails());
+
+        // copy the elements of the serialized template into the flow, discarding the whitespace between child elements that the
+        // template was formatted with so that it is indented consistently with the rest of the flow; the text of an element that
+        // has no child elements is its value, and is always copied, even if it is only whitespace
+        final XMLStreamReader reader = XmlUtils.createSafeReader(new ByteArrayInputStream(serialized));
+        final StringBuilder text = new StringBuilder();
+        final Deque<Boolean> hasChildElements = new ArrayDeque<>();
         try {
-            final byte[] serialized = TemplateSerializer.serialize(template.getDetails());
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        text.setLength(0);
+                        if (!hasChildElements.isEmpty()) {
+                            hasChildElements.pop();
+                            hasChildElements.push(Boolean.TRUE);
+                        }
+                        hasChildElements.push(Boolean.FALSE);
+                        if (StringUtils.isEmpty(reader.getNamespaceURI())) {
+                            writer.writeStartElement(reader.getLocalName());
+                        } else {
+                            writer.writeStartElement(nullToEmpty(reader.getPrefix()), reader.getLocalName(), reader.getNamespaceURI());
+                        }
+                        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                            writer.writeNamespace(nullToEmpty(reader.getNamespacePrefix(i)), reader.getNamespaceURI(i));
+                        }
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            if (StringUtils.isEmpty(reader.getAttributeNamespace(i))) {
+                                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                            } else {
+                                writer.writeAttribute(nullToEmpty(reader.getAttributePrefix(i)), reader.getAttributeNamespace(i), reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (!hasChildElements.pop() && text.length() > 0) {
+                            writer.writeCharacters(text.toString());
+                        }
+                        text.setLength(0);
+                        writer.writeEndElement();
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        text.append(reader.getText());
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String nullToEmpty(final String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Writes DEL and the C1 control characters as character references rather than as raw characters, since their use is discouraged
+     * in XML 1.0 documents. An XMLStreamWriter has no means of writing a character reference, so the characters are escaped as the
+     * XML is written out, which covers both element text and attribute values.
+     */
+    private static class ControlCharacterEscapingWriter extends FilterWriter {
+
+        private ControlCharacterEscapingWriter(final Writer out) {
+            super(out);
+        }
 
-            final DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-            final DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
-            final Document document;
-            try (final InputStream in = new ByteArrayInputStream(serialized)) {
-                document = docBuilder.parse(in);
+        private static boolean isEscaped(final int c) {
+            return c >= '\u007f' && c <= '\u009f';
+        }
+
+        private void writeReference(final int c) throws IOException {
+            out.write("&#" + c + ";");
+        }
+
+        @Override
+        public void write(final int c) throws IOException {
+            if (isEscaped(c)) {
+                writeReference(c);
+            } else {
+                out.write(c);
             }
+        }
 
-            final Node templateNode = element.getOwnerDocument().importNode(document.getDocumentElement(), true);
-            element.appendChild(templateNode);
-        } catch (final Exception e) {
-            throw new FlowSerializationException(e);
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException {
+            final int end = off + len;
+            int start = off;
+            for (int i = off; i < end; i++) {
+                if (isEscaped(cbuf[i])) {
+                    out.write(cbuf, start, i - start);
+                    writeReference(cbuf[i]);
+                    start = i + 1;
+                }
+            }
+            out.write(cbuf, start, end - start);
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) throws IOException {
+            final int end = off + len;
+            int start = off;
+            for (int i = off; i < end; i++) {
+                if (isEscaped(str.charAt(i))) {
+                    out.write(str, start, i - start);
+                    writeReference(str.charAt(i));
+                    start = i + 1;
+                }
+            }
+            out.write(str, start, end - start);
         }
     }
 }
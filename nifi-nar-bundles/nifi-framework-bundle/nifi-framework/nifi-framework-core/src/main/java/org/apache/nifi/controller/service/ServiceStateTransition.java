@@ -25,7 +25,18 @@ public class ServiceStateTransition {
     private ControllerServiceState state = ControllerServiceState.DISABLED;
     private final List<CompletableFuture<?>> enabledFutures = new ArrayList<>();
     private final List<CompletableFuture<?>> disabledFutures = new ArrayList<>();
+    private final Runnable stateChangeCallback;
 
+    public ServiceStateTransition() {
+        this(() -> { });
+    }
+
+    /**
+     * @param stateChangeCallback invoked whenever the state changes, before any futures waiting on the change are completed
+     */
+    public ServiceStateTransition(final Runnable stateChangeCallback) {
+        this.stateChangeCallback = stateChangeCallback;
+    }
 
     public synchronized boolean transitionToEnabling(final ControllerServiceState expectedState, final CompletableFuture<?> enabledFuture) {
         if (expectedState != state) {
@@ -33,6 +44,7 @@ public class ServiceStateTransition {
         }
 
         state = ControllerServiceState.ENABLING;
+        stateChangeCallback.run();
         enabledFutures.add(enabledFuture);
         return true;
     }
@@ -43,6 +55,7 @@ public class ServiceStateTransition {
         }
 
         state = ControllerServiceState.ENABLED;
+        stateChangeCallback.run();
         enabledFutures.stream().forEach(future -> future.complete(null));
         return true;
     }
@@ -53,12 +66,14 @@ public class ServiceStateTransition {
         }
 
         state = ControllerServiceState.DISABLING;
+        stateChangeCallback.run();
         disabledFutures.add(disabledFuture);
         return true;
     }
 
     public synchronized void disable() {
         state = ControllerServiceState.DISABLED;
+        stateChangeCallback.run();
         disabledFutures.stream().forEach(future -> future.complete(null));
     }
 
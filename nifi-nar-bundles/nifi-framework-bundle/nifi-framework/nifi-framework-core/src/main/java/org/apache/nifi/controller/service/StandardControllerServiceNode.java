@@ -27,6 +27,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -74,14 +75,14 @@ public class StandardControllerServiceNode extends AbstractConfiguredComponent i
 
     private final AtomicReference<ControllerServiceDetails> controllerServiceHolder = new AtomicReference<>(null);
     private final ControllerServiceProvider serviceProvider;
-    private final ServiceStateTransition stateTransition = new ServiceStateTransition();
+    private final ServiceStateTransition stateTransition = new ServiceStateTransition(this::onStateChange);
     private final AtomicReference<String> versionedComponentId = new AtomicReference<>();
 
     private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final Lock readLock = rwLock.readLock();
     private final Lock writeLock = rwLock.writeLock();
 
-    private final Set<ConfiguredComponent> referencingComponents = new HashSet<>();
+    private final Set<ConfiguredComponent> referencingComponents = ConcurrentHashMap.newKeySet();
     private String comment;
     private ProcessGroup processGroup;
 
@@ -188,6 +189,7 @@ public class StandardControllerServiceNode extends AbstractConfiguredComponent i
 
             final ControllerServiceDetails controllerServiceDetails = new ControllerServiceDetails(implementation, proxiedControllerService, invocationHandler);
             this.controllerServiceHolder.set(controllerServiceDetails);
+            resetValidationState();
         }
     }
 
@@ -371,6 +373,17 @@ public class StandardControllerServiceNode extends AbstractConfiguredComponent i
         }
     }
 
+    /**
+     * Components that reference this service are validated against its state, so their cached validation results
+     * must be discarded whenever the state changes. This is called while the state transition is still locked, so it
+     * must not obtain this service's lock.
+     */
+    private void onStateChange() {
+        for (final ConfiguredComponent component : referencingComponents) {
+            component.resetValidationState();
+        }
+    }
+
     @Override
     public ControllerServiceState getState() {
         return stateTransition.getState();
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.nifi.controller.ConfiguredComponent;
+import org.apache.nifi.controller.FlowController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This task finds all Processors, Controller Services and Reporting Tasks whose cached validation results are out of date and
+ * validates them in the background, so that the UI and the scheduler rarely have to wait for a component to be validated.
+ */
+public class ValidateComponents implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(ValidateComponents.class);
+
+    private final FlowController flowController;
+    private final ExecutorService validationExecutor;
+    private final Set<String> validationsInProgress = ConcurrentHashMap.newKeySet();
+
+    public ValidateComponents(final FlowController flowController, final ExecutorService validationExecutor) {
+        this.flowController = flowController;
+        this.validationExecutor = validationExecutor;
+    }
+
+    @Override
+    public void run() {
+        try {
+            final List<ConfiguredComponent> components = new ArrayList<>();
+            components.addAll(flowController.getGroup(flowController.getRootGroupId()).findAllProcessors());
+            components.addAll(flowController.getAllControllerServices());
+            components.addAll(flowController.getAllReportingTasks());
+
+            for (final ConfiguredComponent component : components) {
+                if (component.isValidationNecessary() && validationsInProgress.add(component.getIdentifier())) {
+                    validationExecutor.submit(() -> validate(component));
+                }
+            }
+        } catch (final Exception e) {
+            logger.error("Failed to validate components due to {}", e.toString(), e);
+        }
+    }
+
+    private void validate(final ConfiguredComponent component) {
+        try {
+            component.performValidation();
+        } catch (final Exception e) {
+            logger.error("Failed to validate {} due to {}", component, e.toString(), e);
+        } finally {
+            validationsInProgress.remove(component.getIdentifier());
+        }
+    }
+}
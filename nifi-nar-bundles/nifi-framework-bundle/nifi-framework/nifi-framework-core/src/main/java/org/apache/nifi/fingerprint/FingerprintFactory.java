@@ -19,10 +19,17 @@ package org.apache.nifi.fingerprint;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -35,6 +42,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.bundle.BundleCoordinate;
 import org.apache.nifi.components.ConfigurableComponent;
@@ -148,6 +156,40 @@ public class FingerprintFactory {
         }
     }
 
+    /**
+     * Creates a hash for each Process Group in a flow, keyed by the identifier of the Process Group. The hash of a Process Group is
+     * computed over the fingerprint of the group, including the fingerprints of all of its descendants, so the hashes form a Merkle tree
+     * over the flow: if the hash of a Process Group is equal in two flows, then the entire subtree is equal, and if it differs then only
+     * the child groups whose hashes differ need to be inspected further. The map is ordered such that a child group always appears before
+     * its parent.
+     * <p>
+     * The hashes are diagnostic only: they are not computed when a fingerprint is created, and nothing is skipped when they are equal.
+     * They are meant to be computed once two fingerprints are known to differ, in order to identify the Process Group that accounts for
+     * the difference.
+     *
+     * @param flowBytes the flow represented as bytes
+     * @param controller the controller
+     *
+     * @return a mapping of Process Group identifier to the hash of that Process Group's subtree, or an empty map if the flow is empty
+     *
+     * @throws FingerprintException if the hashes failed to be generated
+     */
+    public synchronized Map<String, String> createProcessGroupHashes(final byte[] flowBytes, final FlowController controller) throws FingerprintException {
+        final Document flowDoc = parseFlow(flowBytes);
+        if (flowDoc == null || flowDoc.getDocumentElement() == null) {
+            return Collections.emptyMap();
+        }
+
+        final Element rootGroupElem = (Element) DomUtils.getChildNodesByTagName(flowDoc.getDocumentElement(), "rootGroup").item(0);
+        if (rootGroupElem == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, String> groupHashes = new LinkedHashMap<>();
+        addProcessGroupFingerprint(new StringBuilder(), rootGroupElem, controller, groupHashes);
+        return groupHashes;
+    }
+
     /**
      * Creates a fingerprint from an XML document representing the flow.xml.
      *
@@ -287,6 +329,13 @@ public class FingerprintFactory {
     }
 
     private StringBuilder addProcessGroupFingerprint(final StringBuilder builder, final Element processGroupElem, final FlowController controller) throws FingerprintException {
+        return addProcessGroupFingerprint(builder, processGroupElem, controller, null);
+    }
+
+    private StringBuilder addProcessGroupFingerprint(final StringBuilder builder, final Element processGroupElem, final FlowController controller,
+                                                     final Map<String, String> groupHashes) throws FingerprintException {
+        final int groupStartIndex = builder.length();
+
         // id
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processGroupElem, "id"));
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processGroupElem, "versionedComponentId"));
@@ -333,7 +382,7 @@ public class FingerprintFactory {
         final NodeList nestedProcessGroupElems = DomUtils.getChildNodesByTagName(processGroupElem, "processGroup");
         final List<Element> sortedNestedProcessGroupElems = sortElements(nestedProcessGroupElems, getIdsComparator());
         for (final Element nestedProcessGroupElem : sortedNestedProcessGroupElems) {
-            addProcessGroupFingerprint(builder, nestedProcessGroupElem, controller);
+            addProcessGroupFingerprint(builder, nestedProcessGroupElem, controller, groupHashes);
         }
 
         // remote process groups
@@ -364,9 +413,43 @@ public class FingerprintFactory {
             addVariableFingerprint(builder, varElem);
         }
 
+        if (groupHashes != null) {
+            final String groupId = getFirstValue(DomUtils.getChildNodesByTagName(processGroupElem, "id"));
+            groupHashes.put(groupId, hash(builder, groupStartIndex));
+        }
+
         return builder;
     }
 
+    /**
+     * Hashes the UTF-8 encoding of the characters of the builder from the given index to its end. The characters are encoded a buffer at
+     * a time rather than copied out of the builder, as the range of a Process Group includes all of its descendants.
+     */
+    private String hash(final StringBuilder builder, final int startIndex) throws FingerprintException {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            final CharBuffer chars = CharBuffer.wrap(builder, startIndex, builder.length());
+            final ByteBuffer bytes = ByteBuffer.allocate(8192);
+
+            while (encoder.encode(chars, bytes, true).isOverflow()) {
+                bytes.flip();
+                digest.update(bytes);
+                bytes.clear();
+            }
+
+            encoder.flush(bytes);
+            bytes.flip();
+            digest.update(bytes);
+
+            return Hex.encodeHexString(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new FingerprintException(e);
+        }
+    }
+
     private void addVariableFingerprint(final StringBuilder builder, final Element variableElement) {
         final String variableName = variableElement.getAttribute("name");
         final String variableValue = variableElement.getAttribute("value");
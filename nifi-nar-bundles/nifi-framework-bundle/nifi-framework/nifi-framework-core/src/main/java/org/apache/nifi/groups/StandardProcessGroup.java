@@ -2050,6 +2050,27 @@ public final class StandardProcessGroup implements ProcessGroup {
         } finally {
             writeLock.unlock();
         }
+
+        resetValidationStateOfReferencingComponents(service.getIdentifier());
+    }
+
+    /**
+     * Components that are configured with the identifier of a Controller Service that does not exist are invalid, so when a
+     * Controller Service is added, the cached validation results of any component in this group or a descendant group that
+     * is configured with its identifier are discarded.
+     */
+    private void resetValidationStateOfReferencingComponents(final String serviceId) {
+        final List<ConfiguredComponent> components = new ArrayList<>(findAllProcessors());
+        components.addAll(getControllerServices(true));
+
+        for (final ConfiguredComponent component : components) {
+            for (final Map.Entry<PropertyDescriptor, String> entry : component.getProperties().entrySet()) {
+                if (entry.getKey().getControllerServiceDefinition() != null && serviceId.equals(entry.getValue())) {
+                    component.resetValidationState();
+                    break;
+                }
+            }
+        }
     }
 
     @Override
@@ -2116,6 +2137,8 @@ public final class StandardProcessGroup implements ProcessGroup {
             controllerServices.remove(service.getIdentifier());
             onComponentModified();
 
+            service.getReferences().getReferencingComponents().forEach(ConfiguredComponent::resetValidationState);
+
             // For any component that references this Controller Service, find the component's Process Group
             // and notify the Process Group that a component has been modified. This way, we know to re-calculate
             // whether or not the Process Group has local modifications.
@@ -2956,11 +2979,17 @@ public final class StandardProcessGroup implements ProcessGroup {
                 return;
             }
 
+            final Set<String> updatedVariableNames = getUpdatedVariables(variables);
+
             final Map<VariableDescriptor, String> variableMap = new HashMap<>();
             variables.entrySet().stream() // cannot use Collectors.toMap because value may be null
                 .forEach(entry -> variableMap.put(new VariableDescriptor(entry.getKey()), entry.getValue()));
 
             variableRegistry.setVariables(variableMap);
+
+            for (final String variableName : updatedVariableNames) {
+                getComponentsAffectedByVariable(variableName).forEach(ConfiguredComponent::resetValidationState);
+            }
         } finally {
             writeLock.unlock();
         }
@@ -127,10 +127,9 @@ public final class StandardXMLFlowConfigurationDAO implements FlowConfigurationD
     @Override
     public void save(final FlowController flow) throws IOException {
         LOG.trace("Saving flow to disk");
-        try (final OutputStream outStream = Files.newOutputStream(flowXmlPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
-                final OutputStream gzipOut = new GZIPOutputStream(outStream)) {
-            save(flow, gzipOut);
-        }
+        // the flow is serialized as it is written, so it is written to a temporary file first in order that a failure part way
+        // through does not leave a truncated flow on disk
+        save(flow, false);
         LOG.debug("Finished saving flow to disk");
     }
 
@@ -156,12 +155,15 @@ public final class StandardXMLFlowConfigurationDAO implements FlowConfigurationD
         configFile = flowXmlPath;
         tempFile = configFile.getParent().resolve(configFile.toFile().getName() + ".new.xml.gz");
 
-        try (final OutputStream fileOut = Files.newOutputStream(tempFile);
-                final OutputStream outStream = new GZIPOutputStream(fileOut)) {
+        try {
+            try (final OutputStream fileOut = Files.newOutputStream(tempFile);
+                    final OutputStream outStream = new GZIPOutputStream(fileOut)) {
 
-            final StandardFlowSerializer xmlTransformer = new StandardFlowSerializer(encryptor);
-            controller.serialize(xmlTransformer, outStream);
+                final StandardFlowSerializer xmlTransformer = new StandardFlowSerializer(encryptor);
+                controller.serialize(xmlTransformer, outStream);
+            }
 
+            // the temporary file is only renamed once it has been closed, and with it the GZIP stream completed
             Files.deleteIfExists(configFile);
             FileUtils.renameFile(tempFile.toFile(), configFile.toFile(), 5, true);
         } catch (final FlowSerializationException fse) {
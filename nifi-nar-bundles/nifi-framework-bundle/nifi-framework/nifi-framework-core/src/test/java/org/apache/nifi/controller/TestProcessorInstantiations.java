@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.nifi.controller.exception.ProcessorInstantiationException;
+import org.apache.nifi.web.api.dto.ProcessorDTO;
+import org.junit.Test;
+
+public class TestProcessorInstantiations {
+
+    private static ProcessorDTO createDTO(final String id) {
+        final ProcessorDTO dto = new ProcessorDTO();
+        dto.setId(id);
+        dto.setType("org.apache.nifi.processors.Test");
+        return dto;
+    }
+
+    private static ProcessorNode createNode(final String id) {
+        final ProcessorNode node = mock(ProcessorNode.class);
+        when(node.getIdentifier()).thenReturn(id);
+        return node;
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testProcessorsReturnedInFlowOrder() throws ProcessorInstantiationException {
+        final int processorCount = 20;
+        final Set<String> threadNames = Collections.synchronizedSet(new HashSet<>());
+
+        try (final ProcessorInstantiations instantiations = new ProcessorInstantiations(4, dto -> {
+            threadNames.add(Thread.currentThread().getName());
+
+            // the Processors submitted first take the longest to create
+            sleep(processorCount - Integer.parseInt(dto.getId()));
+            return createNode(dto.getId());
+        })) {
+            for (int i = 0; i < processorCount; i++) {
+                instantiations.submit(createDTO(String.valueOf(i)));
+            }
+
+            for (int i = 0; i < processorCount; i++) {
+                final String id = String.valueOf(i);
+                assertEquals(id, instantiations.getProcessorDTO(id).getId());
+                assertEquals(id, instantiations.getProcessor(id).getIdentifier());
+            }
+        }
+
+        assertTrue(threadNames.size() > 1);
+        for (final String threadName : threadNames) {
+            assertTrue(threadName.startsWith("Instantiate Processors-"));
+        }
+    }
+
+    @Test
+    public void testFailuresPropagatedInFlowOrder() throws ProcessorInstantiationException {
+        final IllegalStateException runtimeFailure = new IllegalStateException("Intentional failure");
+        final ProcessorInstantiationException instantiationFailure = new ProcessorInstantiationException("org.apache.nifi.processors.Test");
+
+        try (final ProcessorInstantiations instantiations = new ProcessorInstantiations(4, dto -> {
+            switch (dto.getId()) {
+                case "1":
+                    // fails after the Processor that follows it, which must not be the failure that is reported first
+                    sleep(50L);
+                    throw runtimeFailure;
+                case "2":
+                    throw instantiationFailure;
+                default:
+                    return createNode(dto.getId());
+            }
+        })) {
+            for (int i = 0; i < 4; i++) {
+                instantiations.submit(createDTO(String.valueOf(i)));
+            }
+
+            assertEquals("0", instantiations.getProcessor("0").getIdentifier());
+
+            try {
+                instantiations.getProcessor("1");
+                fail("Expected the failure to create Processor 1 to be thrown");
+            } catch (final IllegalStateException e) {
+                assertSame(runtimeFailure, e);
+            }
+
+            try {
+                instantiations.getProcessor("2");
+                fail("Expected the failure to create Processor 2 to be thrown");
+            } catch (final ProcessorInstantiationException e) {
+                assertSame(instantiationFailure, e);
+            }
+
+            assertEquals("3", instantiations.getProcessor("3").getIdentifier());
+        }
+    }
+
+    @Test
+    public void testSingleThreadCreatesOnSubmittingThread() throws ProcessorInstantiationException {
+        final Thread submittingThread = Thread.currentThread();
+
+        try (final ProcessorInstantiations instantiations = new ProcessorInstantiations(1, dto -> {
+            assertSame(submittingThread, Thread.currentThread());
+            return createNode(dto.getId());
+        })) {
+            instantiations.submit(createDTO("0"));
+            assertEquals("0", instantiations.getProcessor("0").getIdentifier());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownProcessor() throws ProcessorInstantiationException {
+        try (final ProcessorInstantiations instantiations = new ProcessorInstantiations(1, dto -> createNode(dto.getId()))) {
+            instantiations.getProcessor("unknown");
+        }
+    }
+}
@@ -26,10 +26,12 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -45,6 +47,7 @@ import org.apache.nifi.bundle.BundleCoordinate;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.PropertyValue;
 import org.apache.nifi.components.ValidationContext;
+import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.controller.exception.ControllerServiceInstantiationException;
 import org.apache.nifi.controller.exception.ProcessorInstantiationException;
 import org.apache.nifi.controller.reporting.ReportingTaskInstantiationException;
@@ -143,6 +146,36 @@ public class TestStandardProcessorNode {
         Assert.assertFalse(procNode.getValidationErrors().size() > 0);
     }
 
+    @Test
+    public void testValidationResultsCachedUntilConfigurationChanges() {
+        final CountingValidationProcessor processor = new CountingValidationProcessor();
+        final StandardProcessorNode procNode = createProcessorNode(processor, new MockReloadComponent());
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(CountingValidationProcessor.MY_PROPERTY.getName(), "foo");
+        procNode.setProperties(properties);
+
+        assertTrue(procNode.isValid());
+        assertTrue(procNode.getValidationErrors().isEmpty());
+        assertFalse(procNode.isValidationNecessary());
+        assertEquals(1, processor.validationCount);
+
+        properties.put(CountingValidationProcessor.MY_PROPERTY.getName(), "");
+        procNode.setProperties(properties);
+        assertTrue(procNode.isValidationNecessary());
+        assertFalse(procNode.isValid());
+        assertFalse(procNode.getValidationErrors().isEmpty());
+
+        properties.put(CountingValidationProcessor.MY_PROPERTY.getName(), "bar");
+        procNode.setProperties(properties);
+        assertTrue(procNode.isValid());
+        assertEquals(2, processor.validationCount);
+
+        procNode.resetValidationState();
+        assertTrue(procNode.isValid());
+        assertEquals(3, processor.validationCount);
+    }
+
     @Test
     public void testSinglePropertyDynamicallyModifiesClasspath() throws MalformedURLException {
         final MockReloadComponent reloadComponent = new MockReloadComponent();
@@ -554,6 +587,28 @@ public class TestStandardProcessorNode {
     }
 
 
+    public static class CountingValidationProcessor extends AbstractProcessor {
+        static final PropertyDescriptor MY_PROPERTY = new PropertyDescriptor.Builder().name("My Property")
+            .required(true).addValidator(StandardValidators.NON_EMPTY_VALIDATOR).build();
+
+        private int validationCount = 0;
+
+        @Override
+        protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
+            return Collections.singletonList(MY_PROPERTY);
+        }
+
+        @Override
+        protected Collection<ValidationResult> customValidate(final ValidationContext validationContext) {
+            validationCount++;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void onTrigger(ProcessContext context, ProcessSession session) throws ProcessException {
+        }
+    }
+
     public static class ProcessorThatThrowsExceptionOnScheduled extends AbstractProcessor {
         private int onScheduledCount = 0;
         private int onUnscheduledCount = 0;
@@ -23,6 +23,8 @@ import org.apache.nifi.bundle.Bundle;
 import org.apache.nifi.controller.DummyScheduledProcessor;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.ProcessorNode;
+import org.apache.nifi.controller.Template;
+import org.apache.nifi.controller.TemplateUtils;
 import org.apache.nifi.controller.repository.FlowFileEventRepository;
 import org.apache.nifi.encrypt.StringEncryptor;
 import org.apache.nifi.nar.ExtensionManager;
@@ -32,11 +34,20 @@ import org.apache.nifi.registry.VariableRegistry;
 import org.apache.nifi.registry.flow.FlowRegistryClient;
 import org.apache.nifi.registry.variable.FileBasedVariableRegistry;
 import org.apache.nifi.reporting.BulletinRepository;
+import org.apache.nifi.util.CharacterFilterUtils;
 import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.web.api.dto.FlowSnippetDTO;
+import org.apache.nifi.web.api.dto.ProcessorConfigDTO;
+import org.apache.nifi.web.api.dto.ProcessorDTO;
+import org.apache.nifi.web.api.dto.TemplateDTO;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
@@ -47,6 +58,7 @@ import java.util.UUID;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -61,6 +73,7 @@ public class StandardFlowSerializerTest {
     private FlowController controller;
     private Bundle systemBundle;
     private StandardFlowSerializer serializer;
+    private StringEncryptor encryptor;
 
     @Before
     public void setUp() throws Exception {
@@ -71,7 +84,7 @@ public class StandardFlowSerializerTest {
         otherProps.put("nifi.remote.input.socket.port", "");
         otherProps.put("nifi.remote.input.secure", "");
         final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties(propsFile, otherProps);
-        final StringEncryptor encryptor = StringEncryptor.createEncryptor(nifiProperties);
+        encryptor = StringEncryptor.createEncryptor(nifiProperties);
 
         // use the system bundle
         systemBundle = SystemBundle.create(nifiProperties);
@@ -108,4 +121,83 @@ public class StandardFlowSerializerTest {
         assertTrue(serializedFlow.contains(SERIALIZED_COMMENTS));
         assertFalse(serializedFlow.contains(RAW_COMMENTS));
     }
+
+    @Test
+    public void testSerializedControlCharactersLoadAgain() throws Exception {
+        final ProcessorNode dummy = controller.createProcessor(DummyScheduledProcessor.class.getName(), UUID.randomUUID().toString(), systemBundle.getBundleDetails().getCoordinate());
+        dummy.setComments(RAW_COMMENTS);
+        dummy.setStyle(Collections.singletonMap("background-color", "\u0085#ffffff\u007f"));
+        controller.getRootGroup().addProcessor(dummy);
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        serializer.serialize(controller, os, ScheduledStateLookup.IDENTITY_LOOKUP);
+
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(os.toByteArray()));
+        final ProcessorDTO deserialized = FlowFromDOMFactory.getProcessor((Element) document.getElementsByTagName("processor").item(0), encryptor);
+
+        assertEquals(CharacterFilterUtils.filterInvalidXmlCharacters(RAW_COMMENTS), deserialized.getConfig().getComments());
+        assertEquals("\u0085#ffffff\u007f", deserialized.getStyle().get("background-color"));
+    }
+
+    @Test
+    public void testSerializationIncludesTemplates() throws Exception {
+        final FlowSnippetDTO snippet = new FlowSnippetDTO();
+        final ProcessorDTO processorDTO = new ProcessorDTO();
+        processorDTO.setId(UUID.randomUUID().toString());
+        processorDTO.setType(DummyScheduledProcessor.class.getName());
+        snippet.setProcessors(Collections.singleton(processorDTO));
+
+        final TemplateDTO templateDTO = new TemplateDTO();
+        templateDTO.setId(UUID.randomUUID().toString());
+        templateDTO.setName("Serialized Template");
+        templateDTO.setDescription("Template with <markup> & entities");
+        templateDTO.setSnippet(snippet);
+        controller.getRootGroup().addTemplate(new Template(templateDTO));
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        serializer.serialize(controller, os, ScheduledStateLookup.IDENTITY_LOOKUP);
+
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(os.toByteArray()));
+        final Element templateElement = (Element) document.getElementsByTagName("template").item(0);
+        final TemplateDTO deserialized = TemplateUtils.parseDto(templateElement);
+
+        assertEquals(templateDTO.getName(), deserialized.getName());
+        assertEquals(templateDTO.getDescription(), deserialized.getDescription());
+        assertEquals(processorDTO.getId(), deserialized.getSnippet().getProcessors().iterator().next().getId());
+    }
+
+    @Test
+    public void testSerializationPreservesWhitespaceTemplateValues() throws Exception {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("Space", " ");
+        properties.put("Demarcator", "\n");
+        final ProcessorConfigDTO config = new ProcessorConfigDTO();
+        config.setProperties(properties);
+
+        final ProcessorDTO processorDTO = new ProcessorDTO();
+        processorDTO.setId(UUID.randomUUID().toString());
+        processorDTO.setType(DummyScheduledProcessor.class.getName());
+        processorDTO.setConfig(config);
+        final FlowSnippetDTO snippet = new FlowSnippetDTO();
+        snippet.setProcessors(Collections.singleton(processorDTO));
+
+        final TemplateDTO templateDTO = new TemplateDTO();
+        templateDTO.setId(UUID.randomUUID().toString());
+        templateDTO.setName("Whitespace Template");
+        templateDTO.setDescription(" ");
+        templateDTO.setSnippet(snippet);
+        controller.getRootGroup().addTemplate(new Template(templateDTO));
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        serializer.serialize(controller, os, ScheduledStateLookup.IDENTITY_LOOKUP);
+
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(os.toByteArray()));
+        final Element templateElement = (Element) document.getElementsByTagName("template").item(0);
+        final TemplateDTO deserialized = TemplateUtils.parseDto(templateElement);
+
+        assertEquals(" ", deserialized.getDescription());
+        final Map<String, String> deserializedProperties = deserialized.getSnippet().getProcessors().iterator().next().getConfig().getProperties();
+        assertEquals(" ", deserializedProperties.get("Space"));
+        assertEquals("\n", deserializedProperties.get("Demarcator"));
+    }
 }
@@ -25,11 +25,18 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import java.util.Optional;
@@ -50,6 +57,7 @@ import org.junit.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
@@ -80,6 +88,24 @@ public class FingerprintFactoryTest {
         assertNotEquals(fp1, fp2);
     }
 
+    @Test
+    public void testSameProcessGroupHashes() throws IOException {
+        final Map<String, String> hashes1 = fingerprinter.createProcessGroupHashes(getResourceBytes("/nifi/fingerprint/flow1a.xml"), null);
+        final Map<String, String> hashes2 = fingerprinter.createProcessGroupHashes(getResourceBytes("/nifi/fingerprint/flow1b.xml"), null);
+        assertEquals(2, hashes1.size());
+        assertEquals(hashes1, hashes2);
+    }
+
+    @Test
+    public void testDifferentProcessGroupHashes() throws IOException {
+        final Map<String, String> hashes1 = fingerprinter.createProcessGroupHashes(getResourceBytes("/nifi/fingerprint/flow1a.xml"), null);
+        final Map<String, String> hashes2 = fingerprinter.createProcessGroupHashes(getResourceBytes("/nifi/fingerprint/flow2.xml"), null);
+
+        // child groups are listed before their parents
+        assertEquals(Arrays.asList("efeece05-3934-4298-a725-658eec116470", "e3909250-331d-420b-a9b3-cc54ad459401"), new ArrayList<>(hashes1.keySet()));
+        assertNotEquals(hashes1.get("e3909250-331d-420b-a9b3-cc54ad459401"), hashes2.get("e3909250-331d-420b-a9b3-cc54ad459401"));
+    }
+
     @Test
     public void testResourceValueInFingerprint() throws IOException {
         final String fingerprint = fingerprinter.createFingerprint(getResourceBytes("/nifi/fingerprint/flow1a.xml"), null);
@@ -168,17 +194,21 @@ public class FingerprintFactoryTest {
     private <T> Element serializeElement(final StringEncryptor encryptor, final Class<T> componentClass, final T component,
                                          final String serializerMethodName, ScheduledStateLookup scheduledStateLookup) throws Exception {
 
-        final DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-        final DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-        final Document doc = docBuilder.newDocument();
-
         final FlowSerializer flowSerializer = new StandardFlowSerializer(encryptor);
         final Method serializeMethod = StandardFlowSerializer.class.getDeclaredMethod(serializerMethodName,
-                Element.class, componentClass, ScheduledStateLookup.class);
+                XMLStreamWriter.class, componentClass, ScheduledStateLookup.class);
         serializeMethod.setAccessible(true);
-        final Element rootElement = doc.createElement("root");
-        serializeMethod.invoke(flowSerializer, rootElement, component, scheduledStateLookup);
-        return rootElement;
+
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+        writer.writeStartElement("root");
+        serializeMethod.invoke(flowSerializer, writer, component, scheduledStateLookup);
+        writer.writeEndElement();
+        writer.close();
+
+        final DocumentBuilder docBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        final Document doc = docBuilder.parse(new InputSource(new StringReader(out.toString())));
+        return doc.getDocumentElement();
     }
 
     private <T> String fingerprint(final String methodName, final Class<T> inputClass, final T input) throws Exception {
@@ -107,6 +107,31 @@ public class NarUnpackerTest {
         }
     }
 
+    @Test
+    public void testUnpackNarsWithSameFileName() throws IOException {
+
+        // a different nar with the same file name as the one in the main library directory
+        final File sameNameDir = new File("./target/NarUnpacker/same-name");
+        assertTrue(sameNameDir.isDirectory() || sameNameDir.mkdirs());
+        Files.copy(Paths.get("./target/NarUnpacker/lib2/dummy-two.nar"), sameNameDir.toPath().resolve("dummy-one.nar"), REPLACE_EXISTING);
+
+        final Map<String, String> others = new HashMap<>();
+        others.put("nifi.nar.library.directory.alt", sameNameDir.toString());
+        NiFiProperties properties = loadSpecifiedProperties("/NarUnpacker/conf/nifi.properties", others);
+
+        final ExtensionMapping extensionMapping = NarUnpacker.unpackNars(properties, SystemBundle.create(properties));
+
+        // only one of the nars is unpacked, rather than both being unpacked to the same working directory
+        assertEquals(1, extensionMapping.getAllExtensionNames().size());
+
+        final File extensionsWorkingDir = properties.getExtensionsWorkingDirectory();
+        File[] extensionFiles = extensionsWorkingDir.listFiles();
+
+        assertEquals(1, extensionFiles.length);
+        assertEquals("dummy-one.nar-unpacked", extensionFiles[0].getName());
+        assertEquals(1, new File(extensionFiles[0], "META-INF/bundled-dependencies").listFiles().length);
+    }
+
     @Test
     public void testUnpackNarsFromEmptyDir() throws IOException {
 
@@ -41,10 +41,17 @@ import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -57,6 +64,18 @@ public final class NarUnpacker {
 
     private static final Logger logger = LoggerFactory.getLogger(NarUnpacker.class);
     private static String HASH_FILENAME = "nar-md5sum";
+    private static final ThreadFactory UNPACK_THREAD_FACTORY = new ThreadFactory() {
+        private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = defaultFactory.newThread(r);
+            thread.setName("Unpack NARs-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
     private static final FileFilter NAR_FILTER = new FileFilter() {
         @Override
         public boolean accept(File pathname) {
@@ -99,9 +118,11 @@ public final class NarUnpacker {
             if (!narFiles.isEmpty()) {
                 final long startTime = System.nanoTime();
                 logger.info("Expanding " + narFiles.size() + " NAR files with all processors...");
-                for (File narFile : narFiles) {
-                    logger.debug("Expanding NAR file: " + narFile.getAbsolutePath());
 
+                // determine which nar is the framework before unpacking anything
+                File frameworkNar = null;
+                final Map<File, BundleCoordinate> extensionNars = new LinkedHashMap<>();
+                for (File narFile : narFiles) {
                     // get the manifest for this nar
                     try (final JarFile nar = new JarFile(narFile)) {
                         final Manifest manifest = nar.getManifest();
@@ -114,22 +135,52 @@ public final class NarUnpacker {
 
                         // determine if this is the framework
                         if (NarClassLoaders.FRAMEWORK_NAR_ID.equals(narId)) {
-                            if (unpackedFramework != null) {
+                            if (frameworkNar != null) {
                                 throw new IllegalStateException("Multiple framework NARs discovered. Only one framework is permitted.");
                             }
 
-                            // unpack the framework nar
-                            unpackedFramework = unpackNar(narFile, frameworkWorkingDir);
+                            frameworkNar = narFile;
                         } else {
-                            final File unpackedExtension = unpackNar(narFile, extensionsWorkingDir);
-
-                            // record the current bundle
-                            unpackedNars.put(unpackedExtension, new BundleCoordinate(groupId, narId, version));
+                            extensionNars.put(narFile, new BundleCoordinate(groupId, narId, version));
+                        }
+                    }
+                }
 
-                            // unpack the extension nar
-                            unpackedExtensions.add(unpackedExtension);
+                // verifying and unpacking each nar is independent of the others, so unpack them concurrently
+                final ExecutorService unpackExecutor = Executors.newFixedThreadPool(Math.min(narFiles.size(), Runtime.getRuntime().availableProcessors()), UNPACK_THREAD_FACTORY);
+                try {
+                    final File frameworkNarFile = frameworkNar;
+                    final Future<File> frameworkFuture = (frameworkNarFile == null) ? null : unpackExecutor.submit(() -> unpackNar(frameworkNarFile, frameworkWorkingDir));
+
+                    // nars with the same file name in different library directories share a working directory, so unpacking them concurrently
+                    // would mix their contents. Unpacked one after another, the last one found would replace the others, so only it is unpacked
+                    final Map<File, File> extensionNarsByWorkingDir = new LinkedHashMap<>();
+                    for (final File narFile : extensionNars.keySet()) {
+                        final File previousNar = extensionNarsByWorkingDir.put(getNarWorkingDirectory(narFile, extensionsWorkingDir), narFile);
+                        if (previousNar != null) {
+                            logger.warn("NARs {} and {} have the same file name, so only {} will be loaded", new Object[] {previousNar.getAbsolutePath(),
+                                    narFile.getAbsolutePath(), narFile.getAbsolutePath()});
                         }
                     }
+
+                    final Map<Future<File>, BundleCoordinate> extensionFutures = new LinkedHashMap<>();
+                    for (final File narFile : extensionNarsByWorkingDir.values()) {
+                        extensionFutures.put(unpackExecutor.submit(() -> unpackNar(narFile, extensionsWorkingDir)), extensionNars.get(narFile));
+                    }
+
+                    if (frameworkFuture != null) {
+                        unpackedFramework = waitForUnpack(frameworkFuture);
+                    }
+
+                    for (final Map.Entry<Future<File>, BundleCoordinate> entry : extensionFutures.entrySet()) {
+                        final File unpackedExtension = waitForUnpack(entry.getKey());
+
+                        // record the current bundle
+                        unpackedNars.put(unpackedExtension, entry.getValue());
+                        unpackedExtensions.add(unpackedExtension);
+                    }
+                } finally {
+                    unpackExecutor.shutdownNow();
                 }
 
                 // ensure we've found the framework nar
@@ -213,6 +264,24 @@ public final class NarUnpacker {
         }
     }
 
+    private static File waitForUnpack(final Future<File> unpackFuture) throws IOException {
+        try {
+            return unpackFuture.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for NAR to be unpacked", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new IOException(cause);
+        }
+    }
+
     /**
      * Unpacks the specified nar into the specified base working directory.
      *
@@ -222,7 +291,8 @@ public final class NarUnpacker {
      * @throws IOException if unable to explode nar
      */
     private static File unpackNar(final File nar, final File baseWorkingDirectory) throws IOException {
-        final File narWorkingDirectory = new File(baseWorkingDirectory, nar.getName() + "-unpacked");
+        logger.debug("Expanding NAR file: " + nar.getAbsolutePath());
+        final File narWorkingDirectory = getNarWorkingDirectory(nar, baseWorkingDirectory);
 
         // if the working directory doesn't exist, unpack the nar
         if (!narWorkingDirectory.exists()) {
@@ -248,6 +318,10 @@ public final class NarUnpacker {
         return narWorkingDirectory;
     }
 
+    private static File getNarWorkingDirectory(final File nar, final File baseWorkingDirectory) {
+        return new File(baseWorkingDirectory, nar.getName() + "-unpacked");
+    }
+
     /**
      * Unpacks the NAR to the specified directory. Creates a checksum file that
      * used to determine if future expansion is necessary.
@@ -404,7 +478,7 @@ public final class NarUnpacker {
         try (final FileInputStream inputStream = new FileInputStream(file)) {
             final MessageDigest md5 = MessageDigest.getInstance("md5");
 
-            final byte[] buffer = new byte[1024];
+            final byte[] buffer = new byte[65536];
             int read = inputStream.read(buffer);
 
             while (read > -1) {
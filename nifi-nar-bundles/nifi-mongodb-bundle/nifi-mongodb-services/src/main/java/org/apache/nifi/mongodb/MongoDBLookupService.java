@@ -36,6 +36,7 @@ import org.apache.nifi.util.StringUtils;
 import org.bson.Document;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -88,27 +89,124 @@ public class MongoDBLookupService extends MongoDBControllerService implements Lo
 
             if(result == null) {
                 return Optional.empty();
-            } else if (!StringUtils.isEmpty(lookupValueField)) {
-                return Optional.ofNullable(result.get(lookupValueField));
             } else {
-                final List<RecordField> fields = new ArrayList<>();
+                return Optional.ofNullable(toLookupValue(result));
+            }
+        } catch (Exception ex) {
+            getLogger().error("Error during lookup {}", new Object[]{ query.toJson() }, ex);
+            throw new LookupFailureException(ex);
+        }
+    }
+
+    @Override
+    public Map<Map<String, Object>, Object> lookupAll(final Set<Map<String, Object>> coordinates) throws LookupFailureException {
+        if (coordinates.size() < 2 || !coordinates.stream().allMatch(this::isSimpleEquality)) {
+            return LookupService.super.lookupAll(coordinates);
+        }
+
+        // Retrieve the documents for all of the coordinates with a single query, and then determine which document
+        // each of the coordinates would have returned on its own
+        final List<Document> clauses = new ArrayList<>(coordinates.size());
+        for (final Map<String, Object> lookupCoordinates : coordinates) {
+            clauses.add(new Document(new HashMap<>(lookupCoordinates)));
+        }
+        final Document query = new Document("$or", clauses);
 
-                for (String key : result.keySet()) {
-                    if (key.equals("_id")) {
-                        continue;
+        try {
+            final List<Document> documents = this.findMany(query);
+
+            final Map<Map<String, Object>, Object> results = new HashMap<>();
+            for (final Map<String, Object> lookupCoordinates : coordinates) {
+                for (final Document document : documents) {
+                    if (matches(document, lookupCoordinates)) {
+                        final Object value = toLookupValue(document);
+                        if (value != null) {
+                            results.put(lookupCoordinates, value);
+                        }
+                        break;
                     }
-                    fields.add(new RecordField(key, RecordFieldType.STRING.getDataType()));
                 }
-
-                final RecordSchema schema = new SimpleRecordSchema(fields);
-                return Optional.ofNullable(new MapRecord(schema, result));
             }
+
+            return results;
         } catch (Exception ex) {
             getLogger().error("Error during lookup {}", new Object[]{ query.toJson() }, ex);
             throw new LookupFailureException(ex);
         }
     }
 
+    /**
+     * Only coordinates whose keys are top-level field names and whose values are scalars can be matched against the returned
+     * documents the same way that MongoDB matched them; any other coordinates are looked up one at a time.
+     */
+    private boolean isSimpleEquality(final Map<String, Object> coordinates) {
+        if (coordinates.isEmpty()) {
+            return false;
+        }
+
+        for (final Map.Entry<String, Object> entry : coordinates.entrySet()) {
+            final String key = entry.getKey();
+            if (key.contains(".") || key.startsWith("$")) {
+                return false;
+            }
+
+            final Object value = entry.getValue();
+            if (!(value instanceof String || value instanceof Number || value instanceof Boolean)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean matches(final Document document, final Map<String, Object> coordinates) {
+        for (final Map.Entry<String, Object> entry : coordinates.entrySet()) {
+            final Object documentValue = document.get(entry.getKey());
+
+            // An equality query on an array field matches any document whose array contains the value
+            if (documentValue instanceof List) {
+                if (((List<?>) documentValue).stream().noneMatch(element -> valuesEqual(element, entry.getValue()))) {
+                    return false;
+                }
+            } else if (!valuesEqual(documentValue, entry.getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean valuesEqual(final Object documentValue, final Object coordinateValue) {
+        // MongoDB compares numbers by value, regardless of their type
+        if (documentValue instanceof Number && coordinateValue instanceof Number) {
+            try {
+                return new BigDecimal(documentValue.toString()).compareTo(new BigDecimal(coordinateValue.toString())) == 0;
+            } catch (final NumberFormatException nfe) {
+                return documentValue.equals(coordinateValue);
+            }
+        }
+
+        return coordinateValue.equals(documentValue);
+    }
+
+    private Object toLookupValue(final Document result) {
+        if (!StringUtils.isEmpty(lookupValueField)) {
+            return result.get(lookupValueField);
+        }
+
+        final List<RecordField> fields = new ArrayList<>();
+
+        for (String key : result.keySet()) {
+            if (key.equals("_id")) {
+                continue;
+            }
+            fields.add(new RecordField(key, RecordFieldType.STRING.getDataType()));
+        }
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        return new MapRecord(schema, result);
+    }
+
     @Override
     @OnEnabled
     public void onEnabled(final ConfigurationContext context) throws InitializationException, IOException, InterruptedException {
@@ -28,9 +28,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class MongoDBLookupServiceIT {
     private static final String DB_NAME = String.format("nifi_test-%d", Calendar.getInstance().getTimeInMillis());
@@ -119,6 +122,24 @@ public class MongoDBLookupServiceIT {
         Assert.assertTrue(!result.isPresent());
     }
 
+    @Test
+    public void testLookupAll() throws Exception {
+        runner.enableControllerService(service);
+        service.insert(service.convertJson("{ \"uuid\": \"x-y-z\", \"message\": \"Hello, world\" }"));
+        service.insert(service.convertJson("{ \"uuid\": \"a-b-c\", \"message\": \"Goodbye, world\" }"));
+
+        Set<Map<String, Object>> coordinates = new HashSet<>();
+        coordinates.add(Collections.singletonMap("uuid", "x-y-z"));
+        coordinates.add(Collections.singletonMap("uuid", "a-b-c"));
+        coordinates.add(Collections.singletonMap("uuid", "missing"));
+
+        Map<Map<String, Object>, Object> results = service.lookupAll(coordinates);
+
+        Assert.assertEquals("The wrong number of values was returned.", 2, results.size());
+        Assert.assertEquals("The value was wrong.", "Hello, world", results.get(Collections.singletonMap("uuid", "x-y-z")));
+        Assert.assertEquals("The value was wrong.", "Goodbye, world", results.get(Collections.singletonMap("uuid", "a-b-c")));
+    }
+
     @Test
     public void testServiceParameters() throws Exception {
         runner.enableControllerService(service);
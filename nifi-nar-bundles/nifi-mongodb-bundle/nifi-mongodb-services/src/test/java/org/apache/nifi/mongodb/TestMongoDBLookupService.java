@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.mongodb;
+
+import org.apache.nifi.lookup.LookupFailureException;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TestMongoDBLookupService {
+
+    private TestRunner runner;
+    private MockMongoDBLookupService service;
+
+    @Before
+    public void before() throws Exception {
+        runner = TestRunners.newTestRunner(TestLookupServiceProcessor.class);
+        service = new MockMongoDBLookupService();
+        runner.addControllerService("Client Service", service);
+        runner.setProperty(service, MongoDBLookupService.DATABASE_NAME, "nifi_test");
+        runner.setProperty(service, MongoDBLookupService.COLLECTION_NAME, "nifi_test");
+        runner.setProperty(service, MongoDBLookupService.URI, "mongodb://localhost:27017");
+        runner.setProperty(service, MongoDBLookupService.LOOKUP_VALUE_FIELD, "message");
+
+        service.documents.add(new Document("uuid", "x-y-z").append("message", "Hello, world"));
+        service.documents.add(new Document("uuid", "a-b-c").append("message", "Goodbye, world"));
+        service.documents.add(new Document("count", 1L).append("message", "One"));
+        service.documents.add(new Document("tags", Arrays.asList("red", "green")).append("message", "Tagged"));
+    }
+
+    @After
+    public void after() {
+        runner.disableControllerService(service);
+    }
+
+    @Test
+    public void testLookupAllWithSingleQuery() throws LookupFailureException {
+        runner.enableControllerService(service);
+
+        final Set<Map<String, Object>> coordinates = new HashSet<>();
+        coordinates.add(Collections.singletonMap("uuid", "x-y-z"));
+        coordinates.add(Collections.singletonMap("uuid", "a-b-c"));
+        coordinates.add(Collections.singletonMap("uuid", "missing"));
+        coordinates.add(Collections.singletonMap("count", 1));
+        coordinates.add(Collections.singletonMap("tags", "green"));
+
+        final Map<Map<String, Object>, Object> results = service.lookupAll(coordinates);
+
+        // All of the coordinates are combined into a single query
+        Assert.assertEquals(1, service.queries.size());
+        Assert.assertEquals(5, ((List<?>) service.queries.get(0).get("$or")).size());
+        Assert.assertEquals(0, service.findOneCount);
+
+        // Each document is matched to the coordinates that it satisfies, as MongoDB would have matched it
+        Assert.assertEquals(4, results.size());
+        Assert.assertEquals("Hello, world", results.get(Collections.singletonMap("uuid", "x-y-z")));
+        Assert.assertEquals("Goodbye, world", results.get(Collections.singletonMap("uuid", "a-b-c")));
+        Assert.assertEquals("One", results.get(Collections.singletonMap("count", 1)));
+        Assert.assertEquals("Tagged", results.get(Collections.singletonMap("tags", "green")));
+    }
+
+    @Test
+    public void testLookupAllRecords() throws LookupFailureException {
+        runner.setProperty(service, MongoDBLookupService.LOOKUP_VALUE_FIELD, "");
+        runner.enableControllerService(service);
+
+        final Set<Map<String, Object>> coordinates = new HashSet<>();
+        coordinates.add(Collections.singletonMap("uuid", "x-y-z"));
+        coordinates.add(Collections.singletonMap("uuid", "a-b-c"));
+
+        final Map<Map<String, Object>, Object> results = service.lookupAll(coordinates);
+        Assert.assertEquals(1, service.queries.size());
+
+        final Record record = (Record) results.get(Collections.singletonMap("uuid", "a-b-c"));
+        Assert.assertEquals("Goodbye, world", record.getAsString("message"));
+        Assert.assertFalse(record.getSchema().getField("_id").isPresent());
+    }
+
+    @Test
+    public void testLookupAllFallsBackForNestedKeys() throws LookupFailureException {
+        runner.enableControllerService(service);
+
+        final Set<Map<String, Object>> coordinates = new HashSet<>();
+        coordinates.add(Collections.singletonMap("uuid", "x-y-z"));
+        coordinates.add(Collections.singletonMap("user.name", "tester"));
+
+        service.lookupAll(coordinates);
+
+        // A dotted key cannot be matched against the returned documents, so each set of coordinates is looked up on its own
+        Assert.assertEquals(0, service.queries.size());
+        Assert.assertEquals(2, service.findOneCount);
+    }
+
+    /**
+     * Returns the staged documents rather than querying MongoDB. All of the documents are returned for any query,
+     * so that the service must determine which of them match each set of coordinates.
+     */
+    private static class MockMongoDBLookupService extends MongoDBLookupService {
+        private final List<Document> documents = new ArrayList<>();
+        private final List<Document> queries = new ArrayList<>();
+        private int findOneCount = 0;
+
+        @Override
+        public Document findOne(final Document query) {
+            findOneCount++;
+            return null;
+        }
+
+        @Override
+        public List<Document> findMany(final Document query) {
+            queries.add(query);
+            return documents;
+        }
+    }
+}
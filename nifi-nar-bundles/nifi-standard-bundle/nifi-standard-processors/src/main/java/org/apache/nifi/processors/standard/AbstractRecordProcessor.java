@@ -34,6 +34,7 @@ import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 
 import java.io.IOException;
@@ -49,6 +50,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractRecordProcessor extends AbstractProcessor {
 
+    static final int RECORD_BATCH_SIZE = 1000;
+
     static final PropertyDescriptor RECORD_READER = new PropertyDescriptor.Builder()
         .name("record-reader")
         .displayName("Record Reader")
@@ -116,10 +119,10 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
                         try (final RecordSetWriter writer = writerFactory.createWriter(getLogger(), writeSchema, out)) {
                             writer.beginRecordSet();
 
-                            Record record;
-                            while ((record = reader.nextRecord()) != null) {
-                                final Record processed = AbstractRecordProcessor.this.process(record, writeSchema, original, context);
-                                writer.write(processed);
+                            RecordBatch batch;
+                            while ((batch = reader.nextBatch(RECORD_BATCH_SIZE)) != null) {
+                                final RecordBatch processed = AbstractRecordProcessor.this.process(batch, writeSchema, original, context);
+                                writer.writeBatch(processed);
                             }
 
                             final WriteResult writeResult = writer.finishRecordSet();
@@ -150,4 +153,24 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
     }
 
     protected abstract Record process(Record record, RecordSchema writeSchema, FlowFile flowFile, ProcessContext context);
+
+    /**
+     * Processes a batch of records that were read from the given FlowFile. By default, each record of the batch is passed to
+     * {@link #process(Record, RecordSchema, FlowFile, ProcessContext)}. Subclasses that do not need to inspect the records individually
+     * should override this method so that Record Readers and Writers that support batches need not create a Record for each row.
+     *
+     * @param batch the records to process
+     * @param writeSchema the schema that will be used to write the records
+     * @param flowFile the FlowFile that the records were read from
+     * @param context the process context
+     * @return the processed records
+     */
+    protected RecordBatch process(final RecordBatch batch, final RecordSchema writeSchema, final FlowFile flowFile, final ProcessContext context) {
+        final List<Record> processed = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            processed.add(process(batch.getRecord(i), writeSchema, flowFile, context));
+        }
+
+        return RecordBatch.of(writeSchema, processed);
+    }
 }
@@ -125,28 +125,28 @@ public abstract class AbstractRouteRecord<T> extends AbstractProcessor {
 
                         final RecordSchema writeSchema = writerFactory.getSchema(originalAttributes, reader.getSchema());
 
-                        Record record;
-                        while ((record = reader.nextRecord()) != null) {
-                            final Set<Relationship> relationships = route(record, writeSchema, original, context, flowFileContext);
-                            numRecords.incrementAndGet();
-
-                            for (final Relationship relationship : relationships) {
-                                final RecordSetWriter recordSetWriter;
-                                Tuple<FlowFile, RecordSetWriter> tuple = writers.get(relationship);
-                                if (tuple == null) {
-                                    FlowFile outFlowFile = session.create(original);
-                                    final OutputStream out = session.write(outFlowFile);
-                                    recordSetWriter = writerFactory.createWriter(getLogger(), writeSchema, out);
-                                    recordSetWriter.beginRecordSet();
-
-                                    tuple = new Tuple<>(outFlowFile, recordSetWriter);
-                                    writers.put(relationship, tuple);
-                                } else {
-                                    recordSetWriter = tuple.getValue();
-                                }
-
-                                recordSetWriter.write(record);
+                        final int batchSize = getRecordBatchSize(context);
+                        final List<Record> batch = new ArrayList<>(batchSize);
+
+                        boolean moreRecords = true;
+                        while (moreRecords) {
+                            final Record record = reader.nextRecord();
+                            if (record == null) {
+                                moreRecords = false;
+                            } else {
+                                batch.add(record);
                             }
+
+                            if (batch.isEmpty() || (moreRecords && batch.size() < batchSize)) {
+                                continue;
+                            }
+
+                            final List<Set<Relationship>> batchRelationships = route(batch, writeSchema, original, context, flowFileContext);
+                            for (int i = 0; i < batch.size(); i++) {
+                                numRecords.incrementAndGet();
+                                write(batch.get(i), batchRelationships.get(i), writeSchema, original, writers, writerFactory, session);
+                            }
+                            batch.clear();
                         }
                     } catch (final SchemaNotFoundException | MalformedRecordException e) {
                         throw new ProcessException("Could not parse incoming data", e);
@@ -216,6 +216,54 @@ public abstract class AbstractRouteRecord<T> extends AbstractProcessor {
         getLogger().info("Successfully processed {}, creating {} derivative FlowFiles and processing {} records", new Object[] {flowFile, writers.size(), numRecords});
     }
 
+    private void write(final Record record, final Set<Relationship> relationships, final RecordSchema writeSchema, final FlowFile original,
+        final Map<Relationship, Tuple<FlowFile, RecordSetWriter>> writers, final RecordSetWriterFactory writerFactory, final ProcessSession session)
+        throws IOException, SchemaNotFoundException {
+
+        for (final Relationship relationship : relationships) {
+            final RecordSetWriter recordSetWriter;
+            Tuple<FlowFile, RecordSetWriter> tuple = writers.get(relationship);
+            if (tuple == null) {
+                FlowFile outFlowFile = session.create(original);
+                final OutputStream out = session.write(outFlowFile);
+                recordSetWriter = writerFactory.createWriter(getLogger(), writeSchema, out);
+                recordSetWriter.beginRecordSet();
+
+                tuple = new Tuple<>(outFlowFile, recordSetWriter);
+                writers.put(relationship, tuple);
+            } else {
+                recordSetWriter = tuple.getValue();
+            }
+
+            recordSetWriter.write(record);
+        }
+    }
+
+    /**
+     * Determines the Relationships to route each of the given Records to. The default implementation calls
+     * {@link #route(Record, RecordSchema, FlowFile, ProcessContext, Object)} for each Record; subclasses that can
+     * route several Records more efficiently than one at a time should override this method, along with
+     * {@link #getRecordBatchSize(ProcessContext)}.
+     *
+     * @return the Relationships for each of the given Records, in the same order as the Records
+     */
+    protected List<Set<Relationship>> route(final List<Record> records, final RecordSchema writeSchema, final FlowFile flowFile, final ProcessContext context,
+        final T flowFileContext) {
+
+        final List<Set<Relationship>> relationships = new ArrayList<>(records.size());
+        for (final Record record : records) {
+            relationships.add(route(record, writeSchema, flowFile, context, flowFileContext));
+        }
+        return relationships;
+    }
+
+    /**
+     * @return the maximum number of Records that are passed to {@link #route(List, RecordSchema, FlowFile, ProcessContext, Object)} at once
+     */
+    protected int getRecordBatchSize(final ProcessContext context) {
+        return 1;
+    }
+
     protected abstract Set<Relationship> route(Record record, RecordSchema writeSchema, FlowFile flowFile, ProcessContext context, T flowFileContext);
 
     protected abstract boolean isRouteOriginal();
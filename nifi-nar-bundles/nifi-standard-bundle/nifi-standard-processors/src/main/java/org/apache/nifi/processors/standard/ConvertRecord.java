@@ -29,6 +29,7 @@ import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 
 @EventDriven
@@ -53,4 +54,9 @@ public class ConvertRecord extends AbstractRecordProcessor {
         return record;
     }
 
+    @Override
+    protected RecordBatch process(final RecordBatch batch, final RecordSchema writeSchema, final FlowFile flowFile, final ProcessContext context) {
+        return batch;
+    }
+
 }
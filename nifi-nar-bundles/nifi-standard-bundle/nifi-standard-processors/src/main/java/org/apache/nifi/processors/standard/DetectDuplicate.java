@@ -19,10 +19,15 @@ package org.apache.nifi.processors.standard;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -35,7 +40,13 @@ import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.behavior.WritesAttribute;
 import org.apache.nifi.annotation.behavior.InputRequirement.Requirement;
+import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
+import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.ValidationContext;
+import org.apache.nifi.components.ValidationResult;
+import org.apache.nifi.components.Validator;
 import org.apache.nifi.distributed.cache.client.Deserializer;
 import org.apache.nifi.distributed.cache.client.DistributedMapCacheClient;
 import org.apache.nifi.distributed.cache.client.Serializer;
@@ -51,6 +62,7 @@ import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.RotatingBloomFilter;
 
 @EventDriven
 @SupportsBatching
@@ -59,19 +71,51 @@ import org.apache.nifi.processor.util.StandardValidators;
 @CapabilityDescription("Caches a value, computed from FlowFile attributes, for each incoming FlowFile and determines if the cached value has already been seen. "
         + "If so, routes the FlowFile to 'duplicate' with an attribute named 'original.identifier' that specifies the original FlowFile's "
         + "\"description\", which is specified in the <FlowFile Description> property. If the FlowFile is not determined to be a duplicate, the Processor "
-        + "routes the FlowFile to 'non-duplicate'")
+        + "routes the FlowFile to 'non-duplicate'. The values may be cached in a Distributed Map Cache, which can be shared by many processors and nodes, "
+        + "or in Bloom filters held in the memory of the Processor, which is much faster but only detects duplicates among the FlowFiles that "
+        + "this Processor sees on this node, and may route a small proportion of non-duplicates to 'duplicate'.")
 @WritesAttribute(attribute = "original.flowfile.description", description = "All FlowFiles routed to the duplicate relationship will have "
         + "an attribute added named original.flowfile.description. The value of this attribute is determined by the attributes of the original "
-        + "copy of the data and by the FlowFile Description property.")
+        + "copy of the data and by the FlowFile Description property. The attribute is not added when the Cache Type is Local Bloom Filter.")
 @SeeAlso(classNames = {"org.apache.nifi.distributed.cache.client.DistributedMapCacheClientService", "org.apache.nifi.distributed.cache.server.map.DistributedMapCacheServer"})
 public class DetectDuplicate extends AbstractProcessor {
 
     public static final String ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME = "original.flowfile.description";
 
+    private static final Validator PROBABILITY_VALIDATOR = (subject, input, context) -> {
+        boolean valid;
+        try {
+            final double probability = Double.parseDouble(input);
+            valid = probability > 0 && probability < 1;
+        } catch (final NumberFormatException e) {
+            valid = false;
+        }
+        return new ValidationResult.Builder().subject(subject).input(input).valid(valid).explanation("must be a number greater than 0 and less than 1").build();
+    };
+
+    public static final AllowableValue CACHE_TYPE_DISTRIBUTED = new AllowableValue("Distributed", "Distributed",
+            "The values are cached in the Distributed Cache Service, which determines exactly whether a value has been seen and stores the FlowFile Description of the original");
+    public static final AllowableValue CACHE_TYPE_LOCAL = new AllowableValue("Local Bloom Filter", "Local Bloom Filter",
+            "The values are cached in Bloom filters in the memory of the Processor. Only the values of the FlowFiles that this Processor sees on this node are cached, "
+            + "the FlowFile Description is not stored, and a value that has not been seen is determined to be a duplicate with the False Positive Probability.");
+
+    public static final PropertyDescriptor CACHE_TYPE = new PropertyDescriptor.Builder()
+            .name("detect-duplicate-cache-type")
+            .displayName("Cache Type")
+            .description("Where the values that identify duplicates are cached")
+            .required(true)
+            .allowableValues(CACHE_TYPE_DISTRIBUTED, CACHE_TYPE_LOCAL)
+            .defaultValue(CACHE_TYPE_DISTRIBUTED.getValue())
+            .build();
+
     public static final PropertyDescriptor DISTRIBUTED_CACHE_SERVICE = new PropertyDescriptor.Builder()
             .name("Distributed Cache Service")
-            .description("The Controller Service that is used to cache unique identifiers, used to determine duplicates")
-            .required(true)
+            .description("The Controller Service that is used to cache unique identifiers, used to determine duplicates. Required when the Cache Type is Distributed. "
+                    + "The identifiers of a batch of FlowFiles may be looked up together. The DistributedMapCacheClientService does so in a single request, but "
+                    + "other services, such as those backed by Redis or HBase, look up each identifier with a request of its own. With those services, a batch "
+                    + "in which the identifiers are cached and that follows a batch with several duplicates takes one more request for each identifier that is "
+                    + "not yet cached than checking each FlowFile on its own would.")
+            .required(false)
             .identifiesControllerService(DistributedMapCacheClient.class)
             .build();
     public static final PropertyDescriptor CACHE_ENTRY_IDENTIFIER = new PropertyDescriptor.Builder()
@@ -112,6 +156,38 @@ public class DetectDuplicate extends AbstractProcessor {
             .defaultValue("true")
             .build();
 
+    public static final PropertyDescriptor EXPECTED_ENTRIES = new PropertyDescriptor.Builder()
+            .name("detect-duplicate-expected-entries")
+            .displayName("Expected Entries")
+            .description("When the Cache Type is Local Bloom Filter, the number of values that each Bloom filter holds. The values are cached in two filters, and "
+                    + "when one is full, or has been used for the Age Off Duration, the values of the older filter are discarded. Each filter uses about "
+                    + "1.2 bytes of memory per expected entry for a False Positive Probability of 1%, and 2.3 bytes for 0.01%.")
+            .required(true)
+            .defaultValue("1000000")
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .build();
+
+    public static final PropertyDescriptor FALSE_POSITIVE_PROBABILITY = new PropertyDescriptor.Builder()
+            .name("detect-duplicate-false-positive-probability")
+            .displayName("False Positive Probability")
+            .description("When the Cache Type is Local Bloom Filter, the probability that a FlowFile whose value has not been seen is routed to 'duplicate'. "
+                    + "Must be greater than 0 and less than 1.")
+            .required(true)
+            .defaultValue("0.01")
+            .addValidator(PROBABILITY_VALIDATOR)
+            .build();
+
+    public static final PropertyDescriptor FILTER_DIRECTORY = new PropertyDescriptor.Builder()
+            .name("detect-duplicate-filter-directory")
+            .displayName("Bloom Filter Directory")
+            .description("When the Cache Type is Local Bloom Filter, the directory in which the Bloom filters are stored when the Processor is stopped, so that they "
+                    + "can be restored when it is started again with the same Expected Entries, False Positive Probability and Age Off Duration")
+            .defaultValue("./state/detect-duplicate")
+            .required(true)
+            .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+            .expressionLanguageSupported(ExpressionLanguageScope.VARIABLE_REGISTRY)
+            .build();
+
     public static final Relationship REL_DUPLICATE = new Relationship.Builder()
             .name("duplicate")
             .description("If a FlowFile has been detected to be a duplicate, it will be routed to this relationship")
@@ -126,6 +202,14 @@ public class DetectDuplicate extends AbstractProcessor {
             .build();
     private final Set<Relationship> relationships;
 
+    // the maximum number of FlowFiles that are checked for duplicates together
+    private static final int BATCH_SIZE = 100;
+
+    private volatile RotatingBloomFilter bloomFilter;
+
+    // the number of duplicates in the last batch that was checked against the Distributed Cache Service
+    private volatile int duplicatesInLastBatch;
+
     private final Serializer<String> keySerializer = new StringSerializer();
     private final Serializer<CacheValue> valueSerializer = new CacheValueSerializer();
     private final Deserializer<CacheValue> valueDeserializer = new CacheValueDeserializer();
@@ -144,11 +228,74 @@ public class DetectDuplicate extends AbstractProcessor {
         descriptors.add(CACHE_ENTRY_IDENTIFIER);
         descriptors.add(FLOWFILE_DESCRIPTION);
         descriptors.add(AGE_OFF_DURATION);
+        descriptors.add(CACHE_TYPE);
         descriptors.add(DISTRIBUTED_CACHE_SERVICE);
         descriptors.add(CACHE_IDENTIFIER);
+        descriptors.add(EXPECTED_ENTRIES);
+        descriptors.add(FALSE_POSITIVE_PROBABILITY);
+        descriptors.add(FILTER_DIRECTORY);
         return descriptors;
     }
 
+    @Override
+    protected Collection<ValidationResult> customValidate(final ValidationContext validationContext) {
+        final List<ValidationResult> results = new ArrayList<>();
+        if (CACHE_TYPE_DISTRIBUTED.getValue().equals(validationContext.getProperty(CACHE_TYPE).getValue())
+                && !validationContext.getProperty(DISTRIBUTED_CACHE_SERVICE).isSet()) {
+            results.add(new ValidationResult.Builder()
+                    .subject(DISTRIBUTED_CACHE_SERVICE.getDisplayName())
+                    .valid(false)
+                    .explanation("a Distributed Cache Service is required when the Cache Type is " + CACHE_TYPE_DISTRIBUTED.getDisplayName())
+                    .build());
+        }
+        return results;
+    }
+
+    @OnScheduled
+    public void onScheduled(final ProcessContext context) {
+        if (!CACHE_TYPE_LOCAL.getValue().equals(context.getProperty(CACHE_TYPE).getValue())) {
+            bloomFilter = null;
+            return;
+        }
+
+        final int expectedEntries = context.getProperty(EXPECTED_ENTRIES).asInteger();
+        final double falsePositiveProbability = Double.parseDouble(context.getProperty(FALSE_POSITIVE_PROBABILITY).getValue());
+        final Long durationMS = context.getProperty(AGE_OFF_DURATION).asTimePeriod(TimeUnit.MILLISECONDS);
+        final long rotationMillis = durationMS == null ? 0L : durationMS;
+
+        RotatingBloomFilter filter = null;
+        try {
+            filter = RotatingBloomFilter.load(getFilterFile(context));
+            if (filter != null && !filter.isConfiguredAs(expectedEntries, falsePositiveProbability, rotationMillis)) {
+                getLogger().info("The stored Bloom filters were created with different settings, so previously seen values will not be detected as duplicates");
+                filter = null;
+            }
+        } catch (final IOException | IllegalArgumentException e) {
+            getLogger().warn("Unable to restore the stored Bloom filters, so previously seen values will not be detected as duplicates", e);
+        }
+
+        bloomFilter = filter == null ? new RotatingBloomFilter(expectedEntries, falsePositiveProbability, rotationMillis, System.currentTimeMillis()) : filter;
+    }
+
+    @OnStopped
+    public void onStopped(final ProcessContext context) {
+        final RotatingBloomFilter filter = bloomFilter;
+        if (filter == null) {
+            return;
+        }
+
+        bloomFilter = null;
+        try {
+            filter.save(getFilterFile(context));
+        } catch (final IOException e) {
+            getLogger().warn("Unable to store the Bloom filters, so the values that have been seen will not be detected as duplicates after a restart", e);
+        }
+    }
+
+    private Path getFilterFile(final ProcessContext context) {
+        return Paths.get(context.getProperty(FILTER_DIRECTORY).evaluateAttributeExpressions().getValue(), getIdentifier() + ".bloom");
+    }
+
     @Override
     public Set<Relationship> getRelationships() {
         return relationships;
@@ -156,66 +303,147 @@ public class DetectDuplicate extends AbstractProcessor {
 
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
-        FlowFile flowFile = session.get();
-        if (flowFile == null) {
+        final List<FlowFile> flowFiles = session.get(BATCH_SIZE);
+        if (flowFiles.isEmpty()) {
             return;
         }
 
         final ComponentLog logger = getLogger();
-        final String cacheKey = context.getProperty(CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
-        if (StringUtils.isBlank(cacheKey)) {
-            logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[]{flowFile});
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
-            return;
+        final List<FlowFile> keyedFlowFiles = new ArrayList<>(flowFiles.size());
+        final List<String> cacheKeys = new ArrayList<>(flowFiles.size());
+        for (FlowFile flowFile : flowFiles) {
+            final String cacheKey = context.getProperty(CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
+            if (StringUtils.isBlank(cacheKey)) {
+                logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[]{flowFile});
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                continue;
+            }
+            keyedFlowFiles.add(flowFile);
+            cacheKeys.add(cacheKey);
+        }
+
+        final RotatingBloomFilter filter = bloomFilter;
+        if (filter != null) {
+            detectLocalDuplicates(context, session, filter, keyedFlowFiles, cacheKeys);
+        } else {
+            detectDistributedDuplicates(context, session, keyedFlowFiles, cacheKeys);
+        }
+    }
+
+    private void detectLocalDuplicates(final ProcessContext context, final ProcessSession session, final RotatingBloomFilter filter,
+                                       final List<FlowFile> flowFiles, final List<String> cacheKeys) {
+        final boolean shouldCacheIdentifier = context.getProperty(CACHE_IDENTIFIER).asBoolean();
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < flowFiles.size(); i++) {
+            final String cacheKey = cacheKeys.get(i);
+            final boolean duplicate = shouldCacheIdentifier ? filter.putIfAbsent(cacheKey, now) : filter.mightContain(cacheKey, now);
+            if (duplicate) {
+                routeDuplicate(session, flowFiles.get(i), null);
+            } else {
+                routeNonDuplicate(session, flowFiles.get(i));
+            }
         }
+    }
+
+    private void detectDistributedDuplicates(final ProcessContext context, final ProcessSession session, final List<FlowFile> flowFiles, final List<String> cacheKeys) {
+        final ComponentLog logger = getLogger();
         final DistributedMapCacheClient cache = context.getProperty(DISTRIBUTED_CACHE_SERVICE).asControllerService(DistributedMapCacheClient.class);
         final Long durationMS = context.getProperty(AGE_OFF_DURATION).asTimePeriod(TimeUnit.MILLISECONDS);
         final long now = System.currentTimeMillis();
 
-        try {
-            final String flowFileDescription = context.getProperty(FLOWFILE_DESCRIPTION).evaluateAttributeExpressions(flowFile).getValue();
-            final CacheValue cacheValue = new CacheValue(flowFileDescription, now);
-            final CacheValue originalCacheValue;
-
-            final boolean shouldCacheIdentifier = context.getProperty(CACHE_IDENTIFIER).asBoolean();
-            if (shouldCacheIdentifier) {
-                originalCacheValue = cache.getAndPutIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer, valueDeserializer);
-            } else {
-                originalCacheValue = cache.get(cacheKey, keySerializer, valueDeserializer);
+        final boolean shouldCacheIdentifier = context.getProperty(CACHE_IDENTIFIER).asBoolean();
+
+        // When the values are only checked, a single request for all of them determines which are duplicates. When they are also cached, each value
+        // that is not cached yet needs a getAndPutIfAbsent of its own, so looking them all up first only saves requests if several are duplicates;
+        // that is expected when the previous batch had several duplicates. Clients that do not implement subMap with a single request make one
+        // request per value for the lookup instead.
+        final Map<String, CacheValue> cachedValues;
+        if (!shouldCacheIdentifier || (flowFiles.size() > 1 && duplicatesInLastBatch > 1)) {
+            try {
+                cachedValues = new HashMap<>(cache.subMap(new HashSet<>(cacheKeys), keySerializer, valueDeserializer));
+            } catch (final IOException e) {
+                for (FlowFile flowFile : flowFiles) {
+                    flowFile = session.penalize(flowFile);
+                    session.transfer(flowFile, REL_FAILURE);
+                    logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
+                }
+                return;
             }
+        } else {
+            cachedValues = new HashMap<>();
+        }
 
-            boolean duplicate = originalCacheValue != null;
-            if (duplicate && durationMS != null && (now >= originalCacheValue.getEntryTimeMS() + durationMS)) {
-                boolean status = cache.remove(cacheKey, keySerializer);
-                logger.debug("Removal of expired cached entry with key {} returned {}", new Object[]{cacheKey, status});
+        int duplicates = 0;
+        for (int i = 0; i < flowFiles.size(); i++) {
+            FlowFile flowFile = flowFiles.get(i);
+            final String cacheKey = cacheKeys.get(i);
 
-                // both should typically result in duplicate being false...but, better safe than sorry
+            try {
+                CacheValue originalCacheValue = cachedValues.get(cacheKey);
+                CacheValue cacheValue = null;
                 if (shouldCacheIdentifier) {
-                    duplicate = !cache.putIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer);
+                    final String flowFileDescription = context.getProperty(FLOWFILE_DESCRIPTION).evaluateAttributeExpressions(flowFile).getValue();
+                    cacheValue = new CacheValue(flowFileDescription, now);
+                    if (originalCacheValue == null) {
+                        originalCacheValue = cache.getAndPutIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer, valueDeserializer);
+                    }
+                }
+
+                boolean duplicate = originalCacheValue != null;
+                CacheValue currentCacheValue = duplicate ? originalCacheValue : cacheValue;
+                if (duplicate && durationMS != null && (now >= originalCacheValue.getEntryTimeMS() + durationMS)) {
+                    boolean status = cache.remove(cacheKey, keySerializer);
+                    logger.debug("Removal of expired cached entry with key {} returned {}", new Object[]{cacheKey, status});
+
+                    // both should typically result in duplicate being false...but, better safe than sorry
+                    if (shouldCacheIdentifier) {
+                        duplicate = !cache.putIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer);
+                    } else {
+                        duplicate = cache.containsKey(cacheKey, keySerializer);
+                    }
+
+                    // If the key was cached again in the meantime, its value is unknown but has not expired
+                    currentCacheValue = duplicate ? new CacheValue(originalCacheValue.getDescription(), now) : cacheValue;
+                }
+
+                // Later FlowFiles of the batch with the same key must see the value that the cache now holds, not the one that was looked up
+                if (currentCacheValue == null) {
+                    cachedValues.remove(cacheKey);
                 } else {
-                    duplicate = cache.containsKey(cacheKey, keySerializer);
+                    cachedValues.put(cacheKey, currentCacheValue);
                 }
-            }
 
-            if (duplicate) {
-                session.getProvenanceReporter().route(flowFile, REL_DUPLICATE, "Duplicate of: " + ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME);
-                String originalFlowFileDescription = originalCacheValue.getDescription();
-                flowFile = session.putAttribute(flowFile, ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME, originalFlowFileDescription);
-                session.transfer(flowFile, REL_DUPLICATE);
-                logger.info("Found {} to be a duplicate of FlowFile with description {}", new Object[]{flowFile, originalFlowFileDescription});
-                session.adjustCounter("Duplicates Detected", 1L, false);
-            } else {
-                session.getProvenanceReporter().route(flowFile, REL_NON_DUPLICATE);
-                session.transfer(flowFile, REL_NON_DUPLICATE);
-                logger.info("Could not find a duplicate entry in cache for {}; routing to non-duplicate", new Object[]{flowFile});
-                session.adjustCounter("Non-Duplicate Files Processed", 1L, false);
+                if (duplicate) {
+                    duplicates++;
+                    routeDuplicate(session, flowFile, originalCacheValue.getDescription());
+                } else {
+                    routeNonDuplicate(session, flowFile);
+                }
+            } catch (final IOException e) {
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
             }
-        } catch (final IOException e) {
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
-            logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
         }
+        duplicatesInLastBatch = duplicates;
+    }
+
+    private void routeDuplicate(final ProcessSession session, FlowFile flowFile, final String originalFlowFileDescription) {
+        session.getProvenanceReporter().route(flowFile, REL_DUPLICATE, "Duplicate of: " + ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME);
+        if (originalFlowFileDescription != null) {
+            flowFile = session.putAttribute(flowFile, ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME, originalFlowFileDescription);
+        }
+        session.transfer(flowFile, REL_DUPLICATE);
+        getLogger().info("Found {} to be a duplicate of FlowFile with description {}", new Object[]{flowFile, originalFlowFileDescription});
+        session.adjustCounter("Duplicates Detected", 1L, false);
+    }
+
+    private void routeNonDuplicate(final ProcessSession session, final FlowFile flowFile) {
+        session.getProvenanceReporter().route(flowFile, REL_NON_DUPLICATE);
+        session.transfer(flowFile, REL_NON_DUPLICATE);
+        getLogger().info("Could not find a duplicate entry in cache for {}; routing to non-duplicate", new Object[]{flowFile});
+        session.adjustCounter("Non-Duplicate Files Processed", 1L, false);
     }
 
     private static class CacheValue {
@@ -47,6 +47,8 @@ import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processors.standard.db.DatabaseAdapter;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -73,7 +75,8 @@ import java.util.stream.IntStream;
 @CapabilityDescription("Generates SQL select queries that fetch \"pages\" of rows from a table. The partition size property, along with the table's row count, "
         + "determine the size and number of pages and generated FlowFiles. In addition, incremental fetching can be achieved by setting Maximum-Value Columns, "
         + "which causes the processor to track the columns' maximum values, thus only fetching rows whose columns' values exceed the observed maximums. This "
-        + "processor is intended to be run on the Primary Node only.\n\n"
+        + "processor is intended to be run on the Primary Node only. When a Column for Value Partitioning is set, each page is defined by a range of that column's "
+        + "values rather than by an offset, so that every page costs the database about the same to fetch, and the pages may be fetched in parallel.\n\n"
         + "This processor can accept incoming connections; the behavior of the processor is different whether incoming connections are provided:\n"
         + "  - If no incoming connection(s) are specified, the processor will generate SQL queries on the specified processor schedule. Expression Language is supported for many "
         + "fields, but no flow file attributes are available. However the properties will be evaluated using the Variable Registry.\n"
@@ -94,13 +97,22 @@ import java.util.stream.IntStream;
         @WritesAttribute(attribute = "generatetablefetch.maxColumnNames", description = "The comma-separated list of column names used to keep track of data "
                 + "that has been returned since the processor started running."),
         @WritesAttribute(attribute = "generatetablefetch.limit", description = "The number of result rows to be fetched by the SQL statement."),
-        @WritesAttribute(attribute = "generatetablefetch.offset", description = "Offset to be used to retrieve the corresponding partition.")
+        @WritesAttribute(attribute = "generatetablefetch.offset", description = "Offset to be used to retrieve the corresponding partition."),
+        @WritesAttribute(attribute = "generatetablefetch.partition.column", description = "If a Column for Value Partitioning is set, the name of the column whose "
+                + "values define the partition. The limit and offset attributes are not set in this case."),
+        @WritesAttribute(attribute = "generatetablefetch.partition.lowerBound", description = "If a Column for Value Partitioning is set, the lowest column value "
+                + "(inclusive) of the rows fetched by the SQL statement. Not set for the SQL statement that fetches the rows for which the column is NULL."),
+        @WritesAttribute(attribute = "generatetablefetch.partition.upperBound", description = "If a Column for Value Partitioning is set, the column value "
+                + "(exclusive) above which rows are fetched by the next SQL statement. Not set for the SQL statement that fetches the rows for which the column is NULL.")
 })
 @DynamicProperty(name = "Initial Max Value", value = "Attribute Expression Language",
                  expressionLanguageScope = ExpressionLanguageScope.NONE, description = "Specifies an initial "
                          + "max value for max value columns. Properties should be added in the format `initial.maxvalue.{max_value_column}`.")
 public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
 
+    // The most statements that partitioning by value may generate for each statement that the offset/limit strategy would generate
+    static final int MAX_VALUE_RANGES_PER_PAGE = 10;
+
     public static final PropertyDescriptor PARTITION_SIZE = new PropertyDescriptor.Builder()
             .name("gen-table-fetch-partition-size")
             .displayName("Partition Size")
@@ -114,6 +126,23 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
             .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
             .build();
 
+    public static final PropertyDescriptor COLUMN_FOR_VALUE_PARTITIONING = new PropertyDescriptor.Builder()
+            .name("gen-table-column-for-val-partitioning")
+            .displayName("Column for Value Partitioning")
+            .description("The name of a numeric column whose values will be used for partitioning. By default, the \"pages\" of rows are fetched using an offset/limit "
+                    + "strategy, for which the database must read and skip all of the rows before a page, so each page is slower to fetch than the one before it. "
+                    + "If this property is set, the minimum and maximum values of the column are queried instead, and each generated SQL statement fetches the rows "
+                    + "whose values lie in a range of Partition Size values, such as 'id >= 1000 AND id < 2000'. The ranges do not overlap, so the statements may be "
+                    + "executed concurrently, or on different nodes. This should be used with a column that is indexed, and whose values are whole numbers that are "
+                    + "evenly distributed and not sparse, as the number of rows in each page varies with the density of the values. If the values are so sparse "
+                    + "that the ranges would outnumber the pages of the offset/limit strategy more than " + MAX_VALUE_RANGES_PER_PAGE + " times over, that strategy "
+                    + "is used instead for that run. Rows for which the column is NULL are fetched by one more statement, 'id IS NULL'. If the column is also a "
+                    + "Maximum-value Column, the table can be fetched incrementally as well.")
+            .required(false)
+            .expressionLanguageSupported(ExpressionLanguageScope.FLOWFILE_ATTRIBUTES)
+            .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+            .build();
+
     public static final Relationship REL_FAILURE = new Relationship.Builder()
             .name("failure")
             .description("This relationship is only used when SQL query execution (using an incoming FlowFile) failed. The incoming FlowFile will be penalized and routed to this relationship. "
@@ -135,6 +164,7 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
         pds.add(QUERY_TIMEOUT);
         pds.add(PARTITION_SIZE);
         pds.add(WHERE_CLAUSE);
+        pds.add(COLUMN_FOR_VALUE_PARTITIONING);
         propDescriptors = Collections.unmodifiableList(pds);
     }
 
@@ -189,6 +219,8 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
         final String maxValueColumnNames = context.getProperty(MAX_VALUE_COLUMN_NAMES).evaluateAttributeExpressions(fileToProcess).getValue();
         final int partitionSize = context.getProperty(PARTITION_SIZE).evaluateAttributeExpressions(fileToProcess).asInteger();
         final String customWhereClause = context.getProperty(WHERE_CLAUSE).evaluateAttributeExpressions(fileToProcess).getValue();
+        final String columnForPartitioning = context.getProperty(COLUMN_FOR_VALUE_PARTITIONING).evaluateAttributeExpressions(fileToProcess).getValue();
+        final boolean useColumnValsForPaging = StringUtils.isNotBlank(columnForPartitioning);
 
         final StateManager stateManager = context.getStateManager();
         final StateMap stateMap;
@@ -263,12 +295,25 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
                 maxValueClauses.add("(" + customWhereClause + ")");
             }
 
+            // The range of values of the partitioning column, and the number of rows for which it is not NULL, are fetched along with the count,
+            // after the maximum values
+            final int maxValueColumnCount = maxValueColumnNameList.size();
+            if (useColumnValsForPaging) {
+                maxValueSelectColumns.add("MIN(" + columnForPartitioning + ")");
+                maxValueSelectColumns.add("MAX(" + columnForPartitioning + ")");
+                maxValueSelectColumns.add("COUNT(" + columnForPartitioning + ")");
+            }
+
             whereClause = StringUtils.join(maxValueClauses, " AND ");
             columnsClause = StringUtils.join(maxValueSelectColumns, ", ");
 
             // Build a SELECT query with maximum-value columns (if present)
             final String selectQuery = dbAdapter.getSelectStatement(tableName, columnsClause, whereClause, null, null, null);
             long rowCount = 0;
+            long minPartitionValue = 0;
+            long maxPartitionValue = 0;
+            long nonNullPartitionValueCount = 0;
+            boolean partitionValuesFit = true;
 
             try (final Connection con = dbcpService.getConnection();
                  final Statement st = con.createStatement()) {
@@ -287,7 +332,7 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
 
                     // Update the state map with the newly-observed maximum values
                     ResultSetMetaData rsmd = resultSet.getMetaData();
-                    for (int i = 2; i <= rsmd.getColumnCount(); i++) {
+                    for (int i = 2; i <= maxValueColumnCount + 1; i++) {
                         //Some JDBC drivers consider the columns name and label to be very different things.
                         // Since this column has been aliased lets check the label first,
                         // if there is no label we'll use the column name.
@@ -317,6 +362,21 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
                         }
 
                     }
+
+                    if (useColumnValsForPaging) {
+                        // Values that are not whole numbers are rounded outwards, so that the ranges cover all of the rows
+                        final BigDecimal minValue = resultSet.getBigDecimal(maxValueColumnCount + 2);
+                        final BigDecimal maxValue = resultSet.getBigDecimal(maxValueColumnCount + 3);
+                        if (minValue != null && maxValue != null) {
+                            try {
+                                minPartitionValue = minValue.setScale(0, RoundingMode.FLOOR).longValueExact();
+                                maxPartitionValue = maxValue.setScale(0, RoundingMode.FLOOR).longValueExact();
+                            } catch (final ArithmeticException ae) {
+                                partitionValuesFit = false;
+                            }
+                        }
+                        nonNullPartitionValueCount = resultSet.getLong(maxValueColumnCount + 4);
+                    }
                 } else {
                     // Something is very wrong here, one row (even if count is zero) should be returned
                     throw new SQLException("No rows returned from metadata query: " + selectQuery);
@@ -343,29 +403,81 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
                 //Update WHERE list to include new right hand boundaries
                 whereClause = StringUtils.join(maxValueClauses, " AND ");
 
-                final long numberOfFetches = (partitionSize == 0) ? 1 : (rowCount / partitionSize) + (rowCount % partitionSize == 0 ? 0 : 1);
+                final long offsetPages = partitionSize == 0 ? 1 : (rowCount / partitionSize) + (rowCount % partitionSize == 0 ? 0 : 1);
+                boolean partitionByValue = useColumnValsForPaging && partitionSize != 0;
+                long valueRanges = 0;
+                if (partitionByValue && nonNullPartitionValueCount > 0) {
+                    try {
+                        valueRanges = partitionValuesFit ? Math.addExact(Math.subtractExact(maxPartitionValue, minPartitionValue) / partitionSize, 1) : Long.MAX_VALUE;
+                    } catch (final ArithmeticException ae) {
+                        valueRanges = Long.MAX_VALUE;
+                    }
+
+                    // A few outlying values would otherwise generate a statement for each of the many empty ranges between them, so this run
+                    // pages by offset instead. The maximum values are still recorded, so the next run only considers the rows added since.
+                    if (valueRanges / MAX_VALUE_RANGES_PER_PAGE > offsetPages) {
+                        logger.warn("The values of the Column for Value Partitioning {} are too sparse to partition {} rows into ranges of Partition Size {}, "
+                                + "so they will be fetched using an offset and limit instead", new Object[]{columnForPartitioning, rowCount, partitionSize});
+                        partitionByValue = false;
+                    }
+                }
+
+                final long numberOfFetches;
+                if (partitionByValue) {
+                    // The rows for which the column is NULL are in none of the ranges, so they are fetched by a statement of their own
+                    numberOfFetches = valueRanges + (rowCount > nonNullPartitionValueCount ? 1 : 0);
+                } else {
+                    numberOfFetches = offsetPages;
+                }
 
                 // Generate SQL statements to read "pages" of data
                 for (long i = 0; i < numberOfFetches; i++) {
-                    Long limit = partitionSize == 0 ? null : (long) partitionSize;
-                    Long offset = partitionSize == 0 ? null : i * partitionSize;
+                    final String pageWhereClause;
+                    Long limit = null;
+                    Long offset = null;
+                    long lowerBound = 0;
+                    long upperBound = 0;
+                    final boolean nullPartition = partitionByValue && i == valueRanges;
+                    if (partitionByValue) {
+                        final String rangeClause;
+                        if (nullPartition) {
+                            rangeClause = columnForPartitioning + " IS NULL";
+                        } else {
+                            lowerBound = minPartitionValue + i * partitionSize;
+                            upperBound = lowerBound + partitionSize;
+                            rangeClause = columnForPartitioning + " >= " + lowerBound + " AND " + columnForPartitioning + " < " + upperBound;
+                        }
+                        pageWhereClause = StringUtils.isBlank(whereClause) ? rangeClause : whereClause + " AND " + rangeClause;
+                    } else {
+                        pageWhereClause = whereClause;
+                        limit = partitionSize == 0 ? null : (long) partitionSize;
+                        offset = partitionSize == 0 ? null : i * partitionSize;
+                    }
                     final String maxColumnNames = StringUtils.join(maxValueColumnNameList, ", ");
-                    final String query = dbAdapter.getSelectStatement(tableName, columnNames, whereClause, maxColumnNames, limit, offset);
+                    final String query = dbAdapter.getSelectStatement(tableName, columnNames, pageWhereClause, maxColumnNames, limit, offset);
                     FlowFile sqlFlowFile = (fileToProcess == null) ? session.create() : session.create(fileToProcess);
                     sqlFlowFile = session.write(sqlFlowFile, out -> out.write(query.getBytes()));
                     sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.tableName", tableName);
                     if (columnNames != null) {
                         sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.columnNames", columnNames);
                     }
-                    if (StringUtils.isNotBlank(whereClause)) {
-                        sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.whereClause", whereClause);
+                    if (StringUtils.isNotBlank(pageWhereClause)) {
+                        sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.whereClause", pageWhereClause);
                     }
                     if (StringUtils.isNotBlank(maxColumnNames)) {
                         sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.maxColumnNames", maxColumnNames);
                     }
-                    sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.limit", String.valueOf(limit));
-                    if (partitionSize != 0) {
-                        sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.offset", String.valueOf(offset));
+                    if (partitionByValue) {
+                        sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.partition.column", columnForPartitioning);
+                        if (!nullPartition) {
+                            sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.partition.lowerBound", String.valueOf(lowerBound));
+                            sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.partition.upperBound", String.valueOf(upperBound));
+                        }
+                    } else {
+                        sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.limit", String.valueOf(limit));
+                        if (partitionSize != 0) {
+                            sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.offset", String.valueOf(offset));
+                        }
                     }
                     session.transfer(sqlFlowFile, REL_SUCCESS);
                 }
@@ -41,6 +41,7 @@ import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.DirectoryScanner;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -231,6 +232,7 @@ public class GetFile extends AbstractProcessor {
         properties.add(MAX_AGE);
         properties.add(MIN_SIZE);
         properties.add(MAX_SIZE);
+        properties.add(DirectoryScanner.TRAVERSAL_THREADS);
         this.properties = Collections.unmodifiableList(properties);
 
         final Set<Relationship> relationships = new HashSet<>();
@@ -308,32 +310,20 @@ public class GetFile extends AbstractProcessor {
         };
     }
 
-    private Set<File> performListing(final File directory, final FileFilter filter, final boolean recurseSubdirectories) {
+    private Set<File> performListing(final File directory, final FileFilter filter, final boolean recurseSubdirectories, final int traversalThreads) throws IOException {
         Path p = directory.toPath();
         if (!Files.isWritable(p) || !Files.isReadable(p)) {
             throw new IllegalStateException("Directory '" + directory + "' does not have sufficient permissions (i.e., not writable and readable)");
         }
-        final Set<File> queue = new HashSet<>();
         if (!directory.exists()) {
-            return queue;
+            return new HashSet<>();
         }
 
-        final File[] children = directory.listFiles();
-        if (children == null) {
-            return queue;
-        }
-
-        for (final File child : children) {
-            if (child.isDirectory()) {
-                if (recurseSubdirectories) {
-                    queue.addAll(performListing(child, filter, recurseSubdirectories));
-                }
-            } else if (filter.accept(child)) {
-                queue.add(child);
-            }
-        }
-
-        return queue;
+        final DirectoryScanner scanner = new DirectoryScanner(traversalThreads);
+        return new HashSet<>(scanner.scan(p, recurseSubdirectories, true, (path, attributes) -> {
+            final File file = path.toFile();
+            return filter.accept(file) ? file : null;
+        }));
     }
 
     protected Map<String, String> getAttributesFromFile(final Path file) {
@@ -383,7 +373,15 @@ public class GetFile extends AbstractProcessor {
             final long pollingMillis = context.getProperty(POLLING_INTERVAL).asTimePeriod(TimeUnit.MILLISECONDS);
             if ((queueLastUpdated.get() < System.currentTimeMillis() - pollingMillis) && listingLock.tryLock()) {
                 try {
-                    final Set<File> listing = performListing(directory, fileFilterRef.get(), context.getProperty(RECURSE).asBoolean().booleanValue());
+                    final Set<File> listing;
+                    try {
+                        listing = performListing(directory, fileFilterRef.get(), context.getProperty(RECURSE).asBoolean().booleanValue(),
+                            context.getProperty(DirectoryScanner.TRAVERSAL_THREADS).asInteger());
+                    } catch (final IOException e) {
+                        logger.error("Failed to list the contents of {} due to {}", new Object[]{directory, e});
+                        context.yield();
+                        return;
+                    }
 
                     queueLock.lock();
                     try {
@@ -31,14 +31,19 @@ import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.state.Scope;
 import org.apache.nifi.expression.ExpressionLanguageScope;
+import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processor.util.list.AbstractListProcessor;
+import org.apache.nifi.processors.standard.util.DirectoryScanner;
 import org.apache.nifi.processors.standard.util.FileInfo;
+import org.apache.nifi.processors.standard.util.TrackedFileIndex;
 
 import java.io.File;
 import java.io.IOException;
@@ -66,8 +71,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiPredicate;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @TriggerSerially
 @InputRequirement(Requirement.INPUT_FORBIDDEN)
@@ -106,12 +109,21 @@ import java.util.stream.Stream;
 @Stateful(scopes = {Scope.LOCAL, Scope.CLUSTER}, description = "After performing a listing of files, the timestamp of the newest file is stored. "
     + "This allows the Processor to list only files that have been added or modified after "
     + "this date the next time that the Processor is run. Whether the state is stored with a Local or Cluster scope depends on the value of the "
-    + "<Input Directory Location> property.")
+    + "<Input Directory Location> property. When the Listing Strategy is Tracking Files, the files that were listed are instead tracked in an index "
+    + "file in the Tracking Index Directory, which is not part of the state of the Processor.")
 public class ListFile extends AbstractListProcessor<FileInfo> {
     static final AllowableValue LOCATION_LOCAL = new AllowableValue("Local", "Local", "Input Directory is located on a local disk. State will be stored locally on each node in the cluster.");
     static final AllowableValue LOCATION_REMOTE = new AllowableValue("Remote", "Remote", "Input Directory is located on a remote system. State will be stored across the cluster so that "
         + "the listing can be performed on Primary Node Only and another node can pick up where the last node left off, if the Primary Node changes");
 
+    static final AllowableValue BY_TIMESTAMPS = new AllowableValue("timestamps", "Tracking Timestamps",
+        "Lists the files whose last modified time is later than that of the newest file in the previous listing. Only a few timestamps are stored, "
+        + "but a file whose last modified time is earlier than that, such as a file that is moved into the Input Directory, is not listed.");
+    static final AllowableValue BY_TRACKED_FILES = new AllowableValue("tracked-files", "Tracking Files",
+        "Tracks the path, size and last modified time of every listed file in an index in the Tracking Index Directory, and lists the files that "
+        + "are not in the index or whose size or last modified time has changed, regardless of their timestamps. The index holds an entry for every "
+        + "file in the Input Directory that passes the filters. It is kept on the local disk, so after a change of Primary Node, the files are listed again.");
+
     public static final PropertyDescriptor DIRECTORY = new PropertyDescriptor.Builder()
             .name("Input Directory")
             .description("The input directory from which files to pull files")
@@ -190,10 +202,33 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
             .required(true)
             .build();
 
+    public static final PropertyDescriptor LISTING_STRATEGY = new PropertyDescriptor.Builder()
+            .name("listing-strategy")
+            .displayName("Listing Strategy")
+            .description("How the Processor determines which files are new, so that each file is listed once")
+            .allowableValues(BY_TIMESTAMPS, BY_TRACKED_FILES)
+            .defaultValue(BY_TIMESTAMPS.getValue())
+            .required(true)
+            .build();
+
+    public static final PropertyDescriptor TRACKING_INDEX_DIRECTORY = new PropertyDescriptor.Builder()
+            .name("tracking-index-directory")
+            .displayName("Tracking Index Directory")
+            .description("When the Listing Strategy is Tracking Files, the directory in which the index of the listed files is kept")
+            .defaultValue("./state/list-file")
+            .required(true)
+            .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+            .expressionLanguageSupported(ExpressionLanguageScope.VARIABLE_REGISTRY)
+            .build();
+
     private List<PropertyDescriptor> properties;
     private Set<Relationship> relationships;
     private final AtomicReference<BiPredicate<Path, BasicFileAttributes>> fileFilterRef = new AtomicReference<BiPredicate<Path, BasicFileAttributes>>();
 
+    // the index of the files that were listed when the Listing Strategy is Tracking Files, loaded when first needed
+    private volatile TrackedFileIndex trackedFileIndex;
+    private volatile boolean resetTrackedFileIndex;
+
     public static final String FILE_CREATION_TIME_ATTRIBUTE = "file.creationTime";
     public static final String FILE_LAST_MODIFY_TIME_ATTRIBUTE = "file.lastModifiedTime";
     public static final String FILE_LAST_ACCESS_TIME_ATTRIBUTE = "file.lastAccessTime";
@@ -217,6 +252,9 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
         properties.add(MAX_SIZE);
         properties.add(IGNORE_HIDDEN_FILES);
         properties.add(TARGET_SYSTEM_TIMESTAMP_PRECISION);
+        properties.add(LISTING_STRATEGY);
+        properties.add(TRACKING_INDEX_DIRECTORY);
+        properties.add(DirectoryScanner.TRAVERSAL_THREADS);
         this.properties = Collections.unmodifiableList(properties);
 
         final Set<Relationship> relationships = new HashSet<>();
@@ -234,9 +272,90 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
         return relationships;
     }
 
+    @Override
+    public void onPropertyModified(final PropertyDescriptor descriptor, final String oldValue, final String newValue) {
+        super.onPropertyModified(descriptor, oldValue, newValue);
+        if (isConfigurationRestored() && (isListingResetNecessary(descriptor) || LISTING_STRATEGY.equals(descriptor))) {
+            resetTrackedFileIndex = true;
+        }
+    }
+
     @OnScheduled
-    public void onScheduled(final ProcessContext context) {
+    public void onScheduled(final ProcessContext context) throws IOException {
         fileFilterRef.set(createFileFilter(context));
+
+        trackedFileIndex = null;
+        if (resetTrackedFileIndex) {
+            Files.deleteIfExists(getTrackedFileIndexFile(context));
+            resetTrackedFileIndex = false;
+        }
+    }
+
+    private Path getTrackedFileIndexFile(final ProcessContext context) {
+        return Paths.get(context.getProperty(TRACKING_INDEX_DIRECTORY).evaluateAttributeExpressions().getValue(), getIdentifier() + ".index");
+    }
+
+    @Override
+    public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+        if (BY_TRACKED_FILES.getValue().equals(context.getProperty(LISTING_STRATEGY).getValue())) {
+            listTrackedFiles(context, session);
+        } else {
+            super.onTrigger(context, session);
+        }
+    }
+
+    private void listTrackedFiles(final ProcessContext context, final ProcessSession session) {
+        final String directory = getPath(context);
+        TrackedFileIndex index = trackedFileIndex;
+        try {
+            if (index == null) {
+                index = TrackedFileIndex.load(getTrackedFileIndexFile(context), new File(directory).getAbsolutePath());
+                trackedFileIndex = index;
+            }
+        } catch (final IOException e) {
+            getLogger().error("Failed to load the index of listed files. Will not perform listing until this is accomplished.", e);
+            context.yield();
+            return;
+        }
+
+        final List<FileInfo> listing;
+        try {
+            listing = performListing(context, null);
+        } catch (final IOException e) {
+            getLogger().error("Failed to perform listing of {} due to {}", new Object[]{directory, e});
+            context.yield();
+            return;
+        }
+
+        final Map<String, TrackedFileIndex.TrackedFile> listedFiles = new HashMap<>(listing.size() * 4 / 3 + 1);
+        int flowFilesCreated = 0;
+        for (final FileInfo fileInfo : listing) {
+            final String path = fileInfo.getFullPathFileName();
+            listedFiles.put(path, new TrackedFileIndex.TrackedFile(fileInfo.getSize(), fileInfo.getLastModifiedTime()));
+            if (index.isNewOrChanged(path, fileInfo.getSize(), fileInfo.getLastModifiedTime())) {
+                FlowFile flowFile = session.create();
+                flowFile = session.putAllAttributes(flowFile, createAttributes(fileInfo, context));
+                session.transfer(flowFile, REL_SUCCESS);
+                flowFilesCreated++;
+            }
+        }
+
+        if (flowFilesCreated > 0) {
+            getLogger().info("Successfully created listing with {} new or changed files", new Object[]{flowFilesCreated});
+            session.commit();
+        } else {
+            context.yield();
+        }
+
+        // the index is updated once the FlowFiles are committed, so that a failure in between lists the files again rather than losing them
+        if (index.replace(listedFiles)) {
+            try {
+                index.save();
+            } catch (final IOException e) {
+                getLogger().warn("Unable to save the index of listed files due to {}. If NiFi is restarted before the index is saved, "
+                    + "data duplication may occur.", new Object[]{e});
+            }
+        }
     }
 
     @Override
@@ -316,22 +435,23 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
     protected List<FileInfo> performListing(final ProcessContext context, final Long minTimestamp) throws IOException {
         final Path path = new File(getPath(context)).toPath();
         final Boolean recurse = context.getProperty(RECURSE).asBoolean();
+        final DirectoryScanner scanner = new DirectoryScanner(context.getProperty(DirectoryScanner.TRAVERSAL_THREADS).asInteger());
 
         final BiPredicate<Path, BasicFileAttributes> fileFilter = fileFilterRef.get();
-        int maxDepth = recurse? Integer.MAX_VALUE : 1;
-        Stream<Path> inputStream = Files.find(path, maxDepth, (p, attributes) ->
-            !attributes.isDirectory() && (minTimestamp == null || attributes.lastModifiedTime().toMillis() >= minTimestamp)
-                && fileFilter.test(p, attributes));
-        Stream<FileInfo> listing = inputStream.map(p -> {
-            File file = p.toFile();
+        return scanner.scan(path, recurse, false, (p, attributes) -> {
+            if ((minTimestamp != null && attributes.lastModifiedTime().toMillis() < minTimestamp) || !fileFilter.test(p, attributes)) {
+                return null;
+            }
+
+            final File file = p.toFile();
             return new FileInfo.Builder()
-                .directory(file.isDirectory())
+                .directory(false)
                 .filename(file.getName())
                 .fullPathFileName(file.getAbsolutePath())
-                .lastModifiedTime(file.lastModified())
+                .lastModifiedTime(attributes.lastModifiedTime().toMillis())
+                .size(attributes.size())
                 .build();
         });
-        return listing.collect(Collectors.toList());
     }
 
     @Override
@@ -57,6 +57,7 @@ import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.LookupResultCache;
 
 @EventDriven
 @SideEffectFree
@@ -111,6 +112,8 @@ public class LookupAttribute extends AbstractProcessor {
 
     private Map<PropertyDescriptor, PropertyValue> dynamicProperties;
 
+    private volatile LookupResultCache lookupResultCache;
+
     @Override
     protected Collection<ValidationResult> customValidate(ValidationContext validationContext) {
         final List<ValidationResult> errors = new ArrayList<>(super.customValidate(validationContext));
@@ -166,6 +169,8 @@ public class LookupAttribute extends AbstractProcessor {
         final List<PropertyDescriptor> descriptors = new ArrayList<PropertyDescriptor>();
         descriptors.add(LOOKUP_SERVICE);
         descriptors.add(INCLUDE_EMPTY_VALUES);
+        descriptors.add(LookupResultCache.CACHE_SIZE);
+        descriptors.add(LookupResultCache.CACHE_EXPIRATION);
         this.descriptors = Collections.unmodifiableList(descriptors);
 
         final Set<Relationship> relationships = new HashSet<Relationship>();
@@ -187,6 +192,7 @@ public class LookupAttribute extends AbstractProcessor {
             }
         }
         this.dynamicProperties = Collections.unmodifiableMap(dynamicProperties);
+        this.lookupResultCache = LookupResultCache.create(context);
     }
 
     @Override
@@ -218,15 +224,25 @@ public class LookupAttribute extends AbstractProcessor {
             }
 
             final String coordinateKey = requiredKeys.iterator().next();
+            final Map<String, Map<String, Object>> attributeCoordinates = new HashMap<>(dynamicProperties.size());
             for (final Map.Entry<PropertyDescriptor, PropertyValue> e : dynamicProperties.entrySet()) {
                 final PropertyValue lookupKeyExpression = e.getValue();
                 final String lookupKey = lookupKeyExpression.evaluateAttributeExpressions(flowFile).getValue();
-                final String attributeName = e.getKey().getName();
-                final Optional<String> attributeValue = lookupService.lookup(Collections.singletonMap(coordinateKey, lookupKey));
+                attributeCoordinates.put(e.getKey().getName(), Collections.singletonMap(coordinateKey, lookupKey));
+            }
+
+            // Look up the values for all attributes at once, so that a remote service needs only a single request per FlowFile
+            final Set<Map<String, Object>> coordinates = new HashSet<>(attributeCoordinates.values());
+            final LookupResultCache cache = lookupResultCache;
+            final Map<Map<String, Object>, ?> lookupValues = cache == null ? lookupService.lookupAll(coordinates) : cache.lookupAll(lookupService, coordinates);
+
+            for (final Map.Entry<String, Map<String, Object>> e : attributeCoordinates.entrySet()) {
+                final String attributeName = e.getKey();
+                final Optional<String> attributeValue = Optional.ofNullable(lookupValues.get(e.getValue())).map(Object::toString);
                 matched = putAttribute(attributeName, attributeValue, attributes, includeEmptyValues, logger) || matched;
 
                 if (!matched && logger.isDebugEnabled()) {
-                    logger.debug("No such value for key: {}", new Object[]{lookupKey});
+                    logger.debug("No such value for key: {}", new Object[]{e.getValue().get(coordinateKey)});
                 }
             }
 
@@ -51,6 +51,8 @@ import org.apache.nifi.lookup.LookupService;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.LookupResultCache;
 import org.apache.nifi.record.path.FieldValue;
 import org.apache.nifi.record.path.RecordPath;
 import org.apache.nifi.record.path.RecordPathResult;
@@ -89,6 +91,7 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
 
     private volatile RecordPathCache recordPathCache = new RecordPathCache(25);
     private volatile LookupService<?> lookupService;
+    private volatile LookupResultCache lookupResultCache;
 
     static final AllowableValue ROUTE_TO_SUCCESS = new AllowableValue("route-to-success", "Route to 'success'",
         "Records will be routed to a 'success' Relationship regardless of whether or not there is a match in the configured Lookup Service");
@@ -140,6 +143,17 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
         .required(true)
         .build();
 
+    static final PropertyDescriptor LOOKUP_BATCH_SIZE = new PropertyDescriptor.Builder()
+        .name("lookup-batch-size")
+        .displayName("Lookup Batch Size")
+        .description("The maximum number of Records whose values are looked up together. The distinct coordinates of all Records in a batch are passed to the "
+            + "Lookup Service at once, which allows services that are backed by a remote system to look them all up in a single request.")
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .defaultValue("100")
+        .required(true)
+        .build();
+
     static final Relationship REL_MATCHED = new Relationship.Builder()
         .name("matched")
         .description("All records for which the lookup returns a value will be routed to this relationship")
@@ -163,6 +177,7 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
     @OnScheduled
     public void onScheduled(final ProcessContext context) {
         this.lookupService = context.getProperty(LOOKUP_SERVICE).asControllerService(LookupService.class);
+        this.lookupResultCache = LookupResultCache.create(context);
     }
 
     @Override
@@ -178,6 +193,9 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
         properties.add(RESULT_RECORD_PATH);
         properties.add(ROUTING_STRATEGY);
         properties.add(RESULT_CONTENTS);
+        properties.add(LOOKUP_BATCH_SIZE);
+        properties.add(LookupResultCache.CACHE_SIZE);
+        properties.add(LookupResultCache.CACHE_EXPIRATION);
         return properties;
     }
 
@@ -255,11 +273,62 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
         }
     }
 
+    @Override
+    protected int getRecordBatchSize(final ProcessContext context) {
+        return context.getProperty(LOOKUP_BATCH_SIZE).asInteger();
+    }
+
     @Override
     protected Set<Relationship> route(final Record record, final RecordSchema writeSchema, final FlowFile flowFile, final ProcessContext context,
         final Tuple<Map<String, RecordPath>, RecordPath> flowFileContext) {
+        return route(Collections.singletonList(record), writeSchema, flowFile, context, flowFileContext).get(0);
+    }
+
+    @Override
+    protected List<Set<Relationship>> route(final List<Record> records, final RecordSchema writeSchema, final FlowFile flowFile, final ProcessContext context,
+        final Tuple<Map<String, RecordPath>, RecordPath> flowFileContext) {
+
+        // Gather the coordinates of all records first, so that each distinct set of coordinates is looked up only once per batch
+        final List<Map<String, Object>> recordCoordinates = new ArrayList<>(records.size());
+        final Set<Map<String, Object>> distinctCoordinates = new HashSet<>();
+        for (final Record record : records) {
+            final Map<String, Object> lookupCoordinates = getLookupCoordinates(record, flowFile, flowFileContext.getKey());
+            recordCoordinates.add(lookupCoordinates);
+            if (lookupCoordinates != null) {
+                distinctCoordinates.add(lookupCoordinates);
+            }
+        }
 
-        final Map<String, RecordPath> recordPaths = flowFileContext.getKey();
+        final Map<Map<String, Object>, ?> lookupValues;
+        if (distinctCoordinates.isEmpty()) {
+            lookupValues = Collections.emptyMap();
+        } else {
+            try {
+                final LookupResultCache cache = lookupResultCache;
+                lookupValues = cache == null ? lookupService.lookupAll(distinctCoordinates) : cache.lookupAll(lookupService, distinctCoordinates);
+            } catch (final Exception e) {
+                throw new ProcessException("Failed to lookup coordinates " + distinctCoordinates + " in Lookup Service", e);
+            }
+        }
+
+        final List<Set<Relationship>> relationships = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            final Map<String, Object> lookupCoordinates = recordCoordinates.get(i);
+            final Object lookupValue = lookupCoordinates == null ? null : lookupValues.get(lookupCoordinates);
+            if (lookupValue == null) {
+                relationships.add(routeToMatchedUnmatched ? UNMATCHED_COLLECTION : SUCCESS_COLLECTION);
+            } else {
+                relationships.add(applyLookupValue(records.get(i), lookupValue, writeSchema, context, flowFileContext.getValue()));
+            }
+        }
+
+        return relationships;
+    }
+
+    /**
+     * @return the lookup coordinates for the given record, or <code>null</code> if a RecordPath does not match exactly one non-null field
+     */
+    private Map<String, Object> getLookupCoordinates(final Record record, final FlowFile flowFile, final Map<String, RecordPath> recordPaths) {
         final Map<String, Object> lookupCoordinates = new HashMap<>(recordPaths.size());
 
         for (final Map.Entry<String, RecordPath> entry : recordPaths.entrySet()) {
@@ -274,14 +343,14 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
             if (lookupFieldValues.isEmpty()) {
                 final Set<Relationship> rels = routeToMatchedUnmatched ? UNMATCHED_COLLECTION : SUCCESS_COLLECTION;
                 getLogger().debug("RecordPath for property '{}' did not match any fields in a record for {}; routing record to {}", new Object[] {coordinateKey, flowFile, rels});
-                return rels;
+                return null;
             }
 
             if (lookupFieldValues.size() > 1) {
                 final Set<Relationship> rels = routeToMatchedUnmatched ? UNMATCHED_COLLECTION : SUCCESS_COLLECTION;
                 getLogger().debug("RecordPath for property '{}' matched {} fields in a record for {}; routing record to {}",
                     new Object[] {coordinateKey, lookupFieldValues.size(), flowFile, rels});
-                return rels;
+                return null;
             }
 
             final FieldValue fieldValue = lookupFieldValues.get(0);
@@ -290,25 +359,17 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
             lookupCoordinates.put(coordinateKey, coordinateValue);
         }
 
-        final Optional<?> lookupValueOption;
-        try {
-            lookupValueOption = lookupService.lookup(lookupCoordinates);
-        } catch (final Exception e) {
-            throw new ProcessException("Failed to lookup coordinates " + lookupCoordinates + " in Lookup Service", e);
-        }
+        return lookupCoordinates;
+    }
 
-        if (!lookupValueOption.isPresent()) {
-            final Set<Relationship> rels = routeToMatchedUnmatched ? UNMATCHED_COLLECTION : SUCCESS_COLLECTION;
-            return rels;
-        }
+    private Set<Relationship> applyLookupValue(final Record record, final Object lookupValue, final RecordSchema writeSchema, final ProcessContext context,
+        final RecordPath resultPath) {
 
         // Ensure that the Record has the appropriate schema to account for the newly added values
-        final RecordPath resultPath = flowFileContext.getValue();
         if (resultPath != null) {
             record.incorporateSchema(writeSchema);
 
-            final Object lookupValue = lookupValueOption.get();
-            final RecordPathResult resultPathResult = flowFileContext.getValue().evaluate(record);
+            final RecordPathResult resultPathResult = resultPath.evaluate(record);
 
             final String resultContentsValue = context.getProperty(RESULT_CONTENTS).getValue();
             if (RESULT_RECORD_FIELDS.getValue().equals(resultContentsValue) && lookupValue instanceof Record) {
@@ -329,11 +390,12 @@ public class LookupRecord extends AbstractRouteRecord<Tuple<Map<String, RecordPa
                             final Object value = lookupRecord.getValue(fieldName);
                             destinationRecord.setValue(fieldName, value);
                         }
+                        fieldVal.invalidateSerializedForms();
                     } else {
                         final Optional<Record> parentOption = fieldVal.getParentRecord();
 
                         if (parentOption.isPresent()) {
-                            parentOption.get().setValue(fieldVal.getField().getFieldName(), lookupRecord);
+                            fieldVal.updateValue(lookupRecord);
                         }
                     }
                 });
@@ -84,6 +84,7 @@ import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processor.util.bin.Bin;
+import org.apache.nifi.processor.util.bin.BinContentWriter;
 import org.apache.nifi.processor.util.bin.BinFiles;
 import org.apache.nifi.processor.util.bin.BinManager;
 import org.apache.nifi.processors.standard.merge.AttributeStrategy;
@@ -332,6 +333,20 @@ public class MergeContent extends BinFiles {
             .defaultValue("${file.lastModifiedTime}")
             .build();
 
+    public static final PropertyDescriptor INCREMENTAL_MERGE = new PropertyDescriptor.Builder()
+            .name("mergecontent-incremental-merge")
+            .displayName("Merge Incrementally")
+            .description("If true, the content of each FlowFile is written to the merged FlowFile as soon as the FlowFile is added to a bin, and the "
+                    + "FlowFile is then routed to 'original' without waiting for the bin to be complete. Bins that hold many FlowFiles then neither "
+                    + "keep those FlowFiles in the processor nor write all of their content at once when they are complete. Only the Binary "
+                    + "Concatenation and FlowFile Stream, v3 Merge Formats, with the Bin-Packing Algorithm Merge Strategy, support this. Because the "
+                    + "original FlowFiles are committed before the merged FlowFile, the content of a bin that has not been completed when NiFi is shut "
+                    + "down abruptly is lost; stopping the processor completes any bins that it holds.")
+            .required(true)
+            .allowableValues("true", "false")
+            .defaultValue("false")
+            .build();
+
     public static final Relationship REL_MERGED = new Relationship.Builder().name("merged").description("The FlowFile containing the merged content").build();
 
     public static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
@@ -366,6 +381,7 @@ public class MergeContent extends BinFiles {
         descriptors.add(COMPRESSION_LEVEL);
         descriptors.add(KEEP_PATH);
         descriptors.add(TAR_MODIFIED_TIME);
+        descriptors.add(INCREMENTAL_MERGE);
         return descriptors;
     }
 
@@ -390,6 +406,25 @@ public class MergeContent extends BinFiles {
                 results.add(StandardValidators.FILE_EXISTS_VALIDATOR.validate(DEMARCATOR.getName(), demarcatorValue, context));
             }
         }
+
+        if (context.getProperty(INCREMENTAL_MERGE).asBoolean()) {
+            final String mergeFormat = context.getProperty(MERGE_FORMAT).getValue();
+            if (!MERGE_FORMAT_CONCAT_VALUE.equals(mergeFormat) && !MERGE_FORMAT_FLOWFILE_STREAM_V3_VALUE.equals(mergeFormat)) {
+                results.add(new ValidationResult.Builder().subject(INCREMENTAL_MERGE.getDisplayName())
+                        .input(context.getProperty(INCREMENTAL_MERGE).getValue())
+                        .valid(false)
+                        .explanation("Merging incrementally is supported only for the " + MERGE_FORMAT_CONCAT_VALUE + " and " + MERGE_FORMAT_FLOWFILE_STREAM_V3_VALUE + " Merge Formats")
+                        .build());
+            }
+
+            if (MERGE_STRATEGY_DEFRAGMENT.equals(context.getProperty(MERGE_STRATEGY).getValue())) {
+                results.add(new ValidationResult.Builder().subject(INCREMENTAL_MERGE.getDisplayName())
+                        .input(context.getProperty(INCREMENTAL_MERGE).getValue())
+                        .valid(false)
+                        .explanation("Merging incrementally is not supported for the Defragment Merge Strategy, as fragments may arrive out of order")
+                        .build());
+            }
+        }
         return results;
     }
 
@@ -397,6 +432,45 @@ public class MergeContent extends BinFiles {
         return Files.readAllBytes(Paths.get(filename));
     }
 
+    private byte[] getDelimiterContent(final ProcessContext context, final List<FlowFile> wrappers, final PropertyDescriptor descriptor) throws IOException {
+        final String delimiterStrategyValue = context.getProperty(DELIMITER_STRATEGY).getValue();
+        if (DELIMITER_STRATEGY_FILENAME.equals(delimiterStrategyValue)) {
+            return getDelimiterFileContent(context, wrappers, descriptor);
+        } else {
+            return getDelimiterTextContent(context, wrappers, descriptor);
+        }
+    }
+
+    private byte[] getDelimiterFileContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
+            throws IOException {
+        byte[] property = null;
+        if (flowFiles != null && flowFiles.size() > 0) {
+            final FlowFile flowFile = flowFiles.get(0);
+            if (flowFile != null) {
+                final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
+                if (value != null) {
+                    property = readContent(value);
+                }
+            }
+        }
+        return property;
+    }
+
+    private byte[] getDelimiterTextContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
+            throws IOException {
+        byte[] property = null;
+        if (flowFiles != null && flowFiles.size() > 0) {
+            final FlowFile flowFile = flowFiles.get(0);
+            if (flowFile != null) {
+                final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
+                if (value != null) {
+                    property = value.getBytes(StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return property;
+    }
+
     @Override
     protected FlowFile preprocessFlowFile(final ProcessContext context, final ProcessSession session, final FlowFile flowFile) {
         FlowFile processed = flowFile;
@@ -435,10 +509,21 @@ public class MergeContent extends BinFiles {
         } else {
             binManager.setFileCountAttribute(null);
         }
+
+        if (context.getProperty(INCREMENTAL_MERGE).asBoolean()) {
+            final boolean flowFileStream = MERGE_FORMAT_FLOWFILE_STREAM_V3_VALUE.equals(context.getProperty(MERGE_FORMAT).getValue());
+            binManager.setContentWriterFactory((bin, sessionFactory) ->
+                new IncrementalMerge(bin, sessionFactory.createSession(), context, flowFileStream ? new FlowFilePackagerV3() : null));
+        } else {
+            binManager.setContentWriterFactory(null);
+        }
     }
 
     @Override
     protected boolean processBin(final Bin bin, final ProcessContext context) throws ProcessException {
+        if (bin.getContentWriter() != null) {
+            return processIncrementalBin(bin, (IncrementalMerge) bin.getContentWriter(), context);
+        }
 
         final String mergeFormat = context.getProperty(MERGE_FORMAT).getValue();
         MergeBin merger;
@@ -517,6 +602,46 @@ public class MergeContent extends BinFiles {
         return false;
     }
 
+    private boolean processIncrementalBin(final Bin bin, final IncrementalMerge merger, final ProcessContext context) {
+        // The FlowFiles in the bin have already been routed to 'original' and committed, so whatever happens, the bin is not rolled back
+        final List<FlowFile> contents = bin.getContents();
+        final ProcessSession session = merger.getSession();
+
+        try {
+            FlowFile bundle = merger.finish();
+            if (bundle == null || contents.isEmpty()) {
+                // either nothing was written or only part of a FlowFile that has been routed to failure as it is
+                merger.abort();
+            } else {
+                final Map<String, String> bundleAttributes = AttributeStrategyUtil.strategyFor(context).getMergedAttributes(contents);
+                bundleAttributes.put(CoreAttributes.MIME_TYPE.key(), merger.getMergedContentType());
+                bundleAttributes.put(CoreAttributes.FILENAME.key(), merger.isFlowFileStream() ? createFilename(contents) + ".pkg" : createFilename(contents));
+                bundleAttributes.put(MERGE_COUNT_ATTRIBUTE, Integer.toString(contents.size()));
+                bundleAttributes.put(MERGE_BIN_AGE_ATTRIBUTE, Long.toString(bin.getBinAge()));
+                bundle = session.putAllAttributes(bundle, bundleAttributes);
+                session.getProvenanceReporter().join(contents, bundle);
+
+                final String inputDescription = contents.size() < 10 ? contents.toString() : contents.size() + " FlowFiles";
+                if (merger.isFailed()) {
+                    getLogger().error("Merged {} into {} but could not write the FlowFile that followed them, so the merged content may be incomplete; "
+                        + "routing {} to failure", new Object[]{inputDescription, bundle, bundle});
+                    session.transfer(bundle, REL_FAILURE);
+                } else {
+                    getLogger().info("Merged {} into {}", new Object[]{inputDescription, bundle});
+                    session.transfer(bundle, REL_MERGED);
+                }
+                session.commit();
+            }
+        } catch (final Exception e) {
+            getLogger().error("Failed to complete the merged FlowFile for {} FlowFiles that were already routed to 'original'; the merged content is lost",
+                new Object[]{contents.size()}, e);
+            merger.abort();
+        }
+
+        bin.getSession().commit();
+        return true;
+    }
+
     private String getDefragmentValidationError(final List<FlowFile> binContents) {
         if (binContents.isEmpty()) {
             return null;
@@ -644,45 +769,6 @@ public class MergeContent extends BinFiles {
             return bundle;
         }
 
-        private byte[] getDelimiterContent(final ProcessContext context, final List<FlowFile> wrappers, final PropertyDescriptor descriptor) throws IOException {
-            final String delimiterStrategyValue = context.getProperty(DELIMITER_STRATEGY).getValue();
-            if (DELIMITER_STRATEGY_FILENAME.equals(delimiterStrategyValue)) {
-                return getDelimiterFileContent(context, wrappers, descriptor);
-            } else {
-                return getDelimiterTextContent(context, wrappers, descriptor);
-            }
-        }
-
-        private byte[] getDelimiterFileContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
-                throws IOException {
-            byte[] property = null;
-            if (flowFiles != null && flowFiles.size() > 0) {
-                final FlowFile flowFile = flowFiles.get(0);
-                if (flowFile != null) {
-                    final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
-                    if (value != null) {
-                        property = readContent(value);
-                    }
-                }
-            }
-            return property;
-        }
-
-        private byte[] getDelimiterTextContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
-                throws IOException {
-            byte[] property = null;
-            if (flowFiles != null && flowFiles.size() > 0) {
-                final FlowFile flowFile = flowFiles.get(0);
-                if (flowFile != null) {
-                    final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
-                    if (value != null) {
-                        property = value.getBytes(StandardCharsets.UTF_8);
-                    }
-                }
-            }
-            return property;
-        }
-
         @Override
         public String getMergedContentType() {
             return mimeType;
@@ -795,6 +881,18 @@ public class MergeContent extends BinFiles {
         }
     }
 
+    private Map<String, String> getPackagedAttributes(final FlowFile flowFile) {
+        final Map<String, String> attributes = new HashMap<>(flowFile.getAttributes());
+
+        // for backward compatibility purposes, we add the "legacy" NiFi attributes
+        attributes.put("nf.file.name", attributes.get(CoreAttributes.FILENAME.key()));
+        attributes.put("nf.file.path", attributes.get(CoreAttributes.PATH.key()));
+        if (attributes.containsKey(CoreAttributes.MIME_TYPE.key())) {
+            attributes.put("content-type", attributes.get(CoreAttributes.MIME_TYPE.key()));
+        }
+        return attributes;
+    }
+
     private class FlowFileStreamMerger implements MergeBin {
 
         private final FlowFilePackager packager;
@@ -826,15 +924,7 @@ public class MergeContent extends BinFiles {
                                     @Override
                                     public void process(final InputStream rawIn) throws IOException {
                                         try (final InputStream in = new BufferedInputStream(rawIn)) {
-                                            final Map<String, String> attributes = new HashMap<>(flowFile.getAttributes());
-
-                                            // for backward compatibility purposes, we add the "legacy" NiFi attributes
-                                            attributes.put("nf.file.name", attributes.get(CoreAttributes.FILENAME.key()));
-                                            attributes.put("nf.file.path", attributes.get(CoreAttributes.PATH.key()));
-                                            if (attributes.containsKey(CoreAttributes.MIME_TYPE.key())) {
-                                                attributes.put("content-type", attributes.get(CoreAttributes.MIME_TYPE.key()));
-                                            }
-                                            packager.packageFlowFile(in, out, attributes, flowFile.getSize());
+                                            packager.packageFlowFile(in, out, getPackagedAttributes(flowFile), flowFile.getSize());
                                         }
                                     }
                                 });
@@ -863,6 +953,139 @@ public class MergeContent extends BinFiles {
         }
     }
 
+    /**
+     * Writes the content of each FlowFile to the merged FlowFile as the FlowFile is added to a bin, and routes the FlowFile to 'original'
+     * once its content has been written. The merged FlowFile belongs to a session of its own so that the bin's session, and with it
+     * the FlowFiles that have been written, can be committed while the merged FlowFile is still being written.
+     */
+    private class IncrementalMerge implements BinContentWriter {
+
+        private final Bin bin;
+        private final ProcessSession session;
+        private final ProcessContext context;
+        private final FlowFilePackager packager;
+
+        private FlowFile bundle;
+        private OutputStream out;
+        private List<FlowFile> first;
+        private String mimeType;
+        private boolean failed = false;
+
+        /**
+         * @param packager the packager for a FlowFile Stream, or <code>null</code> for Binary Concatenation
+         */
+        public IncrementalMerge(final Bin bin, final ProcessSession session, final ProcessContext context, final FlowFilePackager packager) {
+            this.bin = bin;
+            this.session = session;
+            this.context = context;
+            this.packager = packager;
+            this.mimeType = packager == null ? null : "application/flowfile-v3";
+        }
+
+        @Override
+        public boolean append(final FlowFile flowFile) {
+            final ProcessSession binSession = bin.getSession();
+
+            try {
+                if (out == null) {
+                    bundle = session.create(); // the parents belong to a different session
+                    out = new BufferedOutputStream(session.write(bundle));
+
+                    // as when merging the whole bin at once, the delimiters are evaluated against the first FlowFile
+                    first = Collections.singletonList(flowFile);
+                    if (packager == null) {
+                        mimeType = flowFile.getAttribute(CoreAttributes.MIME_TYPE.key());
+                        final byte[] header = getDelimiterContent(context, first, HEADER);
+                        if (header != null) {
+                            out.write(header);
+                        }
+                    }
+                } else if (packager == null) {
+                    if (mimeType != null && !mimeType.equals(flowFile.getAttribute(CoreAttributes.MIME_TYPE.key()))) {
+                        mimeType = null;
+                    }
+
+                    final byte[] demarcator = getDelimiterContent(context, first, DEMARCATOR);
+                    if (demarcator != null) {
+                        out.write(demarcator);
+                    }
+                }
+
+                binSession.read(flowFile, false, new InputStreamCallback() {
+                    @Override
+                    public void process(final InputStream in) throws IOException {
+                        if (packager == null) {
+                            StreamUtils.copy(in, out);
+                        } else {
+                            packager.packageFlowFile(new BufferedInputStream(in), new NonCloseableOutputStream(out), getPackagedAttributes(flowFile), flowFile.getSize());
+                        }
+                    }
+                });
+            } catch (final Exception e) {
+                getLogger().error("Failed to write {} to the merged FlowFile; routing it to failure and completing its bin", new Object[]{flowFile}, e);
+                failed = true;
+                binSession.transfer(flowFile, REL_FAILURE);
+                return false;
+            }
+
+            binSession.transfer(flowFile, REL_ORIGINAL);
+            return true;
+        }
+
+        @Override
+        public void flush() {
+            bin.getSession().commit();
+        }
+
+        @Override
+        public FlowFile finish() throws IOException {
+            if (out == null) {
+                return null;
+            }
+
+            if (packager == null && !failed) {
+                final byte[] footer = getDelimiterContent(context, first, FOOTER);
+                if (footer != null) {
+                    out.write(footer);
+                }
+            }
+
+            out.close();
+            out = null;
+            return bundle;
+        }
+
+        @Override
+        public void abort() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (final IOException e) {
+                    getLogger().debug("Failed to close the stream to the merged FlowFile {}", new Object[]{bundle}, e);
+                }
+                out = null;
+            }
+
+            session.rollback();
+        }
+
+        public ProcessSession getSession() {
+            return session;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        public boolean isFlowFileStream() {
+            return packager != null;
+        }
+
+        public String getMergedContentType() {
+            return mimeType == null ? "application/octet-stream" : mimeType;
+        }
+    }
+
     private class ZipMerge implements MergeBin {
 
         private final int compressionLevel;
@@ -27,6 +27,7 @@ import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
 import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.PropertyValue;
 import org.apache.nifi.dbcp.DBCPService;
 import org.apache.nifi.expression.AttributeExpression;
 import org.apache.nifi.expression.ExpressionLanguageScope;
@@ -45,6 +46,7 @@ import org.apache.nifi.processor.util.pattern.PartialFunctions;
 import org.apache.nifi.processor.util.pattern.Put;
 import org.apache.nifi.processor.util.pattern.RollbackOnFailure;
 import org.apache.nifi.processor.util.pattern.RoutingResult;
+import org.apache.nifi.processors.standard.db.RecordBulkLoader;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordReaderFactory;
@@ -72,6 +74,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -83,7 +86,8 @@ import static java.lang.String.format;
 @InputRequirement(Requirement.INPUT_REQUIRED)
 @Tags({"sql", "record", "jdbc", "put", "database", "update", "insert", "delete"})
 @CapabilityDescription("The PutDatabaseRecord processor uses a specified RecordReader to input (possibly multiple) records from an incoming flow file. These records are translated to SQL "
-        + "statements and executed as a single batch. If any errors occur, the flow file is routed to failure or retry, and if the records are transmitted successfully, the incoming flow file is "
+        + "statements and executed as a single batch, or as several batches of up to the Maximum Batch Size in a single transaction, or streamed through a "
+        + "database-specific bulk load API when a Bulk Load Strategy is selected for INSERTs. If any errors occur, the flow file is routed to failure or retry, and if the records are transmitted successfully, the incoming flow file is "
         + "routed to success.  The type of statement executed by the processor is specified via the Statement Type property, which accepts some hard-coded values such as INSERT, UPDATE, and DELETE, "
         + "as well as 'Use statement.type Attribute', which causes the processor to get the statement type from a flow file attribute.  IMPORTANT: If the Statement Type is UPDATE, then the incoming "
         + "records must not alter the value(s) of the primary keys (or user-specified Update Keys). If such records are encountered, the UPDATE statement issued to the database may do nothing "
@@ -258,15 +262,34 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
             .name("put-db-record-query-timeout")
             .displayName("Max Wait Time")
             .description("The maximum amount of time allowed for a running SQL statement "
-                    + ", zero means there is no limit. Max time less than 1 second will be equal to zero.")
+                    + ", zero means there is no limit. Max time less than 1 second will be equal to zero. When a Bulk Load Strategy is used, "
+                    + "this is the maximum amount of time allowed for loading the records of a FlowFile.")
             .defaultValue("0 seconds")
             .required(true)
             .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
             .expressionLanguageSupported(ExpressionLanguageScope.VARIABLE_REGISTRY)
             .build();
 
+    static final PropertyDescriptor MAX_BATCH_SIZE = new PropertyDescriptor.Builder()
+            .name("put-db-record-max-batch-size")
+            .displayName("Maximum Batch Size")
+            .description("Specifies the maximum number of statements to be included in each batch that is sent to the database. Zero means the batch size is not limited, "
+                    + "and all statements of a FlowFile are put into a single batch, which can use a large amount of memory for a very large number of records. "
+                    + "All of the batches of a FlowFile are executed in the same transaction, so the FlowFile is still loaded entirely or not at all.")
+            .defaultValue("0")
+            .required(true)
+            .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+            .expressionLanguageSupported(ExpressionLanguageScope.FLOWFILE_ATTRIBUTES)
+            .build();
+
+    static final String NO_BULK_LOAD = "None";
+
+    static final PropertyDescriptor BULK_LOAD_STRATEGY;
+
     protected static List<PropertyDescriptor> propDescriptors;
 
+    private static final Map<String, RecordBulkLoader> bulkLoaders = new HashMap<>();
+
     private final Map<SchemaKey, TableSchema> schemaCache = new LinkedHashMap<SchemaKey, TableSchema>(100) {
         private static final long serialVersionUID = 1L;
 
@@ -278,6 +301,27 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
 
 
     static {
+        // Load the RecordBulkLoaders
+        final List<AllowableValue> bulkLoadValues = new ArrayList<>();
+        bulkLoadValues.add(new AllowableValue(NO_BULK_LOAD, NO_BULK_LOAD, "Records are inserted by executing batches of INSERT statements"));
+        final ServiceLoader<RecordBulkLoader> bulkLoaderLoader = ServiceLoader.load(RecordBulkLoader.class);
+        bulkLoaderLoader.forEach(it -> {
+            bulkLoaders.put(it.getName(), it);
+            bulkLoadValues.add(new AllowableValue(it.getName(), it.getName(), it.getDescription()));
+        });
+
+        BULK_LOAD_STRATEGY = new PropertyDescriptor.Builder()
+                .name("put-db-record-bulk-load-strategy")
+                .displayName("Bulk Load Strategy")
+                .description("For the INSERT Statement Type, the database-specific bulk load API through which to stream the records, which is usually much faster "
+                        + "than executing batches of INSERT statements. The rows are loaded in the same transaction as statements would be, so the FlowFile is still "
+                        + "loaded entirely or not at all. If the connection is not to the type of database that the strategy is for, batches of INSERT statements are "
+                        + "executed instead.")
+                .allowableValues(bulkLoadValues.toArray(new AllowableValue[bulkLoadValues.size()]))
+                .defaultValue(NO_BULK_LOAD)
+                .required(true)
+                .build();
+
         final Set<Relationship> r = new HashSet<>();
         r.add(REL_SUCCESS);
         r.add(REL_FAILURE);
@@ -299,6 +343,8 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         pds.add(QUOTED_IDENTIFIERS);
         pds.add(QUOTED_TABLE_IDENTIFIER);
         pds.add(QUERY_TIMEOUT);
+        pds.add(MAX_BATCH_SIZE);
+        pds.add(BULK_LOAD_STRATEGY);
         pds.add(RollbackOnFailure.ROLLBACK_ON_FAILURE);
 
         propDescriptors = Collections.unmodifiableList(pds);
@@ -627,6 +673,26 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
             throw new IllegalArgumentException(format("Statement Type %s is not valid, FlowFile %s", statementType, flowFile));
         }
 
+        if (INSERT_TYPE.equalsIgnoreCase(statementType)) {
+            final RecordBulkLoader bulkLoader = bulkLoaders.get(context.getProperty(BULK_LOAD_STRATEGY).getValue());
+            if (bulkLoader != null) {
+                if (bulkLoader.isSupported(con)) {
+                    final String loadTableName = settings.quoteTableName
+                            ? tableSchema.getQuotedIdentifierString() + fqTableName + tableSchema.getQuotedIdentifierString()
+                            : fqTableName;
+                    bulkLoad(bulkLoader, con, loadTableName, sqlHolder, recordParser, functionContext.queryTimeout);
+                    result.routeTo(flowFile, REL_SUCCESS);
+                    session.getProvenanceReporter().send(flowFile, functionContext.jdbcUrl);
+                    return;
+                }
+                log.debug("The connection does not support the {} bulk load strategy, so {} will be inserted in batches", new Object[]{bulkLoader.getName(), flowFile});
+            }
+        }
+
+        // an expression that evaluates to nothing, such as a reference to a missing attribute, leaves the batch size unlimited, as the default of zero does
+        final PropertyValue maxBatchSizeValue = context.getProperty(MAX_BATCH_SIZE).evaluateAttributeExpressions(flowFile);
+        final int maxBatchSize = StringUtils.isBlank(maxBatchSizeValue.getValue()) ? 0 : maxBatchSizeValue.asInteger();
+
         try (PreparedStatement ps = con.prepareStatement(sqlHolder.getSql())) {
 
             final int queryTimeout = functionContext.queryTimeout;
@@ -641,6 +707,7 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
 
             Record currentRecord;
             List<Integer> fieldIndexes = sqlHolder.getFieldIndexes();
+            int batchSize = 0;
 
             while ((currentRecord = recordParser.nextRecord()) != null) {
                 Object[] values = currentRecord.getValues();
@@ -668,17 +735,50 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
                         }
                     }
                     ps.addBatch();
+                    if (maxBatchSize > 0 && ++batchSize >= maxBatchSize) {
+                        log.debug("Executing query {}", new Object[]{sqlHolder});
+                        ps.executeBatch();
+                        batchSize = 0;
+                    }
                 }
             }
 
-            log.debug("Executing query {}", new Object[]{sqlHolder});
-            ps.executeBatch();
+            if (batchSize > 0 || maxBatchSize == 0) {
+                log.debug("Executing query {}", new Object[]{sqlHolder});
+                ps.executeBatch();
+            }
             result.routeTo(flowFile, REL_SUCCESS);
             session.getProvenanceReporter().send(flowFile, functionContext.jdbcUrl);
 
         }
     }
 
+    private void bulkLoad(final RecordBulkLoader bulkLoader, final Connection con, final String tableName, final SqlAndIncludedColumns sqlHolder,
+                          final RecordReader recordParser, final int queryTimeout) throws IOException, MalformedRecordException, SQLException {
+        final List<Integer> fieldIndexes = sqlHolder.getFieldIndexes();
+        final RecordBulkLoader.RowSource rows = () -> {
+            final Record record = recordParser.nextRecord();
+            if (record == null) {
+                return null;
+            }
+
+            final Object[] values = record.getValues();
+            final Object[] row = new Object[fieldIndexes.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = values[fieldIndexes.get(i)];
+            }
+            return row;
+        };
+
+        try {
+            final long rowCount = bulkLoader.load(con, tableName, sqlHolder.getColumnNames(), rows, queryTimeout);
+            getLogger().debug("Loaded {} rows into {} with {}", new Object[]{rowCount, tableName, bulkLoader.getName()});
+        } catch (final SQLException e) {
+            // A failed load is handled as a failed batch would be, by rolling back the transaction
+            throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), new int[0], e);
+        }
+    }
+
     @Override
     public void onTrigger(ProcessContext context, ProcessSessionFactory sessionFactory) throws ProcessException {
 
@@ -731,6 +831,7 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         // iterate over all of the fields in the record, building the SQL statement by adding the column names
         List<String> fieldNames = recordSchema.getFieldNames();
         final List<Integer> includedColumns = new ArrayList<>();
+        final List<String> includedColumnNames = new ArrayList<>();
         if (fieldNames != null) {
             int fieldCount = fieldNames.size();
             AtomicInteger fieldsFound = new AtomicInteger(0);
@@ -749,14 +850,15 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
                         sqlBuilder.append(", ");
                     }
 
+                    final String columnName;
                     if (settings.escapeColumnNames) {
-                        sqlBuilder.append(tableSchema.getQuotedIdentifierString())
-                                .append(desc.getColumnName())
-                                .append(tableSchema.getQuotedIdentifierString());
+                        columnName = tableSchema.getQuotedIdentifierString() + desc.getColumnName() + tableSchema.getQuotedIdentifierString();
                     } else {
-                        sqlBuilder.append(desc.getColumnName());
+                        columnName = desc.getColumnName();
                     }
+                    sqlBuilder.append(columnName);
                     includedColumns.add(i);
+                    includedColumnNames.add(columnName);
                 }
             }
 
@@ -769,7 +871,7 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
                 throw new SQLDataException("None of the fields in the record map to the columns defined by the " + tableName + " table");
             }
         }
-        return new SqlAndIncludedColumns(sqlBuilder.toString(), includedColumns);
+        return new SqlAndIncludedColumns(sqlBuilder.toString(), includedColumns, includedColumnNames);
     }
 
     SqlAndIncludedColumns generateUpdate(final RecordSchema recordSchema, final String tableName, final String updateKeys,
@@ -1139,6 +1241,7 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
     static class SqlAndIncludedColumns {
         String sql;
         List<Integer> fieldIndexes;
+        List<String> columnNames;
 
         /**
          * Constructor
@@ -1147,8 +1250,20 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
          * @param fieldIndexes A List of record indexes. The index of the list is the location of the record field in the SQL prepared statement
          */
         public SqlAndIncludedColumns(String sql, List<Integer> fieldIndexes) {
+            this(sql, fieldIndexes, null);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param sql          The prepared SQL statement (including parameters notated by ? )
+         * @param fieldIndexes A List of record indexes. The index of the list is the location of the record field in the SQL prepared statement
+         * @param columnNames  A List of the column names, as they appear in the SQL statement, into which the fields at the same positions of fieldIndexes are put
+         */
+        public SqlAndIncludedColumns(String sql, List<Integer> fieldIndexes, List<String> columnNames) {
             this.sql = sql;
             this.fieldIndexes = fieldIndexes;
+            this.columnNames = columnNames;
         }
 
         public String getSql() {
@@ -1158,5 +1273,9 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         public List<Integer> getFieldIndexes() {
             return fieldIndexes;
         }
+
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
     }
 }
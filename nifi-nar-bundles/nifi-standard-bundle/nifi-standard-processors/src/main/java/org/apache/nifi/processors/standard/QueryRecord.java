@@ -74,13 +74,16 @@ import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.io.OutputStreamCallback;
+import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.queryrecord.FlowFileTable;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordReaderFactory;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
+import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.ResultSetRecordSet;
 import org.apache.nifi.util.StopWatch;
@@ -150,6 +153,18 @@ public class QueryRecord extends AbstractProcessor {
         .defaultValue("true")
         .required(true)
         .build();
+    static final PropertyDescriptor MAX_CACHED_RECORDS = new PropertyDescriptor.Builder()
+        .name("max-cached-records")
+        .displayName("Max Records to Cache")
+        .description("When more than one SQL statement is configured, the records of a FlowFile can be parsed once and held in memory so that every statement "
+            + "is evaluated against the same records, rather than parsing the FlowFile once for each statement. This property specifies the maximum number of "
+            + "records of a FlowFile to hold in memory. If a FlowFile contains more records than this, each statement parses the FlowFile separately. "
+            + "A value of 0 disables caching of records.")
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+        .defaultValue("10000")
+        .required(true)
+        .build();
 
     public static final Relationship REL_ORIGINAL = new Relationship.Builder()
         .name("original")
@@ -180,6 +195,7 @@ public class QueryRecord extends AbstractProcessor {
         properties.add(RECORD_WRITER_FACTORY);
         properties.add(INCLUDE_ZERO_RECORD_FLOWFILES);
         properties.add(CACHE_SCHEMA);
+        properties.add(MAX_CACHED_RECORDS);
         this.properties = Collections.unmodifiableList(properties);
 
         relationships.add(REL_FAILURE);
@@ -280,6 +296,12 @@ public class QueryRecord extends AbstractProcessor {
         int recordsRead = 0;
 
         try {
+            // If the FlowFile is to be queried more than once and is small enough, parse its records only once and evaluate all of the
+            // statements against those records.
+            final long queryCount = context.getProperties().keySet().stream().filter(PropertyDescriptor::isDynamic).count();
+            final int maxCachedRecords = context.getProperty(MAX_CACHED_RECORDS).asInteger();
+            final List<Object[]> cachedRows = queryCount > 1 && maxCachedRecords > 0 ? cacheRecords(session, original, recordReaderFactory, maxCachedRecords) : null;
+
             for (final PropertyDescriptor descriptor : context.getProperties().keySet()) {
                 if (!descriptor.isDynamic()) {
                     continue;
@@ -298,9 +320,9 @@ public class QueryRecord extends AbstractProcessor {
                     final AtomicReference<WriteResult> writeResultRef = new AtomicReference<>();
                     final QueryResult queryResult;
                     if (context.getProperty(CACHE_SCHEMA).asBoolean()) {
-                        queryResult = queryWithCache(session, original, sql, context, recordReaderFactory);
+                        queryResult = queryWithCache(session, original, sql, context, recordReaderFactory, cachedRows);
                     } else {
-                        queryResult = query(session, original, sql, context, recordReaderFactory);
+                        queryResult = query(session, original, sql, context, recordReaderFactory, cachedRows);
                     }
 
                     final AtomicReference<String> mimeTypeRef = new AtomicReference<>();
@@ -389,6 +411,32 @@ public class QueryRecord extends AbstractProcessor {
     }
 
 
+    /**
+     * Reads the values of all records in the given FlowFile so that the FlowFile can be queried several times without being parsed each time
+     *
+     * @return the values of the records, or <code>null</code> if the FlowFile contains more than <code>maxRecords</code> records
+     */
+    private List<Object[]> cacheRecords(final ProcessSession session, final FlowFile flowFile, final RecordReaderFactory recordReaderFactory, final int maxRecords)
+        throws IOException, MalformedRecordException, SchemaNotFoundException {
+
+        final List<Object[]> rows = new ArrayList<>();
+        try (final InputStream in = session.read(flowFile);
+            final RecordReader reader = recordReaderFactory.createRecordReader(flowFile, in, getLogger())) {
+
+            Record record;
+            while ((record = reader.nextRecord()) != null) {
+                if (rows.size() >= maxRecords) {
+                    getLogger().debug("{} contains more than {} records so each SQL statement will parse it separately", new Object[] {flowFile, maxRecords});
+                    return null;
+                }
+
+                rows.add(record.getValues());
+            }
+        }
+
+        return rows;
+    }
+
     private synchronized CachedStatement getStatement(final String sql, final Supplier<CalciteConnection> connectionSupplier, final ProcessSession session,
         final FlowFile flowFile, final RecordReaderFactory recordReaderFactory) throws SQLException {
 
@@ -447,7 +495,7 @@ public class QueryRecord extends AbstractProcessor {
     }
 
     protected QueryResult queryWithCache(final ProcessSession session, final FlowFile flowFile, final String sql, final ProcessContext context,
-        final RecordReaderFactory recordParserFactory) throws SQLException {
+        final RecordReaderFactory recordParserFactory, final List<Object[]> cachedRows) throws SQLException {
 
         final Supplier<CalciteConnection> connectionSupplier = () -> {
             final Properties properties = new Properties();
@@ -465,7 +513,7 @@ public class QueryRecord extends AbstractProcessor {
         final CachedStatement cachedStatement = getStatement(sql, connectionSupplier, session, flowFile, recordParserFactory);
         final PreparedStatement stmt = cachedStatement.getStatement();
         final FlowFileTable<?, ?> table = cachedStatement.getTable();
-        table.setFlowFile(session, flowFile);
+        table.setFlowFile(session, flowFile, cachedRows);
 
         final ResultSet rs = stmt.executeQuery();
 
@@ -498,7 +546,7 @@ public class QueryRecord extends AbstractProcessor {
     }
 
     protected QueryResult query(final ProcessSession session, final FlowFile flowFile, final String sql, final ProcessContext context,
-        final RecordReaderFactory recordParserFactory) throws SQLException {
+        final RecordReaderFactory recordParserFactory, final List<Object[]> cachedRows) throws SQLException {
 
         final Properties properties = new Properties();
         properties.put(CalciteConnectionProperty.LEX.camelName(), Lex.MYSQL_ANSI.name());
@@ -512,6 +560,7 @@ public class QueryRecord extends AbstractProcessor {
             final SchemaPlus rootSchema = calciteConnection.getRootSchema();
 
             final FlowFileTable<?, ?> flowFileTable = new FlowFileTable<>(session, flowFile, recordParserFactory, getLogger());
+            flowFileTable.setFlowFile(session, flowFile, cachedRows);
             rootSchema.add("FLOWFILE", flowFileTable);
             rootSchema.setCacheEnabled(false);
 
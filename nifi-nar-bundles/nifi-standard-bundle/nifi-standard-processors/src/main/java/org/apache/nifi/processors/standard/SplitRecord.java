@@ -54,10 +54,9 @@ import org.apache.nifi.serialization.RecordReaderFactory;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
-import org.apache.nifi.serialization.record.PushBackRecordSet;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
-import org.apache.nifi.serialization.record.RecordSet;
 
 @EventDriven
 @SupportsBatching
@@ -71,6 +70,8 @@ import org.apache.nifi.serialization.record.RecordSet;
 @CapabilityDescription("Splits up an input FlowFile that is in a record-oriented data format into multiple smaller FlowFiles")
 public class SplitRecord extends AbstractProcessor {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     static final PropertyDescriptor RECORD_READER = new PropertyDescriptor.Builder()
         .name("Record Reader")
         .description("Specifies the Controller Service to use for reading incoming data")
@@ -145,10 +146,10 @@ public class SplitRecord extends AbstractProcessor {
 
                         final RecordSchema schema = writerFactory.getSchema(originalAttributes, reader.getSchema());
 
-                        final RecordSet recordSet = reader.createRecordSet();
-                        final PushBackRecordSet pushbackSet = new PushBackRecordSet(recordSet);
-
-                        while (pushbackSet.isAnotherRecord()) {
+                        // Read no more than MAX_BATCH_SIZE records at a time so that large splits are not held in memory
+                        final int batchSize = Math.min(maxRecords, MAX_BATCH_SIZE);
+                        RecordBatch batch = reader.nextBatch(batchSize);
+                        while (batch != null) {
                             FlowFile split = session.create(original);
 
                             try {
@@ -158,11 +159,22 @@ public class SplitRecord extends AbstractProcessor {
                                 try (final OutputStream out = session.write(split);
                                     final RecordSetWriter writer = writerFactory.createWriter(getLogger(), schema, out)) {
                                         if (maxRecords == 1) {
-                                            final Record record = pushbackSet.next();
+                                            final Record record = batch.getRecord(0);
                                             writeResult = writer.write(record);
+                                            batch = reader.nextBatch(batchSize);
                                         } else {
-                                            final RecordSet limitedSet = pushbackSet.limit(maxRecords);
-                                            writeResult = writer.write(limitedSet);
+                                            writer.beginRecordSet();
+
+                                            int splitRecordCount = 0;
+                                            do {
+                                                writer.writeBatch(batch);
+                                                splitRecordCount += batch.size();
+
+                                                final int remaining = maxRecords - splitRecordCount;
+                                                batch = reader.nextBatch(remaining > 0 ? Math.min(remaining, batchSize) : batchSize);
+                                            } while (batch != null && splitRecordCount < maxRecords);
+
+                                            writeResult = writer.finishRecordSet();
                                         }
 
                                         attributes.put("record.count", String.valueOf(writeResult.getRecordCount()));
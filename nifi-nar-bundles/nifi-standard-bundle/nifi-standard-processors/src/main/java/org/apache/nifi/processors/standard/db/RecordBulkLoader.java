@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.db;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.nifi.serialization.MalformedRecordException;
+
+/**
+ * Interface for database-specific bulk load APIs, through which rows can be inserted much faster than by executing batches of INSERT statements.
+ */
+public interface RecordBulkLoader {
+
+    String getName();
+
+    String getDescription();
+
+    /**
+     * Returns whether the given connection is to a database that this loader can load into, such as when it is from the database's own driver.
+     *
+     * @param connection The connection to load rows through
+     * @return true if rows can be loaded through the connection
+     * @throws SQLException if unable to determine the type of connection
+     */
+    boolean isSupported(Connection connection) throws SQLException;
+
+    /**
+     * Streams rows into a table as part of the connection's current transaction, so that they are committed or rolled back along with any other
+     * changes made through the connection.
+     *
+     * @param connection  The connection to load rows through, for which {@link #isSupported(Connection)} is true
+     * @param tableName   The name of the table to load, qualified and quoted as it should appear in SQL
+     * @param columnNames The names of the columns to load, quoted as they should appear in SQL, in the order of the values of each row
+     * @param rows        The rows to load
+     * @param queryTimeout The maximum number of seconds that the database may take to load the rows, or zero if there is no limit
+     * @return The number of rows that were loaded
+     * @throws SQLException if the database fails to load the rows, including when it does not finish within the query timeout
+     * @throws IOException if unable to read the rows
+     * @throws MalformedRecordException if a row cannot be read from the records that it comes from
+     */
+    long load(Connection connection, String tableName, List<String> columnNames, RowSource rows, int queryTimeout)
+            throws SQLException, IOException, MalformedRecordException;
+
+    /**
+     * A source of rows to load, each of which holds a value for every column that is being loaded
+     */
+    interface RowSource {
+
+        /**
+         * @return The values of the next row, or null if there are no more rows
+         */
+        Object[] nextRow() throws IOException, MalformedRecordException;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.db.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.processors.standard.db.RecordBulkLoader;
+import org.apache.nifi.serialization.MalformedRecordException;
+
+/**
+ * A RecordBulkLoader that streams rows into PostgreSQL with COPY ... FROM STDIN, through the CopyManager API of the PostgreSQL JDBC driver. The driver
+ * is not a dependency of this bundle, as it is provided along with the connection pool, so its API is called reflectively.
+ */
+public class PostgreSQLCopyBulkLoader implements RecordBulkLoader {
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+    private static final String COPY_IN_CLASS = "org.postgresql.copy.CopyIn";
+
+    // rows are sent to the server in chunks of about this many bytes
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String getName() {
+        return "PostgreSQL COPY";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Streams rows into PostgreSQL with COPY FROM STDIN, using the CopyManager API of the PostgreSQL JDBC driver";
+    }
+
+    @Override
+    public boolean isSupported(final Connection connection) throws SQLException {
+        final Class<?> pgConnectionClass = loadDriverClass(connection, PG_CONNECTION_CLASS);
+        return pgConnectionClass != null && connection.isWrapperFor(pgConnectionClass);
+    }
+
+    @Override
+    public long load(final Connection connection, final String tableName, final List<String> columnNames, final RowSource rows, final int queryTimeout)
+            throws SQLException, IOException, MalformedRecordException {
+        final Class<?> pgConnectionClass = loadDriverClass(connection, PG_CONNECTION_CLASS);
+        final Class<?> copyInClass = loadDriverClass(connection, COPY_IN_CLASS);
+        if (pgConnectionClass == null || copyInClass == null) {
+            throw new SQLException("The PostgreSQL JDBC driver is not available to the connection");
+        }
+
+        setStatementTimeout(connection, queryTimeout);
+
+        final String sql = getCopyStatement(tableName, columnNames);
+        final Object copyIn;
+        final Method writeToCopy;
+        final Method endCopy;
+        final Method cancelCopy;
+        try {
+            final Object pgConnection = connection.unwrap(pgConnectionClass);
+            final Object copyManager = invoke(pgConnectionClass.getMethod("getCopyAPI"), pgConnection);
+            copyIn = invoke(copyManager.getClass().getMethod("copyIn", String.class), copyManager, sql);
+            writeToCopy = copyInClass.getMethod("writeToCopy", byte[].class, int.class, int.class);
+            endCopy = copyInClass.getMethod("endCopy");
+            cancelCopy = copyInClass.getMethod("cancelCopy");
+        } catch (final NoSuchMethodException e) {
+            throw new SQLException("The PostgreSQL JDBC driver does not provide the CopyManager API", e);
+        }
+
+        boolean ended = false;
+        try {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream(CHUNK_SIZE + 1024);
+            final StringBuilder row = new StringBuilder();
+            Object[] values;
+            while ((values = rows.nextRow()) != null) {
+                row.setLength(0);
+                appendRow(row, values);
+                buffer.write(row.toString().getBytes(StandardCharsets.UTF_8));
+
+                if (buffer.size() >= CHUNK_SIZE) {
+                    invoke(writeToCopy, copyIn, buffer.toByteArray(), 0, buffer.size());
+                    buffer.reset();
+                }
+            }
+            if (buffer.size() > 0) {
+                invoke(writeToCopy, copyIn, buffer.toByteArray(), 0, buffer.size());
+            }
+
+            final long rowCount = (Long) invoke(endCopy, copyIn);
+            ended = true;
+            return rowCount;
+        } finally {
+            if (!ended) {
+                try {
+                    invoke(cancelCopy, copyIn);
+                } catch (final SQLException | RuntimeException ignore) {
+                    // the copy may already have been ended by the failure; the transaction is rolled back either way
+                }
+            }
+        }
+    }
+
+    /**
+     * The CopyManager API does not honor a JDBC query timeout, so the server's statement_timeout is set instead, for the rest of the current transaction only
+     */
+    static void setStatementTimeout(final Connection connection, final int queryTimeout) throws SQLException {
+        if (queryTimeout <= 0) {
+            return;
+        }
+
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL statement_timeout = " + queryTimeout * 1000L);
+        }
+    }
+
+    static String getCopyStatement(final String tableName, final List<String> columnNames) {
+        return "COPY " + tableName + " (" + StringUtils.join(columnNames, ", ") + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    /**
+     * Appends a row in the CSV format of COPY, in which an unquoted empty value is NULL and a quoted empty value is an empty string
+     */
+    static void appendRow(final StringBuilder row, final Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            appendValue(row, values[i]);
+        }
+        row.append('\n');
+    }
+
+    private static void appendValue(final StringBuilder row, final Object value) {
+        if (value == null) {
+            return;
+        }
+
+        if (value instanceof Number || value instanceof Boolean) {
+            row.append(value);
+        } else if (value instanceof byte[]) {
+            appendBytes(row, (byte[]) value);
+        } else if (value instanceof Object[]) {
+            final Object[] array = (Object[]) value;
+            final byte[] bytes = new byte[array.length];
+            for (int i = 0; i < array.length; i++) {
+                if (!(array[i] instanceof Byte)) {
+                    throw new IllegalArgumentException("Array values other than bytes cannot be loaded with COPY: " + Arrays.toString(array));
+                }
+                bytes[i] = (Byte) array[i];
+            }
+            appendBytes(row, bytes);
+        } else if (value instanceof Date) {
+            // java.sql.Date, Time and Timestamp are formatted as PostgreSQL expects; any other Date is a timestamp
+            final Date date = (Date) value;
+            appendQuoted(row, date.getClass().getName().startsWith("java.sql.") ? date.toString() : new Timestamp(date.getTime()).toString());
+        } else {
+            appendQuoted(row, value.toString());
+        }
+    }
+
+    private static void appendBytes(final StringBuilder row, final byte[] bytes) {
+        // the hex format of bytea
+        row.append("\\x");
+        for (final byte b : bytes) {
+            row.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+        }
+    }
+
+    private static void appendQuoted(final StringBuilder row, final String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    /**
+     * Loads a class of the JDBC driver, which is usually available from the class loader of the connection pool rather than from this bundle
+     */
+    private static Class<?> loadDriverClass(final Connection connection, final String className) {
+        for (final ClassLoader classLoader : Arrays.asList(connection.getClass().getClassLoader(), Thread.currentThread().getContextClassLoader(),
+                PostgreSQLCopyBulkLoader.class.getClassLoader())) {
+            if (classLoader == null) {
+                continue;
+            }
+            try {
+                return Class.forName(className, false, classLoader);
+            } catch (final ClassNotFoundException e) {
+                // try the next class loader
+            }
+        }
+        return null;
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause);
+        } catch (final IllegalAccessException e) {
+            throw new SQLException("Unable to call " + method + " of the PostgreSQL JDBC driver", e);
+        }
+    }
+}
@@ -44,7 +44,7 @@ import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
-import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
 
 public class RecordBin {
@@ -69,6 +69,7 @@ public class RecordBin {
     private int recordCount = 0;
     private volatile boolean complete = false;
 
+    private static final int RECORD_BATCH_SIZE = 1000;
     private static final AtomicLong idGenerator = new AtomicLong(0L);
     private final long id = idGenerator.getAndIncrement();
 
@@ -127,20 +128,20 @@ public class RecordBin {
 
             logger.debug("Migrating id={} to {}", new Object[] {flowFile.getId(), this});
 
-            Record record;
-            while ((record = recordReader.nextRecord()) != null) {
+            RecordBatch batch;
+            while ((batch = recordReader.nextBatch(RECORD_BATCH_SIZE)) != null) {
                 if (recordWriter == null) {
                     final OutputStream rawOut = session.write(merged);
                     logger.debug("Created OutputStream using session {} for {}", new Object[] {session, this});
 
                     this.out = new ByteCountingOutputStream(rawOut);
 
-                    recordWriter = writerFactory.createWriter(logger, record.getSchema(), out);
+                    recordWriter = writerFactory.createWriter(logger, batch.getSchema(), out);
                     recordWriter.beginRecordSet();
                 }
 
-                recordWriter.write(record);
-                recordCount++;
+                recordWriter.writeBatch(batch);
+                recordCount += batch.size();
             }
 
             // This will be closed by the MergeRecord class anyway but we have to close it
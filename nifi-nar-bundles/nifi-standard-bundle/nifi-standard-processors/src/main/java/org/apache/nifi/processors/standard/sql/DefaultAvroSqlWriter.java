@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.processors.standard.util.JdbcCommon;
+
+/**
+ * Writes result sets as Avro data files, each with a schema that is derived from the result set's metadata
+ */
+public class DefaultAvroSqlWriter implements SqlWriter {
+
+    private final JdbcCommon.AvroConversionOptions options;
+
+    public DefaultAvroSqlWriter(final JdbcCommon.AvroConversionOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    public long writeResultSet(final ResultSet resultSet, final OutputStream outputStream, final ComponentLog logger) throws Exception {
+        return JdbcCommon.convertToAvroStream(resultSet, outputStream, options, null);
+    }
+
+    @Override
+    public void writeEmptyResultSet(final OutputStream outputStream, final ComponentLog logger) throws IOException {
+        JdbcCommon.createEmptyAvroStream(outputStream);
+    }
+
+    @Override
+    public String getMimeType() {
+        return JdbcCommon.MIME_TYPE_AVRO_BINARY;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.RecordSetWriter;
+import org.apache.nifi.serialization.RecordSetWriterFactory;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.WriteResult;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.RecordSet;
+import org.apache.nifi.serialization.record.ResultSetRecordSet;
+
+/**
+ * Writes result sets with a {@link RecordSetWriterFactory}. As a {@link ResultSetRecordSet} reads one row ahead of the records that it
+ * has returned, the record set is kept for as long as the same result set is being written, rather than being created for each FlowFile.
+ */
+public class RecordSqlWriter implements SqlWriter {
+
+    private static final RecordSchema EMPTY_SCHEMA = new SimpleRecordSchema(Collections.emptyList());
+
+    private final RecordSetWriterFactory recordSetWriterFactory;
+    private final Map<String, String> originalAttributes;
+    private final int maxRowsPerFlowFile;
+
+    private ResultSet resultSet;
+    private ResultSetRecordSet fullRecordSet;
+    private RecordSchema writeSchema;
+    private String mimeType;
+    private final Map<String, String> attributesToAdd = new HashMap<>();
+
+    public RecordSqlWriter(final RecordSetWriterFactory recordSetWriterFactory, final Map<String, String> originalAttributes, final int maxRowsPerFlowFile) {
+        this.recordSetWriterFactory = recordSetWriterFactory;
+        this.originalAttributes = originalAttributes;
+        this.maxRowsPerFlowFile = maxRowsPerFlowFile;
+    }
+
+    @Override
+    public long writeResultSet(final ResultSet resultSet, final OutputStream outputStream, final ComponentLog logger) throws Exception {
+        if (resultSet != this.resultSet) {
+            this.resultSet = resultSet;
+            fullRecordSet = new ResultSetRecordSet(resultSet, EMPTY_SCHEMA);
+            writeSchema = recordSetWriterFactory.getSchema(originalAttributes, fullRecordSet.getSchema());
+        }
+
+        final RecordSet recordSet = maxRowsPerFlowFile > 0 ? fullRecordSet.limit(maxRowsPerFlowFile) : fullRecordSet;
+        try (final RecordSetWriter resultSetWriter = recordSetWriterFactory.createWriter(logger, writeSchema, outputStream)) {
+            final WriteResult writeResult = resultSetWriter.write(recordSet);
+            setWriteResult(writeResult, resultSetWriter.getMimeType());
+            return writeResult.getRecordCount();
+        }
+    }
+
+    @Override
+    public void writeEmptyResultSet(final OutputStream outputStream, final ComponentLog logger) throws IOException {
+        try {
+            final RecordSchema emptyWriteSchema = recordSetWriterFactory.getSchema(originalAttributes, EMPTY_SCHEMA);
+            try (final RecordSetWriter resultSetWriter = recordSetWriterFactory.createWriter(logger, emptyWriteSchema, outputStream)) {
+                setWriteResult(resultSetWriter.write(RecordSet.of(emptyWriteSchema)), resultSetWriter.getMimeType());
+            }
+        } catch (final SchemaNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void setWriteResult(final WriteResult writeResult, final String mimeType) {
+        this.mimeType = mimeType;
+        attributesToAdd.clear();
+        if (writeResult.getAttributes() != null) {
+            attributesToAdd.putAll(writeResult.getAttributes());
+        }
+        attributesToAdd.put("record.count", String.valueOf(writeResult.getRecordCount()));
+    }
+
+    @Override
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    @Override
+    public Map<String, String> getAttributesToAdd() {
+        return attributesToAdd;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.nifi.logging.ComponentLog;
+
+/**
+ * Writes the rows of a query result set to FlowFile content, in whatever format a SQL processor produces. A writer is created for each
+ * trigger of the processor, and may be asked to write the same result set to several FlowFiles, each of which holds the next rows.
+ */
+public interface SqlWriter {
+
+    /**
+     * Writes the next rows of the given result set, up to the maximum number of rows per FlowFile if there is one
+     *
+     * @param resultSet the result set to read
+     * @param outputStream the content of the FlowFile to write to
+     * @param logger the logger of the processor
+     * @return the number of rows that were written
+     * @throws Exception if unable to read the result set or to write the rows
+     */
+    long writeResultSet(ResultSet resultSet, OutputStream outputStream, ComponentLog logger) throws Exception;
+
+    /**
+     * Writes an empty result, for when a query does not return a result set at all
+     *
+     * @param outputStream the content of the FlowFile to write to
+     * @param logger the logger of the processor
+     * @throws IOException if unable to write the content
+     */
+    void writeEmptyResultSet(OutputStream outputStream, ComponentLog logger) throws IOException;
+
+    /**
+     * @return the MIME type of the content that was most recently written
+     */
+    String getMimeType();
+
+    /**
+     * @return any attributes, other than the MIME type, that describe the content that was most recently written
+     */
+    default Map<String, String> getAttributesToAdd() {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.processor.util.StandardValidators;
+
+/**
+ * Lists the entries of a directory tree, optionally scanning the subdirectories on several threads at once, which shortens the
+ * listing of a large tree considerably when the file system can serve several requests concurrently, as network and RAID file systems can.
+ * Symbolic links may be followed or not; when they are followed, a link that forms a cycle of directories is not detected.
+ */
+public class DirectoryScanner {
+
+    public static final PropertyDescriptor TRAVERSAL_THREADS = new PropertyDescriptor.Builder()
+        .name("directory-traversal-threads")
+        .displayName("Directory Traversal Threads")
+        .description("The number of threads that list the subdirectories of the Input Directory at the same time. More threads shorten the listing "
+            + "of a large directory tree, particularly on network file systems, at the cost of more concurrent requests to the file system.")
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .defaultValue("1")
+        .required(true)
+        .build();
+
+    private final int threads;
+
+    /**
+     * @param threads the number of threads on which to scan directories; with 1, directories are scanned on the calling thread
+     */
+    public DirectoryScanner(final int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Scans a directory for the entries that are not directories, such as regular files
+     *
+     * @param directory the directory to scan
+     * @param recurse whether to scan the subdirectories of the directory as well
+     * @param followLinks whether symbolic links are followed, so that a link to a directory is scanned as a subdirectory
+     * @param mapper called, possibly concurrently, with each entry that is not a directory, returning the value to include in the result
+     *               for the entry, or <code>null</code> to exclude it
+     * @param <T> the type of the values in the result
+     * @return the values returned by the mapper, in no particular order
+     * @throws IOException if unable to scan the directory; subdirectories that cannot be read are skipped
+     */
+    public <T> List<T> scan(final Path directory, final boolean recurse, final boolean followLinks, final BiFunction<Path, BasicFileAttributes, T> mapper)
+            throws IOException {
+        final LinkOption[] linkOptions = followLinks ? new LinkOption[0] : new LinkOption[] {LinkOption.NOFOLLOW_LINKS};
+        final ScanTask<T> task = new ScanTask<>(directory, recurse, linkOptions, mapper, true);
+        try {
+            if (threads <= 1) {
+                return task.compute();
+            }
+
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                return pool.invoke(task);
+            } finally {
+                pool.shutdownNow();
+            }
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ScanTask<T> extends RecursiveTask<List<T>> {
+        private final Path directory;
+        private final boolean recurse;
+        private final LinkOption[] linkOptions;
+        private final BiFunction<Path, BasicFileAttributes, T> mapper;
+        private final boolean root;
+
+        private ScanTask(final Path directory, final boolean recurse, final LinkOption[] linkOptions, final BiFunction<Path, BasicFileAttributes, T> mapper,
+                         final boolean root) {
+            this.directory = directory;
+            this.recurse = recurse;
+            this.linkOptions = linkOptions;
+            this.mapper = mapper;
+            this.root = root;
+        }
+
+        @Override
+        protected List<T> compute() {
+            final List<T> results = new ArrayList<>();
+            final List<ScanTask<T>> subdirectoryTasks = new ArrayList<>();
+            try (final DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (final Path entry : entries) {
+                    final BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class, linkOptions);
+                    } catch (final IOException e) {
+                        // the entry was removed while the directory was being scanned, or is a broken link
+                        continue;
+                    }
+
+                    if (attributes.isDirectory()) {
+                        if (recurse) {
+                            final ScanTask<T> subdirectoryTask = new ScanTask<>(entry, true, linkOptions, mapper, false);
+                            if (inForkJoinPool()) {
+                                subdirectoryTask.fork();
+                            }
+                            subdirectoryTasks.add(subdirectoryTask);
+                        }
+                    } else {
+                        final T result = mapper.apply(entry, attributes);
+                        if (result != null) {
+                            results.add(result);
+                        }
+                    }
+                }
+            } catch (final IOException e) {
+                if (root) {
+                    throw new UncheckedIOException(e);
+                }
+                // a subdirectory that cannot be read is skipped, as it would be when listing it directly
+            }
+
+            for (final ScanTask<T> subdirectoryTask : subdirectoryTasks) {
+                results.addAll(inForkJoinPool() ? subdirectoryTask.join() : subdirectoryTask.compute());
+            }
+            return results;
+        }
+    }
+}
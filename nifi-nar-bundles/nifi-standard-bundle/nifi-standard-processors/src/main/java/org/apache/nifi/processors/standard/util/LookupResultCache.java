@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.lookup.LookupFailureException;
+import org.apache.nifi.lookup.LookupService;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+
+/**
+ * A bounded, least-recently-used cache of the values returned by a {@link LookupService}. Coordinates for which the service
+ * has no value are cached as well, so that repeated misses do not result in repeated requests. Entries may optionally expire
+ * a fixed amount of time after they were looked up, so that changes to the underlying data eventually become visible.
+ * A cached {@link Record} is never shared: the cache holds a copy of the Record that was looked up, and each caller receives
+ * its own copy, so that a caller that modifies the Record does not change the result that other callers receive.
+ */
+public class LookupResultCache {
+
+    public static final PropertyDescriptor CACHE_SIZE = new PropertyDescriptor.Builder()
+        .name("lookup-cache-size")
+        .displayName("Lookup Cache Size")
+        .description("The maximum number of lookup results to keep in memory, so that the Lookup Service does not need to be consulted again for "
+            + "coordinates that were recently looked up. Coordinates for which the Lookup Service returned no value are cached as well. "
+            + "A value of 0 disables the cache.")
+        .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+        .defaultValue("0")
+        .required(true)
+        .build();
+
+    public static final PropertyDescriptor CACHE_EXPIRATION = new PropertyDescriptor.Builder()
+        .name("lookup-cache-expiration")
+        .displayName("Lookup Cache Expiration")
+        .description("The amount of time after which a cached lookup result is discarded and looked up again. If not specified, cached results "
+            + "are only discarded to make room for other results, or when the processor is stopped.")
+        .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
+        .required(false)
+        .build();
+
+    private final long expirationNanos;
+    private final Map<Map<String, Object>, CachedResult> results;
+
+    /**
+     * @param maxSize the maximum number of lookup results to cache
+     * @param expirationNanos the number of nanoseconds after which a cached result expires, or a value less than 1 if results do not expire
+     */
+    public LookupResultCache(final int maxSize, final long expirationNanos) {
+        this.expirationNanos = expirationNanos;
+        this.results = new LinkedHashMap<Map<String, Object>, CachedResult>(Math.min(maxSize, 1024), 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Map<String, Object>, CachedResult> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Creates a cache as configured by the {@link #CACHE_SIZE} and {@link #CACHE_EXPIRATION} properties of the given context
+     *
+     * @param context the context of the processor that will use the cache
+     * @return the configured cache, or <code>null</code> if the cache is disabled
+     */
+    public static LookupResultCache create(final ProcessContext context) {
+        final int maxSize = context.getProperty(CACHE_SIZE).asInteger();
+        if (maxSize < 1) {
+            return null;
+        }
+
+        final Long expirationNanos = context.getProperty(CACHE_EXPIRATION).asTimePeriod(TimeUnit.NANOSECONDS);
+        return new LookupResultCache(maxSize, expirationNanos == null ? 0L : expirationNanos);
+    }
+
+    /**
+     * Returns the values for the given coordinates, following the contract of {@link LookupService#lookupAll(Set)}. Only the coordinates
+     * that are not already cached are looked up, using a single call to the given Lookup Service.
+     *
+     * @param lookupService the service that is used to look up the coordinates that are not cached
+     * @param coordinates the lookup coordinates for which values should be returned
+     * @return the values for the coordinates that have a value
+     *
+     * @throws LookupFailureException if the Lookup Service is unable to lookup the coordinates that are not cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<Map<String, Object>, T> lookupAll(final LookupService<T> lookupService, final Set<Map<String, Object>> coordinates) throws LookupFailureException {
+        final Map<Map<String, Object>, T> values = new HashMap<>(coordinates.size());
+        final Set<Map<String, Object>> uncached = new HashSet<>();
+
+        synchronized (this) {
+            final long now = System.nanoTime();
+            for (final Map<String, Object> lookupCoordinates : coordinates) {
+                final CachedResult cached = results.get(lookupCoordinates);
+                if (cached == null || (expirationNanos > 0 && now - cached.timestamp > expirationNanos)) {
+                    uncached.add(lookupCoordinates);
+                } else if (cached.value != null) {
+                    values.put(lookupCoordinates, (T) copy(cached.value));
+                }
+            }
+        }
+
+        if (uncached.isEmpty()) {
+            return values;
+        }
+
+        final Map<Map<String, Object>, T> lookedUp = lookupService.lookupAll(uncached);
+        values.putAll(lookedUp);
+
+        synchronized (this) {
+            final long now = System.nanoTime();
+            for (final Map<String, Object> lookupCoordinates : uncached) {
+                results.put(lookupCoordinates, new CachedResult(copy(lookedUp.get(lookupCoordinates)), now));
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * @return a copy of the given value if it is a Record, as Records are mutable; otherwise, the value itself
+     */
+    private static Object copy(final Object value) {
+        if (!(value instanceof Record)) {
+            return value;
+        }
+
+        final Record record = (Record) value;
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (final String fieldName : record.getRawFieldNames()) {
+            values.put(fieldName, copyFieldValue(record.getValue(fieldName)));
+        }
+        return new MapRecord(record.getSchema(), values, record.getSerializedForm().orElse(null), record.isTypeChecked(), record.isDropUnknownFields());
+    }
+
+    /**
+     * Copies the arrays and maps that a Record field may hold, along with any Records within them
+     */
+    private static Object copyFieldValue(final Object value) {
+        if (value instanceof Object[]) {
+            final Object[] array = ((Object[]) value).clone();
+            for (int i = 0; i < array.length; i++) {
+                array[i] = copyFieldValue(array[i]);
+            }
+            return array;
+        }
+
+        if (value instanceof Map) {
+            final Map<Object, Object> map = new LinkedHashMap<>();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), copyFieldValue(entry.getValue()));
+            }
+            return map;
+        }
+
+        return copy(value);
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    private static class CachedResult {
+        private final Object value;
+        private final long timestamp;
+
+        private CachedResult(final Object value, final long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+
+/**
+ * A set of recently seen keys, held in a fixed amount of memory, for detecting duplicates without a round-trip to a cache server. Keys are
+ * added to the current of two Bloom filters. When the current filter has been used for the rotation period, or holds the expected number
+ * of keys, it becomes the previous filter and the filter before it is discarded, so each key is remembered for at least one rotation period
+ * (or the expected number of subsequent keys) and at most two.
+ * <p>
+ * As with any Bloom filter, a key that was never added may be reported as seen, with about the configured false positive probability;
+ * a key that was added is always reported as seen until it is rotated out. This class is thread safe.
+ * </p>
+ */
+public class RotatingBloomFilter {
+
+    private static final int SERIALIZATION_VERSION = 1;
+
+    private static final Funnel<CharSequence> FUNNEL = Funnels.stringFunnel(StandardCharsets.UTF_8);
+
+    private final int expectedEntries;
+    private final double falsePositiveProbability;
+    private final long rotationMillis;
+
+    private BloomFilter<CharSequence> current;
+    private BloomFilter<CharSequence> previous;
+    private long currentStartMillis;
+    private int currentCount;
+
+    /**
+     * @param expectedEntries the number of keys that each filter holds before it is rotated
+     * @param falsePositiveProbability the probability that a key that was never added is reported as seen
+     * @param rotationMillis the number of milliseconds after which the current filter is rotated, or a value less than 1 to only rotate by count
+     * @param nowMillis the current time
+     */
+    public RotatingBloomFilter(final int expectedEntries, final double falsePositiveProbability, final long rotationMillis, final long nowMillis) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.rotationMillis = rotationMillis;
+        this.current = createFilter();
+        this.previous = createFilter();
+        this.currentStartMillis = nowMillis;
+    }
+
+    private BloomFilter<CharSequence> createFilter() {
+        // a key is looked up in both filters, so each is sized for half of the overall false positive probability
+        return BloomFilter.create(FUNNEL, expectedEntries, falsePositiveProbability / 2);
+    }
+
+    /**
+     * @param key the key to look for
+     * @param nowMillis the current time
+     * @return <code>true</code> if the key has probably been added, <code>false</code> if it definitely has not been
+     */
+    public synchronized boolean mightContain(final String key, final long nowMillis) {
+        rotateIfNecessary(nowMillis);
+        return current.mightContain(key) || previous.mightContain(key);
+    }
+
+    /**
+     * Adds the key, unless it has probably been added already
+     *
+     * @param key the key to add
+     * @param nowMillis the current time
+     * @return <code>true</code> if the key has probably been added before, <code>false</code> if it definitely had not been and now has been
+     */
+    public synchronized boolean putIfAbsent(final String key, final long nowMillis) {
+        rotateIfNecessary(nowMillis);
+        if (current.mightContain(key) || previous.mightContain(key)) {
+            return true;
+        }
+
+        current.put(key);
+        currentCount++;
+        return false;
+    }
+
+    private void rotateIfNecessary(final long nowMillis) {
+        final boolean expired = rotationMillis > 0 && nowMillis - currentStartMillis >= rotationMillis;
+        if (!expired && currentCount < expectedEntries) {
+            return;
+        }
+
+        // if the previous period passed without any keys being checked, the current filter has expired too
+        previous = expired && nowMillis - currentStartMillis >= 2 * rotationMillis ? createFilter() : current;
+        current = createFilter();
+        currentStartMillis = nowMillis;
+        currentCount = 0;
+    }
+
+    /**
+     * @return whether this filter was created with the given settings, and so could take the place of a filter created with them
+     */
+    public boolean isConfiguredAs(final int expectedEntries, final double falsePositiveProbability, final long rotationMillis) {
+        return this.expectedEntries == expectedEntries && this.falsePositiveProbability == falsePositiveProbability && this.rotationMillis == rotationMillis;
+    }
+
+    /**
+     * Writes this filter to the given file, which is replaced atomically, and from which {@link #load(Path)} restores it. The filters are
+     * written to a file rather than to the state of a component because, at about 1.2 bytes per expected entry each, they are commonly
+     * several megabytes, and their bits do not compress.
+     *
+     * @param file the file to write the filter to
+     * @throws IOException if unable to write the file
+     */
+    public synchronized void save(final Path file) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path tempFile = directory.resolve(file.getFileName() + ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(SERIALIZATION_VERSION);
+            out.writeInt(expectedEntries);
+            out.writeDouble(falsePositiveProbability);
+            out.writeLong(rotationMillis);
+            out.writeLong(currentStartMillis);
+            out.writeInt(currentCount);
+            current.writeTo(out);
+            previous.writeTo(out);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param file the file that a filter was written to by {@link #save(Path)}
+     * @return the filter, or <code>null</code> if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public static RotatingBloomFilter load(final Path file) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            final int version = in.readInt();
+            if (version != SERIALIZATION_VERSION) {
+                throw new IOException("Unsupported serialization version " + version);
+            }
+
+            final int expectedEntries = in.readInt();
+            final double falsePositiveProbability = in.readDouble();
+            final long rotationMillis = in.readLong();
+            final long currentStartMillis = in.readLong();
+            final RotatingBloomFilter filter = new RotatingBloomFilter(expectedEntries, falsePositiveProbability, rotationMillis, currentStartMillis);
+            filter.currentCount = in.readInt();
+            filter.current = BloomFilter.readFrom(in, FUNNEL);
+            filter.previous = BloomFilter.readFrom(in, FUNNEL);
+            return filter;
+        } catch (final NoSuchFileException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The size and last modified time of every file that was found the last time that a directory was listed, so that the next listing can
+ * determine which files are new or have changed without relying on timestamps alone. The index is persisted to a file, which is replaced
+ * atomically whenever the index is saved.
+ */
+public class TrackedFileIndex {
+
+    private static final int SERIALIZATION_VERSION = 1;
+
+    private final Path indexFile;
+    private final String directory;
+    private Map<String, TrackedFile> files;
+
+    private TrackedFileIndex(final Path indexFile, final String directory, final Map<String, TrackedFile> files) {
+        this.indexFile = indexFile;
+        this.directory = directory;
+        this.files = files;
+    }
+
+    /**
+     * Loads the index of a directory from the given file, or creates an empty index if the file does not exist or is of another directory
+     *
+     * @param indexFile the file in which the index is persisted
+     * @param directory the directory whose files are tracked
+     * @return the index
+     * @throws IOException if unable to read the index file
+     */
+    public static TrackedFileIndex load(final Path indexFile, final String directory) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(indexFile))))) {
+            final int version = in.readInt();
+            if (version != SERIALIZATION_VERSION) {
+                throw new IOException("Unsupported serialization version " + version + " of " + indexFile);
+            }
+
+            final String indexedDirectory = in.readUTF();
+            if (!indexedDirectory.equals(directory)) {
+                return new TrackedFileIndex(indexFile, directory, new HashMap<>());
+            }
+
+            final int count = in.readInt();
+            final Map<String, TrackedFile> files = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                final String path = in.readUTF();
+                files.put(path, new TrackedFile(in.readLong(), in.readLong()));
+            }
+            return new TrackedFileIndex(indexFile, directory, files);
+        } catch (final NoSuchFileException e) {
+            return new TrackedFileIndex(indexFile, directory, new HashMap<>());
+        }
+    }
+
+    /**
+     * @param path the path of a file that has been found
+     * @param size the size of the file
+     * @param lastModifiedTime the last modified time of the file
+     * @return <code>true</code> if the file is not in the index, or has a different size or last modified time than it does in the index
+     */
+    public boolean isNewOrChanged(final String path, final long size, final long lastModifiedTime) {
+        final TrackedFile file = files.get(path);
+        return file == null || file.size != size || file.lastModifiedTime != lastModifiedTime;
+    }
+
+    /**
+     * Replaces the contents of the index with the files found by a listing, so that files that were not found are no longer tracked
+     *
+     * @param listedFiles the files that were found, keyed by path
+     * @return <code>true</code> if the contents of the index changed
+     */
+    public boolean replace(final Map<String, TrackedFile> listedFiles) {
+        final boolean changed = !files.equals(listedFiles);
+        files = listedFiles;
+        return changed;
+    }
+
+    public Map<String, TrackedFile> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    /**
+     * Writes the index to its file, replacing the previous contents only once the new contents are completely written
+     *
+     * @throws IOException if unable to write the index
+     */
+    public void save() throws IOException {
+        final Path directoryOfIndex = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(directoryOfIndex);
+        final Path tempFile = directoryOfIndex.resolve(indexFile.getFileName() + ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile))))) {
+            out.writeInt(SERIALIZATION_VERSION);
+            out.writeUTF(directory);
+            out.writeInt(files.size());
+            for (final Map.Entry<String, TrackedFile> entry : files.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().size);
+                out.writeLong(entry.getValue().lastModifiedTime);
+            }
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The size and last modified time of a tracked file
+     */
+    public static class TrackedFile {
+        private final long size;
+        private final long lastModifiedTime;
+
+        public TrackedFile(final long size, final long lastModifiedTime) {
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModifiedTime() {
+            return lastModifiedTime;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TrackedFile)) {
+                return false;
+            }
+            final TrackedFile other = (TrackedFile) obj;
+            return size == other.size && lastModifiedTime == other.lastModifiedTime;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(size) + Long.hashCode(lastModifiedTime);
+        }
+    }
+}
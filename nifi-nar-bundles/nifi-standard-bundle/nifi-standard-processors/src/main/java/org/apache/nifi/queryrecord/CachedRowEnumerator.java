@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.queryrecord;
+
+import java.util.List;
+
+import org.apache.calcite.linq4j.Enumerator;
+
+/**
+ * An Enumerator over the values of records that have already been read from a FlowFile and are held in memory,
+ * so that several queries can be evaluated against a FlowFile while parsing its contents only once.
+ */
+public class CachedRowEnumerator implements Enumerator<Object> {
+    private final List<Object[]> rows;
+    private final int[] fields;
+
+    private int index = -1;
+    private Object currentRow;
+
+    public CachedRowEnumerator(final List<Object[]> rows, final int[] fields) {
+        this.rows = rows;
+        this.fields = fields;
+    }
+
+    @Override
+    public Object current() {
+        return currentRow;
+    }
+
+    @Override
+    public boolean moveNext() {
+        if (index + 1 >= rows.size()) {
+            currentRow = null;
+            return false;
+        }
+
+        index++;
+        currentRow = FlowFileEnumerator.filterColumns(rows.get(index), fields);
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        index = -1;
+        currentRow = null;
+    }
+
+    @Override
+    public void close() {
+    }
+}
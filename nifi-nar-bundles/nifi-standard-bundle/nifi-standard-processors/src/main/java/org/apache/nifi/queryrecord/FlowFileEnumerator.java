@@ -18,6 +18,7 @@
 package org.apache.nifi.queryrecord;
 
 import java.io.InputStream;
+import java.util.Set;
 
 import org.apache.calcite.linq4j.Enumerator;
 import org.apache.nifi.flowfile.FlowFile;
@@ -34,6 +35,7 @@ public class FlowFileEnumerator<InternalType> implements Enumerator<Object> {
     private final ComponentLog logger;
     private final RecordReaderFactory recordParserFactory;
     private final int[] fields;
+    private final Set<String> requiredFieldNames;
 
     private InputStream rawIn;
     private Object currentRow;
@@ -41,11 +43,17 @@ public class FlowFileEnumerator<InternalType> implements Enumerator<Object> {
     private int recordsRead = 0;
 
     public FlowFileEnumerator(final ProcessSession session, final FlowFile flowFile, final ComponentLog logger, final RecordReaderFactory parserFactory, final int[] fields) {
+        this(session, flowFile, logger, parserFactory, fields, null);
+    }
+
+    public FlowFileEnumerator(final ProcessSession session, final FlowFile flowFile, final ComponentLog logger, final RecordReaderFactory parserFactory, final int[] fields,
+                              final Set<String> requiredFieldNames) {
         this.session = session;
         this.flowFile = flowFile;
         this.recordParserFactory = parserFactory;
         this.logger = logger;
         this.fields = fields;
+        this.requiredFieldNames = requiredFieldNames;
         reset();
     }
 
@@ -95,8 +103,10 @@ public class FlowFileEnumerator<InternalType> implements Enumerator<Object> {
             return null;
         }
 
-        final Object[] row = record.getValues();
+        return filterColumns(record.getValues(), fields);
+    }
 
+    static Object filterColumns(final Object[] row, final int[] fields) {
         // If we want no fields or if the row is null, just return null
         if (fields == null || row == null) {
             return row;
@@ -132,7 +142,7 @@ public class FlowFileEnumerator<InternalType> implements Enumerator<Object> {
         rawIn = session.read(flowFile);
 
         try {
-            recordParser = recordParserFactory.createRecordReader(flowFile, rawIn, logger);
+            recordParser = recordParserFactory.createRecordReader(flowFile, rawIn, logger, requiredFieldNames);
         } catch (final Exception e) {
             throw new ProcessException("Failed to reset stream", e);
         }
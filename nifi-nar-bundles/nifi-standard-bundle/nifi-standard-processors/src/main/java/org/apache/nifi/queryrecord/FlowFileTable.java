@@ -66,6 +66,7 @@ public class FlowFileTable<S, E> extends AbstractTable implements QueryableTable
     private volatile ProcessSession session;
     private volatile FlowFile flowFile;
     private volatile int maxRecordsRead;
+    private volatile List<Object[]> cachedRows;
 
     private final Set<FlowFileEnumerator<?>> enumerators = new HashSet<>();
 
@@ -80,8 +81,21 @@ public class FlowFileTable<S, E> extends AbstractTable implements QueryableTable
     }
 
     public void setFlowFile(final ProcessSession session, final FlowFile flowFile) {
+        setFlowFile(session, flowFile, null);
+    }
+
+    /**
+     * Sets the FlowFile to query
+     *
+     * @param session the session that the FlowFile belongs to
+     * @param flowFile the FlowFile
+     * @param cachedRows the values of the FlowFile's records, if they have already been read, or <code>null</code> if
+     *            the records should be read from the FlowFile's content
+     */
+    public void setFlowFile(final ProcessSession session, final FlowFile flowFile, final List<Object[]> cachedRows) {
         this.session = session;
         this.flowFile = flowFile;
+        this.cachedRows = cachedRows;
         this.maxRecordsRead = 0;
     }
 
@@ -106,11 +120,22 @@ public class FlowFileTable<S, E> extends AbstractTable implements QueryableTable
      * Called from generated code.
      */
     public Enumerable<Object> project(final int[] fields) {
+        final Set<String> requiredFieldNames = getFieldNames(fields);
+
         return new AbstractEnumerable<Object>() {
             @Override
             @SuppressWarnings({"unchecked", "rawtypes"})
             public Enumerator<Object> enumerator() {
-                final FlowFileEnumerator flowFileEnumerator = new FlowFileEnumerator(session, flowFile, logger, recordParserFactory, fields) {
+                final List<Object[]> rows = cachedRows;
+                if (rows != null) {
+                    if (rows.size() > maxRecordsRead) {
+                        maxRecordsRead = rows.size();
+                    }
+
+                    return new CachedRowEnumerator(rows, fields);
+                }
+
+                final FlowFileEnumerator flowFileEnumerator = new FlowFileEnumerator(session, flowFile, logger, recordParserFactory, fields, requiredFieldNames) {
                     @Override
                     protected void onFinish() {
                         final int recordCount = getRecordsRead();
@@ -137,6 +162,25 @@ public class FlowFileTable<S, E> extends AbstractTable implements QueryableTable
         };
     }
 
+    /**
+     * Determines the names of the fields that are projected, so that the Record Reader does not need to read the values of any other field
+     *
+     * @param fields the indexes of the projected fields
+     * @return the names of the projected fields, or <code>null</code> if all fields are needed
+     */
+    private Set<String> getFieldNames(final int[] fields) {
+        if (fields == null || recordSchema == null) {
+            return null;
+        }
+
+        final Set<String> fieldNames = new HashSet<>();
+        for (final int field : fields) {
+            fieldNames.add(recordSchema.getField(field).getFieldName());
+        }
+
+        return fieldNames.size() == recordSchema.getFieldCount() ? null : fieldNames;
+    }
+
     public int getRecordsRead() {
         return maxRecordsRead;
     }
@@ -27,12 +27,15 @@ import org.apache.calcite.linq4j.tree.Blocks;
 import org.apache.calcite.linq4j.tree.Expressions;
 import org.apache.calcite.linq4j.tree.Primitive;
 import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
 import org.apache.calcite.plan.RelOptTable;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.rules.ProjectFilterTransposeRule;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
 import org.apache.calcite.rel.type.RelDataTypeField;
@@ -65,6 +68,13 @@ public class FlowFileTableScan extends TableScan implements EnumerableRel {
         return super.explainTerms(pw).item("fields", Primitive.asList(fields));
     }
 
+    @Override
+    public RelOptCost computeSelfCost(final RelOptPlanner planner, final RelMetadataQuery mq) {
+        // Scanning fewer fields is cheaper, because the Record Reader does not need to read the fields that are not projected
+        final double fieldFraction = (fields.length + 2D) / (table.getRowType().getFieldCount() + 2D);
+        return super.computeSelfCost(planner, mq).multiplyBy(fieldFraction);
+    }
+
     @Override
     public RelDataType deriveRowType() {
         final List<RelDataTypeField> fieldList = table.getRowType().getFieldList();
@@ -78,6 +88,9 @@ public class FlowFileTableScan extends TableScan implements EnumerableRel {
     @Override
     public void register(RelOptPlanner planner) {
         planner.addRule(FlowFileProjectTableScanRule.INSTANCE);
+
+        // Push projections beneath filters so that the scan only needs to provide the fields that the query actually uses
+        planner.addRule(ProjectFilterTransposeRule.INSTANCE);
     }
 
     @Override
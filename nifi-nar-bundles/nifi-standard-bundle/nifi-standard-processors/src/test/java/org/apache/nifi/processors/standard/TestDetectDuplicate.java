@@ -16,13 +16,20 @@
  */
 package org.apache.nifi.processors.standard;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.state.Scope;
 import org.apache.nifi.controller.AbstractControllerService;
 import org.apache.nifi.distributed.cache.client.Deserializer;
 import org.apache.nifi.distributed.cache.client.DistributedMapCacheClient;
@@ -35,6 +42,7 @@ import org.apache.nifi.util.MockControllerServiceInitializationContext;
 import org.apache.nifi.util.MockComponentLog;
 import org.apache.nifi.util.TestRunner;
 import org.apache.nifi.util.TestRunners;
+import org.apache.nifi.util.file.FileUtils;
 import org.junit.Test;
 
 public class TestDetectDuplicate {
@@ -176,10 +184,185 @@ public class TestDetectDuplicate {
         runner.assertTransferCount(DetectDuplicate.REL_FAILURE, 0);
     }
 
+    @Test
+    public void testDuplicatesInBatch() throws InitializationException {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        final DistributedMapCacheClientImpl client = createClient();
+        final Map<String, String> clientProperties = new HashMap<>();
+        clientProperties.put(DistributedMapCacheClientService.HOSTNAME.getName(), "localhost");
+        runner.addControllerService("client", client, clientProperties);
+        runner.setProperty(DetectDuplicate.DISTRIBUTED_CACHE_SERVICE, "client");
+        runner.setProperty(DetectDuplicate.FLOWFILE_DESCRIPTION, "The original flow file");
+        runner.setProperty(DetectDuplicate.AGE_OFF_DURATION, "48 hours");
+        runner.enableControllerService(client);
+
+        final Map<String, String> props = new HashMap<>();
+        props.put("hash.value", "1000");
+        for (int i = 0; i < 3; i++) {
+            runner.enqueue(new byte[]{}, props);
+        }
+        runner.run();
+        runner.assertTransferCount(DetectDuplicate.REL_NON_DUPLICATE, 1);
+        runner.assertTransferCount(DetectDuplicate.REL_DUPLICATE, 2);
+        runner.clearTransferState();
+
+        // the cached values of these are found by looking up the whole batch
+        runner.enqueue(new byte[]{}, props);
+        runner.enqueue(new byte[]{}, props);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_DUPLICATE, 2);
+        runner.getFlowFilesForRelationship(DetectDuplicate.REL_DUPLICATE).get(0)
+                .assertAttributeEquals(DetectDuplicate.ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME, "The original flow file");
+    }
+
+    @Test
+    public void testExpiredDuplicatesInBatch() throws InitializationException, InterruptedException {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        final DistributedMapCacheClientImpl client = createClient();
+        final Map<String, String> clientProperties = new HashMap<>();
+        clientProperties.put(DistributedMapCacheClientService.HOSTNAME.getName(), "localhost");
+        runner.addControllerService("client", client, clientProperties);
+        runner.setProperty(DetectDuplicate.DISTRIBUTED_CACHE_SERVICE, "client");
+        runner.setProperty(DetectDuplicate.FLOWFILE_DESCRIPTION, "The original flow file");
+        runner.setProperty(DetectDuplicate.AGE_OFF_DURATION, "2 secs");
+        runner.enableControllerService(client);
+
+        final Map<String, String> props = new HashMap<>();
+        props.put("hash.value", "1000");
+        for (int i = 0; i < 3; i++) {
+            runner.enqueue(new byte[]{}, props);
+        }
+        runner.run();
+        runner.assertTransferCount(DetectDuplicate.REL_NON_DUPLICATE, 1);
+        runner.assertTransferCount(DetectDuplicate.REL_DUPLICATE, 2);
+        runner.clearTransferState();
+        Thread.sleep(3000);
+
+        // the whole batch is looked up and finds the expired entry, which only the first FlowFile replaces; the second is a duplicate of the first
+        runner.enqueue(new byte[]{}, props);
+        runner.enqueue(new byte[]{}, props);
+        runner.run();
+        runner.assertTransferCount(DetectDuplicate.REL_NON_DUPLICATE, 1);
+        runner.assertTransferCount(DetectDuplicate.REL_DUPLICATE, 1);
+        runner.assertTransferCount(DetectDuplicate.REL_FAILURE, 0);
+    }
+
+    @Test
+    public void testDuplicatesInBatchNoCacheSingleRequest() throws InitializationException {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        final DistributedMapCacheClientImpl client = createClient();
+        final Map<String, String> clientProperties = new HashMap<>();
+        clientProperties.put(DistributedMapCacheClientService.HOSTNAME.getName(), "localhost");
+        runner.addControllerService("client", client, clientProperties);
+        runner.setProperty(DetectDuplicate.DISTRIBUTED_CACHE_SERVICE, "client");
+        runner.setProperty(DetectDuplicate.CACHE_IDENTIFIER, "false");
+        runner.enableControllerService(client);
+
+        final Map<String, String> props = new HashMap<>();
+        props.put("hash.value", "1000");
+        for (int i = 0; i < 5; i++) {
+            runner.enqueue(new byte[]{}, props);
+        }
+        runner.run();
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_NON_DUPLICATE, 5);
+        assertEquals(1, client.requests);
+    }
+
+    @Test
+    public void testUniqueBatchOneRequestPerFlowFile() throws InitializationException {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        final DistributedMapCacheClientImpl client = createClient();
+        final Map<String, String> clientProperties = new HashMap<>();
+        clientProperties.put(DistributedMapCacheClientService.HOSTNAME.getName(), "localhost");
+        runner.addControllerService("client", client, clientProperties);
+        runner.setProperty(DetectDuplicate.DISTRIBUTED_CACHE_SERVICE, "client");
+        runner.enableControllerService(client);
+
+        runner.enqueue(new byte[]{}, Collections.singletonMap("hash.value", "1000"));
+        runner.enqueue(new byte[]{}, Collections.singletonMap("hash.value", "1001"));
+        runner.run();
+
+        // no more requests than checking each FlowFile on its own would take
+        assertEquals(2, client.requests);
+    }
+
+    @Test
+    public void testDistributedCacheServiceRequired() {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        runner.assertNotValid();
+        runner.setProperty(DetectDuplicate.CACHE_TYPE, DetectDuplicate.CACHE_TYPE_LOCAL.getValue());
+        runner.assertValid();
+        runner.setProperty(DetectDuplicate.FALSE_POSITIVE_PROBABILITY, "1");
+        runner.assertNotValid();
+    }
+
+    @Test
+    public void testLocalDuplicate() {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        runner.setProperty(DetectDuplicate.CACHE_TYPE, DetectDuplicate.CACHE_TYPE_LOCAL.getValue());
+        runner.setProperty(DetectDuplicate.FILTER_DIRECTORY, "target/detect-duplicate-filters");
+        runner.setProperty(DetectDuplicate.FLOWFILE_DESCRIPTION, "The original flow file");
+
+        for (int i = 0; i < 10; i++) {
+            runner.enqueue(new byte[]{}, Collections.singletonMap("hash.value", String.valueOf(i % 5)));
+        }
+        runner.run();
+        runner.assertTransferCount(DetectDuplicate.REL_NON_DUPLICATE, 5);
+        runner.assertTransferCount(DetectDuplicate.REL_DUPLICATE, 5);
+        runner.assertTransferCount(DetectDuplicate.REL_FAILURE, 0);
+        runner.getFlowFilesForRelationship(DetectDuplicate.REL_DUPLICATE).get(0).assertAttributeNotExists(DetectDuplicate.ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME);
+    }
+
+    @Test
+    public void testLocalDuplicateNoCache() {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        runner.setProperty(DetectDuplicate.CACHE_TYPE, DetectDuplicate.CACHE_TYPE_LOCAL.getValue());
+        runner.setProperty(DetectDuplicate.FILTER_DIRECTORY, "target/detect-duplicate-filters");
+        runner.setProperty(DetectDuplicate.CACHE_IDENTIFIER, "false");
+
+        final Map<String, String> props = Collections.singletonMap("hash.value", "1000");
+        runner.enqueue(new byte[]{}, props);
+        runner.enqueue(new byte[]{}, props);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_NON_DUPLICATE, 2);
+    }
+
+    @Test
+    public void testLocalDuplicateRestored() throws IOException {
+        final File filterDir = new File("target/detect-duplicate-filters");
+        FileUtils.deleteFile(filterDir, true);
+
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        runner.setProperty(DetectDuplicate.CACHE_TYPE, DetectDuplicate.CACHE_TYPE_LOCAL.getValue());
+        runner.setProperty(DetectDuplicate.FILTER_DIRECTORY, filterDir.getPath());
+        runner.setProperty(DetectDuplicate.AGE_OFF_DURATION, "48 hours");
+
+        final Map<String, String> props = Collections.singletonMap("hash.value", "1000");
+        runner.enqueue(new byte[]{}, props);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_NON_DUPLICATE, 1);
+        runner.getStateManager().assertStateNotSet(Scope.LOCAL);
+        runner.clearTransferState();
+
+        // the filters are stored when stopped and restored when started again
+        assertTrue(new File(filterDir, runner.getProcessor().getIdentifier() + ".bloom").exists());
+        runner.enqueue(new byte[]{}, props);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_DUPLICATE, 1);
+        runner.clearTransferState();
+
+        // filters with other settings are not restored
+        runner.setProperty(DetectDuplicate.EXPECTED_ENTRIES, "1000");
+        runner.enqueue(new byte[]{}, props);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_NON_DUPLICATE, 1);
+    }
+
     static final class DistributedMapCacheClientImpl extends AbstractControllerService implements DistributedMapCacheClient {
 
         boolean exists = false;
         private Object cacheValue;
+        int requests = 0;
 
         @Override
         public void close() throws IOException {
@@ -201,6 +384,7 @@ public class TestDetectDuplicate {
 
         @Override
         public <K, V> boolean putIfAbsent(final K key, final V value, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) throws IOException {
+            requests++;
             if (exists) {
                 return false;
             }
@@ -214,6 +398,7 @@ public class TestDetectDuplicate {
         @SuppressWarnings("unchecked")
         public <K, V> V getAndPutIfAbsent(final K key, final V value, final Serializer<K> keySerializer, final Serializer<V> valueSerializer,
                 final Deserializer<V> valueDeserializer) throws IOException {
+            requests++;
             if (exists) {
                 return (V) cacheValue;
             }
@@ -224,11 +409,13 @@ public class TestDetectDuplicate {
 
         @Override
         public <K> boolean containsKey(final K key, final Serializer<K> keySerializer) throws IOException {
+            requests++;
             return exists;
         }
 
         @Override
         public <K, V> V get(final K key, final Serializer<K> keySerializer, final Deserializer<V> valueDeserializer) throws IOException {
+            requests++;
             if (exists) {
                 return (V) cacheValue;
             } else {
@@ -236,14 +423,27 @@ public class TestDetectDuplicate {
             }
         }
 
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> Map<K, V> subMap(final Set<K> keys, final Serializer<K> keySerializer, final Deserializer<V> valueDeserializer) throws IOException {
+            requests++;
+            final Map<K, V> results = new HashMap<>();
+            for (final K key : keys) {
+                results.put(key, exists ? (V) cacheValue : null);
+            }
+            return results;
+        }
+
         @Override
         public <K> boolean remove(final K key, final Serializer<K> serializer) throws IOException {
+            requests++;
             exists = false;
             return true;
         }
 
         @Override
         public long removeByPattern(String regex) throws IOException {
+            requests++;
             if (exists) {
                 exists = false;
                 return 1L;
@@ -254,6 +454,7 @@ public class TestDetectDuplicate {
 
         @Override
         public <K, V> void put(final K key, final V value, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) throws IOException {
+            requests++;
             cacheValue = value;
             exists = true;
         }
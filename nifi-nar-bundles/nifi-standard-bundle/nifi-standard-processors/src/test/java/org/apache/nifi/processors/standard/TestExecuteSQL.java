@@ -191,6 +191,120 @@ public class TestExecuteSQL {
         runner.getFlowFilesForRelationship(ExecuteSQL.REL_SUCCESS).get(0).assertAttributeEquals(ExecuteSQL.RESULT_ROW_COUNT, "2");
     }
 
+    @Test
+    public void testMaxRowsPerFlowFile() throws SQLException {
+        createTestTable("TEST_MAX_ROWS", 9);
+
+        runner.setIncomingConnection(false);
+        runner.setProperty(ExecuteSQL.MAX_ROWS_PER_FLOW_FILE, "5");
+        runner.setProperty(ExecuteSQL.FETCH_SIZE, "2");
+        runner.setProperty(ExecuteSQL.SQL_SELECT_QUERY, "SELECT * FROM TEST_MAX_ROWS ORDER BY id");
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ExecuteSQL.REL_SUCCESS, 2);
+        final List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(ExecuteSQL.REL_SUCCESS);
+        final String fragmentIdentifier = flowFiles.get(0).getAttribute("fragment.identifier");
+        for (int i = 0; i < 2; i++) {
+            final MockFlowFile flowFile = flowFiles.get(i);
+            flowFile.assertAttributeEquals("fragment.identifier", fragmentIdentifier);
+            flowFile.assertAttributeEquals("fragment.index", String.valueOf(i));
+            flowFile.assertAttributeEquals("fragment.count", "2");
+            flowFile.assertAttributeEquals(ExecuteSQL.RESULT_ROW_COUNT, i == 0 ? "5" : "4");
+            assertEquals(i == 0 ? 5 : 4, countAvroRecords(flowFile));
+        }
+    }
+
+    @Test
+    public void testMaxRowsPerFlowFileWithExactMultiple() throws SQLException {
+        createTestTable("TEST_MAX_ROWS", 10);
+
+        runner.setIncomingConnection(false);
+        runner.setProperty(ExecuteSQL.MAX_ROWS_PER_FLOW_FILE, "5");
+        runner.setProperty(ExecuteSQL.SQL_SELECT_QUERY, "SELECT * FROM TEST_MAX_ROWS");
+        runner.run();
+
+        // the empty FlowFile that finds the end of the result set is not sent
+        runner.assertAllFlowFilesTransferred(ExecuteSQL.REL_SUCCESS, 2);
+        runner.assertAllFlowFilesContainAttribute(ExecuteSQL.REL_SUCCESS, "fragment.count");
+        runner.getFlowFilesForRelationship(ExecuteSQL.REL_SUCCESS).get(1).assertAttributeEquals(ExecuteSQL.RESULT_ROW_COUNT, "5");
+        runner.getFlowFilesForRelationship(ExecuteSQL.REL_SUCCESS).get(1).assertAttributeEquals("fragment.count", "2");
+    }
+
+    @Test
+    public void testMaxRowsPerFlowFileWithEmptyResultSet() throws SQLException {
+        createTestTable("TEST_MAX_ROWS", 0);
+
+        runner.setIncomingConnection(false);
+        runner.setProperty(ExecuteSQL.MAX_ROWS_PER_FLOW_FILE, "5");
+        runner.setProperty(ExecuteSQL.SQL_SELECT_QUERY, "SELECT * FROM TEST_MAX_ROWS");
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ExecuteSQL.REL_SUCCESS, 1);
+        final MockFlowFile flowFile = runner.getFlowFilesForRelationship(ExecuteSQL.REL_SUCCESS).get(0);
+        flowFile.assertAttributeEquals(ExecuteSQL.RESULT_ROW_COUNT, "0");
+        flowFile.assertAttributeEquals("fragment.count", "1");
+    }
+
+    @Test
+    public void testOutputBatchSize() throws SQLException {
+        createTestTable("TEST_MAX_ROWS", 9);
+
+        runner.setIncomingConnection(true);
+        runner.setProperty(ExecuteSQL.MAX_ROWS_PER_FLOW_FILE, "2");
+        runner.setProperty(ExecuteSQL.OUTPUT_BATCH_SIZE, "2");
+        runner.setProperty(ExecuteSQL.SQL_SELECT_QUERY, "SELECT * FROM TEST_MAX_ROWS");
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("input.attribute", "value");
+        runner.enqueue(new byte[0], attributes);
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ExecuteSQL.REL_SUCCESS, 5);
+        final List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(ExecuteSQL.REL_SUCCESS);
+        int rows = 0;
+        for (int i = 0; i < 5; i++) {
+            final MockFlowFile flowFile = flowFiles.get(i);
+            flowFile.assertAttributeEquals("fragment.index", String.valueOf(i));
+            flowFile.assertAttributeNotExists("fragment.count");
+            flowFile.assertAttributeEquals("input.attribute", "value");
+            rows += countAvroRecords(flowFile);
+        }
+        assertEquals(9, rows);
+        runner.assertQueueEmpty();
+    }
+
+    private void createTestTable(final String tableName, final int rowCount) throws SQLException {
+        // remove previous test database, if any
+        final File dbLocation = new File(DB_LOCATION);
+        dbLocation.delete();
+
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        final Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table " + tableName);
+        } catch (final SQLException sqle) {
+        }
+
+        stmt.execute("create table " + tableName + " (id integer not null, val1 varchar(20), constraint " + tableName + "_pk primary key (id))");
+        for (int i = 0; i < rowCount; i++) {
+            stmt.execute("insert into " + tableName + " (id, val1) VALUES (" + i + ", 'value " + i + "')");
+        }
+    }
+
+    private long countAvroRecords(final MockFlowFile flowFile) {
+        final InputStream in = new ByteArrayInputStream(flowFile.toByteArray());
+        try (DataFileStream<GenericRecord> dataFileReader = new DataFileStream<>(in, new GenericDatumReader<GenericRecord>())) {
+            long records = 0;
+            while (dataFileReader.hasNext()) {
+                dataFileReader.next();
+                records++;
+            }
+            return records;
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     @Test
     public void testWithDuplicateColumns() throws SQLException {
         // remove previous test database, if any
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.nifi.controller.AbstractControllerService;
+import org.apache.nifi.dbcp.DBCPService;
+import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.reporting.InitializationException;
+import org.apache.nifi.serialization.record.MockRecordWriter;
+import org.apache.nifi.util.MockFlowFile;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestExecuteSQLRecord {
+
+    final static String DB_LOCATION = "target/db-esqlrecord";
+
+    @BeforeClass
+    public static void setupClass() {
+        System.setProperty("derby.stream.error.file", "target/derby.log");
+    }
+
+    private TestRunner runner;
+
+    @Before
+    public void setup() throws InitializationException, SQLException {
+        final DBCPService dbcp = new DBCPServiceSimpleImpl();
+        final MockRecordWriter writer = new MockRecordWriter(null, false);
+
+        runner = TestRunners.newTestRunner(ExecuteSQLRecord.class);
+        runner.addControllerService("dbcp", dbcp);
+        runner.enableControllerService(dbcp);
+        runner.addControllerService("writer", writer);
+        runner.enableControllerService(writer);
+        runner.setProperty(ExecuteSQLRecord.DBCP_SERVICE, "dbcp");
+        runner.setProperty(ExecuteSQLRecord.RECORD_WRITER_FACTORY, "writer");
+
+        // remove previous test database, if any
+        final File dbLocation = new File(DB_LOCATION);
+        dbLocation.delete();
+
+        final Connection con = dbcp.getConnection();
+        final Statement stmt = con.createStatement();
+        try {
+            stmt.execute("drop table TEST_RECORDS");
+        } catch (final SQLException sqle) {
+        }
+
+        stmt.execute("create table TEST_RECORDS (id integer not null, val1 varchar(20), constraint test_records_pk primary key (id))");
+        for (int i = 0; i < 5; i++) {
+            stmt.execute("insert into TEST_RECORDS (id, val1) VALUES (" + i + ", 'value " + i + "')");
+        }
+    }
+
+    @Test
+    public void testQueryWrittenWithRecordWriter() {
+        runner.setIncomingConnection(false);
+        runner.setProperty(ExecuteSQLRecord.SQL_SELECT_QUERY, "SELECT * FROM TEST_RECORDS ORDER BY id");
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ExecuteSQLRecord.REL_SUCCESS, 1);
+        final MockFlowFile flowFile = runner.getFlowFilesForRelationship(ExecuteSQLRecord.REL_SUCCESS).get(0);
+        flowFile.assertAttributeEquals(ExecuteSQLRecord.RESULT_ROW_COUNT, "5");
+        flowFile.assertAttributeEquals("record.count", "5");
+        flowFile.assertAttributeEquals("mime.type", "text/plain");
+        flowFile.assertContentEquals("0,value 0\n1,value 1\n2,value 2\n3,value 3\n4,value 4\n");
+    }
+
+    @Test
+    public void testMaxRowsPerFlowFile() {
+        runner.setIncomingConnection(false);
+        runner.setProperty(ExecuteSQLRecord.MAX_ROWS_PER_FLOW_FILE, "2");
+        runner.setProperty(ExecuteSQLRecord.SQL_SELECT_QUERY, "SELECT * FROM TEST_RECORDS ORDER BY id");
+        runner.run();
+
+        // the record set reads ahead of the rows it has returned, so no row is lost between FlowFiles
+        runner.assertAllFlowFilesTransferred(ExecuteSQLRecord.REL_SUCCESS, 3);
+        final List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(ExecuteSQLRecord.REL_SUCCESS);
+        flowFiles.get(0).assertContentEquals("0,value 0\n1,value 1\n");
+        flowFiles.get(1).assertContentEquals("2,value 2\n3,value 3\n");
+        flowFiles.get(2).assertContentEquals("4,value 4\n");
+        for (int i = 0; i < 3; i++) {
+            flowFiles.get(i).assertAttributeEquals("fragment.index", String.valueOf(i));
+            flowFiles.get(i).assertAttributeEquals("fragment.count", "3");
+            assertEquals(flowFiles.get(0).getAttribute("fragment.identifier"), flowFiles.get(i).getAttribute("fragment.identifier"));
+        }
+    }
+
+    @Test
+    public void testNoResultSet() {
+        runner.setIncomingConnection(true);
+        runner.enqueue("UPDATE TEST_RECORDS SET val1 = 'updated' WHERE id = 0");
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ExecuteSQLRecord.REL_SUCCESS, 1);
+        final MockFlowFile flowFile = runner.getFlowFilesForRelationship(ExecuteSQLRecord.REL_SUCCESS).get(0);
+        flowFile.assertAttributeEquals("mime.type", "text/plain");
+        flowFile.assertContentEquals("");
+    }
+
+    /**
+     * Simple implementation only for ExecuteSQLRecord processor testing.
+     */
+    class DBCPServiceSimpleImpl extends AbstractControllerService implements DBCPService {
+
+        @Override
+        public String getIdentifier() {
+            return "dbcp";
+        }
+
+        @Override
+        public Connection getConnection() throws ProcessException {
+            try {
+                Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
+                return DriverManager.getConnection("jdbc:derby:" + DB_LOCATION + ";create=true");
+            } catch (final Exception e) {
+                throw new ProcessException("getConnection failed: " + e);
+            }
+        }
+    }
+}
@@ -44,6 +44,7 @@ import java.sql.SQLNonTransientConnectionException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.nifi.processors.standard.AbstractDatabaseFetchProcessor.DB_TYPE;
@@ -1252,6 +1253,229 @@ public class TestGenerateTableFetch {
         runner.clearTransferState();
     }
 
+    @Test
+    public void testColumnForValuePartitioning() throws ClassNotFoundException, SQLException, InitializationException, IOException {
+
+        // load test data to database
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table TEST_QUERY_DB_TABLE");
+        } catch (final SQLException sqle) {
+            // Ignore this error, probably a "table does not exist" since Derby doesn't yet support DROP IF EXISTS [DERBY-4842]
+        }
+
+        stmt.execute("create table TEST_QUERY_DB_TABLE (id integer not null, name varchar(100))");
+        for (int i = 10; i < 35; i++) {
+            stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (" + i + ", 'name" + i + "')");
+        }
+
+        runner.setProperty(GenerateTableFetch.TABLE_NAME, "TEST_QUERY_DB_TABLE");
+        runner.setIncomingConnection(false);
+        runner.setProperty(GenerateTableFetch.MAX_VALUE_COLUMN_NAMES, "ID");
+        runner.setProperty(GenerateTableFetch.COLUMN_FOR_VALUE_PARTITIONING, "ID");
+        runner.setProperty(GenerateTableFetch.PARTITION_SIZE, "10");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 3);
+        List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(REL_SUCCESS);
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID <= 34 AND ID >= 10 AND ID < 20 ORDER BY ID", new String(flowFiles.get(0).toByteArray()));
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID <= 34 AND ID >= 20 AND ID < 30 ORDER BY ID", new String(flowFiles.get(1).toByteArray()));
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID <= 34 AND ID >= 30 AND ID < 40 ORDER BY ID", new String(flowFiles.get(2).toByteArray()));
+        flowFiles.get(1).assertAttributeEquals("generatetablefetch.partition.column", "ID");
+        flowFiles.get(1).assertAttributeEquals("generatetablefetch.partition.lowerBound", "20");
+        flowFiles.get(1).assertAttributeEquals("generatetablefetch.partition.upperBound", "30");
+        flowFiles.get(1).assertAttributeNotExists("generatetablefetch.offset");
+
+        // The pages do not overlap and together hold every row
+        int rows = 0;
+        for (final MockFlowFile flowFile : flowFiles) {
+            ResultSet resultSet = stmt.executeQuery(new String(flowFile.toByteArray()));
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        assertEquals(25, rows);
+        runner.clearTransferState();
+
+        // Run again, this time no flowfiles/rows should be transferred
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 0);
+        runner.clearTransferState();
+
+        // Only the new rows are partitioned, starting from the lowest of them
+        stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (35, 'name35')");
+        stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (47, 'name47')");
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 2);
+        flowFiles = runner.getFlowFilesForRelationship(REL_SUCCESS);
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID > 34 AND ID <= 47 AND ID >= 35 AND ID < 45 ORDER BY ID", new String(flowFiles.get(0).toByteArray()));
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID > 34 AND ID <= 47 AND ID >= 45 AND ID < 55 ORDER BY ID", new String(flowFiles.get(1).toByteArray()));
+        runner.clearTransferState();
+    }
+
+    @Test
+    public void testColumnForValuePartitioningWithNulls() throws ClassNotFoundException, SQLException, InitializationException, IOException {
+
+        // load test data to database
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table TEST_QUERY_DB_TABLE");
+        } catch (final SQLException sqle) {
+            // Ignore this error, probably a "table does not exist" since Derby doesn't yet support DROP IF EXISTS [DERBY-4842]
+        }
+
+        stmt.execute("create table TEST_QUERY_DB_TABLE (id integer not null, bucket integer, name varchar(100))");
+        for (int i = 0; i < 15; i++) {
+            stmt.execute("insert into TEST_QUERY_DB_TABLE (id, bucket, name) VALUES (" + i + ", " + (i % 3 == 0 ? "NULL" : String.valueOf(i)) + ", 'name" + i + "')");
+        }
+
+        runner.setProperty(GenerateTableFetch.TABLE_NAME, "TEST_QUERY_DB_TABLE");
+        runner.setIncomingConnection(false);
+        runner.setProperty(GenerateTableFetch.COLUMN_FOR_VALUE_PARTITIONING, "BUCKET");
+        runner.setProperty(GenerateTableFetch.PARTITION_SIZE, "10");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 3);
+        List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(REL_SUCCESS);
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE BUCKET IS NULL", new String(flowFiles.get(2).toByteArray()));
+        flowFiles.get(2).assertAttributeEquals("generatetablefetch.partition.column", "BUCKET");
+        flowFiles.get(2).assertAttributeNotExists("generatetablefetch.partition.lowerBound");
+
+        // The rows for which the column is NULL are fetched as well
+        int rows = 0;
+        for (final MockFlowFile flowFile : flowFiles) {
+            ResultSet resultSet = stmt.executeQuery(new String(flowFile.toByteArray()));
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        assertEquals(15, rows);
+        runner.clearTransferState();
+
+        // If the column is NULL for every row, only those rows are fetched
+        stmt.execute("update TEST_QUERY_DB_TABLE set bucket = NULL");
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 1);
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE BUCKET IS NULL", new String(runner.getFlowFilesForRelationship(REL_SUCCESS).get(0).toByteArray()));
+    }
+
+    @Test
+    public void testColumnForValuePartitioningWithSparseValues() throws ClassNotFoundException, SQLException, InitializationException, IOException {
+
+        // load test data to database
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table TEST_QUERY_DB_TABLE");
+        } catch (final SQLException sqle) {
+            // Ignore this error, probably a "table does not exist" since Derby doesn't yet support DROP IF EXISTS [DERBY-4842]
+        }
+
+        stmt.execute("create table TEST_QUERY_DB_TABLE (id bigint not null, name varchar(100))");
+        for (int i = 0; i < 10; i++) {
+            stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (" + i + ", 'name" + i + "')");
+        }
+        stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (1000000000000, 'outlier')");
+
+        runner.setProperty(GenerateTableFetch.TABLE_NAME, "TEST_QUERY_DB_TABLE");
+        runner.setProperty(GenerateTableFetch.MAX_VALUE_COLUMN_NAMES, "ID");
+        runner.setProperty(GenerateTableFetch.COLUMN_FOR_VALUE_PARTITIONING, "ID");
+        runner.setProperty(GenerateTableFetch.PARTITION_SIZE, "10");
+        runner.setIncomingConnection(false);
+
+        // An outlying value would take a statement for each of the empty ranges before it, so the rows are paged by offset instead
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 2);
+        final List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(REL_SUCCESS);
+        flowFiles.get(1).assertAttributeEquals("generatetablefetch.offset", "10");
+        flowFiles.get(1).assertAttributeNotExists("generatetablefetch.partition.column");
+
+        int rows = 0;
+        for (final MockFlowFile flowFile : flowFiles) {
+            ResultSet resultSet = stmt.executeQuery(new String(flowFile.toByteArray()));
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        assertEquals(11, rows);
+
+        // The maximum value is still recorded
+        runner.getStateManager().assertStateEquals("test_query_db_table" + AbstractDatabaseFetchProcessor.NAMESPACE_DELIMITER + "id", "1000000000000", Scope.CLUSTER);
+    }
+
+    @Test
+    public void testColumnForValuePartitioningWithSparseAddedRows() throws ClassNotFoundException, SQLException, InitializationException, IOException {
+
+        // load test data to database
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table TEST_QUERY_DB_TABLE");
+        } catch (final SQLException sqle) {
+            // Ignore this error, probably a "table does not exist" since Derby doesn't yet support DROP IF EXISTS [DERBY-4842]
+        }
+
+        stmt.execute("create table TEST_QUERY_DB_TABLE (id integer not null, name varchar(100))");
+        for (int i = 0; i < 30; i++) {
+            stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (" + i + ", 'name" + i + "')");
+        }
+
+        runner.setProperty(GenerateTableFetch.TABLE_NAME, "TEST_QUERY_DB_TABLE");
+        runner.setIncomingConnection(false);
+        runner.setProperty(GenerateTableFetch.MAX_VALUE_COLUMN_NAMES, "ID");
+        runner.setProperty(GenerateTableFetch.COLUMN_FOR_VALUE_PARTITIONING, "ID");
+        runner.setProperty(GenerateTableFetch.PARTITION_SIZE, "10");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 3);
+        runner.clearTransferState();
+
+        // Two new rows whose ids are far enough apart that their ranges outnumber them
+        stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (35, 'name35')");
+        stmt.execute("insert into TEST_QUERY_DB_TABLE (id, name) VALUES (57, 'name57')");
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 3);
+        final List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(REL_SUCCESS);
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID > 29 AND ID <= 57 AND ID >= 35 AND ID < 45 ORDER BY ID", new String(flowFiles.get(0).toByteArray()));
+        assertEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID > 29 AND ID <= 57 AND ID >= 55 AND ID < 65 ORDER BY ID", new String(flowFiles.get(2).toByteArray()));
+        runner.getStateManager().assertStateEquals("test_query_db_table" + AbstractDatabaseFetchProcessor.NAMESPACE_DELIMITER + "id", "57", Scope.CLUSTER);
+        runner.clearTransferState();
+
+        // The state was advanced, so nothing is fetched again
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 0);
+    }
+
+    @Test
+    public void testColumnForValuePartitioningWithEmptyTable() throws ClassNotFoundException, SQLException, InitializationException, IOException {
+
+        // load test data to database
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table TEST_QUERY_DB_TABLE");
+        } catch (final SQLException sqle) {
+            // Ignore this error, probably a "table does not exist" since Derby doesn't yet support DROP IF EXISTS [DERBY-4842]
+        }
+
+        stmt.execute("create table TEST_QUERY_DB_TABLE (id integer not null, name varchar(100))");
+
+        runner.setProperty(GenerateTableFetch.TABLE_NAME, "TEST_QUERY_DB_TABLE");
+        runner.setIncomingConnection(false);
+        runner.setProperty(GenerateTableFetch.COLUMN_FOR_VALUE_PARTITIONING, "id");
+        runner.setProperty(GenerateTableFetch.PARTITION_SIZE, "10");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(REL_SUCCESS, 0);
+    }
+
     /**
      * Simple implementation only for GenerateTableFetch processor testing.
      */
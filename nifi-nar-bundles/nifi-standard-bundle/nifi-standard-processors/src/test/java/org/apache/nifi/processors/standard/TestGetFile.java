@@ -37,6 +37,7 @@ import java.util.Locale;
 import java.util.Set;
 
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.processors.standard.util.DirectoryScanner;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.TestRunner;
 import org.apache.nifi.util.TestRunners;
@@ -218,6 +219,28 @@ public class TestGetFile {
         assertEquals(absTargetPathStr, absolutePath);
     }
 
+    @Test
+    public void testRecurseTraversalThreads() throws IOException {
+        final File directory = new File("target/test/data/in");
+        deleteDirectory(directory);
+
+        final File inFile = new File("src/test/resources/hello.txt");
+        for (int i = 0; i < 10; i++) {
+            final File subdirectory = new File(directory, "subdir" + i + "/nested");
+            assertTrue("Unable to create test data directory " + subdirectory.getAbsolutePath(), subdirectory.mkdirs());
+            Files.copy(inFile.toPath(), new File(subdirectory, "hello" + i + ".txt").toPath());
+            Files.copy(inFile.toPath(), new File(subdirectory.getParentFile(), "hello" + i + ".txt").toPath());
+        }
+
+        final TestRunner runner = TestRunners.newTestRunner(new GetFile());
+        runner.setProperty(GetFile.DIRECTORY, directory.getAbsolutePath());
+        runner.setProperty(GetFile.BATCH_SIZE, "100");
+        runner.setProperty(DirectoryScanner.TRAVERSAL_THREADS, "4");
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(GetFile.REL_SUCCESS, 20);
+    }
+
     @Test
     public void testAttributes() throws IOException {
         final File directory = new File("target/test/data/in/");
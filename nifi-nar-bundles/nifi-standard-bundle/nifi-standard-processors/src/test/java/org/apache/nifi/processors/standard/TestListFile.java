@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -51,6 +52,7 @@ import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.util.list.AbstractListProcessor;
 import org.apache.nifi.processor.util.list.ListProcessorTestWatcher;
+import org.apache.nifi.processors.standard.util.DirectoryScanner;
 import org.apache.nifi.processors.standard.util.FileInfo;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.TestRunner;
@@ -555,6 +557,88 @@ public class TestListFile {
         assertEquals(1, successFiles2.size());
     }
 
+    @Test
+    public void testRecurseTraversalThreads() throws Exception {
+        final long now = getTestModifiedTime();
+        int count = 0;
+        for (int i = 0; i < 10; i++) {
+            final File subdir = new File(TESTDIR + "/subdir" + i + "/nested");
+            assertTrue(subdir.mkdirs());
+            for (final File parent : Arrays.asList(subdir, subdir.getParentFile())) {
+                final File file = new File(parent, "file" + count + ".txt");
+                assertTrue(file.createNewFile());
+                assertTrue(file.setLastModified(now - 1000L * count++));
+            }
+        }
+
+        runner.setProperty(ListFile.DIRECTORY, testDir.getAbsolutePath());
+        runner.setProperty(DirectoryScanner.TRAVERSAL_THREADS, "4");
+        runNext();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 20);
+    }
+
+    @Test
+    public void testTrackedFiles() throws Exception {
+        final File indexDir = new File("target/list-file-index");
+        deleteDirectory(indexDir);
+
+        runner.setProperty(ListFile.DIRECTORY, testDir.getAbsolutePath());
+        runner.setProperty(ListFile.LISTING_STRATEGY, ListFile.BY_TRACKED_FILES.getValue());
+        runner.setProperty(ListFile.TRACKING_INDEX_DIRECTORY, indexDir.getPath());
+
+        final File file1 = new File(TESTDIR + "/file1.txt");
+        assertTrue(file1.createNewFile());
+        assertTrue(file1.setLastModified(time2millis));
+        final File file2 = new File(TESTDIR + "/file2.txt");
+        assertTrue(file2.createNewFile());
+        assertTrue(file2.setLastModified(time2millis));
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 2);
+        assertTrue(new File(indexDir, processor.getIdentifier() + ".index").exists());
+
+        // the index is restored when the processor is started again, so unchanged files are not listed again
+        runner.clearTransferState();
+        runner.run();
+        runner.assertTransferCount(ListFile.REL_SUCCESS, 0);
+
+        // a file that is older than the files already listed is still listed, as is a file whose size changed
+        final File file3 = new File(TESTDIR + "/file3.txt");
+        assertTrue(file3.createNewFile());
+        assertTrue(file3.setLastModified(time4millis));
+        try (final FileOutputStream out = new FileOutputStream(file1)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+        assertTrue(file1.setLastModified(time2millis));
+
+        runner.clearTransferState();
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 2);
+        final Set<String> filenames = runner.getFlowFilesForRelationship(ListFile.REL_SUCCESS).stream()
+                .map(flowFile -> flowFile.getAttribute(CoreAttributes.FILENAME.key())).collect(Collectors.toSet());
+        assertEquals(new HashSet<>(Arrays.asList("file1.txt", "file3.txt")), filenames);
+
+        // a file that was removed and then recreated is listed again
+        assertTrue(file2.delete());
+        runner.clearTransferState();
+        runner.run();
+        runner.assertTransferCount(ListFile.REL_SUCCESS, 0);
+
+        assertTrue(file2.createNewFile());
+        assertTrue(file2.setLastModified(time2millis));
+        runner.clearTransferState();
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 1);
+
+        // changing the filters resets the index
+        runner.setProperty(ListFile.FILE_FILTER, ".*");
+        runner.clearTransferState();
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 3);
+
+        deleteDirectory(indexDir);
+    }
+
     @Test
     public void testReadable() throws Exception {
         final long now = getTestModifiedTime();
@@ -17,12 +17,16 @@
 
 package org.apache.nifi.processors.standard;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -30,8 +34,10 @@ import java.util.Set;
 
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.AbstractControllerService;
+import org.apache.nifi.lookup.LookupFailureException;
 import org.apache.nifi.lookup.RecordLookupService;
 import org.apache.nifi.lookup.StringLookupService;
+import org.apache.nifi.processors.standard.util.LookupResultCache;
 import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.MapRecord;
@@ -370,13 +376,124 @@ public class TestLookupRecord {
     }
 
 
+    @Test
+    public void testLookupsBatched() throws InitializationException {
+        lookupService.addValue("John Doe", "Soccer");
+        lookupService.addValue("Jimmy Doe", "Football");
+        recordReader.addRecord("John Doe", 48, null);
+        recordReader.addRecord("John Doe", 49, null);
+
+        runner.setProperty(LookupRecord.LOOKUP_BATCH_SIZE, "3");
+        runner.enqueue("");
+        runner.run();
+
+        // The last two records make up the second batch, and share a single set of coordinates
+        assertEquals(Arrays.asList(3, 1), lookupService.batchSizes);
+
+        final MockFlowFile matched = runner.getFlowFilesForRelationship(LookupRecord.REL_MATCHED).get(0);
+        matched.assertAttributeEquals("record.count", "4");
+        matched.assertContentEquals("John Doe,48,Soccer\nJimmy Doe,14,Football\nJohn Doe,48,Soccer\nJohn Doe,49,Soccer\n");
+        runner.getFlowFilesForRelationship(LookupRecord.REL_UNMATCHED).get(0).assertContentEquals("Jane Doe,47,\n");
+    }
+
+    @Test
+    public void testLookupResultsCached() throws InitializationException {
+        lookupService.addValue("John Doe", "Soccer");
+        lookupService.addValue("Jimmy Doe", "Football");
+
+        runner.setProperty(LookupResultCache.CACHE_SIZE, "10");
+        runner.enqueue("");
+        runner.enqueue("");
+        runner.run(2);
+
+        // Both the matches and the miss are looked up for the first FlowFile only
+        assertEquals(Collections.singletonList(3), lookupService.batchSizes);
+        runner.assertTransferCount(LookupRecord.REL_MATCHED, 2);
+        runner.assertTransferCount(LookupRecord.REL_UNMATCHED, 2);
+        for (final MockFlowFile matched : runner.getFlowFilesForRelationship(LookupRecord.REL_MATCHED)) {
+            matched.assertContentEquals("John Doe,48,Soccer\nJimmy Doe,14,Football\n");
+        }
+    }
+
+    @Test
+    public void testLookupCacheEvictsLeastRecentlyUsed() throws LookupFailureException {
+        lookupService.addValue("John Doe", "Soccer");
+        final LookupResultCache cache = new LookupResultCache(2, 0L);
+
+        cache.lookupAll(lookupService, Collections.singleton(Collections.singletonMap("lookup", "John Doe")));
+        cache.lookupAll(lookupService, Collections.singleton(Collections.singletonMap("lookup", "Jane Doe")));
+        cache.lookupAll(lookupService, Collections.singleton(Collections.singletonMap("lookup", "John Doe")));
+        cache.lookupAll(lookupService, Collections.singleton(Collections.singletonMap("lookup", "Jimmy Doe")));
+        assertEquals(2, cache.size());
+
+        final Set<Map<String, Object>> coordinates = new HashSet<>();
+        coordinates.add(Collections.singletonMap("lookup", "John Doe"));
+        coordinates.add(Collections.singletonMap("lookup", "Jane Doe"));
+        final Map<Map<String, Object>, String> values = cache.lookupAll(lookupService, coordinates);
+        assertEquals(Collections.singletonMap(Collections.singletonMap("lookup", "John Doe"), "Soccer"), values);
+
+        // Only the evicted miss needed to be looked up again
+        assertEquals(Arrays.asList(1, 1, 1, 1), lookupService.batchSizes);
+    }
+
+    @Test
+    public void testLookupCacheExpiration() throws LookupFailureException, InterruptedException {
+        lookupService.addValue("John Doe", "Soccer");
+        final LookupResultCache cache = new LookupResultCache(2, 1L);
+        final Set<Map<String, Object>> coordinates = Collections.singleton(Collections.singletonMap("lookup", "John Doe"));
+
+        cache.lookupAll(lookupService, coordinates);
+        Thread.sleep(1L);
+        lookupService.addValue("John Doe", "Football");
+        assertEquals("Football", cache.lookupAll(lookupService, coordinates).get(coordinates.iterator().next()));
+        assertEquals(2, lookupService.batchSizes.size());
+    }
+
+    @Test
+    public void testLookupCacheCopiesRecords() throws LookupFailureException {
+        final RecordSchema addressSchema = new SimpleRecordSchema(Collections.singletonList(new RecordField("city", RecordFieldType.STRING.getDataType())));
+        final RecordSchema schema = new SimpleRecordSchema(Arrays.asList(
+            new RecordField("sport", RecordFieldType.STRING.getDataType()),
+            new RecordField("address", RecordFieldType.RECORD.getRecordDataType(addressSchema))));
+
+        final Map<String, Object> address = new HashMap<>();
+        address.put("city", "Springfield");
+        final Map<String, Object> values = new HashMap<>();
+        values.put("sport", "Soccer");
+        values.put("address", new MapRecord(addressSchema, address));
+
+        final RecordLookup recordLookup = new RecordLookup();
+        recordLookup.addValue("John Doe", new MapRecord(schema, values));
+
+        final LookupResultCache cache = new LookupResultCache(2, 0L);
+        final Map<String, Object> lookupCoordinates = Collections.singletonMap("lookup", "John Doe");
+        final Record first = cache.lookupAll(recordLookup, Collections.singleton(lookupCoordinates)).get(lookupCoordinates);
+        first.setValue("sport", "Football");
+        ((Record) first.getValue("address")).setValue("city", "Shelbyville");
+
+        // Neither the Record that was looked up nor the cached Record is changed by a caller
+        final Record second = cache.lookupAll(recordLookup, Collections.singleton(lookupCoordinates)).get(lookupCoordinates);
+        assertNotSame(first, second);
+        assertEquals("Soccer", second.getValue("sport"));
+        assertEquals("Springfield", ((Record) second.getValue("address")).getValue("city"));
+        second.setValue("sport", "Hockey");
+        assertEquals("Soccer", cache.lookupAll(recordLookup, Collections.singleton(lookupCoordinates)).get(lookupCoordinates).getValue("sport"));
+    }
+
     private static class MapLookup extends AbstractControllerService implements StringLookupService {
         private final Map<String, String> values = new HashMap<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
 
         public void addValue(final String key, final String value) {
             values.put(key, value);
         }
 
+        @Override
+        public Map<Map<String, Object>, String> lookupAll(final Set<Map<String, Object>> coordinates) throws LookupFailureException {
+            batchSizes.add(coordinates.size());
+            return StringLookupService.super.lookupAll(coordinates);
+        }
+
         @Override
         public Class<?> getValueType() {
             return String.class;
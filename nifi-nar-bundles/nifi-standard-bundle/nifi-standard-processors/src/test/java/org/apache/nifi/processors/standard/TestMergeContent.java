@@ -16,7 +16,9 @@
  */
 package org.apache.nifi.processors.standard;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -24,6 +26,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
@@ -51,6 +54,7 @@ import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processors.standard.merge.AttributeStrategyUtil;
+import org.apache.nifi.util.FlowFileUnpackagerV3;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.MockProcessContext;
 import org.apache.nifi.util.TestRunner;
@@ -1253,6 +1257,119 @@ public class TestMergeContent {
         assertEquals(2, runner.getQueueSize().getObjectCount());
     }
 
+    @Test
+    public void testIncrementalBinaryConcatWithTextDelimiters() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MAX_BIN_AGE, "1 sec");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.DELIMITER_STRATEGY, MergeContent.DELIMITER_STRATEGY_TEXT);
+        runner.setProperty(MergeContent.HEADER, "@");
+        runner.setProperty(MergeContent.DEMARCATOR, "#");
+        runner.setProperty(MergeContent.FOOTER, "$");
+        runner.setProperty(MergeContent.INCREMENTAL_MERGE, "true");
+
+        createFlowFiles(runner);
+        runner.run();
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        bundle.assertContentEquals("@Hello#, #World!$".getBytes("UTF-8"));
+        bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/plain-text");
+        bundle.assertAttributeEquals(MergeContent.MERGE_COUNT_ATTRIBUTE, "3");
+    }
+
+    @Test
+    public void testIncrementalMergeRoutesOriginalsBeforeBinCompletes() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "5");
+        runner.setProperty(MergeContent.INCREMENTAL_MERGE, "true");
+
+        createFlowFiles(runner);
+        runner.run(1, false);
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        runner.enqueue("abc".getBytes("UTF-8"));
+        runner.enqueue("def".getBytes("UTF-8"));
+        runner.run(1, false);
+
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 5);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        bundle.assertContentEquals("Hello, World!abcdef".getBytes("UTF-8"));
+        bundle.assertAttributeEquals(MergeContent.MERGE_COUNT_ATTRIBUTE, "5");
+        bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/octet-stream");
+    }
+
+    @Test
+    public void testIncrementalBinCompletedWhenStopped() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "5");
+        runner.setProperty(MergeContent.INCREMENTAL_MERGE, "true");
+
+        createFlowFiles(runner);
+        runner.run();
+
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+        runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0).assertContentEquals("Hello, World!".getBytes("UTF-8"));
+    }
+
+    @Test
+    public void testIncrementalFlowFileStreamV3() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_FLOWFILE_STREAM_V3);
+        runner.setProperty(MergeContent.INCREMENTAL_MERGE, "true");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("path", "folder");
+        runner.enqueue(Paths.get("src/test/resources/TestUnpackContent/folder/cal.txt"), attributes);
+        runner.enqueue(Paths.get("src/test/resources/TestUnpackContent/folder/date.txt"), attributes);
+        runner.run();
+
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 2);
+
+        final MockFlowFile merged = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        merged.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/flowfile-v3");
+        assertTrue(merged.getAttribute(CoreAttributes.FILENAME.key()).endsWith(".pkg"));
+
+        final FlowFileUnpackagerV3 unpackager = new FlowFileUnpackagerV3();
+        try (final InputStream in = new ByteArrayInputStream(runner.getContentAsByteArray(merged))) {
+            for (final String filename : new String[] {"cal.txt", "date.txt"}) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final Map<String, String> unpackedAttributes = unpackager.unpackageFlowFile(in, out);
+                assertEquals("folder", unpackedAttributes.get("path"));
+                assertArrayEquals(Files.readAllBytes(Paths.get("src/test/resources/TestUnpackContent/folder/" + filename)), out.toByteArray());
+            }
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void testIncrementalMergeValidation() {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.INCREMENTAL_MERGE, "true");
+        runner.assertValid();
+
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_TAR);
+        runner.assertNotValid();
+
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.MERGE_STRATEGY, MergeContent.MERGE_STRATEGY_DEFRAGMENT);
+        runner.assertNotValid();
+    }
+
     private void createFlowFiles(final TestRunner testRunner) throws UnsupportedEncodingException {
         final Map<String, String> attributes = new HashMap<>();
         attributes.put(CoreAttributes.MIME_TYPE.key(), "application/plain-text");
@@ -17,18 +17,25 @@
 package org.apache.nifi.processors.standard;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.nifi.controller.AbstractControllerService;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.SimpleRecordSchema;
@@ -103,6 +110,115 @@ public class TestQueryRecord {
         out.assertContentEquals("\"name\",\"points\"\n\"Tom\",\"49\"\n");
     }
 
+    @Test
+    public void testProjectionPushedDownToReader() throws InitializationException, IOException, SQLException {
+        final List<Set<String>> requiredFieldNames = Collections.synchronizedList(new ArrayList<>());
+        final MockRecordParser parser = new MockRecordParser() {
+            @Override
+            public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger, final Set<String> fieldNames)
+                    throws MalformedRecordException, IOException, SchemaNotFoundException {
+                requiredFieldNames.add(fieldNames);
+                return super.createRecordReader(variables, in, logger, fieldNames);
+            }
+        };
+        parser.addSchemaField("name", RecordFieldType.STRING);
+        parser.addSchemaField("age", RecordFieldType.INT);
+        parser.addSchemaField("city", RecordFieldType.STRING);
+        parser.addRecord("Tom", 49, "Sometown");
+        parser.addRecord("Jerry", 5, "Othertown");
+
+        final MockRecordWriter writer = new MockRecordWriter("\"name\"");
+
+        TestRunner runner = getRunner();
+        runner.addControllerService("parser", parser);
+        runner.enableControllerService(parser);
+        runner.addControllerService("writer", writer);
+        runner.enableControllerService(writer);
+
+        runner.setProperty(REL_NAME, "select name from FLOWFILE WHERE age > 10");
+        runner.setProperty(QueryRecord.RECORD_READER_FACTORY, "parser");
+        runner.setProperty(QueryRecord.RECORD_WRITER_FACTORY, "writer");
+
+        runner.enqueue(new byte[0]);
+        runner.run();
+
+        runner.assertTransferCount(REL_NAME, 1);
+        runner.getFlowFilesForRelationship(REL_NAME).get(0).assertContentEquals("\"name\"\n\"Tom\"\n");
+
+        // The query only needs the 'name' and 'age' fields, so the reader that supplies the records is told that 'city' is not needed
+        Assert.assertTrue(requiredFieldNames.toString(), requiredFieldNames.contains(new HashSet<>(Arrays.asList("name", "age"))));
+    }
+
+    @Test
+    public void testMultipleQueriesParseFlowFileOnce() throws InitializationException, IOException, SQLException {
+        final AtomicInteger recordsParsed = new AtomicInteger(0);
+        final MockRecordParser parser = new MockRecordParser() {
+            @Override
+            public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger)
+                    throws IOException, SchemaNotFoundException {
+                final RecordReader reader = super.createRecordReader(variables, in, logger);
+                return new RecordReader() {
+                    @Override
+                    public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+                        final Record record = reader.nextRecord(coerceTypes, dropUnknownFields);
+                        if (record != null) {
+                            recordsParsed.incrementAndGet();
+                        }
+                        return record;
+                    }
+
+                    @Override
+                    public RecordSchema getSchema() throws MalformedRecordException {
+                        return reader.getSchema();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        reader.close();
+                    }
+                };
+            }
+        };
+        parser.addSchemaField("name", RecordFieldType.STRING);
+        parser.addSchemaField("age", RecordFieldType.INT);
+        parser.addRecord("Tom", 49);
+        parser.addRecord("Jerry", 5);
+        parser.addRecord("Spike", 12);
+
+        final MockRecordWriter writer = new MockRecordWriter("\"name\"");
+
+        TestRunner runner = getRunner();
+        runner.addControllerService("parser", parser);
+        runner.enableControllerService(parser);
+        runner.addControllerService("writer", writer);
+        runner.enableControllerService(writer);
+
+        runner.setProperty("adults", "select name from FLOWFILE WHERE age >= 18");
+        runner.setProperty("children", "select name from FLOWFILE WHERE age < 18");
+        runner.setProperty("all", "select name from FLOWFILE");
+        runner.setProperty(QueryRecord.RECORD_READER_FACTORY, "parser");
+        runner.setProperty(QueryRecord.RECORD_WRITER_FACTORY, "writer");
+
+        runner.enqueue(new byte[0]);
+        runner.run();
+
+        runner.getFlowFilesForRelationship("adults").get(0).assertContentEquals("\"name\"\n\"Tom\"\n");
+        runner.getFlowFilesForRelationship("children").get(0).assertContentEquals("\"name\"\n\"Jerry\"\n\"Spike\"\n");
+        runner.getFlowFilesForRelationship("all").get(0).assertContentEquals("\"name\"\n\"Tom\"\n\"Jerry\"\n\"Spike\"\n");
+        Assert.assertEquals(3, recordsParsed.get());
+        Assert.assertEquals(3L, runner.getCounterValue("Records Read").longValue());
+
+        // When the FlowFile contains more records than may be cached, each query parses the FlowFile
+        recordsParsed.set(0);
+        runner.clearTransferState();
+        runner.setProperty(QueryRecord.MAX_CACHED_RECORDS, "2");
+        runner.enqueue(new byte[0]);
+        runner.run();
+
+        runner.getFlowFilesForRelationship("children").get(0).assertContentEquals("\"name\"\n\"Jerry\"\n\"Spike\"\n");
+        Assert.assertEquals(3 + 3 * 3, recordsParsed.get());
+    }
+
     @Test
     public void testParseFailure() throws InitializationException, IOException, SQLException {
         final MockRecordParser parser = new MockRecordParser();
@@ -73,6 +73,40 @@ public class TestSplitRecord {
         assertEquals(1, out.stream().filter(mff -> mff.isContentEqual("header\nJimmy Doe,14\n")).count());
     }
 
+    @Test
+    public void testSplitLargerThanReadBatch() throws InitializationException {
+        final MockRecordParser readerService = new MockRecordParser();
+        final MockRecordWriter writerService = new MockRecordWriter("header", false);
+
+        final TestRunner runner = TestRunners.newTestRunner(SplitRecord.class);
+        runner.addControllerService("reader", readerService);
+        runner.enableControllerService(readerService);
+        runner.addControllerService("writer", writerService);
+        runner.enableControllerService(writerService);
+
+        runner.setProperty(SplitRecord.RECORD_READER, "reader");
+        runner.setProperty(SplitRecord.RECORD_WRITER, "writer");
+        runner.setProperty(SplitRecord.RECORDS_PER_SPLIT, "2500");
+
+        readerService.addSchemaField("name", RecordFieldType.STRING);
+        readerService.addSchemaField("age", RecordFieldType.INT);
+
+        for (int i = 0; i < 3000; i++) {
+            readerService.addRecord("John Doe", i);
+        }
+
+        runner.enqueue("");
+        runner.run();
+
+        runner.assertTransferCount(SplitRecord.REL_SPLITS, 2);
+        runner.assertTransferCount(SplitRecord.REL_ORIGINAL, 1);
+        runner.assertTransferCount(SplitRecord.REL_FAILURE, 0);
+        final List<MockFlowFile> out = runner.getFlowFilesForRelationship(SplitRecord.REL_SPLITS);
+
+        assertEquals(1, out.stream().filter(mff -> mff.getAttribute("record.count").equals("2500")).count());
+        assertEquals(1, out.stream().filter(mff -> mff.getAttribute("record.count").equals("500")).count());
+    }
+
     @Test
     public void testMultipleRecordsPerSplit() throws InitializationException {
         final MockRecordParser readerService = new MockRecordParser();
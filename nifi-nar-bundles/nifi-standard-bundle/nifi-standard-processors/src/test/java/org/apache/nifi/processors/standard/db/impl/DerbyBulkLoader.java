@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.db.impl;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.nifi.processors.standard.db.RecordBulkLoader;
+import org.apache.nifi.serialization.MalformedRecordException;
+
+/**
+ * A RecordBulkLoader for Derby (used for testing), which loads rows with multi-row INSERT statements
+ */
+public class DerbyBulkLoader implements RecordBulkLoader {
+
+    static final int ROWS_PER_STATEMENT = 3;
+
+    // the query timeout of the most recent load, so that tests can verify that it is passed on
+    public static volatile int lastQueryTimeout = -1;
+
+    @Override
+    public String getName() {
+        return "Derby";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Loads rows into Derby with multi-row INSERT statements (used for testing)";
+    }
+
+    @Override
+    public boolean isSupported(final Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().contains("Derby");
+    }
+
+    @Override
+    public long load(final Connection connection, final String tableName, final List<String> columnNames, final RowSource rows, final int queryTimeout)
+            throws SQLException, IOException, MalformedRecordException {
+        lastQueryTimeout = queryTimeout;
+
+        final StringBuilder rowPlaceholders = new StringBuilder("(");
+        for (int i = 0; i < columnNames.size(); i++) {
+            rowPlaceholders.append(i == 0 ? "?" : ", ?");
+        }
+        rowPlaceholders.append(")");
+
+        final StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append(" (").append(String.join(", ", columnNames)).append(") VALUES ");
+        for (int i = 0; i < ROWS_PER_STATEMENT; i++) {
+            sql.append(i == 0 ? "" : ", ").append(rowPlaceholders);
+        }
+
+        long rowCount = 0;
+        final List<Object[]> pending = new ArrayList<>();
+        try (final PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            statement.setQueryTimeout(queryTimeout);
+            Object[] row;
+            while ((row = rows.nextRow()) != null) {
+                pending.add(row);
+                rowCount++;
+                if (pending.size() == ROWS_PER_STATEMENT) {
+                    insert(statement, pending);
+                    pending.clear();
+                }
+            }
+        }
+
+        // the remaining rows do not fill a statement, so they are inserted one at a time
+        if (!pending.isEmpty()) {
+            final String singleRowSql = "INSERT INTO " + tableName + " (" + String.join(", ", columnNames) + ") VALUES " + rowPlaceholders;
+            try (final PreparedStatement statement = connection.prepareStatement(singleRowSql)) {
+                statement.setQueryTimeout(queryTimeout);
+                for (final Object[] pendingRow : pending) {
+                    insert(statement, Collections.singletonList(pendingRow));
+                }
+            }
+        }
+        return rowCount;
+    }
+
+    private static void insert(final PreparedStatement statement, final List<Object[]> rows) throws SQLException {
+        int parameterIndex = 1;
+        for (final Object[] row : rows) {
+            for (final Object value : row) {
+                statement.setObject(parameterIndex++, value);
+            }
+        }
+        statement.executeUpdate();
+    }
+}
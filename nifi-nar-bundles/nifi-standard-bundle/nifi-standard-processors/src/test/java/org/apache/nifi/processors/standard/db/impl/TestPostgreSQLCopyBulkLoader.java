@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.db.impl;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import org.apache.nifi.processors.standard.db.RecordBulkLoader;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestPostgreSQLCopyBulkLoader {
+    final RecordBulkLoader loader = new PostgreSQLCopyBulkLoader();
+
+    @Test
+    public void testCopyStatement() throws Exception {
+        String sql = PostgreSQLCopyBulkLoader.getCopyStatement("public.persons", Arrays.asList("id", "\"Name\""));
+        Assert.assertEquals("COPY public.persons (id, \"Name\") FROM STDIN WITH (FORMAT csv)", sql);
+    }
+
+    @Test
+    public void testRow() throws Exception {
+        StringBuilder row = new StringBuilder();
+        PostgreSQLCopyBulkLoader.appendRow(row, new Object[]{1, "say \"hi\", then\nleave", null, "", true, Date.valueOf("2018-05-01"), new byte[]{0x0A, (byte) 0xFF}});
+        Assert.assertEquals("1,\"say \"\"hi\"\", then\nleave\",,\"\",true,\"2018-05-01\",\\x0aff\n", row.toString());
+    }
+
+    @Test
+    public void testByteArrayRow() throws Exception {
+        StringBuilder row = new StringBuilder();
+        PostgreSQLCopyBulkLoader.appendRow(row, new Object[]{new Byte[]{1, 2}, 2.5d});
+        Assert.assertEquals("\\x0102,2.5\n", row.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testArrayRow() throws Exception {
+        PostgreSQLCopyBulkLoader.appendRow(new StringBuilder(), new Object[]{new Object[]{"a", "b"}});
+    }
+
+    @Test
+    public void testStatementTimeout() throws Exception {
+        final Connection connection = Mockito.mock(Connection.class);
+        final Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+
+        PostgreSQLCopyBulkLoader.setStatementTimeout(connection, 0);
+        Mockito.verify(connection, Mockito.never()).createStatement();
+
+        PostgreSQLCopyBulkLoader.setStatementTimeout(connection, 5);
+        Mockito.verify(statement).execute("SET LOCAL statement_timeout = 5000");
+        Mockito.verify(statement).close();
+    }
+
+    @Test
+    public void testNotSupported() throws Exception {
+        System.setProperty("derby.stream.error.file", "target/derby.log");
+        try (Connection connection = DriverManager.getConnection("jdbc:derby:memory:pgcopy;create=true")) {
+            Assert.assertFalse(loader.isSupported(connection));
+        }
+    }
+}
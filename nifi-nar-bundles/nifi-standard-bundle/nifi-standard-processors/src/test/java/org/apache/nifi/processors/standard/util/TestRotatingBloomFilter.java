@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+public class TestRotatingBloomFilter {
+
+    @Test
+    public void testPutIfAbsent() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.001, 0L, 0L);
+        for (int i = 0; i < 100; i++) {
+            assertFalse(filter.putIfAbsent("key-" + i, 0L));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(filter.putIfAbsent("key-" + i, 0L));
+            assertTrue(filter.mightContain("key-" + i, 0L));
+        }
+        assertFalse(filter.mightContain("other", 0L));
+    }
+
+    @Test
+    public void testRotationByTime() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.001, 100L, 0L);
+        assertFalse(filter.putIfAbsent("first", 0L));
+
+        // remembered through the next period
+        assertTrue(filter.mightContain("first", 150L));
+        assertFalse(filter.putIfAbsent("second", 150L));
+
+        // forgotten when the period that began at 150 ends
+        assertTrue(filter.mightContain("first", 200L));
+        assertFalse(filter.mightContain("first", 250L));
+        assertTrue(filter.mightContain("second", 250L));
+
+        // both filters expire if nothing is checked for two periods
+        assertFalse(filter.mightContain("second", 450L));
+    }
+
+    @Test
+    public void testRotationByCount() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(10, 0.001, 0L, 0L);
+        for (int i = 0; i < 10; i++) {
+            assertFalse(filter.putIfAbsent("first-" + i, 0L));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertFalse(filter.putIfAbsent("second-" + i, 0L));
+        }
+        assertTrue(filter.mightContain("second-0", 0L));
+
+        // the third set of keys rotates the first set out
+        assertFalse(filter.putIfAbsent("third", 0L));
+        assertFalse(filter.mightContain("first-0", 0L));
+        assertTrue(filter.mightContain("second-0", 0L));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final File file = new File("target/rotating-bloom-filter/test.bloom");
+        Files.deleteIfExists(file.toPath());
+        assertNull(RotatingBloomFilter.load(file.toPath()));
+
+        final RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01, 100L, 0L);
+        filter.putIfAbsent("first", 0L);
+        filter.putIfAbsent("second", 150L);
+        filter.save(file.toPath());
+
+        final RotatingBloomFilter restored = RotatingBloomFilter.load(file.toPath());
+        assertTrue(restored.isConfiguredAs(1000, 0.01, 100L));
+        assertFalse(restored.isConfiguredAs(1000, 0.01, 200L));
+        assertTrue(restored.mightContain("first", 150L));
+        assertTrue(restored.mightContain("second", 150L));
+        assertFalse(restored.mightContain("first", 250L));
+        assertTrue(restored.mightContain("second", 250L));
+        assertFalse(restored.mightContain("third", 250L));
+    }
+
+    @Test
+    public void testSaveAndLoadFullSize() throws IOException {
+        final File file = new File("target/rotating-bloom-filter/full-size.bloom");
+
+        // the default settings of DetectDuplicate, which take far more than the 64 KB that a single state value can hold
+        final RotatingBloomFilter filter = new RotatingBloomFilter(1_000_000, 0.01, 0L, 0L);
+        for (int i = 0; i < 100_000; i++) {
+            filter.putIfAbsent("key-" + i, 0L);
+        }
+        filter.save(file.toPath());
+        assertTrue(file.length() > 2_000_000L);
+
+        final RotatingBloomFilter restored = RotatingBloomFilter.load(file.toPath());
+        assertTrue(restored.isConfiguredAs(1_000_000, 0.01, 0L));
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(restored.mightContain("key-" + i, 0L));
+        }
+        assertFalse(restored.putIfAbsent("other", 0L));
+    }
+}
@@ -17,6 +17,7 @@
 package org.apache.nifi.dbcp;
 
 import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
@@ -31,4 +32,46 @@ import org.apache.nifi.processor.exception.ProcessException;
 @CapabilityDescription("Provides Database Connection Pooling Service. Connections can be asked from pool and returned after usage.")
 public interface DBCPService extends ControllerService {
     public Connection getConnection()  throws ProcessException;
+
+    /**
+     * @return the number of connections that are currently borrowed from the pool, or 0 if the service is not enabled
+     *         or does not track its connections
+     */
+    default int getActiveConnectionCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of connections that are currently idle in the pool, or 0 if the service is not enabled
+     *         or does not track its connections
+     */
+    default int getIdleConnectionCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of connections that have been borrowed from the pool since the service was enabled,
+     *         or 0 if the service does not track its connections
+     */
+    default long getBorrowedConnectionCount() {
+        return 0L;
+    }
+
+    /**
+     * @param timeUnit the unit of the returned time
+     * @return the average time that borrowing a connection has taken since the service was enabled,
+     *         or 0 if the service does not track its connections
+     */
+    default long getAverageWaitTime(final TimeUnit timeUnit) {
+        return 0L;
+    }
+
+    /**
+     * @param timeUnit the unit of the returned time
+     * @return the longest time that borrowing a connection has taken since the service was enabled,
+     *         or 0 if the service does not track its connections
+     */
+    default long getMaxWaitTime(final TimeUnit timeUnit) {
+        return 0L;
+    }
 }
@@ -22,6 +22,7 @@ import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnDisabled;
 import org.apache.nifi.annotation.lifecycle.OnEnabled;
+import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.AbstractControllerService;
 import org.apache.nifi.controller.ConfigurationContext;
@@ -41,13 +42,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementation of for Database Connection Pooling Service. Apache DBCP is used for connection pooling functionality.
  *
  */
 @Tags({ "dbcp", "jdbc", "database", "connection", "pooling", "store" })
-@CapabilityDescription("Provides Database Connection Pooling Service. Connections can be asked from pool and returned after usage.")
+@CapabilityDescription("Provides Database Connection Pooling Service. Connections can be asked from pool and returned after usage. "
+        + "Prepared statements can be cached by each pooled connection.")
 @DynamicProperty(name = "JDBC property name", value = "JDBC property value", expressionLanguageScope = ExpressionLanguageScope.VARIABLE_REGISTRY,
         description = "Specifies a property name and value to be set on the JDBC connection(s). "
                 + "If Expression Language is used, evaluation will be performed upon the controller service being enabled. "
@@ -132,6 +135,43 @@ public class DBCPConnectionPool extends AbstractControllerService implements DBC
         .expressionLanguageSupported(ExpressionLanguageScope.VARIABLE_REGISTRY)
         .build();
 
+    public static final AllowableValue VALIDATE_ON_BORROW = new AllowableValue("On Borrow", "On Borrow",
+        "Each connection is validated before it is borrowed from the pool, which costs a round-trip to the database for every borrow.");
+
+    public static final AllowableValue VALIDATE_WHILE_IDLE = new AllowableValue("While Idle", "While Idle",
+        "Idle connections are validated periodically, in the background, at the Idle Validation Interval. Borrowing a connection does not cost a "
+            + "round-trip to the database, but a connection that has become invalid since it was last validated may be borrowed.");
+
+    public static final PropertyDescriptor VALIDATION_STRATEGY = new PropertyDescriptor.Builder()
+        .name("dbcp-validation-strategy")
+        .displayName("Validation Strategy")
+        .description("When connections are validated with the Validation query. This has no effect if no Validation query is set.")
+        .allowableValues(VALIDATE_ON_BORROW, VALIDATE_WHILE_IDLE)
+        .defaultValue(VALIDATE_ON_BORROW.getValue())
+        .required(true)
+        .build();
+
+    public static final PropertyDescriptor IDLE_VALIDATION_INTERVAL = new PropertyDescriptor.Builder()
+        .name("dbcp-idle-validation-interval")
+        .displayName("Idle Validation Interval")
+        .description("How often the idle connections are validated when the Validation Strategy is While Idle.")
+        .defaultValue("30 secs")
+        .required(true)
+        .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
+        .build();
+
+    public static final PropertyDescriptor MAX_CACHED_STATEMENTS = new PropertyDescriptor.Builder()
+        .name("dbcp-max-cached-statements")
+        .displayName("Max Cached Prepared Statements")
+        .description("The maximum number of prepared statements that are cached by each connection, so that statements with the same SQL "
+            + "are prepared only once per connection rather than every time they are used, or 0 to not cache prepared statements. "
+            + "Each cached statement may hold resources in the database for as long as the connection is open. "
+            + "The value must be at least the number of statements that are open on a connection at the same time.")
+        .defaultValue("0")
+        .required(true)
+        .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+        .build();
+
     private static final List<PropertyDescriptor> properties;
 
     static {
@@ -144,12 +184,20 @@ public class DBCPConnectionPool extends AbstractControllerService implements DBC
         props.add(MAX_WAIT_TIME);
         props.add(MAX_TOTAL_CONNECTIONS);
         props.add(VALIDATION_QUERY);
+        props.add(VALIDATION_STRATEGY);
+        props.add(IDLE_VALIDATION_INTERVAL);
+        props.add(MAX_CACHED_STATEMENTS);
 
         properties = Collections.unmodifiableList(props);
     }
 
     private volatile BasicDataSource dataSource;
 
+    // the time spent waiting for connections to be borrowed from the pool
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         return properties;
@@ -190,6 +238,9 @@ public class DBCPConnectionPool extends AbstractControllerService implements DBC
         final Long maxWaitMillis = context.getProperty(MAX_WAIT_TIME).asTimePeriod(TimeUnit.MILLISECONDS);
         final Integer maxTotal = context.getProperty(MAX_TOTAL_CONNECTIONS).asInteger();
         final String validationQuery = context.getProperty(VALIDATION_QUERY).evaluateAttributeExpressions().getValue();
+        final boolean validateWhileIdle = VALIDATE_WHILE_IDLE.getValue().equals(context.getProperty(VALIDATION_STRATEGY).getValue());
+        final Long idleValidationMillis = context.getProperty(IDLE_VALIDATION_INTERVAL).asTimePeriod(TimeUnit.MILLISECONDS);
+        final Integer maxCachedStatements = context.getProperty(MAX_CACHED_STATEMENTS).asInteger();
 
         dataSource = new BasicDataSource();
         dataSource.setDriverClassName(drv);
@@ -205,13 +256,31 @@ public class DBCPConnectionPool extends AbstractControllerService implements DBC
 
         if (validationQuery!=null && !validationQuery.isEmpty()) {
             dataSource.setValidationQuery(validationQuery);
-            dataSource.setTestOnBorrow(true);
+            if (validateWhileIdle) {
+                dataSource.setTestWhileIdle(true);
+                dataSource.setTimeBetweenEvictionRunsMillis(idleValidationMillis);
+                // validate all of the idle connections in each run
+                dataSource.setNumTestsPerEvictionRun(-1);
+                // only invalid connections are evicted
+                dataSource.setMinEvictableIdleTimeMillis(-1);
+            } else {
+                dataSource.setTestOnBorrow(true);
+            }
+        }
+
+        if (maxCachedStatements > 0) {
+            dataSource.setPoolPreparedStatements(true);
+            dataSource.setMaxOpenPreparedStatements(maxCachedStatements);
         }
 
         dataSource.setUrl(dburl);
         dataSource.setUsername(user);
         dataSource.setPassword(passw);
 
+        borrowCount.set(0L);
+        totalWaitNanos.set(0L);
+        maxWaitNanos.set(0L);
+
         context.getProperties().keySet().stream().filter(PropertyDescriptor::isDynamic)
                 .forEach((dynamicPropDescriptor) -> dataSource.addConnectionProperty(dynamicPropDescriptor.getName(),
                         context.getProperty(dynamicPropDescriptor).evaluateAttributeExpressions().getValue()));
@@ -260,6 +329,10 @@ public class DBCPConnectionPool extends AbstractControllerService implements DBC
      */
     @OnDisabled
     public void shutdown() {
+        if (getLogger().isDebugEnabled()) {
+            getLogger().debug("Closing pool after {} connections were borrowed, with an average wait of {} millis and a maximum wait of {} millis",
+                new Object[]{getBorrowedConnectionCount(), getAverageWaitTime(TimeUnit.MILLISECONDS), getMaxWaitTime(TimeUnit.MILLISECONDS)});
+        }
         try {
             dataSource.close();
         } catch (final SQLException e) {
@@ -269,14 +342,50 @@ public class DBCPConnectionPool extends AbstractControllerService implements DBC
 
     @Override
     public Connection getConnection() throws ProcessException {
+        final long start = System.nanoTime();
         try {
             final Connection con = dataSource.getConnection();
+            recordWait(System.nanoTime() - start);
             return con;
         } catch (final SQLException e) {
             throw new ProcessException(e);
         }
     }
 
+    private void recordWait(final long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    @Override
+    public int getActiveConnectionCount() {
+        final BasicDataSource dataSource = this.dataSource;
+        return dataSource == null ? 0 : dataSource.getNumActive();
+    }
+
+    @Override
+    public int getIdleConnectionCount() {
+        final BasicDataSource dataSource = this.dataSource;
+        return dataSource == null ? 0 : dataSource.getNumIdle();
+    }
+
+    @Override
+    public long getBorrowedConnectionCount() {
+        return borrowCount.get();
+    }
+
+    @Override
+    public long getAverageWaitTime(final TimeUnit timeUnit) {
+        final long count = borrowCount.get();
+        return count == 0 ? 0L : timeUnit.convert(totalWaitNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public long getMaxWaitTime(final TimeUnit timeUnit) {
+        return timeUnit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
     @Override
     public String toString() {
         return "DBCPConnectionPool[id=" + getIdentifier() + "]";
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.dbcp;
 
+import org.apache.commons.dbcp.DelegatingStatement;
 import org.apache.derby.drda.NetworkServerControl;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.reporting.InitializationException;
@@ -39,14 +40,18 @@ import java.net.URLClassLoader;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class DBCPServiceTest {
@@ -367,6 +372,91 @@ public class DBCPServiceTest {
         }
     }
 
+    /**
+     * Test that prepared statements are cached by each pooled connection, so that preparing the same SQL again reuses the statement.
+     */
+    @Test
+    public void testCachedPreparedStatements() throws InitializationException, SQLException {
+        final TestRunner runner = TestRunners.newTestRunner(TestProcessor.class);
+        final DBCPConnectionPool service = new DBCPConnectionPool();
+        runner.addControllerService("test-cache", service);
+
+        // remove previous test database, if any
+        final File dbLocation = new File(DB_LOCATION);
+        dbLocation.delete();
+
+        // set embedded Derby database connection url
+        runner.setProperty(service, DBCPConnectionPool.DATABASE_URL, "jdbc:derby:" + DB_LOCATION + ";create=true");
+        runner.setProperty(service, DBCPConnectionPool.DB_USER, "tester");
+        runner.setProperty(service, DBCPConnectionPool.DB_PASSWORD, "testerp");
+        runner.setProperty(service, DBCPConnectionPool.DB_DRIVERNAME, "org.apache.derby.jdbc.EmbeddedDriver");
+        runner.setProperty(service, DBCPConnectionPool.MAX_CACHED_STATEMENTS, "10");
+
+        runner.enableControllerService(service);
+        runner.assertValid(service);
+
+        try (final Connection connection = service.getConnection()) {
+            final PreparedStatement first = connection.prepareStatement("VALUES 1");
+            final Statement firstDelegate = ((DelegatingStatement) first).getInnermostDelegate();
+            first.close();
+
+            final PreparedStatement second = connection.prepareStatement("VALUES 1");
+            assertSame(firstDelegate, ((DelegatingStatement) second).getInnermostDelegate());
+            second.close();
+
+            final PreparedStatement other = connection.prepareStatement("VALUES 2");
+            assertNotSame(firstDelegate, ((DelegatingStatement) other).getInnermostDelegate());
+            other.close();
+        }
+    }
+
+    /**
+     * Test the connection counts and borrow times of the pool, with connections validated while idle rather than on every borrow.
+     */
+    @Test
+    public void testPoolMetrics() throws InitializationException, SQLException {
+        final TestRunner runner = TestRunners.newTestRunner(TestProcessor.class);
+        final DBCPConnectionPool service = new DBCPConnectionPool();
+        runner.addControllerService("test-metrics", service);
+
+        // remove previous test database, if any
+        final File dbLocation = new File(DB_LOCATION);
+        dbLocation.delete();
+
+        // set embedded Derby database connection url
+        runner.setProperty(service, DBCPConnectionPool.DATABASE_URL, "jdbc:derby:" + DB_LOCATION + ";create=true");
+        runner.setProperty(service, DBCPConnectionPool.DB_USER, "tester");
+        runner.setProperty(service, DBCPConnectionPool.DB_PASSWORD, "testerp");
+        runner.setProperty(service, DBCPConnectionPool.DB_DRIVERNAME, "org.apache.derby.jdbc.EmbeddedDriver");
+        runner.setProperty(service, DBCPConnectionPool.VALIDATION_QUERY, "VALUES 1");
+        runner.setProperty(service, DBCPConnectionPool.VALIDATION_STRATEGY, DBCPConnectionPool.VALIDATE_WHILE_IDLE.getValue());
+        runner.setProperty(service, DBCPConnectionPool.IDLE_VALIDATION_INTERVAL, "1 sec");
+
+        runner.enableControllerService(service);
+        runner.assertValid(service);
+
+        // the metrics are available to any user of the service interface
+        final DBCPService pool = service;
+        assertEquals(0, pool.getActiveConnectionCount());
+        assertEquals(0L, pool.getBorrowedConnectionCount());
+
+        final Connection first = pool.getConnection();
+        final Connection second = pool.getConnection();
+        assertEquals(2, pool.getActiveConnectionCount());
+        assertEquals(0, pool.getIdleConnectionCount());
+
+        first.close();
+        assertEquals(1, pool.getActiveConnectionCount());
+        assertEquals(1, pool.getIdleConnectionCount());
+
+        second.close();
+        assertEquals(0, pool.getActiveConnectionCount());
+        assertEquals(2, pool.getIdleConnectionCount());
+        assertEquals(2L, pool.getBorrowedConnectionCount());
+        assertTrue(pool.getMaxWaitTime(TimeUnit.NANOSECONDS) > 0L);
+        assertTrue(pool.getAverageWaitTime(TimeUnit.NANOSECONDS) <= pool.getMaxWaitTime(TimeUnit.NANOSECONDS));
+    }
+
     /**
      * Test get database connection using Derby. Get many times, release immediately and getConnection should not fail.
      */
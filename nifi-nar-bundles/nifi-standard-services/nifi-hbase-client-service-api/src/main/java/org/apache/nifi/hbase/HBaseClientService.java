@@ -151,6 +151,22 @@ public interface HBaseClientService extends ControllerService {
      */
     void scan(String tableName, byte[] startRow, byte[] endRow, Collection<Column> columns, ResultHandler handler) throws IOException;
 
+    /**
+     * Retrieves the given rows of the given table and passes each row that exists to the handler. Implementations should
+     * retrieve all of the rows with as few requests as possible; the default implementation scans for each row separately.
+     *
+     * @param tableName the name of an HBase table
+     * @param rowIds the identifiers of the rows to retrieve
+     * @param columns optional columns to return, if not specified all columns are returned
+     * @param handler a handler to process the rows that exist, in no particular order
+     * @throws IOException thrown when there are communication errors with HBase
+     */
+    default void get(String tableName, Collection<byte[]> rowIds, Collection<Column> columns, ResultHandler handler) throws IOException {
+        for (final byte[] rowId : rowIds) {
+            scan(tableName, rowId, rowId, columns, handler);
+        }
+    }
+
     /**
      * Scans the given table for the given range of row keys or time rage and passes the result to a handler.<br/>
      *
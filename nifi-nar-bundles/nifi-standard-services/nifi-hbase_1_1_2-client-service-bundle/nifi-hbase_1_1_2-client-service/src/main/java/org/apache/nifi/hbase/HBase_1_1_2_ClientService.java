@@ -27,6 +27,7 @@ import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
@@ -479,6 +480,34 @@ public class HBase_1_1_2_ClientService extends AbstractControllerService impleme
         }
     }
 
+    @Override
+    public void get(final String tableName, final Collection<byte[]> rowIds, final Collection<Column> columns, final ResultHandler handler) throws IOException {
+        if (rowIds.isEmpty()) {
+            return;
+        }
+
+        try (final Table table = connection.getTable(TableName.valueOf(tableName))) {
+            // all rows are retrieved with a single batch of Gets, rather than a scan per row
+            for (final Result result : getResults(table, rowIds, columns)) {
+                final Cell[] cells = result.rawCells();
+
+                // rows that do not exist are returned as empty results
+                if (cells == null || cells.length == 0) {
+                    continue;
+                }
+
+                // convert HBase cells to NiFi cells
+                final ResultCell[] resultCells = new ResultCell[cells.length];
+                for (int i=0; i < cells.length; i++) {
+                    resultCells[i] = getResultCell(cells[i]);
+                }
+
+                // delegate to the handler
+                handler.handle(result.getRow(), resultCells);
+            }
+        }
+    }
+
     @Override
     public void scan(final String tableName, final String startRow, final String endRow, String filterExpression,
             final Long timerangeMin, final Long timerangeMax, final Integer limitRows, final Boolean isReversed,
@@ -564,6 +593,28 @@ public class HBase_1_1_2_ClientService extends AbstractControllerService impleme
         return table.getScanner(scan);
     }
 
+    // protected and extracted into separate method for testing
+    protected Result[] getResults(final Table table, final Collection<byte[]> rowIds, final Collection<Column> columns) throws IOException {
+        final List<Get> gets = new ArrayList<>(rowIds.size());
+        for (final byte[] rowId : rowIds) {
+            final Get get = new Get(rowId);
+
+            if (columns != null) {
+                for (Column col : columns) {
+                    if (col.getQualifier() == null) {
+                        get.addFamily(col.getFamily());
+                    } else {
+                        get.addColumn(col.getFamily(), col.getQualifier());
+                    }
+                }
+            }
+
+            gets.add(get);
+        }
+
+        return table.get(gets);
+    }
+
     // protected and extracted into separate method for testing
     protected ResultScanner getResults(final Table table, final byte[] startRow, final byte[] endRow, final Collection<Column> columns) throws IOException {
         final Scan scan = new Scan();
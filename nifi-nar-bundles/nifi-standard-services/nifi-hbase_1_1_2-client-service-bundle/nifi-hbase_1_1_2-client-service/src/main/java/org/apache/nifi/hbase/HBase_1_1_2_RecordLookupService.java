@@ -127,21 +127,10 @@ public class HBase_1_1_2_RecordLookupService extends AbstractControllerService i
         final byte[] rowKeyBytes = rowKey.getBytes(StandardCharsets.UTF_8);
         try {
             final Map<String, Object> values = new HashMap<>();
-            hBaseClientService.scan(tableName, rowKeyBytes, rowKeyBytes, columns, (byte[] row, ResultCell[] resultCells) ->  {
-                for (final ResultCell cell : resultCells) {
-                    final byte[] qualifier = Arrays.copyOfRange(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierOffset() + cell.getQualifierLength());
-                    final byte[] value = Arrays.copyOfRange(cell.getValueArray(), cell.getValueOffset(), cell.getValueOffset() + cell.getValueLength());
-                    values.put(new String(qualifier, charset), new String(value, charset));
-                }
-            });
+            hBaseClientService.scan(tableName, rowKeyBytes, rowKeyBytes, columns, (byte[] row, ResultCell[] resultCells) -> addValues(resultCells, values));
 
             if (values.size() > 0) {
-                final List<RecordField> fields = new ArrayList<>();
-                for (String key : values.keySet()) {
-                    fields.add(new RecordField(key, RecordFieldType.STRING.getDataType()));
-                }
-                final RecordSchema schema = new SimpleRecordSchema(fields);
-                return Optional.ofNullable(new MapRecord(schema, values));
+                return Optional.ofNullable(createRecord(values));
             } else {
                 return Optional.empty();
             }
@@ -151,6 +140,69 @@ public class HBase_1_1_2_RecordLookupService extends AbstractControllerService i
         }
     }
 
+    @Override
+    public Map<Map<String, Object>, Record> lookupAll(final Set<Map<String, Object>> coordinates) throws LookupFailureException {
+        // several coordinates may refer to the same row, e.g. when one holds the row key as a number and another as a string
+        final Map<String, List<Map<String, Object>>> coordinatesByRowKey = new HashMap<>();
+        for (final Map<String, Object> lookupCoordinates : coordinates) {
+            if (lookupCoordinates.get(ROW_KEY_KEY) == null) {
+                continue;
+            }
+
+            final String rowKey = lookupCoordinates.get(ROW_KEY_KEY).toString();
+            if (!StringUtils.isBlank(rowKey)) {
+                coordinatesByRowKey.computeIfAbsent(rowKey, key -> new ArrayList<>()).add(lookupCoordinates);
+            }
+        }
+
+        final Map<Map<String, Object>, Record> results = new HashMap<>();
+        if (coordinatesByRowKey.isEmpty()) {
+            return results;
+        }
+
+        final List<byte[]> rowIds = new ArrayList<>(coordinatesByRowKey.size());
+        for (final String rowKey : coordinatesByRowKey.keySet()) {
+            rowIds.add(rowKey.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try {
+            hBaseClientService.get(tableName, rowIds, columns, (byte[] row, ResultCell[] resultCells) -> {
+                final List<Map<String, Object>> rowCoordinates = coordinatesByRowKey.get(new String(row, StandardCharsets.UTF_8));
+                final Map<String, Object> values = new HashMap<>();
+                addValues(resultCells, values);
+
+                if (rowCoordinates != null && values.size() > 0) {
+                    final Record record = createRecord(values);
+                    for (final Map<String, Object> lookupCoordinates : rowCoordinates) {
+                        results.put(lookupCoordinates, record);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            getLogger().error("Error occurred loading {}", new Object[] { coordinatesByRowKey.keySet() }, e);
+            throw new LookupFailureException(e);
+        }
+
+        return results;
+    }
+
+    private void addValues(final ResultCell[] resultCells, final Map<String, Object> values) {
+        for (final ResultCell cell : resultCells) {
+            final byte[] qualifier = Arrays.copyOfRange(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierOffset() + cell.getQualifierLength());
+            final byte[] value = Arrays.copyOfRange(cell.getValueArray(), cell.getValueOffset(), cell.getValueOffset() + cell.getValueLength());
+            values.put(new String(qualifier, charset), new String(value, charset));
+        }
+    }
+
+    private Record createRecord(final Map<String, Object> values) {
+        final List<RecordField> fields = new ArrayList<>();
+        for (String key : values.keySet()) {
+            fields.add(new RecordField(key, RecordFieldType.STRING.getDataType()));
+        }
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        return new MapRecord(schema, values);
+    }
+
     @Override
     public Class<?> getValueType() {
         return Record.class;
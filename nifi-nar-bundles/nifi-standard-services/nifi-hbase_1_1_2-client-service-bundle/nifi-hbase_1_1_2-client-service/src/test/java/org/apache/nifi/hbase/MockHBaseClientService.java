@@ -18,6 +18,7 @@ package org.apache.nifi.hbase;
 
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
@@ -50,6 +51,7 @@ public class MockHBaseClientService extends HBase_1_1_2_ClientService {
     private String family;
     private List<Result> results = new ArrayList<>();
     private KerberosProperties kerberosProperties;
+    private int getCount = 0;
 
     public MockHBaseClientService(final Table table, final String family, final KerberosProperties kerberosProperties) {
         this.table = table;
@@ -149,6 +151,16 @@ public class MockHBaseClientService extends HBase_1_1_2_ClientService {
         return scanner;
     }
 
+    @Override
+    protected Result[] getResults(final Table table, final Collection<byte[]> rowIds, final Collection<Column> columns) throws IOException {
+        getCount++;
+        return super.getResults(table, rowIds, columns);
+    }
+
+    public int getGetCount() {
+        return getCount;
+    }
+
     @Override
     protected ResultScanner getResults(Table table, Collection<Column> columns, Filter filter, long minTime) throws IOException {
         final ResultScanner scanner = Mockito.mock(ResultScanner.class);
@@ -168,6 +180,20 @@ public class MockHBaseClientService extends HBase_1_1_2_ClientService {
     protected Connection createConnection(ConfigurationContext context) throws IOException {
         Connection connection = Mockito.mock(Connection.class);
         Mockito.when(connection.getTable(table.getName())).thenReturn(table);
+
+        // like HBase, return a result for each Get, which is empty if the row does not exist
+        Mockito.when(table.get(Mockito.anyListOf(Get.class))).thenAnswer(invocation -> {
+            final List<?> gets = (List<?>) invocation.getArguments()[0];
+            final Result[] getResults = new Result[gets.size()];
+            for (int i = 0; i < getResults.length; i++) {
+                final byte[] rowId = ((Get) gets.get(i)).getRow();
+                getResults[i] = results.stream()
+                    .filter(result -> Arrays.equals(result.getRow(), rowId))
+                    .findFirst()
+                    .orElse(Result.create(new Cell[0]));
+            }
+            return getResults;
+        });
         return connection;
     }
 
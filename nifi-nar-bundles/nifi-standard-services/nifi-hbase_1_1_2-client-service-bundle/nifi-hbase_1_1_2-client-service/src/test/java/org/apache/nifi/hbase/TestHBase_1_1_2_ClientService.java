@@ -18,6 +18,7 @@ package org.apache.nifi.hbase;
 
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.nifi.hadoop.KerberosProperties;
@@ -49,6 +50,7 @@ import java.util.NavigableMap;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -358,6 +360,59 @@ public class TestHBase_1_1_2_ClientService {
         verifyResultCell(results[1], COL_FAM, "name", "nifi");
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetMultipleRows() throws InitializationException, IOException {
+        final String tableName = "nifi";
+        final TestRunner runner = TestRunners.newTestRunner(TestProcessor.class);
+
+        // Mock an HBase Table so we can verify the get operations later
+        final Table table = Mockito.mock(Table.class);
+        when(table.getName()).thenReturn(TableName.valueOf(tableName));
+
+        // create the controller service and link it to the test processor
+        final MockHBaseClientService service = configureHBaseClientService(runner, table);
+        runner.assertValid(service);
+
+        final Map<String, String> cells = new HashMap<>();
+        cells.put("greeting", "hello");
+        cells.put("name", "nifi");
+
+        final long now = System.currentTimeMillis();
+        service.addResult("row0", cells, now);
+        service.addResult("row1", cells, now);
+        service.addResult("row2", cells, now);
+
+        final CollectingResultHandler handler = new CollectingResultHandler();
+        final HBaseClientService hBaseClientService = runner.getProcessContext().getProperty(TestProcessor.HBASE_CLIENT_SERVICE)
+                .asControllerService(HBaseClientService.class);
+
+        final List<byte[]> rowIds = Arrays.asList(
+                "row0".getBytes(StandardCharsets.UTF_8), "row2".getBytes(StandardCharsets.UTF_8), "row9".getBytes(StandardCharsets.UTF_8));
+        final List<Column> columns = Arrays.asList(
+                new Column(COL_FAM.getBytes(StandardCharsets.UTF_8), "greeting".getBytes(StandardCharsets.UTF_8)),
+                new Column("nifi2".getBytes(StandardCharsets.UTF_8), null));
+        hBaseClientService.get(tableName, rowIds, columns, handler);
+
+        // the rows that exist are handled, and the row that does not is skipped
+        assertEquals(Arrays.asList("row0", "row2"), new ArrayList<>(handler.results.keySet()));
+        verifyResultCell(handler.results.get("row0")[0], COL_FAM, "greeting", "hello");
+
+        // all of the rows are retrieved with a single request, with a Get for each row that selects the columns
+        final ArgumentCaptor<List> capture = ArgumentCaptor.forClass(List.class);
+        verify(table, times(1)).get(capture.capture());
+
+        final List<Get> gets = capture.getValue();
+        assertEquals(3, gets.size());
+        for (int i = 0; i < gets.size(); i++) {
+            final Get get = gets.get(i);
+            assertEquals(new String(rowIds.get(i), StandardCharsets.UTF_8), new String(get.getRow(), StandardCharsets.UTF_8));
+            assertEquals(2, get.numFamilies());
+            assertEquals(1, get.getFamilyMap().get(COL_FAM.getBytes(StandardCharsets.UTF_8)).size());
+            assertNull(get.getFamilyMap().get("nifi2".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
     @Test
     public void testScanWithValidFilter() throws InitializationException, IOException {
         final String tableName = "nifi";
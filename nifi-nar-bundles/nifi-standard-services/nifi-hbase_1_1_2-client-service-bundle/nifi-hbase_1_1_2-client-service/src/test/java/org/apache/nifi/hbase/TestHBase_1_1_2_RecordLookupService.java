@@ -20,6 +20,7 @@ package org.apache.nifi.hbase;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.nifi.hadoop.KerberosProperties;
+import org.apache.nifi.lookup.LookupFailureException;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.util.TestRunner;
 import org.apache.nifi.util.TestRunners;
@@ -29,9 +30,12 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.Mockito.when;
 
@@ -120,4 +124,24 @@ public class TestHBase_1_1_2_RecordLookupService {
         Assert.assertNotNull(records);
         Assert.assertEquals(0, records.size());
     }
+
+    @Test
+    public void testLookupAllWithSingleGet() throws LookupFailureException {
+        clientService.addResult("1", Collections.singletonMap("cq1", "v1"), System.currentTimeMillis());
+        clientService.addResult("row2", Collections.singletonMap("cq1", "v2"), System.currentTimeMillis());
+
+        final Set<Map<String, Object>> coordinates = new HashSet<>();
+        coordinates.add(Collections.singletonMap("rowKey", 1));
+        coordinates.add(Collections.singletonMap("rowKey", "1"));
+        coordinates.add(Collections.singletonMap("rowKey", "row2"));
+        coordinates.add(Collections.singletonMap("rowKey", "row3"));
+        coordinates.add(Collections.singletonMap("rowKey", " "));
+
+        final Map<Map<String, Object>, Record> results = lookupService.lookupAll(coordinates);
+        Assert.assertEquals(1, clientService.getGetCount());
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals("v1", results.get(Collections.singletonMap("rowKey", 1)).getAsString("cq1"));
+        Assert.assertEquals("v1", results.get(Collections.singletonMap("rowKey", "1")).getAsString("cq1"));
+        Assert.assertEquals("v2", results.get(Collections.singletonMap("rowKey", "row2")).getAsString("cq1"));
+    }
 }
@@ -17,6 +17,7 @@
 
 package org.apache.nifi.lookup;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -35,6 +36,28 @@ public interface LookupService<T> extends ControllerService {
      */
     Optional<T> lookup(Map<String, Object> coordinates) throws LookupFailureException;
 
+    /**
+     * Looks up the values that correspond to each of the given maps of lookup coordinates. Services that are backed by a remote
+     * system should override this method so that all of the coordinates can be resolved with as few requests as possible. The
+     * default implementation calls {@link #lookup(Map)} once for each of the given maps.
+     *
+     * @param coordinates the lookup coordinates for which values should be looked up
+     * @return a Map whose keys are the lookup coordinates for which a value was found and whose values are the values that correspond
+     *         to those coordinates. Coordinates for which no value exists are not present in the returned Map.
+     *
+     * @throws LookupFailureException if unable to lookup the values for the given coordinates
+     */
+    default Map<Map<String, Object>, T> lookupAll(final Set<Map<String, Object>> coordinates) throws LookupFailureException {
+        final Map<Map<String, Object>, T> results = new HashMap<>(coordinates.size());
+        for (final Map<String, Object> lookupCoordinates : coordinates) {
+            final Optional<T> value = lookup(lookupCoordinates);
+            if (value.isPresent()) {
+                results.put(lookupCoordinates, value.get());
+            }
+        }
+        return results;
+    }
+
     /**
      * @return the Class that represents the type of value that will be returned by {@link #lookup(Map)}
      */
@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.lookup;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.annotation.documentation.CapabilityDescription;
+import org.apache.nifi.annotation.documentation.SeeAlso;
+import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.annotation.lifecycle.OnDisabled;
+import org.apache.nifi.annotation.lifecycle.OnEnabled;
+import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.controller.AbstractControllerService;
+import org.apache.nifi.controller.ConfigurationContext;
+import org.apache.nifi.controller.ControllerServiceInitializationContext;
+import org.apache.nifi.expression.ExpressionLanguageScope;
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.lookup.index.CSVFileIndex;
+import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.reporting.InitializationException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.util.Tuple;
+import org.apache.nifi.util.file.monitor.LastModifiedMonitor;
+import org.apache.nifi.util.file.monitor.SynchronousFileWatcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Tags({"lookup", "enrich", "join", "csv", "reloadable", "key", "value", "record", "index"})
+@CapabilityDescription(
+        "A reloadable CSV file-based lookup service for CSV files that are too large to be held in memory. The first time that the service is enabled, " +
+        "an index of the CSV file, sorted by the lookup key, is written to the Index Directory; lookups are then served from the memory-mapped index " +
+        "rather than from the heap. The index is reused as long as the CSV file is unchanged, including across restarts, and is rebuilt when " +
+        "the CSV file changes. The index is rebuilt by the lookup that first notices the change, and that lookup waits until the new index " +
+        "has been written, which may take some time for a large file; other lookups continue to use the previous index meanwhile. Each instance " +
+        "of the service keeps an index of its own. When the lookup key is found in the CSV file, " +
+        "the other columns are returned as a Record. All returned fields will be strings."
+)
+@SeeAlso(CSVRecordLookupService.class)
+public class IndexedCSVRecordLookupService extends AbstractControllerService implements RecordLookupService {
+
+    private static final String KEY = "key";
+
+    private static final Set<String> REQUIRED_KEYS = Collections.unmodifiableSet(Stream.of(KEY).collect(Collectors.toSet()));
+
+    public static final PropertyDescriptor CSV_FILE =
+            new PropertyDescriptor.Builder()
+                    .name("csv-file")
+                    .displayName("CSV File")
+                    .description("A CSV file that will serve as the data source.")
+                    .required(true)
+                    .addValidator(StandardValidators.FILE_EXISTS_VALIDATOR)
+                    .expressionLanguageSupported(ExpressionLanguageScope.VARIABLE_REGISTRY)
+                    .build();
+
+    static final PropertyDescriptor CSV_FORMAT = new PropertyDescriptor.Builder()
+            .name("csv-format")
+            .displayName("CSV Format")
+            .description("Specifies which \"format\" the CSV data is in.")
+            .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+            .allowableValues(Arrays.asList(CSVFormat.Predefined.values()).stream().map(e -> e.toString()).collect(Collectors.toSet()))
+            .defaultValue(CSVFormat.Predefined.Default.toString())
+            .required(true)
+            .build();
+
+    static final PropertyDescriptor CHARSET = new PropertyDescriptor.Builder()
+            .name("character-set")
+            .displayName("Character Set")
+            .description("The character set of the CSV file. The character set must represent line feeds, quotes and escape characters as single "
+                    + "ASCII bytes, as UTF-8 and the ISO-8859 character sets do.")
+            .addValidator(StandardValidators.CHARACTER_SET_VALIDATOR)
+            .defaultValue("UTF-8")
+            .required(true)
+            .build();
+
+    public static final PropertyDescriptor LOOKUP_KEY_COLUMN =
+            new PropertyDescriptor.Builder()
+                    .name("lookup-key-column")
+                    .displayName("Lookup Key Column")
+                    .description("The field in the CSV file that will serve as the lookup key. " +
+                            "This is the field that will be matched against the property specified in the lookup processor.")
+                    .required(true)
+                    .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+                    .expressionLanguageSupported(ExpressionLanguageScope.VARIABLE_REGISTRY)
+                    .build();
+
+    public static final PropertyDescriptor IGNORE_DUPLICATES =
+            new PropertyDescriptor.Builder()
+                    .name("ignore-duplicates")
+                    .displayName("Ignore Duplicates")
+                    .description("Ignore duplicate keys for records in the CSV file. If duplicates are ignored, the last record with a given key is returned.")
+                    .addValidator(StandardValidators.BOOLEAN_VALIDATOR)
+                    .allowableValues("true", "false")
+                    .defaultValue("true")
+                    .required(true)
+                    .build();
+
+    public static final PropertyDescriptor INDEX_DIRECTORY =
+            new PropertyDescriptor.Builder()
+                    .name("index-directory")
+                    .displayName("Index Directory")
+                    .description("The directory in which the index of the CSV file is kept. The index holds a copy of every record in the CSV file, "
+                            + "so the directory should have at least as much free space as the CSV file occupies.")
+                    .required(true)
+                    .defaultValue("./lookup-index")
+                    .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+                    .expressionLanguageSupported(ExpressionLanguageScope.VARIABLE_REGISTRY)
+                    .build();
+
+    private List<PropertyDescriptor> properties;
+
+    // the index and the schema of the records that it returns are swapped in together
+    private volatile Tuple<CSVFileIndex, RecordSchema> index;
+
+    private volatile File csvFile;
+
+    private volatile Path indexFile;
+
+    private volatile CSVFormat csvFormat;
+
+    private volatile Charset charset;
+
+    private volatile String lookupKeyColumn;
+
+    private volatile boolean ignoreDuplicates;
+
+    private volatile SynchronousFileWatcher watcher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // lookups hold the read lock while they use the index, so that it is not closed under them
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    private void loadIndex() throws IllegalStateException, IOException {
+        if (lock.tryLock()) {
+            try {
+                final ComponentLog logger = getLogger();
+
+                final CSVFileIndex currentIndex = this.index == null ? null : this.index.getKey();
+                if (currentIndex != null && currentIndex.isCurrent(csvFile)) {
+                    return;
+                }
+
+                CSVFileIndex index = CSVFileIndex.open(indexFile, csvFile, csvFormat, charset, lookupKeyColumn);
+                if (index == null) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Building lookup index {} from file: {}", new Object[]{indexFile, csvFile});
+                    }
+
+                    // lookups continue to use the current index while the new one is written, but it must be closed before
+                    // the new one replaces its file, as a mapped file cannot be replaced on some operating systems
+                    final Path writtenFile = CSVFileIndex.write(indexFile, csvFile, csvFormat, charset, lookupKeyColumn, ignoreDuplicates, logger);
+                    indexLock.writeLock().lock();
+                    try {
+                        closeIndex();
+                        index = CSVFileIndex.install(writtenFile, indexFile, csvFormat, charset);
+                        setIndex(index);
+                    } finally {
+                        indexLock.writeLock().unlock();
+                    }
+                } else {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Using existing lookup index {} for file: {}", new Object[]{indexFile, csvFile});
+                    }
+
+                    indexLock.writeLock().lock();
+                    try {
+                        closeIndex();
+                        setIndex(index);
+                    } finally {
+                        indexLock.writeLock().unlock();
+                    }
+                }
+
+                if (index.getRecordCount() == 0) {
+                    logger.warn("Lookup table is empty after reading file: " + csvFile);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void setIndex(final CSVFileIndex index) {
+        final List<RecordField> recordFields = new ArrayList<>();
+        for (final String columnName : index.getColumnNames()) {
+            if (!lookupKeyColumn.equals(columnName)) {
+                recordFields.add(new RecordField(columnName, RecordFieldType.STRING.getDataType()));
+            }
+        }
+
+        this.index = new Tuple<>(index, new SimpleRecordSchema(recordFields));
+    }
+
+    private void closeIndex() {
+        final Tuple<CSVFileIndex, RecordSchema> index = this.index;
+        if (index != null) {
+            this.index = null;
+            index.getKey().close();
+        }
+    }
+
+    @Override
+    protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
+        return properties;
+    }
+
+    @Override
+    protected void init(final ControllerServiceInitializationContext context) throws InitializationException {
+        final List<PropertyDescriptor> properties = new ArrayList<>();
+        properties.add(CSV_FILE);
+        properties.add(CSV_FORMAT);
+        properties.add(CHARSET);
+        properties.add(LOOKUP_KEY_COLUMN);
+        properties.add(IGNORE_DUPLICATES);
+        properties.add(INDEX_DIRECTORY);
+        this.properties = Collections.unmodifiableList(properties);
+    }
+
+    @OnEnabled
+    public void onEnabled(final ConfigurationContext context) throws InitializationException, IOException {
+        this.csvFile = new File(context.getProperty(CSV_FILE).evaluateAttributeExpressions().getValue());
+        this.csvFormat = CSVFormat.Predefined.valueOf(context.getProperty(CSV_FORMAT).getValue()).getFormat();
+        this.charset = Charset.forName(context.getProperty(CHARSET).getValue());
+        this.lookupKeyColumn = context.getProperty(LOOKUP_KEY_COLUMN).evaluateAttributeExpressions().getValue();
+        this.ignoreDuplicates = context.getProperty(IGNORE_DUPLICATES).asBoolean();
+
+        final Path indexDirectory = Paths.get(context.getProperty(INDEX_DIRECTORY).evaluateAttributeExpressions().getValue());
+        this.indexFile = CSVFileIndex.getIndexFile(indexDirectory, getIdentifier(), csvFile, csvFormat, charset, lookupKeyColumn);
+        this.watcher = new SynchronousFileWatcher(csvFile.toPath(), new LastModifiedMonitor(), 30000L);
+        try {
+            loadIndex();
+        } catch (final IllegalStateException e) {
+            throw new InitializationException(e.getMessage(), e);
+        }
+    }
+
+    @OnDisabled
+    public void onDisabled() {
+        indexLock.writeLock().lock();
+        try {
+            closeIndex();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Record> lookup(final Map<String, Object> coordinates) throws LookupFailureException {
+        if (coordinates == null || coordinates.get(KEY) == null) {
+            return Optional.empty();
+        }
+
+        final String key = coordinates.get(KEY).toString();
+        if (StringUtils.isBlank(key)) {
+            return Optional.empty();
+        }
+
+        try {
+            // an index that could not be replaced is retried on the next lookup
+            if (watcher.checkAndReset() || this.index == null) {
+                loadIndex();
+            }
+
+            final RecordSchema schema;
+            final CSVRecord record;
+            indexLock.readLock().lock();
+            try {
+                final Tuple<CSVFileIndex, RecordSchema> index = this.index;
+                if (index == null) {
+                    throw new LookupFailureException("The lookup index of " + csvFile + " is not available");
+                }
+
+                schema = index.getValue();
+                record = index.getKey().get(key);
+            } finally {
+                indexLock.readLock().unlock();
+            }
+
+            if (record == null) {
+                return Optional.empty();
+            }
+
+            final Map<String, Object> values = new HashMap<>();
+            for (final RecordField field : schema.getFields()) {
+                final String fieldName = field.getFieldName();
+                values.put(fieldName, record.isSet(fieldName) ? record.get(fieldName) : null);
+            }
+            return Optional.of(new MapRecord(schema, values));
+        } catch (final IllegalStateException | IOException e) {
+            throw new LookupFailureException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<String> getRequiredKeys() {
+        return REQUIRED_KEYS;
+    }
+
+}
@@ -0,0 +1,486 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.lookup.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.logging.ComponentLog;
+
+/**
+ * <p>
+ * An on-disk index of the records in a CSV file, sorted by the value of a key column, that is read through
+ * a {@link MappedFile} so that looking up a key does not require the CSV file to be held in the heap.
+ * </p>
+ *
+ * <p>
+ * The index file is self-contained: it holds a copy of each record, so that a lookup never reads the CSV file
+ * itself, which may be modified at any time. It consists of a header, which identifies the CSV file and the
+ * settings that the index was built with, followed by the key and the raw bytes of each record, followed by a
+ * table of the positions of those records, sorted by key, which is binary searched to find a key.
+ * </p>
+ *
+ * <p>
+ * Records are found in the CSV file by looking for line feeds that are not within a quoted value, so the
+ * character set of the file must encode quotes, escapes and line feeds as single ASCII bytes, as UTF-8
+ * and the ISO-8859 character sets do.
+ * </p>
+ *
+ * <p>
+ * The index must be closed once it is no longer in use, to release the mapping of its file.
+ * </p>
+ */
+public class CSVFileIndex implements Closeable {
+
+    private static final int MAGIC = 0x4E494458;
+    private static final int VERSION = 1;
+
+    // positions of the fixed-size header fields that are written once the records have been indexed
+    private static final long TABLE_OFFSET_POSITION = 24L;
+    private static final int ENTRY_HEADER_LENGTH = 8;
+
+    private final MappedFile file;
+    private final CSVFormat rowFormat;
+    private final Charset charset;
+    private final List<String> columnNames;
+    private final String sourcePath;
+    private final String fingerprint;
+    private final long sourceLength;
+    private final long sourceLastModified;
+    private final long tableOffset;
+    private final long recordCount;
+
+    private CSVFileIndex(final Path indexFile, final CSVFormat format, final Charset charset) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(indexFile + " is not a CSV index file that can be read by this version");
+            }
+
+            this.sourceLength = in.readLong();
+            this.sourceLastModified = in.readLong();
+            this.tableOffset = in.readLong();
+            this.recordCount = in.readLong();
+            this.sourcePath = in.readUTF();
+            this.fingerprint = in.readUTF();
+
+            final int columnCount = in.readInt();
+            final List<String> columnNames = new ArrayList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                columnNames.add(in.readUTF());
+            }
+            this.columnNames = Collections.unmodifiableList(columnNames);
+        }
+
+        this.file = new MappedFile(indexFile);
+        this.charset = charset;
+        this.rowFormat = withColumns(format, columnNames);
+    }
+
+    /**
+     * Returns the file in the given directory that holds the index of the given CSV file for the given settings. Each owner has a file of
+     * its own, so that an owner never replaces an index file that another owner has open.
+     *
+     * @param owner an identifier of the component that uses the index, such as the identifier of a Controller Service
+     * @return the index file
+     */
+    public static Path getIndexFile(final Path indexDirectory, final String owner, final File sourceFile, final CSVFormat format, final Charset charset,
+        final String keyColumn) {
+        final String identifier = sourceFile.getAbsolutePath() + "\n" + getFingerprint(format, charset, keyColumn);
+        return indexDirectory.resolve(sourceFile.getName() + "-" + owner + "-" + Integer.toHexString(identifier.hashCode()) + ".idx");
+    }
+
+    /**
+     * Opens an existing index, provided that it was built from the current contents of the given CSV file with the given settings
+     *
+     * @return the index, or <code>null</code> if there is no such index and it must be built
+     */
+    public static CSVFileIndex open(final Path indexFile, final File sourceFile, final CSVFormat format, final Charset charset, final String keyColumn) {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+
+        final CSVFileIndex index;
+        try {
+            index = new CSVFileIndex(indexFile, format, charset);
+        } catch (final IOException | RuntimeException e) {
+            // an unreadable index, e.g. one written by a different version, is simply rebuilt
+            return null;
+        }
+
+        if (!index.isCurrent(sourceFile) || !index.fingerprint.equals(getFingerprint(format, charset, keyColumn))) {
+            index.close();
+            return null;
+        }
+        return index;
+    }
+
+    /**
+     * Builds an index of the given CSV file, replacing any existing index file. Any index that is open on the index file
+     * must be closed first; to keep an open index usable while the new one is built, use {@link #write} and {@link #install} instead.
+     *
+     * @throws IllegalStateException if a record has no key, or if a key is duplicated and duplicates are not ignored
+     * @throws IOException if the CSV file cannot be read or the index file cannot be written
+     */
+    public static CSVFileIndex build(final Path indexFile, final File sourceFile, final CSVFormat format, final Charset charset, final String keyColumn,
+        final boolean ignoreDuplicates, final ComponentLog logger) throws IOException {
+        return install(write(indexFile, sourceFile, format, charset, keyColumn, ignoreDuplicates, logger), indexFile, format, charset);
+    }
+
+    /**
+     * Writes an index of the given CSV file to a new temporary file beside the given index file, without replacing the index file,
+     * so that an index that is open on it remains usable. The temporary file is passed to {@link #install} once that index has been closed.
+     * Each call writes to a different temporary file, so concurrent calls for the same index file do not interfere with one another.
+     *
+     * @return the temporary file
+     * @throws IllegalStateException if a record has no key, or if a key is duplicated and duplicates are not ignored
+     * @throws IOException if the CSV file cannot be read or the index file cannot be written
+     */
+    public static Path write(final Path indexFile, final File sourceFile, final CSVFormat format, final Charset charset, final String keyColumn,
+        final boolean ignoreDuplicates, final ComponentLog logger) throws IOException {
+
+        final Path indexDirectory = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(indexDirectory);
+        final Path tempFile = Files.createTempFile(indexDirectory, indexFile.getFileName().toString() + "-", ".tmp");
+
+        // capture the state of the CSV file before reading it, so that any change made while indexing causes a rebuild later
+        final long sourceLength = sourceFile.length();
+        final long sourceLastModified = sourceFile.lastModified();
+
+        boolean built = false;
+        try {
+            long[] entries = new long[1024];
+            int entryCount = 0;
+            try (final InputStream in = new BufferedInputStream(new FileInputStream(sourceFile));
+                 final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+
+                final RowReader rowReader = new RowReader(in, format);
+                final CSVRecord header = parseRow(rowReader.nextRow(), format, charset);
+                final List<String> columnNames = new ArrayList<>();
+                if (header != null) {
+                    header.forEach(columnNames::add);
+                    if (!columnNames.contains(keyColumn)) {
+                        throw new IllegalStateException("Lookup key column " + keyColumn + " is not present in the header of " + sourceFile);
+                    }
+                }
+                final CSVFormat rowFormat = withColumns(format, columnNames);
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(sourceLength);
+                out.writeLong(sourceLastModified);
+                out.writeLong(0L);
+                out.writeLong(0L);
+                out.writeUTF(sourceFile.getAbsolutePath());
+                out.writeUTF(getFingerprint(format, charset, keyColumn));
+                out.writeInt(columnNames.size());
+                for (final String columnName : columnNames) {
+                    out.writeUTF(columnName);
+                }
+
+                long position = out.size();
+                byte[] row;
+                while ((row = rowReader.nextRow()) != null) {
+                    final CSVRecord record = parseRow(row, rowFormat, charset);
+                    if (record == null) {
+                        continue;
+                    }
+
+                    final String key = record.isSet(keyColumn) ? record.get(keyColumn) : null;
+                    if (StringUtils.isBlank(key)) {
+                        throw new IllegalStateException("Empty lookup key encountered in: " + sourceFile);
+                    }
+
+                    final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(keyBytes.length);
+                    out.writeInt(row.length);
+                    out.write(keyBytes);
+                    out.write(row);
+
+                    if (entryCount == entries.length) {
+                        entries = Arrays.copyOf(entries, entryCount * 2);
+                    }
+                    entries[entryCount++] = position;
+                    position += ENTRY_HEADER_LENGTH + keyBytes.length + row.length;
+                }
+            }
+
+            final long[] table = sortByKey(tempFile, entries, entryCount, sourceFile, ignoreDuplicates, logger);
+            writeTable(tempFile, table);
+            built = true;
+        } finally {
+            if (!built) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        return tempFile;
+    }
+
+    /**
+     * Replaces the given index file with a file that was written by {@link #write}, and opens it. Any index that is open on the index file
+     * must be closed first, as a mapped file cannot be replaced on some operating systems, such as Windows.
+     *
+     * @throws IOException if the index file cannot be replaced
+     */
+    public static CSVFileIndex install(final Path writtenFile, final Path indexFile, final CSVFormat format, final Charset charset) throws IOException {
+        try {
+            try {
+                Files.move(writtenFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(writtenFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(writtenFile);
+        }
+
+        return new CSVFileIndex(indexFile, format, charset);
+    }
+
+    private static long[] sortByKey(final Path dataFile, final long[] entries, final int entryCount, final File sourceFile, final boolean ignoreDuplicates,
+        final ComponentLog logger) throws IOException {
+
+        try (final MappedFile data = new MappedFile(dataFile)) {
+            final long[] sorted = sort(data, entries, entryCount);
+
+            int count = 0;
+            for (int i = 0; i < entryCount; i++) {
+                final long entry = sorted[i];
+                if (i + 1 < entryCount && compareKeys(data, entry, sorted[i + 1]) == 0) {
+                    final byte[] key = new byte[data.getInt(entry)];
+                    data.get(entry + ENTRY_HEADER_LENGTH, key);
+                    final String keyValue = new String(key, StandardCharsets.UTF_8);
+
+                    if (!ignoreDuplicates) {
+                        throw new IllegalStateException("Duplicate lookup key encountered: " + keyValue + " in " + sourceFile);
+                    }
+                    logger.warn("Duplicate lookup key encountered: {} in {}", new Object[]{keyValue, sourceFile});
+                    continue;
+                }
+                sorted[count++] = entry;
+            }
+
+            return Arrays.copyOf(sorted, count);
+        }
+    }
+
+    /**
+     * Sorts the first entryCount entries by key with a bottom-up merge sort, so that the positions are never boxed. The sort is stable,
+     * so entries with the same key remain in the order of the CSV file, and the last one wins as it would in a Map.
+     *
+     * @return an array whose first entryCount elements are the sorted entries; this may be the given array
+     */
+    private static long[] sort(final MappedFile data, final long[] entries, final int entryCount) {
+        long[] source = entries;
+        long[] destination = new long[entryCount];
+        for (int width = 1; width < entryCount; width *= 2) {
+            for (int low = 0; low < entryCount; low += 2 * width) {
+                final int middle = Math.min(low + width, entryCount);
+                final int high = Math.min(low + 2 * width, entryCount);
+
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    if (left < middle && (right >= high || compareKeys(data, source[left], source[right]) <= 0)) {
+                        destination[i] = source[left++];
+                    } else {
+                        destination[i] = source[right++];
+                    }
+                }
+            }
+
+            final long[] sorted = destination;
+            destination = source;
+            source = sorted;
+        }
+        return source;
+    }
+
+    private static int compareKeys(final MappedFile data, final long entry, final long otherEntry) {
+        return data.compare(entry + ENTRY_HEADER_LENGTH, data.getInt(entry), otherEntry + ENTRY_HEADER_LENGTH, data.getInt(otherEntry));
+    }
+
+    private static void writeTable(final Path indexFile, final long[] table) throws IOException {
+        try (final FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+            final long tableOffset = channel.size();
+            channel.position(tableOffset);
+
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            for (final long entry : table) {
+                out.writeLong(entry);
+            }
+            out.flush();
+
+            final ByteBuffer tableHeader = ByteBuffer.allocate(16);
+            tableHeader.putLong(tableOffset);
+            tableHeader.putLong(table.length);
+            tableHeader.flip();
+            channel.write(tableHeader, TABLE_OFFSET_POSITION);
+            channel.force(true);
+        }
+    }
+
+    private static CSVFormat withColumns(final CSVFormat format, final List<String> columnNames) {
+        // an empty header would cause the first record to be treated as the header
+        if (columnNames.isEmpty()) {
+            return format;
+        }
+        return format.withHeader(columnNames.toArray(new String[columnNames.size()])).withSkipHeaderRecord(false);
+    }
+
+    private static String getFingerprint(final CSVFormat format, final Charset charset, final String keyColumn) {
+        return format.toString() + "\n" + charset.name() + "\n" + keyColumn;
+    }
+
+    private static CSVRecord parseRow(final byte[] row, final CSVFormat format, final Charset charset) throws IOException {
+        if (row == null) {
+            return null;
+        }
+
+        try (final CSVParser parser = CSVParser.parse(new String(row, charset), format)) {
+            final List<CSVRecord> records = parser.getRecords();
+            return records.isEmpty() ? null : records.get(0);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if this index was built from the current contents of the given CSV file
+     */
+    public boolean isCurrent(final File sourceFile) {
+        return sourcePath.equals(sourceFile.getAbsolutePath()) && sourceLength == sourceFile.length() && sourceLastModified == sourceFile.lastModified();
+    }
+
+    /**
+     * @return the names of the columns of the CSV file, as given by its header
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return the record with the given key, or <code>null</code> if there is no such record
+     * @throws IOException if the record cannot be parsed
+     */
+    public CSVRecord get(final String key) throws IOException {
+        final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+
+        long low = 0;
+        long high = recordCount - 1;
+        while (low <= high) {
+            final long middle = (low + high) >>> 1;
+            final long entry = file.getLong(tableOffset + middle * 8);
+            final int keyLength = file.getInt(entry);
+
+            final int comparison = file.compare(entry + ENTRY_HEADER_LENGTH, keyLength, keyBytes);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                final byte[] row = new byte[file.getInt(entry + 4)];
+                file.get(entry + ENTRY_HEADER_LENGTH + keyLength, row);
+                return parseRow(row, rowFormat, charset);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Releases the mapping of the index file. The index must not be used during or after a call to this method.
+     */
+    @Override
+    public void close() {
+        file.close();
+    }
+
+    /**
+     * Splits a CSV file into the raw bytes of each of its records, without decoding them
+     */
+    private static class RowReader {
+        private final InputStream in;
+        private final int quote;
+        private final int escape;
+        private final ByteArrayOutputStream row = new ByteArrayOutputStream();
+
+        private RowReader(final InputStream in, final CSVFormat format) {
+            this.in = in;
+            this.quote = format.getQuoteCharacter() == null ? -1 : format.getQuoteCharacter();
+            this.escape = format.getEscapeCharacter() == null ? -1 : format.getEscapeCharacter();
+        }
+
+        private byte[] nextRow() throws IOException {
+            row.reset();
+
+            boolean quoted = false;
+            int b = in.read();
+            if (b == -1) {
+                return null;
+            }
+
+            for (; b != -1; b = in.read()) {
+                if (b == escape) {
+                    row.write(b);
+                    b = in.read();
+                    if (b == -1) {
+                        break;
+                    }
+                } else if (b == quote) {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    break;
+                }
+                row.write(b);
+            }
+
+            final byte[] bytes = row.toByteArray();
+            if (bytes.length > 0 && bytes[bytes.length - 1] == '\r') {
+                return Arrays.copyOf(bytes, bytes.length - 1);
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.lookup.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only view of a file that is memory-mapped in fixed-size regions, so that files larger than
+ * the 2 GB that a single {@link MappedByteBuffer} can address may be read. Values that span the boundary
+ * between two regions are assembled byte by byte. All methods other than {@link #close()} are safe for use by
+ * multiple threads; the caller must ensure that no other method is called during or after a call to close().
+ */
+public class MappedFile implements Closeable {
+
+    static final int DEFAULT_REGION_SIZE = 1 << 30;
+
+    private final MappedByteBuffer[] regions;
+    private final int regionSize;
+    private final long size;
+    private boolean closed = false;
+
+    public MappedFile(final Path path) throws IOException {
+        this(path, DEFAULT_REGION_SIZE);
+    }
+
+    MappedFile(final Path path, final int regionSize) throws IOException {
+        this.regionSize = regionSize;
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.size = channel.size();
+
+            final int regionCount = (int) ((size + regionSize - 1) / regionSize);
+            this.regions = new MappedByteBuffer[regionCount];
+            for (int i = 0; i < regionCount; i++) {
+                final long position = (long) i * regionSize;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(regionSize, size - position));
+            }
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public byte get(final long position) {
+        return regions[(int) (position / regionSize)].get((int) (position % regionSize));
+    }
+
+    public void get(final long position, final byte[] destination) {
+        int copied = 0;
+        while (copied < destination.length) {
+            final long current = position + copied;
+            final int offset = (int) (current % regionSize);
+            final ByteBuffer region = regions[(int) (current / regionSize)].duplicate();
+            final int length = Math.min(destination.length - copied, region.limit() - offset);
+
+            region.position(offset);
+            region.get(destination, copied, length);
+            copied += length;
+        }
+    }
+
+    public int getInt(final long position) {
+        final int offset = (int) (position % regionSize);
+        if (offset <= regionSize - 4) {
+            return regions[(int) (position / regionSize)].getInt(offset);
+        }
+
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (get(position + i) & 0xFF);
+        }
+        return value;
+    }
+
+    public long getLong(final long position) {
+        final int offset = (int) (position % regionSize);
+        if (offset <= regionSize - 8) {
+            return regions[(int) (position / regionSize)].getLong(offset);
+        }
+
+        return ((long) getInt(position) << 32) | (getInt(position + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Compares the given number of bytes at the given position to the given bytes, treating bytes as unsigned values
+     *
+     * @return a negative number, zero or a positive number as the bytes in the file are less than, equal to or greater than the given bytes
+     */
+    public int compare(final long position, final int length, final byte[] other) {
+        final int commonLength = Math.min(length, other.length);
+        for (int i = 0; i < commonLength; i++) {
+            final int difference = (get(position + i) & 0xFF) - (other[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - other.length;
+    }
+
+    /**
+     * Compares two ranges of bytes within the file, treating bytes as unsigned values
+     */
+    public int compare(final long position, final int length, final long otherPosition, final int otherLength) {
+        final int commonLength = Math.min(length, otherLength);
+        for (int i = 0; i < commonLength; i++) {
+            final int difference = (get(position + i) & 0xFF) - (get(otherPosition + i) & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - otherLength;
+    }
+
+    /**
+     * Releases the mapping of the file, rather than waiting for the mapped regions to be garbage collected, so that the file
+     * may be replaced or deleted on operating systems, such as Windows, that do not allow a mapped file to be modified.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        for (int i = 0; i < regions.length; i++) {
+            unmap(regions[i]);
+            regions[i] = null;
+        }
+    }
+
+    private static void unmap(final MappedByteBuffer buffer) {
+        // there is no public API for this, so use sun.misc.Unsafe.invokeCleaner on Java 9 and later, or the buffer's Cleaner on Java 8;
+        // if neither is available, the mapping is released when the buffer is garbage collected
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (final Exception e) {
+            // not Java 9 or later
+        }
+
+        try {
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (final Exception e) {
+            // left to the garbage collector
+        }
+    }
+}
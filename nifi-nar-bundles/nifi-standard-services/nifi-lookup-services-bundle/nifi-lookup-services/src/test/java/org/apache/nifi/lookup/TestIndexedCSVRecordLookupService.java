@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.lookup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.apache.nifi.reporting.InitializationException;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class TestIndexedCSVRecordLookupService {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private IndexedCSVRecordLookupService enableService(final TestRunner runner, final File csvFile, final File indexDirectory) throws InitializationException {
+        final IndexedCSVRecordLookupService service = new IndexedCSVRecordLookupService();
+        runner.addControllerService("indexed-csv-lookup-service", service);
+        runner.setProperty(service, IndexedCSVRecordLookupService.CSV_FILE, csvFile.getAbsolutePath());
+        runner.setProperty(service, IndexedCSVRecordLookupService.CSV_FORMAT, "RFC4180");
+        runner.setProperty(service, IndexedCSVRecordLookupService.LOOKUP_KEY_COLUMN, "key");
+        runner.setProperty(service, IndexedCSVRecordLookupService.INDEX_DIRECTORY, indexDirectory.getAbsolutePath());
+        runner.enableControllerService(service);
+        runner.assertValid(service);
+        return service;
+    }
+
+    @Test
+    public void testIndexedCsvFileLookupService() throws InitializationException, IOException, LookupFailureException {
+        final TestRunner runner = TestRunners.newTestRunner(TestProcessor.class);
+        final IndexedCSVRecordLookupService lookupService = enableService(runner, new File("src/test/resources/test.csv"), tempFolder.newFolder("index"));
+
+        final Optional<Record> property1 = lookupService.lookup(Collections.singletonMap("key", "property.1"));
+        assertEquals("this is property 1", property1.get().getAsString("value"));
+        assertEquals("2017-04-01", property1.get().getAsString("created_at"));
+        assertFalse(property1.get().getSchema().getField("key").isPresent());
+
+        final Optional<Record> property2 = lookupService.lookup(Collections.singletonMap("key", "property.2"));
+        assertEquals("this is property 2", property2.get().getAsString("value"));
+        assertEquals("2017-04-02", property2.get().getAsString("created_at"));
+
+        assertEquals(Optional.empty(), lookupService.lookup(Collections.singletonMap("key", "property.3")));
+    }
+
+    @Test
+    public void testIndexReusedUntilFileChanges() throws InitializationException, IOException, LookupFailureException {
+        final File csvFile = tempFolder.newFile("reference.csv");
+        Files.write(csvFile.toPath(), "key,value\n1,one\n2,two\n".getBytes("UTF-8"));
+        final File indexDirectory = tempFolder.newFolder("index");
+
+        IndexedCSVRecordLookupService lookupService = enableService(TestRunners.newTestRunner(TestProcessor.class), csvFile, indexDirectory);
+        assertEquals("one", lookupService.lookup(Collections.singletonMap("key", 1)).get().getAsString("value"));
+
+        final File[] indexFiles = indexDirectory.listFiles();
+        assertEquals(1, indexFiles.length);
+        final Path indexFile = indexFiles[0].toPath();
+        indexFile.toFile().setLastModified(1000L);
+
+        // Enabling a new instance of the service, as on restart, opens the existing index rather than rebuilding it
+        lookupService = enableService(TestRunners.newTestRunner(TestProcessor.class), csvFile, indexDirectory);
+        assertEquals(1000L, Files.getLastModifiedTime(indexFile).toMillis());
+        assertEquals("two", lookupService.lookup(Collections.singletonMap("key", "2")).get().getAsString("value"));
+
+        Files.write(csvFile.toPath(), "key,value\n1,uno\n3,tres\n".getBytes("UTF-8"));
+        csvFile.setLastModified(csvFile.lastModified() + 5000L);
+
+        lookupService = enableService(TestRunners.newTestRunner(TestProcessor.class), csvFile, indexDirectory);
+        assertEquals(1, indexDirectory.listFiles().length);
+        assertEquals("uno", lookupService.lookup(Collections.singletonMap("key", "1")).get().getAsString("value"));
+        assertEquals("tres", lookupService.lookup(Collections.singletonMap("key", "3")).get().getAsString("value"));
+        assertEquals(Optional.empty(), lookupService.lookup(Collections.singletonMap("key", "2")));
+        assertNull(lookupService.lookup(Collections.singletonMap("key", "1")).get().getValue("key"));
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.lookup.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.util.MockComponentLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCSVFileIndex {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final ComponentLog logger = new MockComponentLog("index", this);
+
+    private File writeCsv(final String csv) throws IOException {
+        final File csvFile = tempFolder.newFile();
+        Files.write(csvFile.toPath(), csv.getBytes(StandardCharsets.UTF_8));
+        return csvFile;
+    }
+
+    private CSVFileIndex build(final File csvFile, final boolean ignoreDuplicates) throws IOException {
+        final Path indexFile = CSVFileIndex.getIndexFile(tempFolder.getRoot().toPath().resolve("index"), "test", csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id");
+        return CSVFileIndex.build(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id", ignoreDuplicates, logger);
+    }
+
+    @Test
+    public void testQuotedValuesAndLineEndings() throws IOException {
+        final File csvFile = writeCsv("name,id,notes\r\n"
+            + "John,j1,\"multi\nline, \"\"quoted\"\"\"\r\n"
+            + "\n"
+            + "Zoë,z1,été\n"
+            + "Anne,a1,");
+        final CSVFileIndex index = build(csvFile, true);
+
+        assertEquals(Arrays.asList("name", "id", "notes"), index.getColumnNames());
+        assertEquals(3, index.getRecordCount());
+
+        final CSVRecord john = index.get("j1");
+        assertEquals("John", john.get("name"));
+        assertEquals("multi\nline, \"quoted\"", john.get("notes"));
+        assertEquals("Zoë", index.get("z1").get("name"));
+        assertEquals("été", index.get("z1").get("notes"));
+        assertEquals("", index.get("a1").get("notes"));
+        assertNull(index.get("b1"));
+        assertNull(index.get("z"));
+    }
+
+    @Test
+    public void testManyKeys() throws IOException {
+        final StringBuilder csv = new StringBuilder("id,value\n");
+        for (int i = 999; i >= 0; i--) {
+            csv.append(i).append(',').append("value ").append(i).append('\n');
+        }
+        final CSVFileIndex index = build(writeCsv(csv.toString()), true);
+
+        assertEquals(1000, index.getRecordCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value " + i, index.get(String.valueOf(i)).get("value"));
+        }
+        assertNull(index.get("1000"));
+        assertNull(index.get("-1"));
+    }
+
+    @Test
+    public void testDuplicatesIgnored() throws IOException {
+        final CSVFileIndex index = build(writeCsv("id,value\n1,first\n2,other\n1,last\n"), true);
+        assertEquals(2, index.getRecordCount());
+        assertEquals("last", index.get("1").get("value"));
+    }
+
+    @Test
+    public void testManyDuplicatesIgnored() throws IOException {
+        final StringBuilder csv = new StringBuilder("id,value\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i % 100).append(',').append("value ").append(i).append('\n');
+        }
+        final CSVFileIndex index = build(writeCsv(csv.toString()), true);
+
+        assertEquals(100, index.getRecordCount());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("value " + (900 + i), index.get(String.valueOf(i)).get("value"));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDuplicatesNotIgnored() throws IOException {
+        build(writeCsv("id,value\n1,first\n1,last\n"), false);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEmptyKey() throws IOException {
+        build(writeCsv("id,value\n1,first\n,none\n"), true);
+    }
+
+    @Test
+    public void testOpenOnlyWhenCurrent() throws IOException {
+        final File csvFile = writeCsv("id,value\n1,first\n");
+        final Path indexFile = CSVFileIndex.getIndexFile(tempFolder.getRoot().toPath(), "test", csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id");
+        assertNull(CSVFileIndex.open(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id"));
+
+        CSVFileIndex.build(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id", true, logger);
+        final CSVFileIndex index = CSVFileIndex.open(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id");
+        assertNotNull(index);
+        assertEquals("first", index.get("1").get("value"));
+
+        // An index built with different settings is not reused
+        assertNull(CSVFileIndex.open(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "value"));
+
+        Files.write(csvFile.toPath(), "id,value\n1,second\n".getBytes(StandardCharsets.UTF_8));
+        csvFile.setLastModified(csvFile.lastModified() + 5000L);
+        assertNull(CSVFileIndex.open(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id"));
+    }
+
+    @Test
+    public void testInstallAfterClose() throws IOException {
+        final File csvFile = writeCsv("id,value\n1,first\n");
+        final Path indexFile = CSVFileIndex.getIndexFile(tempFolder.getRoot().toPath(), "test", csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id");
+        final CSVFileIndex index = CSVFileIndex.build(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id", true, logger);
+
+        Files.write(csvFile.toPath(), "id,value\n1,second\n".getBytes(StandardCharsets.UTF_8));
+        csvFile.setLastModified(csvFile.lastModified() + 5000L);
+        final Path writtenFile = CSVFileIndex.write(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id", true, logger);
+
+        // The open index is unaffected until it is closed and replaced
+        assertEquals("first", index.get("1").get("value"));
+        index.close();
+
+        final CSVFileIndex replacement = CSVFileIndex.install(writtenFile, indexFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8);
+        assertFalse(Files.exists(writtenFile));
+        assertEquals("second", replacement.get("1").get("value"));
+        replacement.close();
+    }
+
+    @Test
+    public void testConcurrentWrites() throws IOException {
+        final File csvFile = writeCsv("id,value\n1,first\n");
+        final Path indexFile = CSVFileIndex.getIndexFile(tempFolder.getRoot().toPath(), "test", csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id");
+        assertNotEquals(indexFile, CSVFileIndex.getIndexFile(tempFolder.getRoot().toPath(), "other", csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id"));
+
+        // Rebuilds of the same index file are written to files of their own, so neither corrupts the other
+        final Path firstWrite = CSVFileIndex.write(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id", true, logger);
+        final Path secondWrite = CSVFileIndex.write(indexFile, csvFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8, "id", true, logger);
+        assertNotEquals(firstWrite, secondWrite);
+
+        CSVFileIndex.install(firstWrite, indexFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8).close();
+        final CSVFileIndex index = CSVFileIndex.install(secondWrite, indexFile, CSVFormat.DEFAULT, StandardCharsets.UTF_8);
+        assertEquals("first", index.get("1").get("value"));
+        index.close();
+    }
+
+    @Test
+    public void testMappedFileRegionBoundaries() throws IOException {
+        final Path file = tempFolder.newFile().toPath();
+        final byte[] bytes = new byte[40];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 7);
+        }
+        Files.write(file, bytes);
+
+        final MappedFile mapped = new MappedFile(file, 16);
+        final MappedFile unsplit = new MappedFile(file);
+        assertEquals(40, mapped.size());
+        for (int position = 0; position <= 32; position++) {
+            assertEquals(unsplit.getLong(position), mapped.getLong(position));
+            assertEquals(unsplit.getInt(position), mapped.getInt(position));
+        }
+
+        final byte[] span = new byte[20];
+        mapped.get(10, span);
+        assertArrayEquals(Arrays.copyOfRange(bytes, 10, 30), span);
+        assertEquals(0, mapped.compare(10, 20, span));
+        assertEquals(0, mapped.compare(12, 4, 12L, 4));
+    }
+}
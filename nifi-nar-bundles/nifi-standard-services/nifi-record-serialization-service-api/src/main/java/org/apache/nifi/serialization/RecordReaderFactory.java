@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>
@@ -56,4 +57,41 @@ public interface RecordReaderFactory extends ControllerService {
      */
     RecordReader createRecordReader(Map<String, String> variables, InputStream in, ComponentLog logger) throws MalformedRecordException, IOException, SchemaNotFoundException;
 
+    /**
+     * Create a RecordReader instance to read records from specified InputStream, indicating which fields of the Records will actually be used.
+     * This method calls {@link #createRecordReader(Map, InputStream, ComponentLog, Set)} with Attributes of the specified FlowFile.
+     * @param flowFile Attributes of this FlowFile are used to resolve Record Schema via Expression Language dynamically. This can be null.
+     * @param in InputStream containing Records. This can be null or empty stream.
+     * @param logger A logger bind to a component
+     * @param requiredFieldNames the names of the top-level fields whose values are needed, or <code>null</code> if all fields are needed
+     * @return Created RecordReader instance
+     */
+    default RecordReader createRecordReader(FlowFile flowFile, InputStream in, ComponentLog logger, Set<String> requiredFieldNames)
+            throws MalformedRecordException, IOException, SchemaNotFoundException {
+        return createRecordReader(flowFile == null ? Collections.emptyMap() : flowFile.getAttributes(), in, logger, requiredFieldNames);
+    }
+
+    /**
+     * <p>
+     * Create a RecordReader instance to read records from specified InputStream, indicating which fields of the Records will actually be used.
+     * </p>
+     *
+     * <p>
+     * The schema of the returned RecordReader is not affected by the projection, so that field indexes remain the same. A reader may, however,
+     * skip parsing and converting the values of any field that is not required, in which case the Records that it returns hold no value for
+     * that field, and the field's default value, if any, is returned for it. The default implementation ignores the projection and reads all fields.
+     * </p>
+     *
+     * @param variables A map contains variables which is used to resolve Record Schema via Expression Language dynamically.
+     *                 This can be null or empty.
+     * @param in InputStream containing Records. This can be null or empty stream.
+     * @param logger A logger bind to a component
+     * @param requiredFieldNames the names of the top-level fields whose values are needed, or <code>null</code> if all fields are needed
+     * @return Created RecordReader instance
+     */
+    default RecordReader createRecordReader(Map<String, String> variables, InputStream in, ComponentLog logger, Set<String> requiredFieldNames)
+            throws MalformedRecordException, IOException, SchemaNotFoundException {
+        return createRecordReader(variables, in, logger);
+    }
+
 }
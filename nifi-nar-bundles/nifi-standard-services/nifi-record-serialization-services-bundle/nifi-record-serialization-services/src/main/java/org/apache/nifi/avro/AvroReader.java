@@ -24,6 +24,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.avro.Schema;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
@@ -48,6 +49,7 @@ public class AvroReader extends SchemaRegistryService implements RecordReaderFac
     private final AllowableValue EMBEDDED_AVRO_SCHEMA = new AllowableValue("embedded-avro-schema",
         "Use Embedded Avro Schema", "The FlowFile has the Avro Schema embedded within the content, and this schema will be used.");
     private static final int MAX_AVRO_SCHEMA_CACHE_SIZE = 20;
+    private static final int MAX_RECORD_DECODER_CACHE_SIZE = 20;
 
     private final Map<String, Schema> compiledAvroSchemaCache = new LinkedHashMap<String, Schema>() {
         @Override
@@ -56,6 +58,8 @@ public class AvroReader extends SchemaRegistryService implements RecordReaderFac
         }
     };
 
+    private final AvroRecordDecoderCache recordDecoderCache = new AvroRecordDecoderCache(MAX_RECORD_DECODER_CACHE_SIZE);
+
 
     @Override
     protected List<AllowableValue> getSchemaAccessStrategyValues() {
@@ -84,9 +88,15 @@ public class AvroReader extends SchemaRegistryService implements RecordReaderFac
 
     @Override
     public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger) throws MalformedRecordException, IOException, SchemaNotFoundException {
+        return createRecordReader(variables, in, logger, null);
+    }
+
+    @Override
+    public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger, final Set<String> requiredFieldNames)
+            throws MalformedRecordException, IOException, SchemaNotFoundException {
         final String schemaAccessStrategy = getConfigurationContext().getProperty(getSchemaAcessStrategyDescriptor()).getValue();
         if (EMBEDDED_AVRO_SCHEMA.getValue().equals(schemaAccessStrategy)) {
-            return new AvroReaderWithEmbeddedSchema(in);
+            return new AvroReaderWithEmbeddedSchema(in, requiredFieldNames, recordDecoderCache);
         } else {
             final RecordSchema recordSchema = getSchema(variables, in, null);
 
@@ -106,7 +116,7 @@ public class AvroReader extends SchemaRegistryService implements RecordReaderFac
                 throw new SchemaNotFoundException("Failed to compile Avro Schema", e);
             }
 
-            return new AvroReaderWithExplicitSchema(in, recordSchema, avroSchema);
+            return new AvroReaderWithExplicitSchema(in, recordSchema, avroSchema, requiredFieldNames, recordDecoderCache);
         }
     }
 
@@ -19,25 +19,52 @@ package org.apache.nifi.avro;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.SerializedForm;
 
 public class AvroReaderWithEmbeddedSchema extends AvroRecordReader {
     private final DataFileStream<GenericRecord> dataFileStream;
     private final InputStream in;
-    private final Schema avroSchema;
     private final RecordSchema recordSchema;
+    private final AvroRecordDecoder recordDecoder;
+    private final String encodedRecordMimeType;
+
+    private BinaryDecoder decoder;
+    private byte[] block;
+    private long recordsRemainingInBlock;
 
     public AvroReaderWithEmbeddedSchema(final InputStream in) throws IOException {
+        this(in, null);
+    }
+
+    public AvroReaderWithEmbeddedSchema(final InputStream in, final Set<String> requiredFieldNames) throws IOException {
+        this(in, requiredFieldNames, new AvroRecordDecoderCache(1));
+    }
+
+    AvroReaderWithEmbeddedSchema(final InputStream in, final Set<String> requiredFieldNames, final AvroRecordDecoderCache decoderCache) throws IOException {
         this.in = in;
-        dataFileStream = new DataFileStream<>(in, new GenericDatumReader<GenericRecord>());
-        this.avroSchema = dataFileStream.getSchema();
-        recordSchema = AvroTypeUtil.createSchema(avroSchema);
+        dataFileStream = new DataFileStream<>(in, new GenericDatumReader<>());
+        final Schema avroSchema = dataFileStream.getSchema();
+
+        recordDecoder = decoderCache.getRecordDecoder(avroSchema, requiredFieldNames);
+        recordSchema = recordDecoder.getRecordSchema();
+
+        // Retain the encoded form of each record, so that, unless the Record is modified, an Avro writer whose schema encodes the same
+        // way can write it without converting the Record back. A Record that holds only some of the fields cannot be written that way.
+        encodedRecordMimeType = recordDecoder.isProjected() ? null : AvroTypeUtil.getEncodedRecordMimeType(avroSchema);
     }
 
     @Override
@@ -47,12 +74,38 @@ public class AvroReaderWithEmbeddedSchema extends AvroRecordReader {
     }
 
     @Override
-    protected GenericRecord nextAvroRecord() {
-        if (!dataFileStream.hasNext()) {
-            return null;
+    protected Record nextAvroRecord() throws IOException {
+        // Decode the records of each block directly, rather than having the DataFileStream read each one into a GenericRecord
+        while (recordsRemainingInBlock == 0) {
+            if (!dataFileStream.hasNext()) {
+                return null;
+            }
+
+            final ByteBuffer buffer = dataFileStream.nextBlock();
+            recordsRemainingInBlock = dataFileStream.getBlockCount();
+
+            if (encodedRecordMimeType == null) {
+                block = buffer.array();
+                decoder = DecoderFactory.get().binaryDecoder(block, buffer.arrayOffset() + buffer.position(), buffer.remaining(), decoder);
+            } else {
+                // The stream reuses its buffer for the next block, but the encoded records are retained by the Records, so they need a copy
+                block = new byte[buffer.remaining()];
+                buffer.duplicate().get(block);
+                decoder = DecoderFactory.get().binaryDecoder(block, decoder);
+            }
         }
 
-        return dataFileStream.next();
+        recordsRemainingInBlock--;
+        if (encodedRecordMimeType == null) {
+            return new MapRecord(recordSchema, recordDecoder.decode(decoder));
+        }
+
+        final int start = block.length - decoder.inputStream().available();
+        final Map<String, Object> values = recordDecoder.decode(decoder);
+        final int end = block.length - decoder.inputStream().available();
+
+        final ByteBuffer encoded = ByteBuffer.wrap(block, start, end - start).slice();
+        return new MapRecord(recordSchema, values, SerializedForm.of(encoded, encodedRecordMimeType));
     }
 
     @Override
@@ -20,29 +20,38 @@ package org.apache.nifi.avro;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
 
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.BinaryDecoder;
-import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordSchema;
 
 public class AvroReaderWithExplicitSchema extends AvroRecordReader {
     private final InputStream in;
     private final RecordSchema recordSchema;
-    private final DatumReader<GenericRecord> datumReader;
+    private final AvroRecordDecoder recordDecoder;
     private final BinaryDecoder decoder;
-    private GenericRecord genericRecord;
 
     public AvroReaderWithExplicitSchema(final InputStream in, final RecordSchema recordSchema, final Schema avroSchema) throws IOException, SchemaNotFoundException {
+        this(in, recordSchema, avroSchema, null);
+    }
+
+    public AvroReaderWithExplicitSchema(final InputStream in, final RecordSchema recordSchema, final Schema avroSchema, final Set<String> requiredFieldNames)
+            throws IOException, SchemaNotFoundException {
+        this(in, recordSchema, avroSchema, requiredFieldNames, new AvroRecordDecoderCache(1));
+    }
+
+    AvroReaderWithExplicitSchema(final InputStream in, final RecordSchema recordSchema, final Schema avroSchema, final Set<String> requiredFieldNames,
+            final AvroRecordDecoderCache decoderCache) throws IOException, SchemaNotFoundException {
         this.in = in;
         this.recordSchema = recordSchema;
 
-        datumReader = new GenericDatumReader<GenericRecord>(avroSchema);
+        recordDecoder = decoderCache.getRecordDecoder(avroSchema, requiredFieldNames).withRecordSchema(recordSchema);
         decoder = DecoderFactory.get().binaryDecoder(in, null);
     }
 
@@ -52,18 +61,16 @@ public class AvroReaderWithExplicitSchema extends AvroRecordReader {
     }
 
     @Override
-    protected GenericRecord nextAvroRecord() throws IOException {
+    protected Record nextAvroRecord() throws IOException {
         if (decoder.isEnd()) {
             return null;
         }
 
         try {
-            genericRecord = datumReader.read(genericRecord, decoder);
+            return new MapRecord(recordSchema, recordDecoder.decode(decoder));
         } catch (final EOFException eof) {
             return null;
         }
-
-        return genericRecord;
     }
 
     @Override
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.avro;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.avro.Schema;
+
+/**
+ * Caches the {@link AvroRecordDecoder} compiled for each Avro schema, and each set of required fields, so that a schema is compiled
+ * once rather than for every FlowFile that is read with it. Schemas are compared by value, because the schema of an Avro data file
+ * is parsed anew for each FlowFile.
+ */
+class AvroRecordDecoderCache {
+    private final Map<DecoderKey, AvroRecordDecoder> decoders;
+
+    AvroRecordDecoderCache(final int maxSize) {
+        decoders = new LinkedHashMap<DecoderKey, AvroRecordDecoder>() {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<DecoderKey, AvroRecordDecoder> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param avroSchema the schema that the records were written with
+     * @param requiredFieldNames the names of the fields to decode, or <code>null</code> to decode all fields
+     * @return a decoder that creates Records with the schema derived from the Avro schema; use
+     *         {@link AvroRecordDecoder#withRecordSchema(org.apache.nifi.serialization.record.RecordSchema)} to create Records with another schema
+     */
+    AvroRecordDecoder getRecordDecoder(final Schema avroSchema, final Set<String> requiredFieldNames) {
+        final DecoderKey key = new DecoderKey(avroSchema, requiredFieldNames);
+
+        // As with the compiled Avro schemas in the reader, do not remain synchronized while compiling a decoder
+        AvroRecordDecoder decoder;
+        synchronized (this) {
+            decoder = decoders.get(key);
+        }
+
+        if (decoder != null) {
+            return decoder;
+        }
+
+        final AvroRecordDecoder compiled = new AvroRecordDecoder(avroSchema, AvroTypeUtil.createSchema(avroSchema), requiredFieldNames);
+        synchronized (this) {
+            return decoders.computeIfAbsent(key, k -> compiled);
+        }
+    }
+
+    private static class DecoderKey {
+        private final Schema avroSchema;
+        private final Set<String> requiredFieldNames;
+
+        DecoderKey(final Schema avroSchema, final Set<String> requiredFieldNames) {
+            this.avroSchema = avroSchema;
+            this.requiredFieldNames = requiredFieldNames == null ? null : new HashSet<>(requiredFieldNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * avroSchema.hashCode() + Objects.hashCode(requiredFieldNames);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof DecoderKey)) {
+                return false;
+            }
+
+            final DecoderKey other = (DecoderKey) obj;
+            return avroSchema.equals(other.avroSchema) && Objects.equals(requiredFieldNames, other.requiredFieldNames);
+        }
+    }
+}
@@ -17,30 +17,24 @@
 
 package org.apache.nifi.avro;
 
-import org.apache.avro.generic.GenericRecord;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
-import org.apache.nifi.serialization.record.RecordSchema;
 
 import java.io.IOException;
-import java.util.Map;
 
 public abstract class AvroRecordReader implements RecordReader {
 
-    protected abstract GenericRecord nextAvroRecord() throws IOException;
+    /**
+     * @return the next record, whose values have already been converted to the types of the fields of the reader's schema,
+     *         or <code>null</code> if there are no more records
+     * @throws IOException if unable to read the record
+     */
+    protected abstract Record nextAvroRecord() throws IOException;
 
     @Override
     public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
-        GenericRecord record = nextAvroRecord();
-        if (record == null) {
-            return null;
-        }
-
-        final RecordSchema schema = getSchema();
-        final Map<String, Object> values = AvroTypeUtil.convertAvroRecordToMap(record, schema);
-        return new MapRecord(schema, values);
+        return nextAvroRecord();
     }
 
 }
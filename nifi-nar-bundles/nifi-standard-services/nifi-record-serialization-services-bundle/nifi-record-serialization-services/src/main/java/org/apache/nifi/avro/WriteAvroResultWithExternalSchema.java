@@ -20,6 +20,7 @@ package org.apache.nifi.avro;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import org.apache.avro.Schema;
@@ -40,6 +41,7 @@ public class WriteAvroResultWithExternalSchema extends AbstractRecordSetWriter {
     private final BinaryEncoder encoder;
     private final OutputStream buffered;
     private final DatumWriter<GenericRecord> datumWriter;
+    private final String encodedRecordMimeType;
 
     public WriteAvroResultWithExternalSchema(final Schema avroSchema, final RecordSchema recordSchema,
         final SchemaAccessWriter schemaAccessWriter, final OutputStream out) throws IOException {
@@ -48,6 +50,7 @@ public class WriteAvroResultWithExternalSchema extends AbstractRecordSetWriter {
         this.schemaAccessWriter = schemaAccessWriter;
         this.avroSchema = avroSchema;
         this.buffered = new BufferedOutputStream(out);
+        this.encodedRecordMimeType = AvroTypeUtil.getEncodedRecordMimeType(avroSchema);
 
         datumWriter = new GenericDatumWriter<>(avroSchema);
         encoder = EncoderFactory.get().blockingBinaryEncoder(buffered, null);
@@ -73,8 +76,14 @@ public class WriteAvroResultWithExternalSchema extends AbstractRecordSetWriter {
             schemaAccessWriter.writeHeader(recordSchema, getOutputStream());
         }
 
-        final GenericRecord rec = AvroTypeUtil.createAvroRecord(record, avroSchema);
-        datumWriter.write(rec, encoder);
+        final ByteBuffer encoded = AvroTypeUtil.getEncodedRecord(record, encodedRecordMimeType);
+        if (encoded == null) {
+            final GenericRecord rec = AvroTypeUtil.createAvroRecord(record, avroSchema);
+            datumWriter.write(rec, encoder);
+        } else {
+            // The record is already encoded with this schema, so its bytes are written as they are
+            encoder.writeFixed(encoded);
+        }
         return schemaAccessWriter.getAttributes(recordSchema);
     }
 
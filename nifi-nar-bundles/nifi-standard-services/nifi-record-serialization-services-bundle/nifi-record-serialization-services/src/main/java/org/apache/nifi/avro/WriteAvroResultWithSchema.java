@@ -19,6 +19,7 @@ package org.apache.nifi.avro;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Map;
 
@@ -34,10 +35,12 @@ public class WriteAvroResultWithSchema extends AbstractRecordSetWriter {
 
     private final DataFileWriter<GenericRecord> dataFileWriter;
     private final Schema schema;
+    private final String encodedRecordMimeType;
 
     public WriteAvroResultWithSchema(final Schema schema, final OutputStream out, final CodecFactory codec) throws IOException {
         super(out);
         this.schema = schema;
+        this.encodedRecordMimeType = AvroTypeUtil.getEncodedRecordMimeType(schema);
 
         final GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
         dataFileWriter = new DataFileWriter<>(datumWriter);
@@ -57,6 +60,12 @@ public class WriteAvroResultWithSchema extends AbstractRecordSetWriter {
 
     @Override
     public Map<String, String> writeRecord(final Record record) throws IOException {
+        final ByteBuffer encoded = AvroTypeUtil.getEncodedRecord(record, encodedRecordMimeType);
+        if (encoded != null) {
+            dataFileWriter.appendEncoded(encoded);
+            return Collections.emptyMap();
+        }
+
         final GenericRecord rec = AvroTypeUtil.createAvroRecord(record, schema);
         dataFileWriter.append(rec);
         return Collections.emptyMap();
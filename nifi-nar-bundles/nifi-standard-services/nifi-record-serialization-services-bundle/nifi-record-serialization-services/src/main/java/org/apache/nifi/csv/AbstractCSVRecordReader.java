@@ -20,10 +20,15 @@ package org.apache.nifi.csv;
 
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.SchemaValidationException;
 import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.util.DataTypeUtils;
 import java.text.DateFormat;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 
 abstract public class AbstractCSVRecordReader implements RecordReader {
@@ -41,11 +46,13 @@ abstract public class AbstractCSVRecordReader implements RecordReader {
     protected final String timestampFormat;
 
     protected final RecordSchema schema;
+    protected final Set<String> requiredFieldNames;
 
     AbstractCSVRecordReader(final ComponentLog logger, final RecordSchema schema, final boolean hasHeader, final boolean ignoreHeader,
-                            final String dateFormat, final String timeFormat, final String timestampFormat) {
+                            final String dateFormat, final String timeFormat, final String timestampFormat, final Set<String> requiredFieldNames) {
         this.logger = logger;
         this.schema = schema;
+        this.requiredFieldNames = requiredFieldNames;
         this.hasHeader = hasHeader;
         this.ignoreHeader = ignoreHeader;
 
@@ -74,6 +81,58 @@ abstract public class AbstractCSVRecordReader implements RecordReader {
         }
     }
 
+    /**
+     * Indicates whether or not the value of the column with the given name is needed. Columns that are not needed
+     * are neither converted nor included in the records that are returned.
+     *
+     * @param fieldName the name of the column, which may be an alias of a field in the schema
+     * @return <code>true</code> if no projection was given or the projection includes the field
+     */
+    protected final boolean isRequired(final String fieldName) {
+        if (requiredFieldNames == null || requiredFieldNames.contains(fieldName)) {
+            return true;
+        }
+
+        final Optional<RecordField> field = schema.getField(fieldName);
+        return field.isPresent() && requiredFieldNames.contains(field.get().getFieldName());
+    }
+
+    /**
+     * Indicates whether or not the Records that are created should check their values against the schema. When a projection was given,
+     * the fields that are not required have no value, and a type-checked Record would reject any of them that is not nullable. Those
+     * Records are therefore created without the check, and {@link #checkRequiredFields(Record, boolean)} checks the required fields instead.
+     *
+     * @param coerceTypes whether or not the values of the record are coerced into the types of the schema
+     * @return <code>true</code> if the Record should check its values against the schema
+     */
+    protected final boolean isCheckTypes(final boolean coerceTypes) {
+        return coerceTypes && requiredFieldNames == null;
+    }
+
+    /**
+     * Ensures that every required field of the schema that cannot be null has a value in the given record. This is only needed when a
+     * projection was given and the values were coerced, because the Record was then created without checking its types. The values
+     * that are present have already been converted into the types of their fields.
+     *
+     * @param record the record to check
+     * @param coerceTypes whether or not the values of the record were coerced into the types of the schema
+     * @return the given record
+     * @throws SchemaValidationException if a required field that cannot be null has no value
+     */
+    protected final Record checkRequiredFields(final Record record, final boolean coerceTypes) {
+        if (!coerceTypes || requiredFieldNames == null) {
+            return record;
+        }
+
+        for (final RecordField field : schema.getFields()) {
+            if (!field.isNullable() && requiredFieldNames.contains(field.getFieldName()) && record.getValue(field) == null) {
+                throw new SchemaValidationException("Field " + field.getFieldName() + " cannot be null");
+            }
+        }
+
+        return record;
+    }
+
     protected final Object convert(final String value, final DataType dataType, final String fieldName) {
         if (dataType == null || value == null) {
             return value;
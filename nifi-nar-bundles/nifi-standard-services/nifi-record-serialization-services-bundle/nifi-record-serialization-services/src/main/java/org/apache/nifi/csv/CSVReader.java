@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
@@ -37,6 +38,8 @@ import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.schema.access.SchemaAccessStrategy;
 import org.apache.nifi.schema.access.SchemaAccessUtils;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.schema.inference.InferSchemaAccessStrategy;
+import org.apache.nifi.schema.inference.SchemaInferenceUtil;
 import org.apache.nifi.schemaregistry.services.SchemaRegistry;
 import org.apache.nifi.serialization.DateTimeUtils;
 import org.apache.nifi.serialization.RecordReader;
@@ -100,6 +103,9 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
         properties.add(CSVUtils.NULL_STRING);
         properties.add(CSVUtils.TRIM_FIELDS);
         properties.add(CSVUtils.CHARSET);
+        properties.add(SchemaInferenceUtil.SCHEMA_INFERENCE_CACHE_KEY);
+        properties.add(SchemaInferenceUtil.SCHEMA_INFERENCE_CACHE_SIZE);
+        properties.add(SchemaInferenceUtil.SCHEMA_INFERENCE_MAX_RECORDS);
         return properties;
     }
 
@@ -114,10 +120,10 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
         this.ignoreHeader = context.getProperty(CSVUtils.IGNORE_CSV_HEADER).asBoolean();
         this.charSet = context.getProperty(CSVUtils.CHARSET).getValue();
 
-        // Ensure that if we are deriving schema from header that we always treat the first line as a header,
+        // Ensure that if we are deriving or inferring schema from header that we always treat the first line as a header,
         // regardless of the 'First Line is Header' property
         final String accessStrategy = context.getProperty(SchemaAccessUtils.SCHEMA_ACCESS_STRATEGY).getValue();
-        if (headerDerivedAllowableValue.getValue().equals(accessStrategy)) {
+        if (headerDerivedAllowableValue.getValue().equals(accessStrategy) || SchemaInferenceUtil.INFER_SCHEMA.getValue().equals(accessStrategy)) {
             this.csvFormat = this.csvFormat.withFirstRecordAsHeader();
             this.firstLineIsHeader = true;
         }
@@ -125,16 +131,22 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
 
     @Override
     public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger) throws IOException, SchemaNotFoundException {
+        return createRecordReader(variables, in, logger, null);
+    }
+
+    @Override
+    public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger, final Set<String> requiredFieldNames)
+            throws IOException, SchemaNotFoundException {
         // Use Mark/Reset of a BufferedInputStream in case we read from the Input Stream for the header.
         final BufferedInputStream bufferedIn = new BufferedInputStream(in);
-        bufferedIn.mark(1024 * 1024);
+        bufferedIn.mark(SchemaInferenceUtil.MAX_INFERENCE_BYTES);
         final RecordSchema schema = getSchema(variables, new NonCloseableInputStream(bufferedIn), null);
         bufferedIn.reset();
 
         if(APACHE_COMMONS_CSV.getValue().equals(csvParser)) {
-            return new CSVRecordReader(bufferedIn, logger, schema, csvFormat, firstLineIsHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, charSet);
+            return new CSVRecordReader(bufferedIn, logger, schema, csvFormat, firstLineIsHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, charSet, requiredFieldNames);
         } else if(JACKSON_CSV.getValue().equals(csvParser)) {
-            return new JacksonCSVRecordReader(bufferedIn, logger, schema, csvFormat, firstLineIsHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, charSet);
+            return new JacksonCSVRecordReader(bufferedIn, logger, schema, csvFormat, firstLineIsHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, charSet, requiredFieldNames);
         } else {
             throw new IOException("Parser not supported");
         }
@@ -144,6 +156,11 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
     protected SchemaAccessStrategy getSchemaAccessStrategy(final String strategy, final SchemaRegistry schemaRegistry, final ConfigurationContext context) {
         if (strategy.equalsIgnoreCase(headerDerivedAllowableValue.getValue())) {
             return new CSVHeaderSchemaStrategy(context);
+        } else if (strategy.equalsIgnoreCase(SchemaInferenceUtil.INFER_SCHEMA.getValue())) {
+            final CSVSchemaInference inference = new CSVSchemaInference(CSVUtils.createCSVFormat(context), context.getProperty(CSVUtils.CHARSET).getValue(),
+                context.getProperty(DateTimeUtils.DATE_FORMAT).getValue(), context.getProperty(DateTimeUtils.TIME_FORMAT).getValue(),
+                context.getProperty(DateTimeUtils.TIMESTAMP_FORMAT).getValue());
+            return SchemaInferenceUtil.createAccessStrategy(inference, context);
         }
 
         return super.getSchemaAccessStrategy(strategy, schemaRegistry, context);
@@ -153,6 +170,8 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
     protected SchemaAccessStrategy getSchemaAccessStrategy(final String allowableValue, final SchemaRegistry schemaRegistry, final ValidationContext context) {
         if (allowableValue.equalsIgnoreCase(headerDerivedAllowableValue.getValue())) {
             return new CSVHeaderSchemaStrategy(context);
+        } else if (allowableValue.equalsIgnoreCase(SchemaInferenceUtil.INFER_SCHEMA.getValue())) {
+            return new InferSchemaAccessStrategy(null, null, 1, 1);
         }
 
         return super.getSchemaAccessStrategy(allowableValue, schemaRegistry, context);
@@ -162,6 +181,7 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
     protected List<AllowableValue> getSchemaAccessStrategyValues() {
         final List<AllowableValue> allowableValues = new ArrayList<>(super.getSchemaAccessStrategyValues());
         allowableValues.add(headerDerivedAllowableValue);
+        allowableValues.add(SchemaInferenceUtil.INFER_SCHEMA);
         return allowableValues;
     }
 
@@ -22,10 +22,13 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -35,22 +38,35 @@ import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.input.BOMInputStream;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
 
 
 public class CSVRecordReader extends AbstractCSVRecordReader {
+    private static final int INITIAL_BATCH_CAPACITY = 256;
+
     private final CSVParser csvParser;
 
     private List<RecordField> recordFields;
+    private int[] schemaFieldIndexes;
+    private boolean[] requiredColumns;
 
     public CSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
                            final String dateFormat, final String timeFormat, final String timestampFormat, final String encoding) throws IOException {
-        super(logger, schema, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat);
+        this(in, logger, schema, csvFormat, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, encoding, null);
+    }
+
+    public CSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
+                           final String dateFormat, final String timeFormat, final String timestampFormat, final String encoding,
+                           final Set<String> requiredFieldNames) throws IOException {
+        super(logger, schema, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, requiredFieldNames);
 
         final Reader reader = new InputStreamReader(new BOMInputStream(in), encoding);
 
@@ -72,48 +88,124 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
 
     @Override
     public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
-        final RecordSchema schema = getSchema();
+        for (final CSVRecord csvRecord : csvParser) {
+            return createRecord(csvRecord, coerceTypes, dropUnknownFields);
+        }
 
+        return null;
+    }
+
+    @Override
+    public RecordBatch nextBatch(final int maxRecords) throws IOException, MalformedRecordException {
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("Cannot read a batch of " + maxRecords + " records. Batch size must be a positive integer");
+        }
+
+        // A column-backed batch creates type-checked Records, which would reject the fields that a projection leaves without a value
         final List<RecordField> recordFields = getRecordFields();
+        if (schemaFieldIndexes == null || requiredFieldNames != null) {
+            return super.nextBatch(maxRecords);
+        }
+
+        final RecordSchema schema = getSchema();
+        final int fieldCount = schema.getFieldCount();
         final int numFieldNames = recordFields.size();
 
-        for (final CSVRecord csvRecord : csvParser) {
-            final Map<String, Object> values = new LinkedHashMap<>(recordFields.size() * 2);
-            for (int i = 0; i < csvRecord.size(); i++) {
-                final String rawValue = csvRecord.get(i);
-
-                final String rawFieldName;
-                final DataType dataType;
-                if (i >= numFieldNames) {
-                    if (!dropUnknownFields) {
-                        values.put("unknown_field_index_" + i, rawValue);
+        int capacity = Math.min(maxRecords, INITIAL_BATCH_CAPACITY);
+        final Object[][] columns = new Object[fieldCount][capacity];
+        int size = 0;
+
+        final Iterator<CSVRecord> itr = csvParser.iterator();
+        while (size < maxRecords && itr.hasNext()) {
+            final CSVRecord csvRecord = itr.next();
+
+            if (size == capacity) {
+                capacity = (int) Math.min(maxRecords, capacity * 2L);
+                for (int i = 0; i < fieldCount; i++) {
+                    columns[i] = Arrays.copyOf(columns[i], capacity);
+                }
+            }
+
+            if (csvRecord.size() == numFieldNames) {
+                // Populate the columns directly, without creating a Record for the line
+                for (int i = 0; i < numFieldNames; i++) {
+                    final RecordField recordField = recordFields.get(i);
+                    final Object value = convertValue(csvRecord.get(i), recordField, true);
+                    if (value == null && !recordField.isNullable() && recordField.getDefaultValue() == null) {
+                        throw new SchemaValidationException("Field " + recordField.getFieldName() + " cannot be null");
                     }
 
+                    columns[schemaFieldIndexes[i]][size] = value;
+                }
+            } else {
+                final Record record = createRecord(csvRecord, true, true);
+                for (int i = 0; i < fieldCount; i++) {
+                    columns[i][size] = record.getValue(schema.getField(i));
+                }
+            }
+
+            size++;
+        }
+
+        return size == 0 ? null : new RecordBatch(schema, columns, size);
+    }
+
+    private Record createRecord(final CSVRecord csvRecord, final boolean coerceTypes, final boolean dropUnknownFields) {
+        final RecordSchema schema = getSchema();
+
+        final List<RecordField> recordFields = getRecordFields();
+        final int numFieldNames = recordFields.size();
+
+        if (schemaFieldIndexes != null && csvRecord.size() == numFieldNames) {
+            // Every column maps onto exactly one field of the schema, so the values can be bound to the schema's fields by index
+            final Object[] values = new Object[numFieldNames];
+            for (int i = 0; i < numFieldNames; i++) {
+                if (!requiredColumns[i]) {
                     continue;
-                } else {
-                    final RecordField recordField = recordFields.get(i);
-                    rawFieldName = recordField.getFieldName();
-                    dataType = recordField.getDataType();
                 }
 
+                final RecordField recordField = recordFields.get(i);
+                values[schemaFieldIndexes[i]] = convertValue(csvRecord.get(i), recordField, coerceTypes);
+            }
+
+            return checkRequiredFields(new ArrayRecord(schema, values, isCheckTypes(coerceTypes), dropUnknownFields), coerceTypes);
+        }
+
+        final Map<String, Object> values = new LinkedHashMap<>(recordFields.size() * 2);
+        for (int i = 0; i < csvRecord.size(); i++) {
+            final String rawValue = csvRecord.get(i);
 
-                final Object value;
-                if (coerceTypes) {
-                    value = convert(rawValue, dataType, rawFieldName);
-                } else {
-                    // The CSV Reader is going to return all fields as Strings, because CSV doesn't have any way to
-                    // dictate a field type. As a result, we will use the schema that we have to attempt to convert
-                    // the value into the desired type if it's a simple type.
-                    value = convertSimpleIfPossible(rawValue, dataType, rawFieldName);
+            if (i >= numFieldNames) {
+                if (!dropUnknownFields) {
+                    values.put("unknown_field_index_" + i, rawValue);
                 }
 
-                values.put(rawFieldName, value);
+                continue;
             }
 
-            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+            if (!requiredColumns[i]) {
+                continue;
+            }
+
+            final RecordField recordField = recordFields.get(i);
+            values.put(recordField.getFieldName(), convertValue(rawValue, recordField, coerceTypes));
         }
 
-        return null;
+        return checkRequiredFields(new MapRecord(schema, values, isCheckTypes(coerceTypes), dropUnknownFields), coerceTypes);
+    }
+
+    private Object convertValue(final String rawValue, final RecordField recordField, final boolean coerceTypes) {
+        final String rawFieldName = recordField.getFieldName();
+        final DataType dataType = recordField.getDataType();
+
+        if (coerceTypes) {
+            return convert(rawValue, dataType, rawFieldName);
+        } else {
+            // The CSV Reader is going to return all fields as Strings, because CSV doesn't have any way to
+            // dictate a field type. As a result, we will use the schema that we have to attempt to convert
+            // the value into the desired type if it's a simple type.
+            return convertSimpleIfPossible(rawValue, dataType, rawFieldName);
+        }
     }
 
 
@@ -139,10 +231,42 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
             }
         }
 
+        final boolean[] required = new boolean[rawFieldNames.size()];
+        for (int i = 0; i < required.length; i++) {
+            required[i] = isRequired(rawFieldNames.get(i));
+        }
+
         this.recordFields = fields;
+        this.schemaFieldIndexes = getSchemaFieldIndexes(rawFieldNames);
+        this.requiredColumns = required;
         return fields;
     }
 
+    /**
+     * Determines the index of the schema field that each column maps onto. If the columns do not map one-to-one onto the
+     * fields of the schema, <code>null</code> is returned and records are created as MapRecords, which are able to
+     * distinguish between fields that are missing from the data and fields whose values are null.
+     */
+    private int[] getSchemaFieldIndexes(final List<String> rawFieldNames) {
+        if (rawFieldNames.size() != schema.getFieldCount()) {
+            return null;
+        }
+
+        final int[] indexes = new int[rawFieldNames.size()];
+        final boolean[] mapped = new boolean[schema.getFieldCount()];
+        for (int i = 0; i < indexes.length; i++) {
+            final int index = schema.getFieldIndex(rawFieldNames.get(i));
+            if (index < 0 || mapped[index]) {
+                return null;
+            }
+
+            mapped[index] = true;
+            indexes[i] = index;
+        }
+
+        return indexes;
+    }
+
     @Override
     public void close() throws IOException {
         csvParser.close();
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.csv;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.nifi.schema.inference.RecordSchemaInference;
+import org.apache.nifi.schema.inference.SchemaInferenceEngine;
+import org.apache.nifi.schema.inference.TextTypeInference;
+import org.apache.nifi.stream.io.LimitingInputStream;
+
+/**
+ * Infers the schema of CSV data whose first record is a header. Each column becomes a field, and the type of that field is
+ * determined from the text of the values in the column. Empty values are treated as null.
+ */
+public class CSVSchemaInference implements SchemaInferenceEngine {
+    private final CSVFormat csvFormat;
+    private final String charSet;
+    private final String dateFormat;
+    private final String timeFormat;
+    private final String timestampFormat;
+
+    public CSVSchemaInference(final CSVFormat csvFormat, final String charSet, final String dateFormat, final String timeFormat, final String timestampFormat) {
+        this.csvFormat = csvFormat.withFirstRecordAsHeader();
+        this.charSet = charSet;
+        this.dateFormat = dateFormat;
+        this.timeFormat = timeFormat;
+        this.timestampFormat = timestampFormat;
+    }
+
+    @Override
+    public void inferSchema(final LimitingInputStream in, final int maxRecords, final RecordSchemaInference inference) throws IOException {
+        final TextTypeInference textInference = new TextTypeInference(dateFormat, timeFormat, timestampFormat);
+
+        try (final Reader reader = new InputStreamReader(new BOMInputStream(in), charSet);
+            final CSVParser csvParser = new CSVParser(reader, csvFormat)) {
+
+            final Set<String> columnNames = csvParser.getHeaderMap().keySet();
+
+            // A record is added only once the parser has moved past it, because the last record before the
+            // limit of the stream was reached may have been cut off.
+            final Iterator<CSVRecord> records = csvParser.iterator();
+            CSVRecord pending = null;
+            while (true) {
+                final CSVRecord csvRecord;
+                try {
+                    if (!records.hasNext()) {
+                        break;
+                    }
+                    csvRecord = records.next();
+                } catch (final RuntimeException e) {
+                    // The parser's iterator wraps the IOException that it fails with if the limit of the stream was reached
+                    // within a quoted value; the record that it was parsing was cut off, but the pending record is complete
+                    if (!in.hasReachedLimit()) {
+                        throw e;
+                    }
+                    if (pending != null && inference.getRecordCount() < maxRecords) {
+                        addRecord(pending, columnNames, inference, textInference);
+                    }
+                    pending = null;
+                    break;
+                }
+
+                if (pending != null) {
+                    addRecord(pending, columnNames, inference, textInference);
+                    if (inference.getRecordCount() >= maxRecords) {
+                        return;
+                    }
+                }
+                pending = csvRecord;
+            }
+
+            if (pending != null && !in.hasReachedLimit()) {
+                addRecord(pending, columnNames, inference, textInference);
+            }
+
+            // Ensure that the columns are part of the schema even if there are no records
+            for (final String columnName : columnNames) {
+                inference.getField(columnName);
+            }
+        }
+    }
+
+    private void addRecord(final CSVRecord csvRecord, final Set<String> columnNames, final RecordSchemaInference inference, final TextTypeInference textInference) {
+        inference.addRecord();
+
+        for (final String columnName : columnNames) {
+            final String value = csvRecord.isSet(columnName) ? csvRecord.get(columnName) : null;
+            if (value == null || value.isEmpty()) {
+                inference.getField(columnName).addNull();
+            } else {
+                inference.getField(columnName).addType(textInference.inferType(value, true));
+            }
+        }
+    }
+}
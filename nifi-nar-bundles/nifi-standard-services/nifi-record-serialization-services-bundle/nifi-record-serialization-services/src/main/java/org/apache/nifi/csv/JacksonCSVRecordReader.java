@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.io.input.BOMInputStream;
@@ -54,7 +55,13 @@ public class JacksonCSVRecordReader extends AbstractCSVRecordReader {
 
     public JacksonCSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
                                   final String dateFormat, final String timeFormat, final String timestampFormat, final String encoding) throws IOException {
-        super(logger, schema, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat);
+        this(in, logger, schema, csvFormat, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, encoding, null);
+    }
+
+    public JacksonCSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
+                                  final String dateFormat, final String timeFormat, final String timestampFormat, final String encoding,
+                                  final Set<String> requiredFieldNames) throws IOException {
+        super(logger, schema, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, requiredFieldNames);
 
         final Reader reader = new InputStreamReader(new BOMInputStream(in));
 
@@ -150,6 +157,10 @@ public class JacksonCSVRecordReader extends AbstractCSVRecordReader {
                     continue;
                 }
 
+                if (!isRequired(rawFieldName)) {
+                    continue;
+                }
+
                 final Object value;
                 if (coerceTypes && dataTypeOption.isPresent()) {
                     value = convert(rawValue, dataTypeOption.get(), rawFieldName);
@@ -165,7 +176,7 @@ public class JacksonCSVRecordReader extends AbstractCSVRecordReader {
                 values.put(rawFieldName, value);
             }
 
-            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+            return checkRequiredFields(new MapRecord(schema, values, isCheckTypes(coerceTypes), dropUnknownFields), coerceTypes);
         }
 
         return null;
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -34,8 +35,10 @@ import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.RawRecordWriter;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
 
 public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter {
     private final RecordSchema recordSchema;
@@ -148,6 +151,45 @@ public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSet
         return schemaWriter.getAttributes(recordSchema);
     }
 
+    @Override
+    protected Map<String, String> writeRecordBatch(final RecordBatch batch) throws IOException {
+        // Records that are not column-backed, or whose schema differs from ours, must be resolved field by field.
+        if (!batch.isColumnar() || !recordSchema.equals(batch.getSchema())) {
+            return super.writeRecordBatch(batch);
+        }
+
+        if (!isActiveRecordSet()) {
+            schemaWriter.writeHeader(recordSchema, getOutputStream());
+        }
+
+        includeHeaderIfNecessary(null, true);
+
+        final List<RecordField> recordFields = recordSchema.getFields();
+        final int fieldCount = recordFields.size();
+        final Object[][] columns = new Object[fieldCount][];
+        final String[] formats = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            columns[i] = batch.getColumn(i);
+            formats[i] = getFormat(recordFields.get(i));
+        }
+
+        final int size = batch.size();
+        for (int row = 0; row < size; row++) {
+            for (int i = 0; i < fieldCount; i++) {
+                Object value = columns[i][row];
+                if (value == null) {
+                    value = recordFields.get(i).getDefaultValue();
+                }
+
+                fieldValues[i] = value == null ? null : DataTypeUtils.toString(value, formats[i]);
+            }
+
+            printer.printRecord(fieldValues);
+        }
+
+        return schemaWriter.getAttributes(recordSchema);
+    }
+
     @Override
     public WriteResult writeRawRecord(final Record record) throws IOException {
         // If we are not writing an active record set, then we need to ensure that we write the
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.apache.nifi.serialization.MalformedRecordException;
@@ -46,6 +47,7 @@ public class GrokRecordReader implements RecordReader {
     private final boolean append;
     private final RecordSchema schemaFromGrok;
     private RecordSchema schema;
+    private final Set<String> requiredFieldNames;
 
     private String nextLine;
     Map<String, Object> nextMap = null;
@@ -61,6 +63,12 @@ public class GrokRecordReader implements RecordReader {
             + "(?:\\s+... \\d+ (?:more|common frames? omitted)$)");
 
     public GrokRecordReader(final InputStream in, final Grok grok, final RecordSchema schema, final RecordSchema schemaFromGrok, final boolean append) {
+        this(in, grok, schema, schemaFromGrok, append, null);
+    }
+
+    public GrokRecordReader(final InputStream in, final Grok grok, final RecordSchema schema, final RecordSchema schemaFromGrok, final boolean append,
+            final Set<String> requiredFieldNames) {
+        this.requiredFieldNames = requiredFieldNames;
         this.reader = new BufferedReader(new InputStreamReader(in));
         this.grok = grok;
         this.schema = schema;
@@ -150,7 +158,10 @@ public class GrokRecordReader implements RecordReader {
             final Optional<RecordField> optionalRecordField = schema.getField(fieldName);
 
             final Object coercedValue;
-            if (coerceTypes && optionalRecordField.isPresent()) {
+            if (!isRequired(fieldName, optionalRecordField)) {
+                // The value is still needed to determine which field any trailing text belongs to, but there is no need to convert it
+                coercedValue = normalizedValue;
+            } else if (coerceTypes && optionalRecordField.isPresent()) {
                 final RecordField field = optionalRecordField.get();
                 final DataType fieldType = field.getDataType();
                 coercedValue = convert(fieldType, normalizedValue, fieldName);
@@ -197,9 +208,21 @@ public class GrokRecordReader implements RecordReader {
         converted.put(STACK_TRACE_COLUMN_NAME, stackTrace);
         converted.put(RAW_MESSAGE_NAME, raw);
 
+        if (requiredFieldNames != null) {
+            converted.keySet().removeIf(fieldName -> !isRequired(fieldName, schema.getField(fieldName)));
+        }
+
         return new MapRecord(schema, converted);
     }
 
+    private boolean isRequired(final String fieldName, final Optional<RecordField> recordField) {
+        if (requiredFieldNames == null || requiredFieldNames.contains(fieldName)) {
+            return true;
+        }
+
+        return recordField.isPresent() && requiredFieldNames.contains(recordField.get().getFieldName());
+    }
+
 
     private boolean isStartOfStackTrace(final String line) {
         if (line == null) {
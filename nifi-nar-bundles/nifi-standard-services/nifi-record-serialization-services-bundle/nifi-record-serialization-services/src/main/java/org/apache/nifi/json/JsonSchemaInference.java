@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.json;
+
+import java.io.IOException;
+
+import org.apache.nifi.schema.inference.FieldTypeInference;
+import org.apache.nifi.schema.inference.RecordSchemaInference;
+import org.apache.nifi.schema.inference.SchemaInferenceEngine;
+import org.apache.nifi.schema.inference.TextTypeInference;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.stream.io.LimitingInputStream;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.util.TokenBuffer;
+
+/**
+ * <p>
+ * Infers the schema of JSON data from the tokens of each JSON Object, without building a tree of JSON nodes. The input may be a single
+ * JSON Object, an array of JSON Objects, or a sequence of JSON Objects, such as line-delimited JSON. Nested Objects become Records,
+ * and the element type of an array is inferred from all of its elements.
+ * </p>
+ *
+ * <p>
+ * String values are given the type STRING unless they match the configured Date, Time or Timestamp format. Numbers are given the
+ * narrowest type that holds them, and are widened as further values are seen.
+ * </p>
+ */
+public class JsonSchemaInference implements SchemaInferenceEngine {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final String dateFormat;
+    private final String timeFormat;
+    private final String timestampFormat;
+
+    public JsonSchemaInference(final String dateFormat, final String timeFormat, final String timestampFormat) {
+        this.dateFormat = dateFormat;
+        this.timeFormat = timeFormat;
+        this.timestampFormat = timestampFormat;
+    }
+
+    @Override
+    public void inferSchema(final LimitingInputStream in, final int maxRecords, final RecordSchemaInference inference) throws IOException {
+        final TextTypeInference textInference = new TextTypeInference(dateFormat, timeFormat, timestampFormat);
+
+        try (final JsonParser jsonParser = jsonFactory.createJsonParser(in)) {
+            while (inference.getRecordCount() < maxRecords) {
+                final JsonToken token;
+                final TokenBuffer recordTokens = new TokenBuffer(null);
+                try {
+                    token = jsonParser.nextToken();
+                    if (token == JsonToken.START_OBJECT) {
+                        // Buffer the tokens of the entire Object first, so that an Object that was cut off by the limit of the stream is not added
+                        recordTokens.copyCurrentStructure(jsonParser);
+                    } else if (token != JsonToken.START_ARRAY || !jsonParser.getParsingContext().getParent().inRoot()) {
+                        // Step into a top-level array, but skip over anything else that is not an Object
+                        jsonParser.skipChildren();
+                    }
+                } catch (final IOException e) {
+                    if (in.hasReachedLimit()) {
+                        return;
+                    }
+                    throw e;
+                }
+
+                if (token == null) {
+                    return;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    continue;
+                }
+
+                try (final JsonParser recordParser = recordTokens.asParser()) {
+                    recordParser.nextToken();
+                    addRecord(recordParser, inference, textInference);
+                }
+            }
+        }
+    }
+
+    private void addRecord(final JsonParser parser, final RecordSchemaInference inference, final TextTypeInference textInference) throws IOException {
+        inference.addRecord();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final FieldTypeInference field = inference.getField(parser.getCurrentName());
+            addValue(parser, parser.nextToken(), field, textInference);
+        }
+    }
+
+    private void addValue(final JsonParser parser, final JsonToken token, final FieldTypeInference field, final TextTypeInference textInference) throws IOException {
+        switch (token) {
+            case VALUE_NULL:
+                field.addNull();
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                field.addType(RecordFieldType.BOOLEAN.getDataType());
+                break;
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        field.addType(RecordFieldType.INT.getDataType());
+                        break;
+                    case LONG:
+                        field.addType(RecordFieldType.LONG.getDataType());
+                        break;
+                    default:
+                        field.addType(RecordFieldType.BIGINT.getDataType());
+                        break;
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                field.addType(RecordFieldType.DOUBLE.getDataType());
+                break;
+            case VALUE_STRING:
+                field.addType(textInference.inferType(parser.getText(), false));
+                break;
+            case START_OBJECT:
+                addRecord(parser, field.addRecord(), textInference);
+                break;
+            case START_ARRAY:
+                final FieldTypeInference elementInference = field.addArray();
+                JsonToken elementToken;
+                while ((elementToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    addValue(parser, elementToken, elementInference, textInference);
+                }
+                break;
+            default:
+                field.addType(RecordFieldType.STRING.getDataType());
+                parser.skipChildren();
+                break;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+import org.apache.nifi.serialization.record.type.MapDataType;
+import org.apache.nifi.serialization.record.type.RecordDataType;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+/**
+ * <p>
+ * A Record Reader that creates Records directly from the tokens of the JSON parser, rather than first reading each JSON Object
+ * into a tree of JsonNodes, as {@link JsonTreeRowRecordReader} does. The schema is used to guide the conversion, so when unknown
+ * fields are to be dropped, the values of fields that are not in the schema are skipped over without being converted.
+ * </p>
+ *
+ * <p>
+ * The input may be a single JSON Object, an array of JSON Objects, or a sequence of JSON Objects, such as line-delimited JSON.
+ * Because no tree is retained, the Records that are produced do not provide a serialized form.
+ * </p>
+ *
+ * <p>
+ * If the names of the required fields are given, the values of all other top-level fields are skipped over without being converted,
+ * and the Records that are produced contain no value for those fields.
+ * </p>
+ */
+public class JsonStreamingRecordReader implements RecordReader {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final ComponentLog logger;
+    private final JsonParser jsonParser;
+    private final RecordSchema schema;
+    private final Set<String> requiredFieldNames;
+
+    private final Supplier<DateFormat> LAZY_DATE_FORMAT;
+    private final Supplier<DateFormat> LAZY_TIME_FORMAT;
+    private final Supplier<DateFormat> LAZY_TIMESTAMP_FORMAT;
+
+    private JsonToken nextToken;
+    private boolean finished = false;
+
+    public JsonStreamingRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
+        final String dateFormat, final String timeFormat, final String timestampFormat) throws IOException, MalformedRecordException {
+        this(in, logger, schema, dateFormat, timeFormat, timestampFormat, null);
+    }
+
+    public JsonStreamingRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
+        final String dateFormat, final String timeFormat, final String timestampFormat, final Set<String> requiredFieldNames) throws IOException, MalformedRecordException {
+        this.logger = logger;
+        this.schema = schema;
+        this.requiredFieldNames = requiredFieldNames;
+
+        final DateFormat df = dateFormat == null ? null : DataTypeUtils.getDateFormat(dateFormat);
+        final DateFormat tf = timeFormat == null ? null : DataTypeUtils.getDateFormat(timeFormat);
+        final DateFormat tsf = timestampFormat == null ? null : DataTypeUtils.getDateFormat(timestampFormat);
+
+        LAZY_DATE_FORMAT = () -> df;
+        LAZY_TIME_FORMAT = () -> tf;
+        LAZY_TIMESTAMP_FORMAT = () -> tsf;
+
+        try {
+            jsonParser = jsonFactory.createJsonParser(in);
+
+            JsonToken token = jsonParser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = jsonParser.nextToken(); // advance to START_OBJECT token
+            }
+
+            nextToken = token;
+        } catch (final JsonParseException e) {
+            throw new MalformedRecordException("Could not parse data as JSON", e);
+        }
+    }
+
+    @Override
+    public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        if (finished) {
+            return null;
+        }
+
+        final JsonToken token = nextToken == null ? jsonParser.nextToken() : nextToken;
+        nextToken = null;
+
+        if (token == null || token == JsonToken.END_ARRAY || token == JsonToken.START_ARRAY) {
+            finished = true;
+            return null;
+        }
+
+        if (token != JsonToken.START_OBJECT) {
+            throw new MalformedRecordException("Expected to get a JSON Object but got a token of type " + token.name());
+        }
+
+        try {
+            return readRecord(schema, null, coerceTypes, dropUnknownFields);
+        } catch (final MalformedRecordException mre) {
+            throw mre;
+        } catch (final IOException ioe) {
+            throw ioe;
+        } catch (final Exception e) {
+            logger.debug("Failed to convert JSON Object into a Record object using schema {} due to {}", new Object[] {schema, e.toString(), e});
+            throw new MalformedRecordException("Successfully parsed a JSON object from input but failed to convert into a Record object with the given schema", e);
+        }
+    }
+
+    /**
+     * Reads the JSON Object at which the parser is positioned and leaves the parser positioned at the corresponding END_OBJECT token
+     */
+    private Record readRecord(final RecordSchema schema, final String fieldNamePrefix, final boolean coerceTypes, final boolean dropUnknown)
+            throws IOException, MalformedRecordException {
+
+        final Map<String, Object> values = new HashMap<>(schema.getFieldCount() * 2);
+
+        JsonToken token;
+        while ((token = jsonParser.nextToken()) == JsonToken.FIELD_NAME) {
+            final String fieldName = jsonParser.getCurrentName();
+            jsonParser.nextToken();
+
+            final RecordField recordField = schema.getField(fieldName).orElse(null);
+            if (fieldNamePrefix == null && requiredFieldNames != null && !requiredFieldNames.contains(recordField == null ? fieldName : recordField.getFieldName())) {
+                jsonParser.skipChildren();
+                continue;
+            }
+
+            if (recordField == null) {
+                if (dropUnknown) {
+                    jsonParser.skipChildren();
+                } else {
+                    values.put(fieldName, readRawValue(null));
+                }
+
+                continue;
+            }
+
+            // When dropping unknown fields, values are keyed by the name of the field in the schema. A value given under the field's
+            // name takes precedence over one given under an alias.
+            final String key = dropUnknown ? recordField.getFieldName() : fieldName;
+            if (dropUnknown && !fieldName.equals(key) && values.containsKey(key)) {
+                jsonParser.skipChildren();
+                continue;
+            }
+
+            final Object value;
+            if (coerceTypes) {
+                final String fullFieldName = fieldNamePrefix == null ? fieldName : fieldNamePrefix + fieldName;
+                value = convertField(fullFieldName, recordField.getDataType(), dropUnknown);
+            } else {
+                value = readRawValue(recordField.getDataType());
+            }
+
+            values.put(key, value);
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            throw new MalformedRecordException("Expected a field name or the end of a JSON Object but got " + (token == null ? "the end of the input" : "a token of type " + token.name()));
+        }
+
+        return new MapRecord(schema, values, false, dropUnknown);
+    }
+
+    private Object convertField(final String fieldName, final DataType desiredType, final boolean dropUnknown) throws IOException, MalformedRecordException {
+        final JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        switch (desiredType.getFieldType()) {
+            case BOOLEAN:
+            case BYTE:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case INT:
+            case BIGINT:
+            case LONG:
+            case SHORT:
+            case STRING:
+            case DATE:
+            case TIME:
+            case TIMESTAMP: {
+                final Object rawValue = readRawValue(null);
+                return DataTypeUtils.convertType(rawValue, desiredType, LAZY_DATE_FORMAT, LAZY_TIME_FORMAT, LAZY_TIMESTAMP_FORMAT, fieldName);
+            }
+            case MAP: {
+                if (token != JsonToken.START_OBJECT) {
+                    jsonParser.skipChildren();
+                    return Collections.emptyMap();
+                }
+
+                final DataType valueType = ((MapDataType) desiredType).getValueType();
+                final Map<String, Object> map = new HashMap<>();
+                while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String childName = jsonParser.getCurrentName();
+                    jsonParser.nextToken();
+                    map.put(childName, convertField(fieldName, valueType, dropUnknown));
+                }
+
+                return map;
+            }
+            case ARRAY: {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new MalformedRecordException("Expected a JSON Array for field " + fieldName + " but got a token of type " + token.name());
+                }
+
+                final DataType elementType = ((ArrayDataType) desiredType).getElementType();
+                final List<Object> elements = new ArrayList<>();
+                while (nextArrayElement()) {
+                    elements.add(convertField(fieldName, elementType, dropUnknown));
+                }
+
+                return elements.toArray();
+            }
+            case RECORD: {
+                if (token != JsonToken.START_OBJECT || !(desiredType instanceof RecordDataType)) {
+                    jsonParser.skipChildren();
+                    return null;
+                }
+
+                final RecordSchema childSchema = ((RecordDataType) desiredType).getChildSchema();
+                if (childSchema != null) {
+                    return readRecord(childSchema, fieldName + ".", true, dropUnknown);
+                }
+
+                // No schema was given for the child record, so all of its fields are read as Strings
+                final Map<String, Object> childValues = new LinkedHashMap<>();
+                final List<RecordField> fields = new ArrayList<>();
+                final DataType stringType = RecordFieldType.STRING.getDataType();
+                while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String childName = jsonParser.getCurrentName();
+                    jsonParser.nextToken();
+
+                    final Object rawValue = readRawValue(null);
+                    final String childFieldName = fieldName + "." + childName;
+                    childValues.put(childName, rawValue == null ? null : DataTypeUtils.convertType(rawValue, stringType, childFieldName));
+                    fields.add(new RecordField(childName, stringType));
+                }
+
+                return new MapRecord(new SimpleRecordSchema(fields), childValues, false, dropUnknown);
+            }
+            case CHOICE: {
+                return DataTypeUtils.convertType(readRawValue(null), desiredType, fieldName);
+            }
+        }
+
+        jsonParser.skipChildren();
+        return null;
+    }
+
+    /**
+     * Reads the value at which the parser is positioned without coercing it into any particular type, in the same manner that
+     * {@link AbstractJsonRowRecordReader#getRawNodeValue(org.codehaus.jackson.JsonNode, DataType)} does for a JsonNode.
+     */
+    private Object readRawValue(final DataType dataType) throws IOException, MalformedRecordException {
+        final JsonToken token = jsonParser.getCurrentToken();
+        if (token == null) {
+            throw new MalformedRecordException("Unexpected end of input while reading a JSON value");
+        }
+
+        switch (token) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return jsonParser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_STRING:
+                return jsonParser.getText();
+            case VALUE_EMBEDDED_OBJECT:
+                return jsonParser.getBinaryValue();
+            case START_ARRAY: {
+                final DataType elementDataType;
+                if (dataType != null && dataType.getFieldType() == RecordFieldType.ARRAY) {
+                    elementDataType = ((ArrayDataType) dataType).getElementType();
+                } else {
+                    elementDataType = null;
+                }
+
+                final List<Object> elements = new ArrayList<>();
+                while (nextArrayElement()) {
+                    elements.add(readRawValue(elementDataType));
+                }
+
+                return elements.toArray();
+            }
+            case START_OBJECT: {
+                RecordSchema childSchema = null;
+                if (dataType != null && RecordFieldType.RECORD == dataType.getFieldType()) {
+                    childSchema = ((RecordDataType) dataType).getChildSchema();
+                }
+
+                if (childSchema == null) {
+                    childSchema = new SimpleRecordSchema(Collections.emptyList());
+                }
+
+                final Map<String, Object> childValues = new HashMap<>();
+                while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String childFieldName = jsonParser.getCurrentName();
+                    jsonParser.nextToken();
+                    childValues.put(childFieldName, readRawValue(dataType));
+                }
+
+                return new MapRecord(childSchema, childValues);
+            }
+            default:
+                throw new MalformedRecordException("Unexpected JSON token of type " + token.name());
+        }
+    }
+
+    private boolean nextArrayElement() throws IOException, MalformedRecordException {
+        final JsonToken token = jsonParser.nextToken();
+        if (token == null) {
+            throw new MalformedRecordException("Unexpected end of input while reading a JSON Array");
+        }
+
+        return token != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public void close() throws IOException {
+        jsonParser.close();
+    }
+}
@@ -17,25 +17,35 @@
 
 package org.apache.nifi.json;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnEnabled;
+import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.ValidationContext;
 import org.apache.nifi.controller.ConfigurationContext;
 import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.schema.access.SchemaAccessStrategy;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.schema.inference.InferSchemaAccessStrategy;
+import org.apache.nifi.schema.inference.SchemaInferenceUtil;
+import org.apache.nifi.schemaregistry.services.SchemaRegistry;
 import org.apache.nifi.serialization.DateTimeUtils;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordReaderFactory;
 import org.apache.nifi.serialization.SchemaRegistryService;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.stream.io.NonCloseableInputStream;
 
 @Tags({"json", "tree", "record", "reader", "parser"})
 @CapabilityDescription("Parses JSON into individual Record objects. The Record that is produced will contain all top-level "
@@ -48,6 +58,23 @@ import org.apache.nifi.serialization.SchemaRegistryService;
 @SeeAlso(JsonPathReader.class)
 public class JsonTreeReader extends SchemaRegistryService implements RecordReaderFactory {
 
+    static final AllowableValue TREE_PARSE_MODE = new AllowableValue("tree", "Tree",
+        "Each JSON Object is read into a tree of JSON nodes, which is then converted into a Record. The Record retains the original JSON text, "
+            + "which allows a JSON Record Writer to write it out as-is.");
+    static final AllowableValue STREAMING_PARSE_MODE = new AllowableValue("streaming", "Streaming",
+        "Each Record is created directly from the JSON as it is parsed, without an intermediate tree, and the values of fields that are not in the schema "
+            + "are skipped. Also accepts a sequence of JSON Objects, such as line-delimited JSON.");
+
+    static final PropertyDescriptor PARSE_MODE = new PropertyDescriptor.Builder()
+        .name("json-parse-mode")
+        .displayName("Parse Mode")
+        .description("Specifies how each JSON Object is converted into a Record")
+        .allowableValues(TREE_PARSE_MODE, STREAMING_PARSE_MODE)
+        .defaultValue(TREE_PARSE_MODE.getValue())
+        .required(true)
+        .build();
+
+    private volatile boolean streaming;
     private volatile String dateFormat;
     private volatile String timeFormat;
     private volatile String timestampFormat;
@@ -58,6 +85,10 @@ public class JsonTreeReader extends SchemaRegistryService implements RecordReade
         properties.add(DateTimeUtils.DATE_FORMAT);
         properties.add(DateTimeUtils.TIME_FORMAT);
         properties.add(DateTimeUtils.TIMESTAMP_FORMAT);
+        properties.add(PARSE_MODE);
+        properties.add(SchemaInferenceUtil.SCHEMA_INFERENCE_CACHE_KEY);
+        properties.add(SchemaInferenceUtil.SCHEMA_INFERENCE_CACHE_SIZE);
+        properties.add(SchemaInferenceUtil.SCHEMA_INFERENCE_MAX_RECORDS);
         return properties;
     }
 
@@ -66,10 +97,62 @@ public class JsonTreeReader extends SchemaRegistryService implements RecordReade
         this.dateFormat = context.getProperty(DateTimeUtils.DATE_FORMAT).getValue();
         this.timeFormat = context.getProperty(DateTimeUtils.TIME_FORMAT).getValue();
         this.timestampFormat = context.getProperty(DateTimeUtils.TIMESTAMP_FORMAT).getValue();
+        this.streaming = STREAMING_PARSE_MODE.getValue().equals(context.getProperty(PARSE_MODE).getValue());
     }
 
     @Override
     public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger) throws IOException, MalformedRecordException, SchemaNotFoundException {
-        return new JsonTreeRowRecordReader(in, logger, getSchema(variables, in, null), dateFormat, timeFormat, timestampFormat);
+        return createRecordReader(variables, in, logger, null);
+    }
+
+    @Override
+    public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger, final Set<String> requiredFieldNames)
+            throws IOException, MalformedRecordException, SchemaNotFoundException {
+        final InputStream recordIn;
+        final RecordSchema schema;
+        if (getSchemaAccessStrategy() instanceof InferSchemaAccessStrategy) {
+            // Use Mark/Reset of a BufferedInputStream so that the records that are read in order to infer the schema can be read again.
+            final BufferedInputStream bufferedIn = new BufferedInputStream(in);
+            bufferedIn.mark(SchemaInferenceUtil.MAX_INFERENCE_BYTES);
+            schema = getSchema(variables, new NonCloseableInputStream(bufferedIn), null);
+            bufferedIn.reset();
+            recordIn = bufferedIn;
+        } else {
+            schema = getSchema(variables, in, null);
+            recordIn = in;
+        }
+
+        if (streaming) {
+            return new JsonStreamingRecordReader(recordIn, logger, schema, dateFormat, timeFormat, timestampFormat, requiredFieldNames);
+        }
+
+        return new JsonTreeRowRecordReader(recordIn, logger, schema, dateFormat, timeFormat, timestampFormat, requiredFieldNames);
+    }
+
+    @Override
+    protected SchemaAccessStrategy getSchemaAccessStrategy(final String strategy, final SchemaRegistry schemaRegistry, final ConfigurationContext context) {
+        if (strategy != null && strategy.equalsIgnoreCase(SchemaInferenceUtil.INFER_SCHEMA.getValue())) {
+            final JsonSchemaInference inference = new JsonSchemaInference(context.getProperty(DateTimeUtils.DATE_FORMAT).getValue(),
+                context.getProperty(DateTimeUtils.TIME_FORMAT).getValue(), context.getProperty(DateTimeUtils.TIMESTAMP_FORMAT).getValue());
+            return SchemaInferenceUtil.createAccessStrategy(inference, context);
+        }
+
+        return super.getSchemaAccessStrategy(strategy, schemaRegistry, context);
+    }
+
+    @Override
+    protected SchemaAccessStrategy getSchemaAccessStrategy(final String allowableValue, final SchemaRegistry schemaRegistry, final ValidationContext context) {
+        if (allowableValue != null && allowableValue.equalsIgnoreCase(SchemaInferenceUtil.INFER_SCHEMA.getValue())) {
+            return new InferSchemaAccessStrategy(null, null, 1, 1);
+        }
+
+        return super.getSchemaAccessStrategy(allowableValue, schemaRegistry, context);
+    }
+
+    @Override
+    protected List<AllowableValue> getSchemaAccessStrategyValues() {
+        final List<AllowableValue> allowableValues = new ArrayList<>(super.getSchemaAccessStrategyValues());
+        allowableValues.add(SchemaInferenceUtil.INFER_SCHEMA);
+        return allowableValues;
     }
 }
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.apache.nifi.logging.ComponentLog;
@@ -47,6 +48,7 @@ import org.codehaus.jackson.node.ArrayNode;
 
 public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
     private final RecordSchema schema;
+    private final Set<String> requiredFieldNames;
 
     private final Supplier<DateFormat> LAZY_DATE_FORMAT;
     private final Supplier<DateFormat> LAZY_TIME_FORMAT;
@@ -55,8 +57,14 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
 
     public JsonTreeRowRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
         final String dateFormat, final String timeFormat, final String timestampFormat) throws IOException, MalformedRecordException {
+        this(in, logger, schema, dateFormat, timeFormat, timestampFormat, null);
+    }
+
+    public JsonTreeRowRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
+        final String dateFormat, final String timeFormat, final String timestampFormat, final Set<String> requiredFieldNames) throws IOException, MalformedRecordException {
         super(in, logger);
         this.schema = schema;
+        this.requiredFieldNames = requiredFieldNames;
 
         final DateFormat df = dateFormat == null ? null : DataTypeUtils.getDateFormat(dateFormat);
         final DateFormat tf = timeFormat == null ? null : DataTypeUtils.getDateFormat(timeFormat);
@@ -97,6 +105,13 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
         return null;
     }
 
+    /**
+     * Only top-level fields are subject to the projection. Fields of nested records are always converted.
+     */
+    private boolean isRequired(final String fieldNamePrefix, final String fieldName) {
+        return fieldNamePrefix != null || requiredFieldNames == null || requiredFieldNames.contains(fieldName);
+    }
+
     private Record convertJsonNodeToRecord(final JsonNode jsonNode, final RecordSchema schema, final String fieldNamePrefix,
             final boolean coerceTypes, final boolean dropUnknown) throws IOException, MalformedRecordException {
 
@@ -104,6 +119,10 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
 
         if (dropUnknown) {
             for (final RecordField recordField : schema.getFields()) {
+                if (!isRequired(fieldNamePrefix, recordField.getFieldName())) {
+                    continue;
+                }
+
                 final JsonNode childNode = getChildNode(jsonNode, recordField);
                 if (childNode == null) {
                     continue;
@@ -129,6 +148,9 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
                 final JsonNode childNode = jsonNode.get(fieldName);
 
                 final RecordField recordField = schema.getField(fieldName).orElse(null);
+                if (!isRequired(fieldNamePrefix, recordField == null ? fieldName : recordField.getFieldName())) {
+                    continue;
+                }
 
                 final Object value;
                 if (coerceTypes && recordField != null) {
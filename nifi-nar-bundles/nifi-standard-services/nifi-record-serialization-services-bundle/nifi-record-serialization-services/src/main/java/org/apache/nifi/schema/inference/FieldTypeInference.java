@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.inference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.type.ChoiceDataType;
+
+/**
+ * Accumulates the types of the values that are seen for a single field while a sample of records is read. Scalar types are
+ * widened as they are added: integral types widen to the largest integral type that was seen, integral and floating-point
+ * types widen to DOUBLE, and types that cannot be widened into one another become a CHOICE. Values that are Records or arrays
+ * are inferred recursively.
+ */
+public class FieldTypeInference {
+    private static final List<RecordFieldType> NUMERIC_TYPES = Arrays.asList(RecordFieldType.BYTE, RecordFieldType.SHORT, RecordFieldType.INT,
+        RecordFieldType.LONG, RecordFieldType.BIGINT, RecordFieldType.FLOAT, RecordFieldType.DOUBLE);
+
+    private DataType scalarType;
+    private RecordSchemaInference recordInference;
+    private FieldTypeInference elementInference;
+
+    /**
+     * Records that a null value was seen for this field. A null value does not affect the type of the field, and every inferred field
+     * is nullable regardless.
+     */
+    public void addNull() {
+    }
+
+    /**
+     * Records that a value of the given scalar type was seen for this field
+     *
+     * @param dataType the type of the value
+     */
+    public void addType(final DataType dataType) {
+        scalarType = widen(scalarType, dataType);
+    }
+
+    /**
+     * Records that a Record was seen for this field. The fields of that Record must then be added to the returned inference.
+     *
+     * @return the inference for the Records that are values of this field
+     */
+    public RecordSchemaInference addRecord() {
+        if (recordInference == null) {
+            recordInference = new RecordSchemaInference();
+        }
+        return recordInference;
+    }
+
+    /**
+     * Records that an array was seen for this field. Each element of the array must then be added to the returned inference.
+     *
+     * @return the inference for the elements of the arrays that are values of this field
+     */
+    public FieldTypeInference addArray() {
+        if (elementInference == null) {
+            elementInference = new FieldTypeInference();
+        }
+        return elementInference;
+    }
+
+    /**
+     * @return the type that is able to hold every value that was seen for this field. If only null values were seen, the type is STRING.
+     */
+    public DataType toDataType() {
+        final List<DataType> possibleTypes = new ArrayList<>();
+        if (scalarType != null) {
+            possibleTypes.addAll(getPossibleTypes(scalarType));
+        }
+        if (recordInference != null) {
+            possibleTypes.add(RecordFieldType.RECORD.getRecordDataType(recordInference.toSchema()));
+        }
+        if (elementInference != null) {
+            possibleTypes.add(RecordFieldType.ARRAY.getArrayDataType(elementInference.toDataType()));
+        }
+
+        if (possibleTypes.isEmpty()) {
+            return RecordFieldType.STRING.getDataType();
+        }
+        if (possibleTypes.size() == 1) {
+            return possibleTypes.get(0);
+        }
+        return RecordFieldType.CHOICE.getChoiceDataType(possibleTypes);
+    }
+
+    /**
+     * Returns a type that is able to hold values of both of the given types
+     *
+     * @param current the type that has been inferred so far, or <code>null</code> if no type has been inferred
+     * @param dataType the type to add
+     * @return the widened type
+     */
+    public static DataType widen(final DataType current, final DataType dataType) {
+        if (current == null) {
+            return dataType;
+        }
+        if (dataType == null || current.equals(dataType)) {
+            return current;
+        }
+
+        final List<DataType> possibleTypes = new ArrayList<>(getPossibleTypes(current));
+        for (final DataType toAdd : getPossibleTypes(dataType)) {
+            boolean merged = false;
+            for (int i = 0; i < possibleTypes.size(); i++) {
+                final DataType widened = widenNumeric(possibleTypes.get(i), toAdd);
+                if (widened != null) {
+                    possibleTypes.set(i, widened);
+                    merged = true;
+                    break;
+                }
+            }
+
+            if (!merged) {
+                possibleTypes.add(toAdd);
+            }
+        }
+
+        if (possibleTypes.size() == 1) {
+            return possibleTypes.get(0);
+        }
+        return RecordFieldType.CHOICE.getChoiceDataType(possibleTypes);
+    }
+
+    private static DataType widenNumeric(final DataType first, final DataType second) {
+        if (first.equals(second)) {
+            return first;
+        }
+
+        final int firstIndex = NUMERIC_TYPES.indexOf(first.getFieldType());
+        final int secondIndex = NUMERIC_TYPES.indexOf(second.getFieldType());
+        if (firstIndex < 0 || secondIndex < 0) {
+            return null;
+        }
+
+        final RecordFieldType widest = NUMERIC_TYPES.get(Math.max(firstIndex, secondIndex));
+        if (widest == RecordFieldType.FLOAT || widest == RecordFieldType.DOUBLE) {
+            // A FLOAT cannot hold every LONG or BIGINT, so mixing floating-point and integral values always results in a DOUBLE
+            final boolean bothFloat = first.getFieldType() == RecordFieldType.FLOAT && second.getFieldType() == RecordFieldType.FLOAT;
+            return bothFloat ? RecordFieldType.FLOAT.getDataType() : RecordFieldType.DOUBLE.getDataType();
+        }
+
+        return widest.getDataType();
+    }
+
+    private static List<DataType> getPossibleTypes(final DataType dataType) {
+        if (dataType instanceof ChoiceDataType) {
+            return ((ChoiceDataType) dataType).getPossibleSubTypes();
+        }
+        return Arrays.asList(dataType);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.inference;
+
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.components.PropertyValue;
+import org.apache.nifi.schema.access.SchemaAccessStrategy;
+import org.apache.nifi.schema.access.SchemaField;
+import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.stream.io.LimitingInputStream;
+
+/**
+ * A SchemaAccessStrategy that infers the schema by reading a sample of the records in the content. If a Cache Key is configured, the
+ * schema that is inferred is cached under the value of that key for the FlowFile, so that the schema of subsequent FlowFiles with the
+ * same key is obtained without reading their content at all.
+ */
+public class InferSchemaAccessStrategy implements SchemaAccessStrategy {
+    private static final Set<SchemaField> schemaFields = EnumSet.noneOf(SchemaField.class);
+
+    private final SchemaInferenceEngine inferenceEngine;
+    private final PropertyValue cacheKey;
+    private final int maxRecords;
+    private final Map<String, RecordSchema> cache;
+
+    /**
+     * @param inferenceEngine the engine used to infer a schema from the content, or <code>null</code> if the strategy is used only for validation
+     * @param cacheKey the value of the Cache Key property, which is evaluated against the FlowFile's attributes, or <code>null</code> if schemas should not be cached
+     * @param cacheSize the maximum number of inferred schemas to cache
+     * @param maxRecords the maximum number of records to read when inferring a schema
+     */
+    public InferSchemaAccessStrategy(final SchemaInferenceEngine inferenceEngine, final PropertyValue cacheKey, final int cacheSize, final int maxRecords) {
+        this.inferenceEngine = inferenceEngine;
+        this.cacheKey = cacheKey == null || !cacheKey.isSet() ? null : cacheKey;
+        this.maxRecords = maxRecords;
+        this.cache = new LinkedHashMap<String, RecordSchema>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, RecordSchema> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public RecordSchema getSchema(final Map<String, String> variables, final InputStream contentStream, final RecordSchema readSchema) throws SchemaNotFoundException {
+        if (inferenceEngine == null) {
+            throw new SchemaNotFoundException("Schema Access Strategy intended only for validation purposes and cannot obtain schema");
+        }
+
+        final String key = cacheKey == null ? null : cacheKey.evaluateAttributeExpressions(variables).getValue();
+        if (key != null && !key.isEmpty()) {
+            synchronized (cache) {
+                final RecordSchema cached = cache.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+
+        final RecordSchemaInference inference = new RecordSchemaInference();
+        final boolean truncated;
+        try {
+            final LimitingInputStream limitedIn = new LimitingInputStream(contentStream, SchemaInferenceUtil.MAX_INFERENCE_BYTES);
+            inferenceEngine.inferSchema(limitedIn, maxRecords, inference);
+            truncated = limitedIn.hasReachedLimit();
+        } catch (final Exception e) {
+            throw new SchemaNotFoundException("Failed to infer schema from content", e);
+        }
+
+        // Content with no records at all results in an empty schema, but a first record that is too large to buffer cannot be inferred
+        if (inference.getRecordCount() == 0 && truncated) {
+            throw new SchemaNotFoundException("Cannot infer schema because no complete record was found in the first "
+                + SchemaInferenceUtil.MAX_INFERENCE_BYTES + " bytes of the content");
+        }
+
+        final RecordSchema schema = inference.toSchema();
+        if (key != null && !key.isEmpty() && inference.getRecordCount() > 0) {
+            synchronized (cache) {
+                cache.put(key, schema);
+            }
+        }
+
+        return schema;
+    }
+
+    @Override
+    public Set<SchemaField> getSuppliedSchemaFields() {
+        return schemaFields;
+    }
+}
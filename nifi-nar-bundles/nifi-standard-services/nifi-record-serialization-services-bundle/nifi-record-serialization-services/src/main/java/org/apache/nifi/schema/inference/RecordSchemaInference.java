@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.inference;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordSchema;
+
+/**
+ * Accumulates the fields of a sample of records, in the order in which they are first seen. Every field is nullable in the resulting
+ * schema: a sample cannot show that a field always has a value, and the schema may be cached and used for data beyond the sample.
+ */
+public class RecordSchemaInference {
+    private final Map<String, FieldTypeInference> fields = new LinkedHashMap<>();
+    private int recordCount;
+
+    /**
+     * Indicates that the fields of another record are about to be added
+     */
+    public void addRecord() {
+        recordCount++;
+    }
+
+    /**
+     * @param fieldName the name of a field of the current record
+     * @return the inference to which the value of that field should be added
+     */
+    public FieldTypeInference getField(final String fieldName) {
+        return fields.computeIfAbsent(fieldName, name -> new FieldTypeInference());
+    }
+
+    /**
+     * @return the number of records that have been added
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public RecordSchema toSchema() {
+        final List<RecordField> recordFields = new ArrayList<>(fields.size());
+        for (final Map.Entry<String, FieldTypeInference> entry : fields.entrySet()) {
+            recordFields.add(new RecordField(entry.getKey(), entry.getValue().toDataType(), true));
+        }
+
+        return new SimpleRecordSchema(recordFields);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.inference;
+
+import java.io.IOException;
+
+import org.apache.nifi.stream.io.LimitingInputStream;
+
+/**
+ * Infers the schema of data in a particular format by reading a sample of its records.
+ */
+public interface SchemaInferenceEngine {
+
+    /**
+     * Reads up to the given number of records from the given stream, in a single pass, and accumulates their fields into the given inference.
+     * The stream is limited to the number of bytes that may be buffered for inference, so if the limit has been reached, the last record may
+     * be incomplete; such a record must not be added to the inference.
+     *
+     * @param in the stream to read records from
+     * @param maxRecords the maximum number of records to read
+     * @param inference the inference to add the fields of each record to
+     * @throws IOException if the data cannot be read or parsed
+     */
+    void inferSchema(LimitingInputStream in, int maxRecords, RecordSchemaInference inference) throws IOException;
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.inference;
+
+import org.apache.nifi.components.AllowableValue;
+import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.controller.ConfigurationContext;
+import org.apache.nifi.expression.ExpressionLanguageScope;
+import org.apache.nifi.processor.util.StandardValidators;
+
+public class SchemaInferenceUtil {
+
+    /**
+     * The maximum number of bytes of content that are read in order to infer a schema. Readers must be able to reset their
+     * input to the start of the content after this many bytes have been read.
+     */
+    public static final int MAX_INFERENCE_BYTES = 1024 * 1024;
+
+    public static final AllowableValue INFER_SCHEMA = new AllowableValue("infer-schema", "Infer Schema",
+        "The schema is inferred from the data itself, by reading a sample of the records at the start of the content in a single pass and determining "
+            + "the type of each field that is found. If a field has values of types that cannot be widened into a single type, the field becomes a "
+            + "Choice of those types.");
+
+    public static final PropertyDescriptor SCHEMA_INFERENCE_CACHE_KEY = new PropertyDescriptor.Builder()
+        .name("schema-inference-cache-key")
+        .displayName("Schema Inference Cache Key")
+        .description("Only used when the Schema Access Strategy is '" + INFER_SCHEMA.getDisplayName() + "'. The value of this property is evaluated "
+            + "against the FlowFile's attributes, and the schema that is inferred for the FlowFile is cached under the resulting key. Subsequent FlowFiles "
+            + "with the same key use the cached schema without inferring it from their content. If not set, or if it evaluates to an empty value, "
+            + "the schema is inferred for every FlowFile.")
+        .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+        .expressionLanguageSupported(ExpressionLanguageScope.FLOWFILE_ATTRIBUTES)
+        .required(false)
+        .build();
+
+    public static final PropertyDescriptor SCHEMA_INFERENCE_CACHE_SIZE = new PropertyDescriptor.Builder()
+        .name("schema-inference-cache-size")
+        .displayName("Schema Inference Cache Size")
+        .description("Only used when the Schema Access Strategy is '" + INFER_SCHEMA.getDisplayName() + "' and a Schema Inference Cache Key is set. "
+            + "Specifies the maximum number of inferred schemas to cache. When the cache is full, the least recently used schema is evicted.")
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .defaultValue("100")
+        .required(true)
+        .build();
+
+    public static final PropertyDescriptor SCHEMA_INFERENCE_MAX_RECORDS = new PropertyDescriptor.Builder()
+        .name("schema-inference-max-records")
+        .displayName("Schema Inference Sample Size")
+        .description("Only used when the Schema Access Strategy is '" + INFER_SCHEMA.getDisplayName() + "'. Specifies the maximum number of records "
+            + "to read in order to infer the schema. Regardless of this value, no more than " + MAX_INFERENCE_BYTES + " bytes of content are read. "
+            + "Fields that first appear after the records that are read are not part of the schema.")
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .defaultValue("1000")
+        .required(true)
+        .build();
+
+    /**
+     * Creates an InferSchemaAccessStrategy that is configured by the Schema Inference properties of the given context
+     *
+     * @param inferenceEngine the engine used to infer a schema from the content
+     * @param context the context of the Record Reader
+     * @return the strategy
+     */
+    public static InferSchemaAccessStrategy createAccessStrategy(final SchemaInferenceEngine inferenceEngine, final ConfigurationContext context) {
+        return new InferSchemaAccessStrategy(inferenceEngine,
+            context.getProperty(SCHEMA_INFERENCE_CACHE_KEY),
+            context.getProperty(SCHEMA_INFERENCE_CACHE_SIZE).asInteger(),
+            context.getProperty(SCHEMA_INFERENCE_MAX_RECORDS).asInteger());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.inference;
+
+import java.math.BigInteger;
+import java.text.DateFormat;
+import java.text.ParsePosition;
+
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+
+/**
+ * Determines the type of a value that is given as text. Dates, times and timestamps are recognized only if the corresponding
+ * format has been configured, and only if the entire value matches that format. This class is not thread-safe, as the
+ * DateFormats that it uses are not.
+ */
+public class TextTypeInference {
+    private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final DateFormat dateFormat;
+    private final DateFormat timeFormat;
+    private final DateFormat timestampFormat;
+
+    public TextTypeInference(final String dateFormat, final String timeFormat, final String timestampFormat) {
+        this.dateFormat = createDateFormat(dateFormat);
+        this.timeFormat = createDateFormat(timeFormat);
+        this.timestampFormat = createDateFormat(timestampFormat);
+    }
+
+    private static DateFormat createDateFormat(final String format) {
+        final DateFormat dateFormat = DataTypeUtils.getDateFormat(format);
+        if (dateFormat != null) {
+            dateFormat.setLenient(false);
+        }
+        return dateFormat;
+    }
+
+    /**
+     * @param value the text
+     * @param inferNumbers whether or not text that holds a number or boolean should be given a numeric or boolean type, rather than STRING
+     * @return the type of the given text
+     */
+    public DataType inferType(final String value, final boolean inferNumbers) {
+        if (inferNumbers) {
+            final DataType numericType = inferNumericType(value);
+            if (numericType != null) {
+                return numericType;
+            }
+
+            if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+                return RecordFieldType.BOOLEAN.getDataType();
+            }
+        }
+
+        if (matches(timestampFormat, value)) {
+            return RecordFieldType.TIMESTAMP.getDataType();
+        }
+        if (matches(dateFormat, value)) {
+            return RecordFieldType.DATE.getDataType();
+        }
+        if (matches(timeFormat, value)) {
+            return RecordFieldType.TIME.getDataType();
+        }
+
+        return RecordFieldType.STRING.getDataType();
+    }
+
+    private static DataType inferNumericType(final String value) {
+        if (value.isEmpty() || !isNumericStart(value.charAt(0))) {
+            return null;
+        }
+
+        if (isIntegral(value)) {
+            // Values with leading zeroes, such as zip codes or identifiers, are not numbers
+            final String digits = value.charAt(0) == '-' || value.charAt(0) == '+' ? value.substring(1) : value;
+            if (digits.length() > 1 && digits.charAt(0) == '0') {
+                return null;
+            }
+
+            final BigInteger bigInteger = new BigInteger(value);
+            if (bigInteger.bitLength() < 32) {
+                return RecordFieldType.INT.getDataType();
+            }
+            if (bigInteger.compareTo(MIN_LONG) >= 0 && bigInteger.compareTo(MAX_LONG) <= 0) {
+                return RecordFieldType.LONG.getDataType();
+            }
+            return RecordFieldType.BIGINT.getDataType();
+        }
+
+        try {
+            final double doubleValue = Double.parseDouble(value);
+            if (Double.isInfinite(doubleValue)) {
+                return null;
+            }
+            return RecordFieldType.DOUBLE.getDataType();
+        } catch (final NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    private static boolean isNumericStart(final char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+    }
+
+    private static boolean isIntegral(final String value) {
+        final int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (start == value.length()) {
+            return false;
+        }
+
+        for (int i = start; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(final DateFormat format, final String value) {
+        if (format == null) {
+            return false;
+        }
+
+        final ParsePosition position = new ParsePosition(0);
+        return format.parse(value, position) != null && position.getIndex() == value.length();
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.nifi.avro;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import java.io.ByteArrayInputStream;
@@ -35,18 +36,24 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.Schema.Type;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
@@ -333,6 +340,113 @@ public class TestAvroReaderWithEmbeddedSchema {
         }
     }
 
+    @Test
+    public void testRequiredFieldNames() throws IOException, MalformedRecordException, SchemaNotFoundException {
+        final Schema schema = SchemaBuilder.record("Person").fields()
+            .requiredInt("id")
+            .requiredString("name")
+            .name("numbers").type().array().items().intType().noDefault()
+            .optionalDouble("balance")
+            .endRecord();
+
+        final List<GenericRecord> records = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            final GenericRecord record = new GenericData.Record(schema);
+            record.put("id", i);
+            record.put("name", "name-" + i);
+            record.put("numbers", Arrays.asList(i, i + 1));
+            record.put("balance", i * 10D);
+            records.add(record);
+        }
+
+        // Write the records both with the schema embedded and without any schema
+        final ByteArrayOutputStream embeddedOut = new ByteArrayOutputStream();
+        final ByteArrayOutputStream rawOut = new ByteArrayOutputStream();
+        final DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+        final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(rawOut, null);
+        try (final DataFileWriter<GenericRecord> writer = new DataFileWriter<>(datumWriter).create(schema, embeddedOut)) {
+            for (final GenericRecord record : records) {
+                writer.append(record);
+                datumWriter.write(record, encoder);
+            }
+        }
+        encoder.flush();
+
+        final Set<String> requiredFieldNames = new HashSet<>(Arrays.asList("name", "balance"));
+
+        try (final InputStream in = new ByteArrayInputStream(embeddedOut.toByteArray());
+             final AvroRecordReader reader = new AvroReaderWithEmbeddedSchema(in, requiredFieldNames)) {
+            assertEquals(4, reader.getSchema().getFieldCount());
+            assertProjected(reader.nextRecord(), "name-0", 0D);
+            assertProjected(reader.nextRecord(), "name-1", 10D);
+            assertNull(reader.nextRecord());
+        }
+
+        try (final InputStream in = new ByteArrayInputStream(rawOut.toByteArray());
+             final AvroRecordReader reader = new AvroReaderWithExplicitSchema(in, AvroTypeUtil.createSchema(schema), schema, requiredFieldNames)) {
+            assertProjected(reader.nextRecord(), "name-0", 0D);
+            assertProjected(reader.nextRecord(), "name-1", 10D);
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testUnmodifiedRecordsWrittenAsRead() throws IOException, MalformedRecordException {
+        final Schema schema = SchemaBuilder.record("Person").fields()
+            .requiredInt("id")
+            .requiredString("name")
+            .endRecord();
+
+        // Use a small sync interval so that the records are spread over several blocks
+        final ByteArrayOutputStream embeddedOut = new ByteArrayOutputStream();
+        try (final DataFileWriter<GenericRecord> writer = new DataFileWriter<GenericRecord>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(32);
+            writer.create(schema, embeddedOut);
+            for (int i = 0; i < 10; i++) {
+                final GenericRecord record = new GenericData.Record(schema);
+                record.put("id", i);
+                record.put("name", "name-" + i);
+                writer.append(record);
+            }
+        }
+
+        final String mimeType = AvroTypeUtil.getEncodedRecordMimeType(schema);
+        final ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        try (final InputStream in = new ByteArrayInputStream(embeddedOut.toByteArray());
+             final AvroRecordReader reader = new AvroReaderWithEmbeddedSchema(in);
+             final WriteAvroResultWithSchema writer = new WriteAvroResultWithSchema(schema, rewritten, CodecFactory.nullCodec())) {
+
+            Record record;
+            while ((record = reader.nextRecord()) != null) {
+                assertNotNull(AvroTypeUtil.getEncodedRecord(record, mimeType));
+                if (record.getValue("id").equals(5)) {
+                    record.setValue("name", "changed");
+                    assertNull(AvroTypeUtil.getEncodedRecord(record, mimeType));
+                }
+                writer.write(record);
+            }
+        }
+
+        try (final InputStream in = new ByteArrayInputStream(rewritten.toByteArray());
+             final AvroRecordReader reader = new AvroReaderWithEmbeddedSchema(in)) {
+            for (int i = 0; i < 10; i++) {
+                final Record record = reader.nextRecord();
+                assertEquals(i, record.getValue("id"));
+                assertEquals(i == 5 ? "changed" : "name-" + i, record.getValue("name"));
+            }
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    private void assertProjected(final Record record, final String name, final double balance) {
+        assertEquals(name, record.getValue("name"));
+        assertEquals(balance, record.getValue("balance"));
+
+        // Fields that are not required are not read, so they take on their default values
+        assertNull(record.getValue("id"));
+        assertArrayEquals(new Object[0], (Object[]) record.getValue("numbers"));
+    }
+
     private Object[] toObjectArray(final byte[] bytes) {
         final Object[] array = new Object[bytes.length];
         for (int i = 0; i < bytes.length; i++) {
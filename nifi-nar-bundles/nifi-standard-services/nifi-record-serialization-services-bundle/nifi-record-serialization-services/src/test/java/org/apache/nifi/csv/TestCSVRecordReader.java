@@ -21,9 +21,11 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.SchemaValidationException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -44,7 +46,9 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -593,4 +597,99 @@ public class TestCSVRecordReader {
             assertNull(reader.nextRecord());
         }
     }
+
+    @Test
+    public void testRequiredFieldNames() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.replaceAll(f -> f.getFieldName().equals("balance") ? new RecordField("balance", doubleDataType) : f);
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String headerLine = "id, name, balance, address, city, state, zipCode, country";
+        final String inputRecord1 = "1, John, 40.80, 123 My Street, My City, MS, 11111, USA";
+        final String inputRecord2 = "2, Jane, 4820.09, 321 Your Street, Your City, NY, 33333";
+        final String csvData = headerLine + "\n" + inputRecord1 + "\n" + inputRecord2;
+
+        try (final InputStream bais = new ByteArrayInputStream(csvData.getBytes());
+            final CSVRecordReader reader = new CSVRecordReader(bais, Mockito.mock(ComponentLog.class), schema, format, true, false,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), "ASCII",
+                new HashSet<>(Arrays.asList("name", "balance")))) {
+
+            assertEquals(schema, reader.getSchema());
+
+            final Record first = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {null, "John", 40.80D, null, null, null, null, null}, first.getValues());
+
+            // The second line is missing a column, so its values are resolved by name
+            final Record second = reader.nextRecord();
+            assertEquals("Jane", second.getValue("name"));
+            assertEquals(4820.09D, second.getValue("balance"));
+            assertNull(second.getValue("city"));
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testRequiredFieldNamesWithNonNullableFields() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType(), false));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType(), false));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String csvData = "id,name\n1,John\n2,Jane\n3,";
+
+        try (final InputStream bais = new ByteArrayInputStream(csvData.getBytes());
+            final CSVRecordReader reader = new CSVRecordReader(bais, Mockito.mock(ComponentLog.class), schema, format, true, false,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), "ASCII",
+                new HashSet<>(Arrays.asList("name")))) {
+
+            // The id field cannot be null, but it was not required, so it is left without a value
+            final Record first = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {null, "John"}, first.getValues());
+
+            final RecordBatch batch = reader.nextBatch(1);
+            assertEquals(1, batch.size());
+            Assert.assertArrayEquals(new Object[] {null, "Jane"}, batch.getRecord(0).getValues());
+
+            // The name field was required, so it still cannot be null
+            try {
+                reader.nextRecord();
+                Assert.fail("Expected a SchemaValidationException for the missing name");
+            } catch (final SchemaValidationException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testNextBatch() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.replaceAll(f -> f.getFieldName().equals("balance") ? new RecordField("balance", doubleDataType) : f);
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String headerLine = "id, name, balance, address, city, state, zipCode, country";
+        final String inputRecord1 = "1, John, 40.80, 123 My Street, My City, MS, 11111, USA";
+        final String inputRecord2 = "2, Jane, 4820.09, 321 Your Street, Your City, NY, 33333";
+        final String inputRecord3 = "3, Jake, 10, 11 Their Street, Their City, CA, 22222, USA";
+        final String csvData = headerLine + "\n" + inputRecord1 + "\n" + inputRecord2 + "\n" + inputRecord3;
+
+        try (final InputStream bais = new ByteArrayInputStream(csvData.getBytes());
+            final CSVRecordReader reader = createReader(bais, schema, format)) {
+
+            final RecordBatch firstBatch = reader.nextBatch(2);
+            assertEquals(2, firstBatch.size());
+            Assert.assertArrayEquals(new Object[] {"1", "John", 40.80D, "123 My Street", "My City", "MS", "11111", "USA"}, firstBatch.getRecord(0).getValues());
+
+            // The second line is missing a column, so its values are resolved by name
+            Assert.assertArrayEquals(new Object[] {"2", "Jane", 4820.09D, "321 Your Street", "Your City", "NY", "33333", null}, firstBatch.getRecord(1).getValues());
+            Assert.assertArrayEquals(new Object[] {40.80D, 4820.09D}, Arrays.copyOf(firstBatch.getColumn("balance"), 2));
+
+            final RecordBatch secondBatch = reader.nextBatch(2);
+            assertEquals(1, secondBatch.size());
+            assertEquals(10D, secondBatch.getValue(0, 2));
+
+            assertNull(reader.nextBatch(2));
+        }
+    }
 }
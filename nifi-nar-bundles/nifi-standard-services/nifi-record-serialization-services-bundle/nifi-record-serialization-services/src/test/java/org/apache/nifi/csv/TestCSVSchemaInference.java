@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.csv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.schema.inference.RecordSchemaInference;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.stream.io.LimitingInputStream;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestCSVSchemaInference {
+
+    private RecordSchemaInference infer(final String csv, final long limit, final int maxRecords) throws IOException {
+        final RecordSchemaInference inference = new RecordSchemaInference();
+        final CSVSchemaInference csvInference = new CSVSchemaInference(CSVFormat.DEFAULT, "UTF-8", "MM/dd/yyyy", "HH:mm:ss", "MM/dd/yyyy HH:mm:ss");
+        csvInference.inferSchema(new LimitingInputStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), limit), maxRecords, inference);
+        return inference;
+    }
+
+    @Test
+    public void testTypesInferredFromText() throws IOException {
+        final String csv = "id,name,balance,active,zip,big,joined,seen,updated\n"
+            + "1,John,40.80,true,01234,10000000000,01/01/2017,18:04:15,01/01/2017 18:04:15\n"
+            + "2,Jane,,false,12345,12,02/01/2017,,02/01/2017 18:04:15\n";
+        final RecordSchema schema = infer(csv, Long.MAX_VALUE, 1000).toSchema();
+
+        assertEquals(Arrays.asList("id", "name", "balance", "active", "zip", "big", "joined", "seen", "updated"), schema.getFieldNames());
+        assertEquals(RecordFieldType.INT.getDataType(), schema.getDataType("id").get());
+        assertEquals(RecordFieldType.STRING.getDataType(), schema.getDataType("name").get());
+        assertEquals(RecordFieldType.DOUBLE.getDataType(), schema.getDataType("balance").get());
+        assertEquals(RecordFieldType.BOOLEAN.getDataType(), schema.getDataType("active").get());
+        assertEquals(RecordFieldType.CHOICE.getChoiceDataType(RecordFieldType.STRING.getDataType(), RecordFieldType.INT.getDataType()), schema.getDataType("zip").get());
+        assertEquals(RecordFieldType.LONG.getDataType(), schema.getDataType("big").get());
+        assertEquals(RecordFieldType.DATE.getDataType(), schema.getDataType("joined").get());
+        assertEquals(RecordFieldType.TIME.getDataType(), schema.getDataType("seen").get());
+        assertEquals(RecordFieldType.TIMESTAMP.getDataType(), schema.getDataType("updated").get());
+
+        // Every row of the sample has an id, but that does not prove that all rows do
+        assertTrue(schema.getField("id").get().isNullable());
+        assertTrue(schema.getField("balance").get().isNullable());
+        assertTrue(schema.getField("seen").get().isNullable());
+    }
+
+    @Test
+    public void testHeaderOnly() throws IOException {
+        final RecordSchemaInference inference = infer("id,name\n", Long.MAX_VALUE, 1000);
+        assertEquals(0, inference.getRecordCount());
+
+        final RecordSchema schema = inference.toSchema();
+        assertEquals(Arrays.asList("id", "name"), schema.getFieldNames());
+        assertEquals(RecordFieldType.STRING.getDataType(), schema.getDataType("id").get());
+        assertTrue(schema.getField("id").get().isNullable());
+    }
+
+    @Test
+    public void testMaxRecords() throws IOException {
+        final RecordSchemaInference inference = infer("id\n1\n2\nthree\n", Long.MAX_VALUE, 2);
+        assertEquals(2, inference.getRecordCount());
+        assertEquals(RecordFieldType.INT.getDataType(), inference.toSchema().getDataType("id").get());
+    }
+
+    @Test
+    public void testIncompleteRecordIsIgnored() throws IOException {
+        final String csv = "id,balance\n1,1\n2,1.5";
+
+        // Cut the stream off partway through the last record, so that its balance appears to be 1
+        final RecordSchemaInference inference = infer(csv, csv.length() - 2, 1000);
+        assertEquals(1, inference.getRecordCount());
+        assertEquals(RecordFieldType.INT.getDataType(), inference.toSchema().getDataType("balance").get());
+    }
+
+    @Test
+    public void testLimitWithinQuotedValue() throws IOException {
+        final String csv = "id,comment\n1,\"one\"\n2,\"two\nlines\"\n";
+
+        // Cut the stream off within the quoted value that spans two lines, which the parser cannot finish
+        final RecordSchemaInference inference = infer(csv, csv.indexOf("lines"), 1000);
+        assertEquals(1, inference.getRecordCount());
+        assertEquals(Arrays.asList("id", "comment"), inference.toSchema().getFieldNames());
+        assertEquals(RecordFieldType.INT.getDataType(), inference.toSchema().getDataType("id").get());
+    }
+
+    @Test
+    public void testInferredSchemaAcceptsMissingValues() throws IOException, MalformedRecordException {
+        final RecordSchema schema = infer("id,name\n1,John\n2,Jane\n", Long.MAX_VALUE, 1000).toSchema();
+
+        // A later row, whether beyond the sample or in another FlowFile that uses the cached schema, may lack a value the sample always had
+        final String csv = "id,name\n,Jake\n";
+        try (final InputStream in = new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+            final CSVRecordReader reader = new CSVRecordReader(in, Mockito.mock(ComponentLog.class), schema, CSVFormat.DEFAULT, true, false,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), "UTF-8")) {
+
+            final Record record = reader.nextRecord();
+            assertNull(record.getValue("id"));
+            assertEquals("Jake", record.getValue("name"));
+        }
+    }
+}
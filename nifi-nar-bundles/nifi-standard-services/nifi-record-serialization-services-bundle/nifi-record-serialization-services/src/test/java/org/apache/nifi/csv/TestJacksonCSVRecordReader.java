@@ -21,6 +21,7 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.SchemaValidationException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.Record;
@@ -38,7 +39,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -391,4 +394,31 @@ public class TestJacksonCSVRecordReader {
             assertNull(reader.nextRecord());
         }
     }
+
+    @Test
+    public void testRequiredFieldNamesWithNonNullableFields() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType(), false));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType(), false));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String csvData = "id,name\n1,John\n2,";
+
+        try (final InputStream bais = new ByteArrayInputStream(csvData.getBytes());
+            final JacksonCSVRecordReader reader = new JacksonCSVRecordReader(bais, Mockito.mock(ComponentLog.class), schema, format, true, false,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), "ASCII",
+                new HashSet<>(Arrays.asList("name")))) {
+
+            // The id field cannot be null, but it was not required, so it is left without a value
+            final Record first = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {null, "John"}, first.getValues());
+
+            // The name field was required, so it still cannot be null
+            try {
+                reader.nextRecord();
+                Assert.fail("Expected a SchemaValidationException for the missing name");
+            } catch (final SchemaValidationException expected) {
+            }
+        }
+    }
 }
@@ -29,6 +29,7 @@ import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -42,6 +43,7 @@ import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -182,6 +184,40 @@ public class TestWriteCSVResult {
         assertEquals("id,name\n1,John\n", output);
     }
 
+    @Test
+    public void testWriteBatch() throws IOException {
+        final CSVFormat csvFormat = CSVFormat.DEFAULT.withEscape('\\').withQuoteMode(QuoteMode.NONE).withRecordSeparator("\n");
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType(), "unknown"));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final Object[][] columns = new Object[][] {
+            {1, 2, 3},
+            {"John", null, "Jake"}
+        };
+
+        final Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", 4);
+        values.put("name", "Jill");
+        final Record record = new MapRecord(schema, values);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final String output;
+        try (final WriteCSVResult writer = new WriteCSVResult(csvFormat, schema, new SchemaNameAsAttribute(), baos,
+            RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), true, "ASCII")) {
+
+            writer.beginRecordSet();
+            assertEquals(3, writer.writeBatch(new RecordBatch(schema, columns, 3)).getRecordCount());
+            assertEquals(4, writer.writeBatch(RecordBatch.of(schema, Collections.singletonList(record))).getRecordCount());
+            assertEquals(4, writer.finishRecordSet().getRecordCount());
+            writer.flush();
+            output = baos.toString();
+        }
+
+        assertEquals("id,name\n1,John\n2,unknown\n3,Jake\n4,Jill\n", output);
+    }
+
     @Test
     public void testMissingFieldWriteRecord() throws IOException {
         final CSVFormat csvFormat = CSVFormat.DEFAULT.withEscape('\\').withQuoteMode(QuoteMode.NONE).withRecordSeparator("\n");
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.apache.nifi.schema.inference.RecordSchemaInference;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+import org.apache.nifi.serialization.record.type.RecordDataType;
+import org.apache.nifi.stream.io.LimitingInputStream;
+import org.junit.Test;
+
+public class TestJsonSchemaInference {
+
+    private RecordSchemaInference infer(final byte[] data, final long limit, final int maxRecords) throws IOException {
+        final RecordSchemaInference inference = new RecordSchemaInference();
+        new JsonSchemaInference("yyyy-MM-dd", null, null).inferSchema(new LimitingInputStream(new ByteArrayInputStream(data), limit), maxRecords, inference);
+        return inference;
+    }
+
+    private RecordSchema infer(final String json) throws IOException {
+        return infer(json.getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE, 1000).toSchema();
+    }
+
+    @Test
+    public void testNestedRecordsAndArrays() throws IOException {
+        final byte[] data = Files.readAllBytes(Paths.get("src/test/resources/json/single-element-nested-array.json"));
+        final RecordSchema schema = infer(data, Long.MAX_VALUE, 1000).toSchema();
+
+        assertEquals(Arrays.asList("id", "name", "address", "city", "state", "zipCode", "country", "accounts"), schema.getFieldNames());
+        assertEquals(RecordFieldType.INT.getDataType(), schema.getDataType("id").get());
+        assertEquals(RecordFieldType.STRING.getDataType(), schema.getDataType("zipCode").get());
+
+        final DataType elementType = ((ArrayDataType) schema.getDataType("accounts").get()).getElementType();
+        final RecordSchema accountSchema = ((RecordDataType) elementType).getChildSchema();
+        assertEquals(Arrays.asList("id", "balance"), accountSchema.getFieldNames());
+        assertEquals(RecordFieldType.INT.getDataType(), accountSchema.getDataType("id").get());
+        assertEquals(RecordFieldType.DOUBLE.getDataType(), accountSchema.getDataType("balance").get());
+    }
+
+    @Test
+    public void testTypesAreWidened() throws IOException {
+        final RecordSchema schema = infer("[{\"a\": 1, \"b\": 1, \"c\": 1, \"d\": \"2018-01-01\", \"e\": null},"
+            + " {\"a\": 10000000000, \"b\": 1.5, \"c\": \"x\", \"d\": \"2018-02-01\", \"e\": null, \"f\": [1, 2.5]}]");
+
+        assertEquals(RecordFieldType.LONG.getDataType(), schema.getDataType("a").get());
+        assertEquals(RecordFieldType.DOUBLE.getDataType(), schema.getDataType("b").get());
+        assertEquals(RecordFieldType.CHOICE.getChoiceDataType(RecordFieldType.INT.getDataType(), RecordFieldType.STRING.getDataType()), schema.getDataType("c").get());
+        assertEquals(RecordFieldType.DATE.getDataType(), schema.getDataType("d").get());
+        assertEquals(RecordFieldType.STRING.getDataType(), schema.getDataType("e").get());
+        assertEquals(RecordFieldType.ARRAY.getArrayDataType(RecordFieldType.DOUBLE.getDataType()), schema.getDataType("f").get());
+
+        assertTrue(schema.getField("a").get().isNullable());
+        assertTrue(schema.getField("e").get().isNullable());
+        assertTrue(schema.getField("f").get().isNullable());
+    }
+
+    @Test
+    public void testLineDelimitedObjectsAndMaxRecords() throws IOException {
+        final String json = "{\"id\": 1}\n{\"id\": 2, \"name\": \"Jane\"}\n{\"id\": 3, \"other\": true}\n";
+        final RecordSchemaInference inference = infer(json.getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE, 2);
+
+        assertEquals(2, inference.getRecordCount());
+        assertEquals(Arrays.asList("id", "name"), inference.toSchema().getFieldNames());
+    }
+
+    @Test
+    public void testIncompleteRecordIsIgnored() throws IOException {
+        final String json = "[{\"id\": 1, \"name\": \"John\"}, {\"id\": 2, \"name\": \"Jane\", \"balance\": 4.5}]";
+        final byte[] data = json.getBytes(StandardCharsets.UTF_8);
+
+        // Cut the stream off partway through the second record
+        final RecordSchemaInference inference = infer(data, json.indexOf("balance"), 1000);
+        assertEquals(1, inference.getRecordCount());
+        assertEquals(Arrays.asList("id", "name"), inference.toSchema().getFieldNames());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidJson() throws IOException {
+        infer("[{\"id\": 1}, {\"id\" 2}]");
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestJsonStreamingRecordReader {
+    private final String dateFormat = RecordFieldType.DATE.getDefaultFormat();
+    private final String timeFormat = RecordFieldType.TIME.getDefaultFormat();
+    private final String timestampFormat = RecordFieldType.TIMESTAMP.getDefaultFormat();
+
+    private List<RecordField> getDefaultFields() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("balance", RecordFieldType.DOUBLE.getDataType()));
+        fields.add(new RecordField("address", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("city", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("state", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("zipCode", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("country", RecordFieldType.STRING.getDataType()));
+        return fields;
+    }
+
+    private RecordSchema getAccountSchema() {
+        final List<RecordField> accountFields = new ArrayList<>();
+        accountFields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        accountFields.add(new RecordField("balance", RecordFieldType.DOUBLE.getDataType()));
+        return new SimpleRecordSchema(accountFields);
+    }
+
+    private JsonStreamingRecordReader createReader(final byte[] data, final RecordSchema schema) throws IOException, MalformedRecordException {
+        return new JsonStreamingRecordReader(new ByteArrayInputStream(data), Mockito.mock(ComponentLog.class), schema, dateFormat, timeFormat, timestampFormat);
+    }
+
+    /**
+     * Converts the given value into a structure of Maps and Lists so that Records read by different readers can be compared
+     */
+    private Object normalize(final Object value) {
+        if (value instanceof Record) {
+            final Record record = (Record) value;
+            final Map<String, Object> map = new HashMap<>();
+            for (final String fieldName : record.getRawFieldNames()) {
+                map.put(fieldName, normalize(record.getValue(fieldName)));
+            }
+            return map;
+        }
+
+        if (value instanceof Object[]) {
+            final List<Object> list = new ArrayList<>();
+            for (final Object element : (Object[]) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+
+        return value;
+    }
+
+    private List<Object> readAll(final RecordReader reader, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        final List<Object> records = new ArrayList<>();
+        Record record;
+        while ((record = reader.nextRecord(coerceTypes, dropUnknownFields)) != null) {
+            records.add(normalize(record));
+        }
+        return records;
+    }
+
+    private void assertSameAsTreeReader(final String filename, final RecordSchema schema) throws IOException, MalformedRecordException {
+        final byte[] data = Files.readAllBytes(Paths.get("src/test/resources/json", filename));
+
+        for (final boolean coerceTypes : new boolean[] {true, false}) {
+            for (final boolean dropUnknownFields : new boolean[] {true, false}) {
+                try (final InputStream in = new ByteArrayInputStream(data);
+                    final RecordReader treeReader = new JsonTreeRowRecordReader(in, Mockito.mock(ComponentLog.class), schema, dateFormat, timeFormat, timestampFormat);
+                    final RecordReader streamingReader = createReader(data, schema)) {
+
+                    assertEquals("Records differ for " + filename + " with coerceTypes=" + coerceTypes + ", dropUnknownFields=" + dropUnknownFields,
+                        readAll(treeReader, coerceTypes, dropUnknownFields), readAll(streamingReader, coerceTypes, dropUnknownFields));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameRecordsAsTreeReader() throws IOException, MalformedRecordException {
+        final RecordSchema defaultSchema = new SimpleRecordSchema(getDefaultFields());
+        assertSameAsTreeReader("bank-account-array.json", defaultSchema);
+        assertSameAsTreeReader("bank-account-array-different-schemas.json", defaultSchema);
+        assertSameAsTreeReader("bank-account-array-optional-balance.json", defaultSchema);
+        assertSameAsTreeReader("single-bank-account.json", defaultSchema);
+        assertSameAsTreeReader("json-with-unicode.json", defaultSchema);
+        assertSameAsTreeReader("primitive-type-array.json", defaultSchema);
+
+        final List<RecordField> nestedFields = getDefaultFields();
+        nestedFields.add(new RecordField("account", RecordFieldType.RECORD.getRecordDataType(getAccountSchema())));
+        assertSameAsTreeReader("single-element-nested.json", new SimpleRecordSchema(nestedFields));
+
+        final DataType accountsType = RecordFieldType.ARRAY.getArrayDataType(RecordFieldType.RECORD.getRecordDataType(getAccountSchema()));
+        final List<RecordField> nestedArrayFields = getDefaultFields();
+        nestedArrayFields.add(new RecordField("accounts", accountsType));
+        assertSameAsTreeReader("single-element-nested-array.json", new SimpleRecordSchema(nestedArrayFields));
+    }
+
+    @Test
+    public void testSkipsFieldsNotInSchema() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String json = "[{\"id\": 1, \"payload\": {\"a\": [1, 2, {\"b\": [[3], {}]}], \"c\": null}, \"name\": \"John\"},"
+            + " {\"tags\": [\"x\", \"y\"], \"name\": \"Jane\", \"id\": \"2\"}]";
+
+        try (final JsonStreamingRecordReader reader = createReader(json.getBytes(StandardCharsets.UTF_8), schema)) {
+            final Record first = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {1, "John"}, first.getValues());
+            assertEquals(new HashSet<>(Arrays.asList("id", "name")), first.getRawFieldNames());
+
+            final Record second = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {2, "Jane"}, second.getValues());
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testLineDelimitedObjects() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+        final String json = "{\"id\": 1, \"name\": \"John\"}\n{\"id\": 2, \"name\": \"Jane\"}\n\n{\"id\": 3, \"name\": \"Jake\", \"balance\": 4.5}\n";
+
+        try (final JsonStreamingRecordReader reader = createReader(json.getBytes(StandardCharsets.UTF_8), schema)) {
+            assertEquals("John", reader.nextRecord().getValue("name"));
+            assertEquals("Jane", reader.nextRecord().getValue("name"));
+
+            final Record third = reader.nextRecord();
+            assertEquals(3, third.getValue("id"));
+            assertEquals(4.5D, third.getValue("balance"));
+
+            assertNull(reader.nextRecord());
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testFieldAliases() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType(), null, new HashSet<>(Arrays.asList("identifier"))));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String json = "[{\"identifier\": 1}, {\"id\": 2, \"identifier\": 3}, {\"identifier\": 5, \"id\": 4}]";
+        try (final JsonStreamingRecordReader reader = createReader(json.getBytes(StandardCharsets.UTF_8), schema)) {
+            assertEquals(1, reader.nextRecord().getValue("id"));
+            assertEquals(2, reader.nextRecord().getValue("id"));
+            assertEquals(4, reader.nextRecord().getValue("id"));
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testRequiredFieldNames() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.add(new RecordField("account", RecordFieldType.RECORD.getRecordDataType(getAccountSchema())));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final byte[] data = Files.readAllBytes(Paths.get("src/test/resources/json/single-element-nested.json"));
+        final Set<String> requiredFieldNames = new HashSet<>(Arrays.asList("name", "account"));
+
+        for (final boolean streaming : new boolean[] {true, false}) {
+            for (final boolean dropUnknownFields : new boolean[] {true, false}) {
+                try (final InputStream in = new ByteArrayInputStream(data);
+                    final RecordReader reader = streaming
+                        ? new JsonStreamingRecordReader(in, Mockito.mock(ComponentLog.class), schema, dateFormat, timeFormat, timestampFormat, requiredFieldNames)
+                        : new JsonTreeRowRecordReader(in, Mockito.mock(ComponentLog.class), schema, dateFormat, timeFormat, timestampFormat, requiredFieldNames)) {
+
+                    final Record record = reader.nextRecord(true, dropUnknownFields);
+                    assertEquals(requiredFieldNames, record.getRawFieldNames());
+                    assertEquals("John Doe", record.getValue("name"));
+                    assertNull(record.getValue("id"));
+
+                    // Fields of nested records are not subject to the projection
+                    final Record account = (Record) record.getValue("account");
+                    assertEquals(42, account.getValue("id"));
+                    assertEquals(4750.89D, account.getValue("balance"));
+
+                    assertNull(reader.nextRecord());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncorrectSchema() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.add(new RecordField("account", RecordFieldType.RECORD.getRecordDataType(getAccountSchema())));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final byte[] data = Files.readAllBytes(Paths.get("src/test/resources/json/single-bank-account-wrong-field-type.json"));
+
+        try (final JsonStreamingRecordReader reader = createReader(data, schema)) {
+            reader.nextRecord();
+            Assert.fail("Was able to read record with invalid schema.");
+        } catch (final MalformedRecordException mre) {
+            final String msg = mre.getCause().getMessage();
+            assertTrue(msg.contains("account.balance"));
+            assertTrue(msg.contains("true"));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.nifi.json.JsonSchemaInference;
+import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.util.MockPropertyValue;
+import org.junit.Test;
+
+public class TestInferSchemaAccessStrategy {
+
+    private final AtomicInteger inferenceCount = new AtomicInteger(0);
+
+    private final SchemaInferenceEngine countingEngine = (in, maxRecords, inference) -> {
+        inferenceCount.incrementAndGet();
+        new JsonSchemaInference(null, null, null).inferSchema(in, maxRecords, inference);
+    };
+
+    private InputStream json(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSchemaCachedByKey() throws SchemaNotFoundException {
+        final InferSchemaAccessStrategy strategy = new InferSchemaAccessStrategy(countingEngine, new MockPropertyValue("${topic}"), 2, 1000);
+
+        final Map<String, String> first = Collections.singletonMap("topic", "first");
+        final RecordSchema schema = strategy.getSchema(first, json("{\"id\": 1}"), null);
+        assertEquals(RecordFieldType.INT.getDataType(), schema.getDataType("id").get());
+
+        // The content is not read when the schema is cached
+        assertSame(schema, strategy.getSchema(first, json("not json"), null));
+        assertEquals(1, inferenceCount.get());
+
+        final RecordSchema second = strategy.getSchema(Collections.singletonMap("topic", "second"), json("{\"name\": \"John\"}"), null);
+        assertEquals(RecordFieldType.STRING.getDataType(), second.getDataType("name").get());
+        assertEquals(2, inferenceCount.get());
+
+        // Evicting the least recently used schema leaves the first one in the cache
+        strategy.getSchema(first, json("not json"), null);
+        strategy.getSchema(Collections.singletonMap("topic", "third"), json("{\"other\": true}"), null);
+        assertSame(schema, strategy.getSchema(first, json("not json"), null));
+        assertNotSame(second, strategy.getSchema(Collections.singletonMap("topic", "second"), json("{\"name\": \"John\"}"), null));
+        assertEquals(4, inferenceCount.get());
+    }
+
+    @Test
+    public void testNotCachedWithoutKey() throws SchemaNotFoundException {
+        final InferSchemaAccessStrategy strategy = new InferSchemaAccessStrategy(countingEngine, new MockPropertyValue("${topic}"), 10, 1000);
+
+        strategy.getSchema(Collections.emptyMap(), json("{\"id\": 1}"), null);
+        final RecordSchema schema = strategy.getSchema(Collections.emptyMap(), json("{\"id\": \"one\"}"), null);
+        assertEquals(RecordFieldType.STRING.getDataType(), schema.getDataType("id").get());
+        assertEquals(2, inferenceCount.get());
+    }
+
+    @Test
+    public void testEmptyContent() throws SchemaNotFoundException {
+        final InferSchemaAccessStrategy strategy = new InferSchemaAccessStrategy(countingEngine, null, 10, 1000);
+        assertTrue(strategy.getSchema(Collections.emptyMap(), json(""), null).getFields().isEmpty());
+    }
+
+    @Test(expected = SchemaNotFoundException.class)
+    public void testRecordLargerThanLimit() throws SchemaNotFoundException {
+        final StringBuilder sb = new StringBuilder("{\"name\": \"");
+        while (sb.length() <= SchemaInferenceUtil.MAX_INFERENCE_BYTES) {
+            sb.append("abcdefghijklmnopqrstuvwxyz");
+        }
+        sb.append("\"}");
+
+        new InferSchemaAccessStrategy(countingEngine, null, 10, 1000).getSchema(Collections.emptyMap(), json(sb.toString()), null);
+    }
+
+    @Test(expected = SchemaNotFoundException.class)
+    public void testInvalidContent() throws SchemaNotFoundException {
+        new InferSchemaAccessStrategy(countingEngine, null, 10, 1000).getSchema(Collections.emptyMap(), json("{\"id\": }"), null);
+    }
+}